@@ -0,0 +1,88 @@
+package by.mosquitto.jmh;
+
+import by.mosquitto.dto.CommentDto;
+import by.mosquitto.dto.NewsDto;
+import by.mosquitto.entity.Comment;
+import by.mosquitto.entity.News;
+import by.mosquitto.entity.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.LongStream;
+
+/**
+ * Общие тестовые данные бенчмарков: сущности и DTO с реалистичными размерами полей.
+ */
+final class BenchmarkFixtures {
+
+    static final LocalDateTime NOW = LocalDateTime.of(2025, 8, 25, 12, 0);
+    static final String TITLE = "Новость дня: Spring Boot 3.5 released";
+    static final String TEXT = "Текст новости. Lorem ipsum dolor sit amet, consectetur adipiscing elit. ".repeat(20);
+    static final String COMMENT_TEXT = "Отличная статья, thanks for sharing! ".repeat(4);
+
+    private BenchmarkFixtures() {
+    }
+
+    static User user(long id) {
+        return User.builder()
+                .id(id)
+                .username("user" + id)
+                .password("pass123")
+                .name("Иван")
+                .surname("Petrov")
+                .parentName("Сергеевич")
+                .creationDate(NOW.minusDays(30))
+                .lastEditDate(NOW.minusDays(1))
+                .build();
+    }
+
+    static News news(long id) {
+        return News.builder()
+                .id(id)
+                .title(TITLE)
+                .text(TEXT)
+                .creationDate(NOW.minusHours(id))
+                .lastEditDate(NOW.minusMinutes(id))
+                .createdByUser(user(1))
+                .updatedByUser(user(2))
+                .build();
+    }
+
+    static Comment comment(long id) {
+        return Comment.builder()
+                .id(id)
+                .text(COMMENT_TEXT)
+                .creationDate(NOW.minusMinutes(id))
+                .lastEditDate(NOW.minusMinutes(id))
+                .createdByUser(user(3))
+                .news(news(1))
+                .build();
+    }
+
+    static List<NewsDto> newsDtos(int count) {
+        return LongStream.rangeClosed(1, count)
+                .mapToObj(id -> NewsDto.builder()
+                        .id(id)
+                        .title(TITLE)
+                        .text(TEXT)
+                        .creationDate(NOW.minusHours(id))
+                        .lastEditDate(NOW.minusMinutes(id))
+                        .insertedById(1L)
+                        .updatedById(2L)
+                        .build())
+                .toList();
+    }
+
+    static List<CommentDto> commentDtos(int count) {
+        return LongStream.rangeClosed(1, count)
+                .mapToObj(id -> CommentDto.builder()
+                        .id(id)
+                        .text(COMMENT_TEXT)
+                        .creationDate(NOW.minusMinutes(id))
+                        .lastEditDate(NOW.minusMinutes(id))
+                        .userId(3L)
+                        .newsId(1L)
+                        .build())
+                .toList();
+    }
+}
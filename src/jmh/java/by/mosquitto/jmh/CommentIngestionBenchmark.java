@@ -0,0 +1,89 @@
+package by.mosquitto.jmh;
+
+import by.mosquitto.SpringnewsApiApplication;
+import by.mosquitto.api.CommentController;
+import by.mosquitto.dto.CommentDto;
+import by.mosquitto.ingest.CommentIngestionQueue;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.ResponseEntity;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Создание комментариев через {@link CommentController} в синхронном режиме и через очередь
+ * {@link CommentIngestionQueue} ({@code app.comments.ingestion.mode=async}).
+ *
+ * Измеряется пропускная способность пути запроса из нескольких потоков. В асинхронном режиме после
+ * каждой итерации очередь дописывается до конца, а время дозаписи печатается: так видно, успевает ли
+ * писатель за приёмом или отставание копится в очереди.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class CommentIngestionBenchmark {
+
+    private static final int USERS = 100;
+    private static final int NEWS = 1_000;
+
+    @Param({"sync", "async"})
+    private String mode;
+
+    private ConfigurableApplicationContext context;
+    private CommentController commentController;
+    private CommentIngestionQueue ingestionQueue;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = SpringApplication.run(SpringnewsApiApplication.class,
+                "--spring.profiles.active=bench",
+                "--spring.datasource.url=jdbc:h2:mem:jmh-ingestion-" + mode
+                        + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1",
+                "--app.comments.ingestion.mode=" + mode,
+                "--app.comments.ingestion.queue-capacity=1000000",
+                "--app.bench.generator.users=" + USERS,
+                "--app.bench.generator.news=" + NEWS,
+                "--app.bench.generator.comments=0",
+                "--server.port=0",
+                "--logging.level.root=WARN");
+        commentController = context.getBean(CommentController.class);
+        ingestionQueue = context.getBean(CommentIngestionQueue.class);
+    }
+
+    @TearDown(Level.Iteration)
+    public void drain() throws InterruptedException {
+        long start = System.nanoTime();
+        while (ingestionQueue.getAccepted()
+                > ingestionQueue.getWritten() + ingestionQueue.getDropped() + ingestionQueue.getFailed()) {
+            Thread.sleep(1);
+        }
+        if (ingestionQueue.isAsync()) {
+            System.out.printf("%nQueue drained in %d ms%n", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (ingestionQueue.isAsync()) {
+            System.out.printf("%nAccepted: %d, written: %d, failed: %d, batches: %d%n", ingestionQueue.getAccepted(),
+                    ingestionQueue.getWritten(), ingestionQueue.getFailed(), ingestionQueue.getBatches());
+        }
+        context.close();
+    }
+
+    @Benchmark
+    public ResponseEntity<?> createComment() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return commentController.createComment(CommentDto.builder()
+                .text("Benchmark comment")
+                .newsId(random.nextLong(1, NEWS + 1))
+                .userId(random.nextLong(1, USERS + 1))
+                .build());
+    }
+}
@@ -0,0 +1,100 @@
+package by.mosquitto.jmh;
+
+import by.mosquitto.aop.LoggingAspect;
+import by.mosquitto.api.NewsController;
+import by.mosquitto.dto.NewsDto;
+import by.mosquitto.service.contract.NewsFeedService;
+import by.mosquitto.service.contract.NewsSearchService;
+import by.mosquitto.service.contract.NewsService;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.OutputStreamAppender;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.http.ResponseEntity;
+
+import java.io.OutputStream;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Накладные расходы {@link LoggingAspect} на вызов контроллера.
+ *
+ * Сравнивает прямой вызов {@link NewsController#get(Long)} с вызовом через AOP-прокси
+ * при разных уровнях логирования. Логи форматируются полноценным encoder'ом
+ * и пишутся в "пустой" поток, чтобы учесть стоимость форматирования без файлового I/O.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoggingAspectBenchmark {
+
+    @Param({"INFO", "WARN"})
+    private String level;
+
+    private NewsController direct;
+    private NewsController proxied;
+
+    @Setup
+    public void setup() {
+        configureLogging(Level.toLevel(level));
+
+        NewsDto news = BenchmarkFixtures.newsDtos(1).get(0);
+        NewsService newsService = (NewsService) Proxy.newProxyInstance(
+                NewsService.class.getClassLoader(),
+                new Class<?>[]{NewsService.class},
+                (proxy, method, args) -> method.getName().equals("getNewsById") ? news : null);
+
+        NewsSearchService newsSearchService = (NewsSearchService) Proxy.newProxyInstance(
+                NewsSearchService.class.getClassLoader(),
+                new Class<?>[]{NewsSearchService.class},
+                (proxy, method, args) -> null);
+
+        NewsFeedService newsFeedService = (NewsFeedService) Proxy.newProxyInstance(
+                NewsFeedService.class.getClassLoader(),
+                new Class<?>[]{NewsFeedService.class},
+                (proxy, method, args) -> null);
+
+        direct = new NewsController(newsService, newsSearchService, newsFeedService);
+        AspectJProxyFactory factory = new AspectJProxyFactory(new NewsController(newsService, newsSearchService, newsFeedService));
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new LoggingAspect());
+        proxied = factory.getProxy();
+    }
+
+    @Benchmark
+    public ResponseEntity<NewsDto> direct() {
+        return direct.get(1L);
+    }
+
+    @Benchmark
+    public ResponseEntity<NewsDto> withAspect() {
+        return proxied.get(1L);
+    }
+
+    private static void configureLogging(Level level) {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        Logger root = context.getLogger(Logger.ROOT_LOGGER_NAME);
+        root.detachAndStopAllAppenders();
+        root.setLevel(level);
+
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d{yyyy-MM-dd HH:mm:ss} [%thread] %-5level %logger{36} - %msg%n");
+        encoder.start();
+
+        OutputStreamAppender<ILoggingEvent> appender = new OutputStreamAppender<>();
+        appender.setContext(context);
+        appender.setEncoder(encoder);
+        appender.setOutputStream(OutputStream.nullOutputStream());
+        appender.start();
+        root.addAppender(appender);
+    }
+}
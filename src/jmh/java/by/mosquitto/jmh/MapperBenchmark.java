@@ -0,0 +1,59 @@
+package by.mosquitto.jmh;
+
+import by.mosquitto.dto.CommentDto;
+import by.mosquitto.dto.NewsDto;
+import by.mosquitto.dto.UserDto;
+import by.mosquitto.entity.Comment;
+import by.mosquitto.entity.News;
+import by.mosquitto.entity.User;
+import by.mosquitto.mapper.CommentMapper;
+import by.mosquitto.mapper.NewsMapper;
+import by.mosquitto.mapper.UserMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Стоимость преобразования сущностей в DTO и обратно.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    private News news;
+    private Comment comment;
+    private User user;
+    private UserDto userDto;
+
+    @Setup
+    public void setup() {
+        news = BenchmarkFixtures.news(1);
+        comment = BenchmarkFixtures.comment(1);
+        user = BenchmarkFixtures.user(1);
+        userDto = UserMapper.toDto(user);
+    }
+
+    @Benchmark
+    public NewsDto newsToDto() {
+        return NewsMapper.toDto(news);
+    }
+
+    @Benchmark
+    public CommentDto commentToDto() {
+        return CommentMapper.toDto(comment);
+    }
+
+    @Benchmark
+    public UserDto userToDto() {
+        return UserMapper.toDto(user);
+    }
+
+    @Benchmark
+    public User userToEntity() {
+        return UserMapper.toEntity(userDto);
+    }
+}
@@ -0,0 +1,93 @@
+package by.mosquitto.jmh;
+
+import by.mosquitto.SpringnewsApiApplication;
+import by.mosquitto.dto.NewsDto;
+import by.mosquitto.dto.NewsWithCommentsPagedDto;
+import by.mosquitto.service.contract.NewsSearchService;
+import by.mosquitto.service.contract.NewsService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Методы чтения {@link NewsService} и поиск {@link NewsSearchService} на встроенной H2 в режиме совместимости с PostgreSQL.
+ *
+ * Поднимает полный контекст приложения (JPA, AOP, кэши) в профиле {@code bench}
+ * на in-memory БД; данные создаёт {@code BenchDataGenerator} в уменьшенном объёме.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NewsServiceReadBenchmark {
+
+    private static final int USERS = 100;
+    private static final int NEWS = 5_000;
+    private static final int COMMENTS = 50_000;
+    private static final String[] SEARCH_QUERIES = {"погода выборы", "рынок рост", "open source", "latency"};
+    private static final Sort FEED_SORT = Sort.by("creationDate").descending();
+
+    private ConfigurableApplicationContext context;
+    private NewsService newsService;
+    private NewsSearchService newsSearchService;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = SpringApplication.run(SpringnewsApiApplication.class,
+                "--spring.profiles.active=bench",
+                "--spring.datasource.url=jdbc:h2:mem:jmh;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1",
+                "--app.bench.generator.users=" + USERS,
+                "--app.bench.generator.news=" + NEWS,
+                "--app.bench.generator.comments=" + COMMENTS,
+                "--server.port=0",
+                "--logging.level.root=WARN");
+        newsService = context.getBean(NewsService.class);
+        newsSearchService = context.getBean(NewsSearchService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public NewsDto getNewsById() {
+        return newsService.getNewsById(randomNewsId());
+    }
+
+    @Benchmark
+    public Page<NewsDto> getNewsPagedHot() {
+        return newsService.getNewsPaged(PageRequest.of(0, 10, FEED_SORT));
+    }
+
+    @Benchmark
+    public Page<NewsDto> getNewsPagedDeep() {
+        return newsService.getNewsPaged(PageRequest.of(ThreadLocalRandom.current().nextInt(50, 400), 10, FEED_SORT));
+    }
+
+    @Benchmark
+    public NewsWithCommentsPagedDto getNewsWithCommentsPaged() {
+        return newsService.getNewsWithCommentsPaged(randomNewsId(), PageRequest.of(0, 5, FEED_SORT));
+    }
+
+    /**
+     * Поиск через отсек: включает передачу задачи в поток отсека и обратно.
+     */
+    @Benchmark
+    public List<NewsDto> search() {
+        return newsSearchService.search(SEARCH_QUERIES[ThreadLocalRandom.current().nextInt(SEARCH_QUERIES.length)]).join();
+    }
+
+    private static long randomNewsId() {
+        return ThreadLocalRandom.current().nextLong(1, NEWS + 1);
+    }
+}
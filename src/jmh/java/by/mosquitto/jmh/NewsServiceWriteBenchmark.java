@@ -0,0 +1,101 @@
+package by.mosquitto.jmh;
+
+import by.mosquitto.SpringnewsApiApplication;
+import by.mosquitto.cache.UserEntityCache;
+import by.mosquitto.dto.CommentDto;
+import by.mosquitto.dto.NewsDto;
+import by.mosquitto.entity.User;
+import by.mosquitto.service.contract.CommentService;
+import by.mosquitto.service.contract.NewsService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Методы записи {@link NewsService} и {@link CommentService} со вторым уровнем кэша пользователей и без него.
+ *
+ * Каждая запись ссылается на автора, поэтому без кэша она читает пользователя из БД;
+ * с кэшем — из региона {@code users}. Доля попаданий печатается в конце прогона.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NewsServiceWriteBenchmark {
+
+    private static final int USERS = 100;
+    private static final int NEWS = 1_000;
+    private static final int COMMENTS = 5_000;
+
+    @Param({"true", "false"})
+    private boolean secondLevelCache;
+
+    private ConfigurableApplicationContext context;
+    private NewsService newsService;
+    private CommentService commentService;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = SpringApplication.run(SpringnewsApiApplication.class,
+                "--spring.profiles.active=bench",
+                "--spring.datasource.url=jdbc:h2:mem:jmh-write-" + secondLevelCache
+                        + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1",
+                "--spring.jpa.properties.hibernate.cache.use_second_level_cache=" + secondLevelCache,
+                "--app.bench.generator.users=" + USERS,
+                "--app.bench.generator.news=" + NEWS,
+                "--app.bench.generator.comments=" + COMMENTS,
+                "--server.port=0",
+                "--logging.level.root=WARN");
+        newsService = context.getBean(NewsService.class);
+        commentService = context.getBean(CommentService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (secondLevelCache) {
+            System.out.printf("%nUser cache hit ratio: %.3f%n",
+                    context.getBean(UserEntityCache.class).getHitRatio(User.CACHE_REGION));
+        }
+        context.close();
+    }
+
+    @Benchmark
+    public NewsDto createNews() {
+        return newsService.createNews(NewsDto.builder()
+                .title("Benchmark news")
+                .text("Benchmark text")
+                .insertedById(randomUserId())
+                .build());
+    }
+
+    @Benchmark
+    public NewsDto updateNews() {
+        return newsService.updateNews(randomNewsId(), NewsDto.builder()
+                .title("Benchmark update")
+                .text("Benchmark text")
+                .updatedById(randomUserId())
+                .build());
+    }
+
+    @Benchmark
+    public CommentDto createComment() {
+        return commentService.createComment(CommentDto.builder()
+                .text("Benchmark comment")
+                .newsId(randomNewsId())
+                .userId(randomUserId())
+                .build());
+    }
+
+    private static long randomUserId() {
+        return ThreadLocalRandom.current().nextLong(1, USERS + 1);
+    }
+
+    private static long randomNewsId() {
+        return ThreadLocalRandom.current().nextLong(1, NEWS + 1);
+    }
+}
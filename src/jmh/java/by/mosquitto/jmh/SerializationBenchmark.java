@@ -0,0 +1,75 @@
+package by.mosquitto.jmh;
+
+import by.mosquitto.dto.CommentDto;
+import by.mosquitto.dto.NewsDto;
+import by.mosquitto.dto.NewsWithCommentsPagedDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Стоимость Jackson-сериализации ответов API при разных размерах страницы.
+ *
+ * {@link ObjectMapper} настроен так же, как его настраивает Spring Boot по умолчанию
+ * (JavaTimeModule, даты в ISO-формате).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+    private NewsDto news;
+    private Page<NewsDto> newsPage;
+    private NewsWithCommentsPagedDto newsWithComments;
+
+    @Setup
+    public void setup() {
+        objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        PageRequest pageable = PageRequest.of(0, pageSize);
+        news = BenchmarkFixtures.newsDtos(1).get(0);
+        newsPage = new PageImpl<>(BenchmarkFixtures.newsDtos(pageSize), pageable, pageSize * 10L);
+        Page<CommentDto> comments = new PageImpl<>(BenchmarkFixtures.commentDtos(pageSize), pageable, pageSize * 10L);
+        newsWithComments = NewsWithCommentsPagedDto.builder()
+                .id(news.getId())
+                .title(news.getTitle())
+                .text(news.getText())
+                .creationDate(news.getCreationDate())
+                .lastEditDate(news.getLastEditDate())
+                .insertedById(news.getInsertedById())
+                .updatedById(news.getUpdatedById())
+                .comments(comments)
+                .build();
+    }
+
+    @Benchmark
+    public byte[] newsDto() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(news);
+    }
+
+    @Benchmark
+    public byte[] newsPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(newsPage);
+    }
+
+    @Benchmark
+    public byte[] newsWithCommentsPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(newsWithComments);
+    }
+}
@@ -0,0 +1,232 @@
+package by.mosquitto.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Отчёт нагрузочного прогона: таблица в консоль, JSON и HTML в каталог {@code --output},
+ * а также распределение задержек каждой ступени в формате {@code .hgrm}
+ * (строится HdrHistogram plotter).
+ *
+ * JSON-отчёт можно передать в {@code --baseline} следующего прогона: при ухудшении
+ * p99 или пропускной способности больше чем на {@code --max-regression} процентов
+ * прогон завершается с кодом 1.
+ */
+final class LoadReport {
+
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final LoadTestConfig config;
+    private final List<StageResult> stages;
+    private final LocalDateTime generatedAt = LocalDateTime.now();
+
+    LoadReport(LoadTestConfig config, List<StageResult> stages) {
+        this.config = config;
+        this.stages = stages;
+    }
+
+    void print() {
+        for (StageResult stage : stages) {
+            System.out.printf("%n=== %s @ %d rps ===%n", config.scenario().scenarioName(), stage.targetRate());
+            System.out.printf("%-42s %9s %9s %7s %9s %9s %9s %9s%n",
+                    "operation", "requests", "rps", "err%", "p50 ms", "p90 ms", "p99 ms", "max ms");
+            stage.operations().forEach((operation, stats) ->
+                    printRow(operation.label(), stats.requests(), stats.errors(), stats.latency(), stage));
+            printRow("TOTAL", stage.totalRequests(), stage.totalErrors(), stage.totalLatency(), stage);
+        }
+    }
+
+    void write() throws IOException {
+        Files.createDirectories(config.output());
+        String baseName = config.scenario().scenarioName() + "-" + generatedAt.format(FILE_TIMESTAMP);
+
+        Path json = config.output().resolve(baseName + ".json");
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(json.toFile(), toJson());
+        Files.writeString(config.output().resolve(baseName + ".html"), toHtml());
+        for (StageResult stage : stages) {
+            try (PrintStream out = new PrintStream(
+                    Files.newOutputStream(config.output().resolve(baseName + "-" + stage.targetRate() + "rps.hgrm")))) {
+                stage.totalLatency().outputPercentileDistribution(out, 1000.0);
+            }
+        }
+        System.out.printf("%nReports written to %s%n", json.toAbsolutePath().getParent());
+    }
+
+    /**
+     * Сравнивает прогон с сохранённым JSON-отчётом по ступеням с одинаковой интенсивностью.
+     *
+     * @param baseline путь к отчёту предыдущего прогона
+     * @return {@code true}, если регрессий сверх порога нет
+     */
+    boolean compareWith(Path baseline) throws IOException {
+        JsonNode previous = objectMapper.readTree(baseline.toFile());
+        boolean ok = true;
+        System.out.printf("%nComparison with %s (max regression %.1f%%)%n", baseline, config.maxRegression());
+        for (StageResult stage : stages) {
+            JsonNode before = findStage(previous, stage.targetRate());
+            if (before == null) {
+                System.out.printf("  %d rps: no baseline stage%n", stage.targetRate());
+                continue;
+            }
+            double throughput = stage.throughput(stage.totalRequests() - stage.totalErrors());
+            double throughputBefore = before.path("goodput").asDouble();
+            double p99 = stage.totalLatency().getValueAtPercentile(99) / 1000.0;
+            double p99Before = before.path("latencyMillis").path("p99").asDouble();
+
+            double throughputChange = percentChange(throughputBefore, throughput);
+            double p99Change = percentChange(p99Before, p99);
+            boolean regressed = throughputChange < -config.maxRegression() || p99Change > config.maxRegression();
+            ok &= !regressed;
+            System.out.printf("  %d rps: goodput %.1f -> %.1f (%+.1f%%), p99 %.2f -> %.2f ms (%+.1f%%)%s%n",
+                    stage.targetRate(), throughputBefore, throughput, throughputChange,
+                    p99Before, p99, p99Change, regressed ? "  REGRESSION" : "");
+        }
+        return ok;
+    }
+
+    private void printRow(String label, long requests, long errors, Histogram latency, StageResult stage) {
+        System.out.printf("%-42s %9d %9.1f %7.2f %9.2f %9.2f %9.2f %9.2f%n",
+                label, requests, stage.throughput(requests), errorRate(requests, errors),
+                latency.getValueAtPercentile(50) / 1000.0,
+                latency.getValueAtPercentile(90) / 1000.0,
+                latency.getValueAtPercentile(99) / 1000.0,
+                latency.getMaxValue() / 1000.0);
+    }
+
+    private Map<String, Object> toJson() {
+        Map<String, Object> root = new LinkedHashMap<>();
+        root.put("scenario", config.scenario().scenarioName());
+        root.put("baseUrl", config.baseUrl().toString());
+        root.put("arrival", config.arrival().name().toLowerCase());
+        root.put("warmupSeconds", config.warmup().toSeconds());
+        root.put("durationSeconds", config.duration().toSeconds());
+        root.put("generatedAt", generatedAt.toString());
+
+        List<Map<String, Object>> stageNodes = new ArrayList<>();
+        for (StageResult stage : stages) {
+            long requests = stage.totalRequests();
+            long errors = stage.totalErrors();
+            Map<String, Object> node = new LinkedHashMap<>();
+            node.put("targetRate", stage.targetRate());
+            node.put("requests", requests);
+            node.put("throughput", stage.throughput(requests));
+            node.put("goodput", stage.throughput(requests - errors));
+            node.put("errors", errors);
+            node.put("errorRate", errorRate(requests, errors));
+            node.put("latencyMillis", latency(stage.totalLatency()));
+
+            List<Map<String, Object>> operations = new ArrayList<>();
+            stage.operations().forEach((operation, stats) -> {
+                Map<String, Object> op = new LinkedHashMap<>();
+                op.put("operation", operation.name());
+                op.put("label", operation.label());
+                op.put("requests", stats.requests());
+                op.put("throughput", stage.throughput(stats.requests()));
+                op.put("errors", stats.errors());
+                op.put("failures", stats.failures());
+                op.put("dropped", stats.dropped());
+                op.put("errorRate", errorRate(stats.requests(), stats.errors()));
+                op.put("latencyMillis", latency(stats.latency()));
+                op.put("statuses", stats.statuses());
+                operations.add(op);
+            });
+            node.put("operations", operations);
+            stageNodes.add(node);
+        }
+        root.put("stages", stageNodes);
+        return root;
+    }
+
+    private String toHtml() {
+        StringBuilder html = new StringBuilder("""
+                <!DOCTYPE html>
+                <html><head><meta charset="UTF-8"><title>Load test report</title>
+                <style>
+                body { font-family: sans-serif; margin: 2em; }
+                table { border-collapse: collapse; margin-bottom: 2em; }
+                th, td { border: 1px solid #ccc; padding: 4px 8px; text-align: right; }
+                th:first-child, td:first-child { text-align: left; }
+                tr.total { font-weight: bold; background: #f4f4f4; }
+                </style></head><body>
+                """);
+        html.append("<h1>").append(escape(config.scenario().scenarioName())).append("</h1>")
+                .append("<p>").append(escape(config.baseUrl().toString()))
+                .append(", arrival ").append(config.arrival().name().toLowerCase())
+                .append(", warmup ").append(config.warmup().toSeconds()).append("s")
+                .append(", measure ").append(config.duration().toSeconds()).append("s")
+                .append(", ").append(generatedAt).append("</p>");
+        for (StageResult stage : stages) {
+            html.append("<h2>").append(stage.targetRate()).append(" rps</h2><table><tr>")
+                    .append("<th>operation</th><th>requests</th><th>rps</th><th>err %</th>");
+            for (double percentile : PERCENTILES) {
+                html.append("<th>p").append(formatPercentile(percentile)).append(" ms</th>");
+            }
+            html.append("<th>max ms</th></tr>");
+            stage.operations().forEach((operation, stats) ->
+                    htmlRow(html, "", operation.label(), stats.requests(), stats.errors(), stats.latency(), stage));
+            htmlRow(html, "total", "TOTAL", stage.totalRequests(), stage.totalErrors(), stage.totalLatency(), stage);
+            html.append("</table>");
+        }
+        return html.append("</body></html>\n").toString();
+    }
+
+    private static void htmlRow(StringBuilder html, String cssClass, String label, long requests, long errors,
+                                Histogram latency, StageResult stage) {
+        html.append("<tr class=\"").append(cssClass).append("\"><td>").append(escape(label)).append("</td>")
+                .append("<td>").append(requests).append("</td>")
+                .append(String.format("<td>%.1f</td><td>%.2f</td>", stage.throughput(requests), errorRate(requests, errors)));
+        for (double percentile : PERCENTILES) {
+            html.append(String.format("<td>%.2f</td>", latency.getValueAtPercentile(percentile) / 1000.0));
+        }
+        html.append(String.format("<td>%.2f</td></tr>", latency.getMaxValue() / 1000.0));
+    }
+
+    private static Map<String, Object> latency(Histogram histogram) {
+        Map<String, Object> node = new LinkedHashMap<>();
+        for (double percentile : PERCENTILES) {
+            node.put("p" + formatPercentile(percentile).replace(".", ""), histogram.getValueAtPercentile(percentile) / 1000.0);
+        }
+        node.put("max", histogram.getMaxValue() / 1000.0);
+        node.put("mean", histogram.getMean() / 1000.0);
+        return node;
+    }
+
+    private static JsonNode findStage(JsonNode report, int targetRate) {
+        for (JsonNode stage : report.path("stages")) {
+            if (stage.path("targetRate").asInt() == targetRate) {
+                return stage;
+            }
+        }
+        return null;
+    }
+
+    private static double percentChange(double before, double after) {
+        return before == 0 ? 0 : (after - before) * 100 / before;
+    }
+
+    private static double errorRate(long requests, long errors) {
+        return requests == 0 ? 0 : errors * 100.0 / requests;
+    }
+
+    private static String formatPercentile(double percentile) {
+        return percentile == Math.rint(percentile) ? String.valueOf((int) percentile) : String.valueOf(percentile);
+    }
+
+    private static String escape(String value) {
+        return value.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+}
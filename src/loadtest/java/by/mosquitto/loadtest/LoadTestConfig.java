@@ -0,0 +1,84 @@
+package by.mosquitto.loadtest;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Параметры прогона нагрузочного теста.
+ *
+ * Аргументы передаются в виде {@code --key=value}; пустое значение означает значение по умолчанию.
+ *
+ * @param baseUrl       адрес запущенного приложения
+ * @param scenario      смесь запросов
+ * @param rates         целевые интенсивности ступеней, запросов в секунду
+ * @param arrival       закон поступления запросов
+ * @param warmup        прогрев каждой ступени (не попадает в отчёт)
+ * @param duration      длительность измерения каждой ступени
+ * @param users         число пользователей в БД (диапазон случайных id)
+ * @param news          число новостей в БД (диапазон случайных id)
+ * @param timeout       таймаут одного запроса
+ * @param maxInFlight   предел одновременно выполняющихся запросов; сверх него запросы отбрасываются
+ * @param output        каталог отчётов
+ * @param baseline      JSON-отчёт предыдущего прогона для сравнения или {@code null}
+ * @param maxRegression допустимое ухудшение p99 и пропускной способности, в процентах
+ */
+record LoadTestConfig(
+        URI baseUrl,
+        Scenario scenario,
+        List<Integer> rates,
+        Arrival arrival,
+        Duration warmup,
+        Duration duration,
+        int users,
+        int news,
+        Duration timeout,
+        int maxInFlight,
+        Path output,
+        Path baseline,
+        double maxRegression
+) {
+
+    enum Arrival {
+        /** Равные интервалы между запросами. */
+        CONSTANT,
+        /** Экспоненциальные интервалы (пуассоновский поток) — ближе к реальному трафику. */
+        POISSON
+    }
+
+    static LoadTestConfig parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --key=value, got: " + arg);
+            }
+            String value = arg.substring(arg.indexOf('=') + 1).trim();
+            if (!value.isEmpty()) {
+                options.put(arg.substring(2, arg.indexOf('=')), value);
+            }
+        }
+        String baseline = options.get("baseline");
+        return new LoadTestConfig(
+                URI.create(options.getOrDefault("base-url", "http://localhost:8080")),
+                Scenario.fromName(options.getOrDefault("scenario", "read-mostly")),
+                Arrays.stream(options.getOrDefault("rates", "200").split(","))
+                        .map(String::trim)
+                        .map(Integer::parseInt)
+                        .toList(),
+                Arrival.valueOf(options.getOrDefault("arrival", "poisson").toUpperCase()),
+                Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup", "10"))),
+                Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "60"))),
+                Integer.parseInt(options.getOrDefault("users", "10000")),
+                Integer.parseInt(options.getOrDefault("news", "1000000")),
+                Duration.ofSeconds(Long.parseLong(options.getOrDefault("timeout", "10"))),
+                Integer.parseInt(options.getOrDefault("max-in-flight", "20000")),
+                Path.of(options.getOrDefault("output", "target/loadtest")),
+                baseline == null ? null : Path.of(baseline),
+                Double.parseDouble(options.getOrDefault("max-regression", "10"))
+        );
+    }
+}
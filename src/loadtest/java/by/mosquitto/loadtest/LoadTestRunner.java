@@ -0,0 +1,155 @@
+package by.mosquitto.loadtest;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Генератор HTTP-нагрузки с открытой моделью поступления запросов.
+ *
+ * Запросы отправляются по расписанию с заданной интенсивностью независимо от того,
+ * успевает ли сервер отвечать: каждый запрос выполняется в отдельном виртуальном потоке,
+ * поэтому медленные ответы не тормозят генератор (в отличие от закрытой модели
+ * с фиксированным числом клиентов). Прогон состоит из ступеней {@code --rates};
+ * у каждой ступени есть прогрев и интервал измерения.
+ *
+ * Запуск против приложения в профиле {@code bench}:
+ * <pre>
+ * mvn spring-boot:run -Dspring-boot.run.profiles=bench
+ * mvn -Ploadtest compile exec:exec -Dloadtest.rates=100,200,400
+ * </pre>
+ */
+public final class LoadTestRunner {
+
+    private final LoadTestConfig config;
+    private final HttpClient client;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private LoadTestRunner(LoadTestConfig config) {
+        this.config = config;
+        this.client = HttpClient.newBuilder()
+                .executor(executor)
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(config.timeout())
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.parse(args);
+        LoadTestRunner runner = new LoadTestRunner(config);
+        List<StageResult> stages;
+        try {
+            runner.checkAvailable();
+            stages = runner.run();
+        } finally {
+            runner.executor.shutdownNow();
+        }
+
+        LoadReport report = new LoadReport(config, stages);
+        report.print();
+        report.write();
+        if (config.baseline() != null && !report.compareWith(config.baseline())) {
+            System.exit(1);
+        }
+    }
+
+    private void checkAvailable() throws IOException, InterruptedException {
+        HttpRequest probe = HttpRequest.newBuilder(config.baseUrl().resolve("/api/news/paged?page=0&size=1"))
+                .timeout(config.timeout())
+                .build();
+        int status = client.send(probe, HttpResponse.BodyHandlers.discarding()).statusCode();
+        if (status != 200) {
+            throw new IllegalStateException("Application at " + config.baseUrl() + " is not ready: HTTP " + status);
+        }
+    }
+
+    private List<StageResult> run() {
+        List<StageResult> results = new ArrayList<>();
+        for (int rate : config.rates()) {
+            System.out.printf("Stage %d rps: warmup %ds, measure %ds, scenario %s, arrival %s%n",
+                    rate, config.warmup().toSeconds(), config.duration().toSeconds(),
+                    config.scenario().scenarioName(), config.arrival());
+            results.add(runStage(rate));
+        }
+        return results;
+    }
+
+    private StageResult runStage(int rate) {
+        Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+        for (Operation operation : config.scenario().operations()) {
+            stats.put(operation, new OperationStats());
+        }
+
+        AtomicInteger inFlight = new AtomicInteger();
+        SplittableRandom arrivals = new SplittableRandom(rate);
+        double intervalNanos = TimeUnit.SECONDS.toNanos(1) / (double) rate;
+        long start = System.nanoTime();
+        long measureFrom = start + config.warmup().toNanos();
+        long end = measureFrom + config.duration().toNanos();
+
+        double next = start;
+        while (next < end) {
+            long intended = (long) next;
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Operation operation = config.scenario().next();
+            OperationStats target = intended >= measureFrom ? stats.get(operation) : null;
+            if (inFlight.get() >= config.maxInFlight()) {
+                if (target != null) {
+                    target.recordDropped();
+                }
+            } else {
+                inFlight.incrementAndGet();
+                executor.execute(() -> send(operation, intended, target, inFlight));
+            }
+            next += config.arrival() == LoadTestConfig.Arrival.CONSTANT
+                    ? intervalNanos
+                    : -Math.log(1 - arrivals.nextDouble()) * intervalNanos;
+        }
+
+        awaitCompletion(inFlight);
+        return new StageResult(rate, config.duration(), stats);
+    }
+
+    private void send(Operation operation, long intended, OperationStats stats, AtomicInteger inFlight) {
+        try {
+            HttpRequest request = operation.request(config).timeout(config.timeout()).build();
+            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+            if (stats != null) {
+                stats.recordResponse(response.statusCode(), System.nanoTime() - intended);
+            }
+        } catch (IOException e) {
+            if (stats != null) {
+                stats.recordFailure(System.nanoTime() - intended);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private void awaitCompletion(AtomicInteger inFlight) {
+        long deadline = System.nanoTime() + config.timeout().plus(Duration.ofSeconds(1)).toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+        if (inFlight.get() > 0) {
+            System.out.printf("%d requests still in flight after timeout%n", inFlight.get());
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package by.mosquitto.loadtest;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Операции, из которых складываются сценарии нагрузки.
+ *
+ * Идентификаторы новостей выбираются со смещением к свежим: 80% обращений приходится
+ * на последний 1% новостей, что соответствует данным профиля {@code bench}
+ * (чем больше id, тем новее новость).
+ */
+enum Operation {
+
+    NEWS_LIST("GET /api/news") {
+        @Override
+        HttpRequest.Builder request(LoadTestConfig config) {
+            return get(config, "/api/news");
+        }
+    },
+    NEWS_PAGED_HOT("GET /api/news/paged (page 0-1)") {
+        @Override
+        HttpRequest.Builder request(LoadTestConfig config) {
+            return get(config, "/api/news/paged?page=" + random().nextInt(2) + "&size=10");
+        }
+    },
+    NEWS_PAGED_DEEP("GET /api/news/paged (deep)") {
+        @Override
+        HttpRequest.Builder request(LoadTestConfig config) {
+            int pages = Math.max(1, config.news() / 10);
+            return get(config, "/api/news/paged?page=" + random().nextInt(pages) + "&size=10");
+        }
+    },
+    NEWS_BY_ID("GET /api/news/{id}") {
+        @Override
+        HttpRequest.Builder request(LoadTestConfig config) {
+            return get(config, "/api/news/" + newsId(config));
+        }
+    },
+    NEWS_WITH_COMMENTS("GET /api/news/{id}/with-comments-paged") {
+        @Override
+        HttpRequest.Builder request(LoadTestConfig config) {
+            return get(config, "/api/news/" + newsId(config) + "/with-comments-paged?page=0&size=5");
+        }
+    },
+    NEWS_SEARCH("GET /api/news/search") {
+        @Override
+        HttpRequest.Builder request(LoadTestConfig config) {
+            String query = SEARCH_QUERIES[random().nextInt(SEARCH_QUERIES.length)];
+            return get(config, "/api/news/search?query=" + URLEncoder.encode(query, StandardCharsets.UTF_8));
+        }
+    },
+    COMMENTS_BY_NEWS("GET /api/comments/news/{newsId}") {
+        @Override
+        HttpRequest.Builder request(LoadTestConfig config) {
+            return get(config, "/api/comments/news/" + newsId(config));
+        }
+    },
+    COMMENT_CREATE("POST /api/comments") {
+        @Override
+        HttpRequest.Builder request(LoadTestConfig config) {
+            String body = "{\"text\":\"Нагрузочный комментарий, load test #" + random().nextInt(1_000_000)
+                    + "\",\"newsId\":" + newsId(config)
+                    + ",\"userId\":" + (1 + random().nextInt(config.users())) + "}";
+            return HttpRequest.newBuilder(uri(config, "/api/comments"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body, StandardCharsets.UTF_8));
+        }
+    },
+    USER_BY_ID("GET /api/users/{id}") {
+        @Override
+        HttpRequest.Builder request(LoadTestConfig config) {
+            return get(config, "/api/users/" + (1 + random().nextInt(config.users())));
+        }
+    };
+
+    private static final String[] SEARCH_QUERIES = {
+            "погода выборы", "рынок рост", "open source", "latency", "выставка", "benchmark java"
+    };
+
+    private final String label;
+
+    Operation(String label) {
+        this.label = label;
+    }
+
+    String label() {
+        return label;
+    }
+
+    /**
+     * Строит очередной запрос операции.
+     *
+     * @param config параметры прогона
+     * @return builder запроса без таймаута
+     */
+    abstract HttpRequest.Builder request(LoadTestConfig config);
+
+    private static HttpRequest.Builder get(LoadTestConfig config, String path) {
+        return HttpRequest.newBuilder(uri(config, path)).GET();
+    }
+
+    private static URI uri(LoadTestConfig config, String path) {
+        return config.baseUrl().resolve(path);
+    }
+
+    private static long newsId(LoadTestConfig config) {
+        int news = config.news();
+        int hot = Math.max(1, news / 100);
+        return random().nextInt(10) < 8
+                ? news - random().nextInt(hot)
+                : 1 + random().nextInt(news);
+    }
+
+    private static ThreadLocalRandom random() {
+        return ThreadLocalRandom.current();
+    }
+}
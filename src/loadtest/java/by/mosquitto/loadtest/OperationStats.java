@@ -0,0 +1,88 @@
+package by.mosquitto.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Статистика одной операции в пределах ступени нагрузки.
+ *
+ * Задержка считается от запланированного момента отправки, а не от фактического:
+ * если генератор или клиент не успевает, ожидание попадает в гистограмму
+ * (без coordinated omission).
+ */
+final class OperationStats {
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+    private final Histogram latency = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+
+    /**
+     * Учитывает полученный ответ; коды 4xx и 5xx считаются ошибками.
+     */
+    void recordResponse(int status, long latencyNanos) {
+        requests.increment();
+        statuses.computeIfAbsent(status, code -> new LongAdder()).increment();
+        if (status >= 400) {
+            errors.increment();
+        }
+        recordLatency(latencyNanos);
+    }
+
+    /**
+     * Учитывает запрос, завершившийся без ответа (таймаут, разрыв соединения).
+     */
+    void recordFailure(long latencyNanos) {
+        requests.increment();
+        failures.increment();
+        recordLatency(latencyNanos);
+    }
+
+    /**
+     * Учитывает запрос, не отправленный из-за превышения {@code max-in-flight}.
+     */
+    void recordDropped() {
+        requests.increment();
+        dropped.increment();
+    }
+
+    Histogram latency() {
+        return latency;
+    }
+
+    long requests() {
+        return requests.sum();
+    }
+
+    long errors() {
+        return errors.sum() + failures.sum() + dropped.sum();
+    }
+
+    long failures() {
+        return failures.sum();
+    }
+
+    long dropped() {
+        return dropped.sum();
+    }
+
+    Map<Integer, Long> statuses() {
+        Map<Integer, Long> result = new TreeMap<>();
+        statuses.forEach((status, count) -> result.put(status, count.sum()));
+        return result;
+    }
+
+    private void recordLatency(long latencyNanos) {
+        latency.recordValue(Math.min(MAX_LATENCY_MICROS, Math.max(1, TimeUnit.NANOSECONDS.toMicros(latencyNanos))));
+    }
+}
@@ -0,0 +1,81 @@
+package by.mosquitto.loadtest;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Сценарии нагрузки — взвешенные смеси {@link Operation}.
+ *
+ * - {@code read-mostly} — типичный трафик ленты: чтение страниц, новостей и комментариев, немного записи
+ * - {@code write-heavy} — поток новых комментариев на фоне чтения
+ * - {@code search-saturation} — преобладает тяжёлый LIKE-поиск; показывает, как медленный
+ *   эндпоинт вытесняет быстрые при общем пуле потоков и соединений
+ * - {@code list-all} — полная выгрузка {@code GET /api/news}; на больших объёмах запускается отдельно
+ */
+enum Scenario {
+
+    READ_MOSTLY("read-mostly", Map.of(
+            Operation.NEWS_PAGED_HOT, 35,
+            Operation.NEWS_PAGED_DEEP, 5,
+            Operation.NEWS_BY_ID, 25,
+            Operation.NEWS_WITH_COMMENTS, 15,
+            Operation.NEWS_SEARCH, 3,
+            Operation.COMMENTS_BY_NEWS, 7,
+            Operation.USER_BY_ID, 7,
+            Operation.COMMENT_CREATE, 3)),
+    WRITE_HEAVY("write-heavy", Map.of(
+            Operation.COMMENT_CREATE, 50,
+            Operation.NEWS_WITH_COMMENTS, 25,
+            Operation.NEWS_PAGED_HOT, 15,
+            Operation.NEWS_BY_ID, 10)),
+    SEARCH_SATURATION("search-saturation", Map.of(
+            Operation.NEWS_SEARCH, 50,
+            Operation.NEWS_PAGED_HOT, 25,
+            Operation.NEWS_BY_ID, 25)),
+    LIST_ALL("list-all", Map.of(
+            Operation.NEWS_LIST, 10,
+            Operation.NEWS_BY_ID, 90));
+
+    private final String name;
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+
+    Scenario(String name, Map<Operation, Integer> weights) {
+        this.name = name;
+        Map<Operation, Integer> ordered = new EnumMap<>(weights);
+        this.operations = ordered.keySet().toArray(Operation[]::new);
+        this.cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += ordered.get(operations[i]);
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    String scenarioName() {
+        return name;
+    }
+
+    Operation[] operations() {
+        return operations.clone();
+    }
+
+    /**
+     * Выбирает следующую операцию пропорционально весам.
+     */
+    Operation next() {
+        int point = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        int index = Arrays.binarySearch(cumulativeWeights, point + 1);
+        return operations[index >= 0 ? index : -index - 1];
+    }
+
+    static Scenario fromName(String name) {
+        return Arrays.stream(values())
+                .filter(scenario -> scenario.name.equalsIgnoreCase(name) || scenario.name().equalsIgnoreCase(name))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown scenario: " + name
+                        + ", expected one of " + Arrays.stream(values()).map(Scenario::scenarioName).toList()));
+    }
+}
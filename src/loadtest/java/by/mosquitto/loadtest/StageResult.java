@@ -0,0 +1,37 @@
+package by.mosquitto.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Результат одной ступени нагрузки.
+ *
+ * @param targetRate целевая интенсивность, запросов в секунду
+ * @param duration   длительность измерения
+ * @param operations статистика по операциям сценария
+ */
+record StageResult(int targetRate, Duration duration, Map<Operation, OperationStats> operations) {
+
+    /**
+     * Гистограмма задержек всех операций ступени.
+     */
+    Histogram totalLatency() {
+        Histogram total = new Histogram(3);
+        operations.values().forEach(stats -> total.add(stats.latency()));
+        return total;
+    }
+
+    long totalRequests() {
+        return operations.values().stream().mapToLong(OperationStats::requests).sum();
+    }
+
+    long totalErrors() {
+        return operations.values().stream().mapToLong(OperationStats::errors).sum();
+    }
+
+    double throughput(long requests) {
+        return requests / (duration.toMillis() / 1000.0);
+    }
+}
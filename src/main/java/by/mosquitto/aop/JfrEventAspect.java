@@ -0,0 +1,51 @@
+package by.mosquitto.aop;
+
+import by.mosquitto.jfr.ControllerInvocationEvent;
+import by.mosquitto.jfr.InvocationEvent;
+import by.mosquitto.jfr.JfrEvents;
+import by.mosquitto.jfr.ServiceInvocationEvent;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * Записывает события JFR на вызовы контроллеров и сервисов.
+ *
+ * Пока запись JFR не ведётся, {@link InvocationEvent#isEnabled()} возвращает {@code false}
+ * и вызов проходит без формирования имени метода и поиска id.
+ */
+@Aspect
+@Component
+public class JfrEventAspect {
+
+    @Around("execution(* by.mosquitto.api..*Controller.*(..))")
+    public Object recordControllerInvocation(ProceedingJoinPoint joinPoint) throws Throwable {
+        return record(new ControllerInvocationEvent(), joinPoint);
+    }
+
+    @Around("execution(* by.mosquitto.service.*ServiceManager.*(..))")
+    public Object recordServiceInvocation(ProceedingJoinPoint joinPoint) throws Throwable {
+        return record(new ServiceInvocationEvent(), joinPoint);
+    }
+
+    static Object record(InvocationEvent event, ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!event.isEnabled()) {
+            return joinPoint.proceed();
+        }
+        event.begin();
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable ex) {
+            event.failed = true;
+            throw ex;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.method = joinPoint.getSignature().toShortString();
+                event.entityId = JfrEvents.entityId(joinPoint.getArgs());
+                event.commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package by.mosquitto.aop;
+
+import by.mosquitto.jfr.JfrEvents;
+import by.mosquitto.jfr.RepositoryCallEvent;
+import by.mosquitto.timing.RequestTimings;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Замер вызовов репозиториев Spring Data для заголовка {@code Server-Timing}
+ * и событий JFR {@link RepositoryCallEvent}.
+ *
+ * Вне HTTP-запроса (планировщики, фоновые потоки) в заголовок ничего не пишется,
+ * события JFR записываются всегда, пока идёт запись.
+ */
+@Aspect
+@Component
+public class RepositoryTimingAspect {
+
+    private final Map<Class<?>, String> repositoryNames = new ConcurrentHashMap<>();
+
+    @Around("execution(* org.springframework.data.repository.Repository+.*(..))")
+    public Object timeRepositoryCall(ProceedingJoinPoint joinPoint) throws Throwable {
+        RequestTimings timings = RequestTimings.current();
+        RepositoryCallEvent event = new RepositoryCallEvent();
+        if (timings == null && !event.isEnabled()) {
+            return joinPoint.proceed();
+        }
+        long start = System.nanoTime();
+        event.begin();
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable ex) {
+            event.failed = true;
+            throw ex;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            event.end();
+            String name = repositoryName(joinPoint.getTarget()) + "." + joinPoint.getSignature().getName();
+            if (timings != null) {
+                timings.addRepositoryCall(name, elapsed);
+            }
+            if (event.shouldCommit()) {
+                event.method = name;
+                event.entityId = JfrEvents.entityId(joinPoint.getArgs());
+                event.commit();
+            }
+        }
+    }
+
+    private String repositoryName(Object target) {
+        return repositoryNames.computeIfAbsent(target.getClass(), type -> {
+            Class<?>[] interfaces = AopProxyUtils.proxiedUserInterfaces(target);
+            return interfaces.length > 0 ? interfaces[0].getSimpleName() : type.getSimpleName();
+        });
+    }
+}
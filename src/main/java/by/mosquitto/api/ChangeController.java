@@ -0,0 +1,53 @@
+package by.mosquitto.api;
+
+import by.mosquitto.dto.ChangeFeedDto;
+import by.mosquitto.exception.InvalidRequestException;
+import by.mosquitto.service.contract.ChangeFeedService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST-контроллер журнала изменений (дельта-синхронизация).
+ *
+ * Эндпоинты:
+ * - Получение изменений новостей и комментариев после токена
+ *
+ * Клиент сохраняет {@code nextToken} из ответа и передаёт его в {@code since}
+ * при следующем опросе; стоимость опроса зависит от числа изменений, а не от объёма данных.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/changes")
+@RequiredArgsConstructor
+public class ChangeController {
+
+    private static final int MAX_LIMIT = 1000;
+
+    private final ChangeFeedService changeFeedService;
+
+    /**
+     * Получает изменения после указанного токена.
+     *
+     * @param since  токен последнего полученного изменения (по умолчанию 0 — с начала)
+     * @param newsId необязательный фильтр по новости
+     * @param limit  максимальное число изменений (по умолчанию 100, не более 1000)
+     * @return страница изменений с токеном продолжения
+     */
+    @GetMapping
+    public ResponseEntity<ChangeFeedDto> getChanges(
+            @RequestParam(defaultValue = "0") Long since,
+            @RequestParam(required = false) Long newsId,
+            @RequestParam(defaultValue = "100") int limit
+    ) {
+        log.info("GET /api/changes — since={}, newsId={}, limit={}", since, newsId, limit);
+        if (since < 0 || limit < 1 || limit > MAX_LIMIT) {
+            throw new InvalidRequestException("Parameter 'since' must be >= 0 and 'limit' between 1 and " + MAX_LIMIT);
+        }
+        return ResponseEntity.ok(changeFeedService.getChanges(since, newsId, limit));
+    }
+}
@@ -1,10 +1,13 @@
 package by.mosquitto.api;
 
 import by.mosquitto.dto.CommentDto;
+import by.mosquitto.dto.PendingCommentDto;
+import by.mosquitto.ingest.CommentIngestionQueue;
 import by.mosquitto.service.contract.CommentService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -20,9 +23,14 @@ import java.util.List;
  * - Получение комментариев, связанных с конкретной новостью
  * - Создание нового комментария
  * - Обновление существующего комментария
+ * - Частичное изменение комментария (PATCH) с проверкой версии по {@code If-Match}
  * - Удаление комментария
  *
+ * Комментарий по ID и результат PATCH отдаются с ETag версии строки.
  * Все методы логируются: info — для действий, debug — для payload'ов.
+ * При {@code app.comments.ingestion.mode=async} создание комментария
+ * выполняется через {@link CommentIngestionQueue} с ответом 202; состояние принятого
+ * комментария доступно по {@code /api/comments/pending/{pendingId}}.
  */
 @Slf4j
 @RestController
@@ -31,6 +39,7 @@ import java.util.List;
 public class CommentController {
 
     private final CommentService commentService;
+    private final CommentIngestionQueue commentIngestionQueue;
 
     /**
      * Получает список всех комментариев.
@@ -47,12 +56,13 @@ public class CommentController {
      * Получает комментарий по его идентификатору.
      *
      * @param id идентификатор комментария
-     * @return DTO комментария
+     * @return DTO комментария с ETag версии
      */
     @GetMapping("/{id}")
     public ResponseEntity<CommentDto> getComment(@PathVariable Long id) {
         log.info("GET /api/comments/{} — fetch comment by ID", id);
-        return ResponseEntity.ok(commentService.getComment(id));
+        CommentDto comment = commentService.getComment(id);
+        return ETags.ok(comment, comment.getVersion());
     }
 
     /**
@@ -69,18 +79,34 @@ public class CommentController {
 
     /**
      * Создаёт новый комментарий.
+     * В асинхронном режиме ставит его в очередь и возвращает 202 с pending id.
      *
      * @param dto DTO с данными комментария
-     * @return созданный комментарий
+     * @return созданный комментарий (201) или подтверждение приёма (202)
      */
     @PostMapping
-    public ResponseEntity<CommentDto> createComment(@RequestBody @Valid CommentDto dto) {
+    public ResponseEntity<?> createComment(@RequestBody @Valid CommentDto dto) {
         log.info("POST /api/comments — create comment");
         log.debug("Payload: {}", dto);
+        if (commentIngestionQueue.isAsync()) {
+            return ResponseEntity.accepted().body(commentIngestionQueue.submit(dto));
+        }
         CommentDto created = commentService.createComment(dto);
         return ResponseEntity.status(HttpStatus.CREATED).body(created);
     }
 
+    /**
+     * Возвращает состояние комментария, принятого в асинхронном режиме.
+     *
+     * @param pendingId идентификатор из ответа 202
+     * @return состояние: в очереди, записан (с id комментария), отклонён или не записан из-за ошибки
+     */
+    @GetMapping("/pending/{pendingId}")
+    public ResponseEntity<PendingCommentDto> getPendingComment(@PathVariable String pendingId) {
+        log.info("GET /api/comments/pending/{} — fetch pending comment status", pendingId);
+        return ResponseEntity.ok(commentIngestionQueue.getStatus(pendingId));
+    }
+
     /**
      * Обновляет существующий комментарий.
      *
@@ -95,6 +121,25 @@ public class CommentController {
         return ResponseEntity.ok(commentService.updateComment(id, dto));
     }
 
+    /**
+     * Частично изменяет комментарий одним условным UPDATE.
+     *
+     * @param id      идентификатор комментария
+     * @param ifMatch ETag версии, на которой основано изменение, или {@code *}
+     * @param dto     DTO с новым текстом
+     * @return изменённый комментарий с ETag новой версии; 412 — если версия уже другая,
+     *         428 — если {@code If-Match} не передан
+     */
+    @PatchMapping("/{id}")
+    public ResponseEntity<CommentDto> patchComment(@PathVariable Long id,
+                                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                   @RequestBody CommentDto dto) {
+        log.info("PATCH /api/comments/{} — patch comment, If-Match={}", id, ifMatch);
+        log.debug("Payload: {}", dto);
+        CommentDto patched = commentService.patchComment(id, ETags.parseIfMatch(ifMatch, "Comment", id), dto);
+        return ETags.ok(patched, patched.getVersion());
+    }
+
     /**
      * Удаляет комментарий по его идентификатору.
      *
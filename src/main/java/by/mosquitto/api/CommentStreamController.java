@@ -0,0 +1,45 @@
+package by.mosquitto.api;
+
+import by.mosquitto.service.contract.NewsService;
+import by.mosquitto.stream.CommentStreamHub;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * REST-контроллер потока изменений комментариев (Server-Sent Events).
+ *
+ * Эндпоинты:
+ * - Подписка на создание, обновление и удаление комментариев новости
+ *
+ * Поддерживается возобновление по заголовку {@code Last-Event-ID},
+ * который браузерный EventSource передаёт автоматически при переподключении.
+ */
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+public class CommentStreamController {
+
+    private final NewsService newsService;
+    private final CommentStreamHub commentStreamHub;
+
+    /**
+     * Открывает SSE-поток комментариев новости.
+     *
+     * @param id          идентификатор новости
+     * @param lastEventId id последнего полученного события для возобновления
+     * @return SSE-эмиттер
+     */
+    @GetMapping(path = "/api/news/{id}/comments/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@PathVariable Long id,
+                             @RequestHeader(name = "Last-Event-ID", required = false) Long lastEventId) {
+        log.info("GET /api/news/{}/comments/stream — subscribe, lastEventId={}", id, lastEventId);
+        newsService.getNewsById(id);
+        return commentStreamHub.subscribe(id, lastEventId);
+    }
+}
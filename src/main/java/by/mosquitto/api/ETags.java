@@ -0,0 +1,61 @@
+package by.mosquitto.api;
+
+import by.mosquitto.exception.PreconditionFailedException;
+import by.mosquitto.exception.PreconditionRequiredException;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * ETag версионируемых сущностей: строгий тег с номером версии строки, например {@code "3"}.
+ *
+ * Клиент получает его из GET или PATCH и возвращает в {@code If-Match} следующего PATCH;
+ * {@code If-Match: *} разрешает изменение без проверки версии.
+ */
+final class ETags {
+
+    private static final String ANY = "*";
+
+    private ETags() {
+    }
+
+    /**
+     * Возвращает ответ 200 с телом и ETag версии, если она известна.
+     *
+     * @param body    тело ответа
+     * @param version версия сущности или {@code null}
+     * @return ответ 200
+     */
+    static <T> ResponseEntity<T> ok(T body, Long version) {
+        if (version == null) {
+            return ResponseEntity.ok(body);
+        }
+        return ResponseEntity.ok().eTag(String.valueOf(version)).body(body);
+    }
+
+    /**
+     * Разбирает заголовок {@code If-Match}.
+     *
+     * @param ifMatch значение заголовка
+     * @param entity  название сущности для сообщения об ошибке
+     * @param id      идентификатор сущности
+     * @return ожидаемая версия или {@code null} для {@code *}
+     * @throws PreconditionRequiredException если заголовка нет
+     * @throws PreconditionFailedException если тег не является версией (в том числе слабый тег)
+     */
+    static Long parseIfMatch(String ifMatch, String entity, Long id) {
+        if (ifMatch == null || ifMatch.isBlank()) {
+            throw new PreconditionRequiredException();
+        }
+        String tag = ifMatch.trim();
+        if (ANY.equals(tag)) {
+            return null;
+        }
+        if (tag.length() > 2 && tag.charAt(0) == '"' && tag.charAt(tag.length() - 1) == '"') {
+            try {
+                return Long.parseLong(tag.substring(1, tag.length() - 1));
+            } catch (NumberFormatException e) {
+                // не наш тег — ни одна версия ему не соответствует
+            }
+        }
+        throw new PreconditionFailedException("If-Match " + tag + " does not match any version of " + entity + " with id " + id);
+    }
+}
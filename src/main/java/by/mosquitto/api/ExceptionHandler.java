@@ -2,8 +2,13 @@ package by.mosquitto.api;
 
 import by.mosquitto.dto.response.ErrorResponse;
 import by.mosquitto.exception.AppException;
+import by.mosquitto.exception.ServiceUnavailableException;
+import by.mosquitto.limit.LogThrottle;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -15,6 +20,8 @@ import java.time.LocalDateTime;
  *
  * Обрабатывает:
  * - {@link AppException} — с кастомным статусом и сообщением
+ * - {@link ServiceUnavailableException} — 503 с заголовком Retry-After
+ * - {@link OptimisticLockingFailureException} — 409: сущность изменена параллельно между чтением и записью
  * - Все прочие {@link Exception} — как 500 Internal Server Error
  *
  * Формирует единый формат ответа {@link ErrorResponse}, содержащий:
@@ -24,11 +31,20 @@ import java.time.LocalDateTime;
  * - Таймстамп
  *
  * Логирует ошибки: handled — с деталями, unexpected — с трейсом.
+ * Ошибки клиента (4xx) логируются на WARN не чаще {@code app.logging.client-errors.per-second}
+ * (всплеск до {@code burst}), с числом пропущенных: перебор id ботами не должен засорять журнал.
  */
 @Slf4j
 @RestControllerAdvice
 public class ExceptionHandler {
 
+    private final LogThrottle clientErrorLog;
+
+    public ExceptionHandler(@Value("${app.logging.client-errors.per-second:5}") double clientErrorsPerSecond,
+                            @Value("${app.logging.client-errors.burst:20}") int clientErrorsBurst) {
+        this.clientErrorLog = new LogThrottle(clientErrorsPerSecond, clientErrorsBurst);
+    }
+
     /**
      * Обрабатывает исключения бизнес-логики типа {@link AppException}.
      *
@@ -38,11 +54,53 @@ public class ExceptionHandler {
      */
     @org.springframework.web.bind.annotation.ExceptionHandler(AppException.class)
     public ResponseEntity<ErrorResponse> handleAppException(AppException ex, HttpServletRequest request) {
-        log.error("Handled AppException — status={}, message='{}', path='{}'",
-                ex.getStatus(), ex.getMessage(), request.getRequestURI());
+        if (!ex.getStatus().is4xxClientError()) {
+            log.error("Handled AppException — status={}, message='{}', path='{}'",
+                    ex.getStatus(), ex.getMessage(), request.getRequestURI());
+        } else {
+            long suppressed = clientErrorLog.tryAcquire();
+            if (suppressed >= 0) {
+                log.warn("Handled AppException — status={}, message='{}', path='{}', suppressed since last={}",
+                        ex.getStatus(), ex.getMessage(), request.getRequestURI(), suppressed);
+            }
+        }
         return buildErrorResponse(ex.getStatus(), ex.getMessage(), request.getRequestURI());
     }
 
+    /**
+     * Обрабатывает перегрузку ({@link ServiceUnavailableException}), добавляя заголовок Retry-After.
+     *
+     * @param ex      выброшенное исключение
+     * @param request текущий HTTP-запрос
+     * @return ответ 503 с заголовком Retry-After
+     */
+    @org.springframework.web.bind.annotation.ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<ErrorResponse> handleServiceUnavailable(ServiceUnavailableException ex, HttpServletRequest request) {
+        log.warn("Service unavailable — message='{}', path='{}', retryAfter={}s",
+                ex.getMessage(), request.getRequestURI(), ex.getRetryAfterSeconds());
+        ResponseEntity<ErrorResponse> response = buildErrorResponse(ex.getStatus(), ex.getMessage(), request.getRequestURI());
+        return ResponseEntity.status(response.getStatusCode())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(response.getBody());
+    }
+
+    /**
+     * Обрабатывает конфликт версий при записи загруженной сущности (параллельный PUT).
+     *
+     * @param ex      выброшенное исключение
+     * @param request текущий HTTP-запрос
+     * @return ответ 409 Conflict
+     */
+    @org.springframework.web.bind.annotation.ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> handleOptimisticLock(OptimisticLockingFailureException ex, HttpServletRequest request) {
+        long suppressed = clientErrorLog.tryAcquire();
+        if (suppressed >= 0) {
+            log.warn("Concurrent modification — path='{}', suppressed since last={}", request.getRequestURI(), suppressed);
+        }
+        return buildErrorResponse(HttpStatus.CONFLICT, "Entity was modified concurrently, reload and retry",
+                request.getRequestURI());
+    }
+
     /**
      * Обрабатывает все неожиданные исключения.
      *
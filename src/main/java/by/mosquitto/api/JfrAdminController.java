@@ -0,0 +1,99 @@
+package by.mosquitto.api;
+
+import by.mosquitto.dto.JfrRecordingDto;
+import by.mosquitto.exception.InvalidRequestException;
+import by.mosquitto.service.contract.ProfilingService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.Duration;
+
+/**
+ * REST-контроллер управления записью JFR (доступен только роли ADMIN).
+ *
+ * Эндпоинты:
+ * - Состояние записи
+ * - Запуск и остановка записи
+ * - Выгрузка записи в формате {@code .jfr} для JDK Mission Control / {@code jfr print}
+ * - Поток событий приложения (SSE)
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/admin/jfr")
+@RequiredArgsConstructor
+public class JfrAdminController {
+
+    private final ProfilingService profilingService;
+
+    /**
+     * Получает состояние записи.
+     *
+     * @return состояние текущей или последней записи
+     */
+    @GetMapping
+    public ResponseEntity<JfrRecordingDto> getStatus() {
+        return ResponseEntity.ok(profilingService.getStatus());
+    }
+
+    /**
+     * Запускает запись.
+     *
+     * @param settings набор настроек JDK: {@code default} или {@code profile}
+     * @return состояние запущенной записи
+     */
+    @PostMapping("/start")
+    public ResponseEntity<JfrRecordingDto> start(@RequestParam(defaultValue = "default") String settings) {
+        log.info("POST /api/admin/jfr/start — settings={}", settings);
+        return ResponseEntity.ok(profilingService.start(settings));
+    }
+
+    /**
+     * Останавливает запись.
+     *
+     * @return состояние остановленной записи
+     */
+    @PostMapping("/stop")
+    public ResponseEntity<JfrRecordingDto> stop() {
+        log.info("POST /api/admin/jfr/stop");
+        return ResponseEntity.ok(profilingService.stop());
+    }
+
+    /**
+     * Выгружает снимок записи.
+     *
+     * @return файл {@code springnews.jfr}
+     */
+    @GetMapping("/recording")
+    public ResponseEntity<StreamingResponseBody> download() {
+        log.info("GET /api/admin/jfr/recording");
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"springnews.jfr\"")
+                .body(profilingService::writeRecording);
+    }
+
+    /**
+     * Открывает поток событий приложения.
+     *
+     * @param thresholdMillis минимальная длительность события в миллисекундах (по умолчанию 0 — все)
+     * @return SSE-эмиттер
+     */
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestParam(defaultValue = "0") long thresholdMillis) {
+        log.info("GET /api/admin/jfr/stream — thresholdMillis={}", thresholdMillis);
+        if (thresholdMillis < 0) {
+            throw new InvalidRequestException("Parameter 'thresholdMillis' must be >= 0");
+        }
+        return profilingService.streamEvents(Duration.ofMillis(thresholdMillis));
+    }
+}
@@ -1,29 +1,45 @@
 package by.mosquitto.api;
 
 import by.mosquitto.dto.NewsDto;
+import by.mosquitto.dto.NewsFeedPageDto;
+import by.mosquitto.dto.NewsSuggestionDto;
 import by.mosquitto.dto.NewsWithCommentsPagedDto;
+import by.mosquitto.exception.InvalidRequestException;
+import by.mosquitto.exception.ServiceUnavailableException;
+import by.mosquitto.service.contract.NewsFeedService;
+import by.mosquitto.service.contract.NewsSearchService;
 import by.mosquitto.service.contract.NewsService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
 
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * REST-контроллер для управления новостями.
  *
  * Эндпоинты:
  * - Получение всех новостей (в том числе с пагинацией)
+ * - Лента новостей по последней активности из витрины {@code news_feed} с курсором
  * - Поиск по заголовку и тексту
+ * - Подсказки заголовков по префиксу
  * - Получение новости по ID
  * - Получение новости с постраничными комментариями
  * - Создание, обновление и удаление новости
+ * - Частичное изменение новости (PATCH) с проверкой версии по {@code If-Match}
  *
+ * Новость по ID и результат PATCH отдаются с ETag версии строки.
  * Все действия логируются: info — для действий, debug — для payload'ов.
  */
 @Slf4j
@@ -32,7 +48,18 @@ import java.util.List;
 @RequestMapping("/api/news")
 public class NewsController {
 
+    private static final int MAX_PREVIEW_COMMENTS = 10;
+    private static final int MAX_FEED_LIMIT = 100;
+
     private final NewsService newsService;
+    private final NewsSearchService newsSearchService;
+    private final NewsFeedService newsFeedService;
+
+    @Value("${app.search.bulkhead.timeout-millis:5000}")
+    private long searchTimeoutMillis;
+
+    @Value("${app.search.bulkhead.retry-after-seconds:1}")
+    private long searchRetryAfterSeconds;
 
     /**
      * Получает список всех новостей.
@@ -52,6 +79,8 @@ public class NewsController {
      * @param size размер страницы (по умолчанию 10)
      * @param sortBy поле сортировки (по умолчанию creationDate)
      * @param direction направление сортировки: asc или desc (по умолчанию desc)
+     * @param withCommentStats добавить к новостям число комментариев (по умолчанию нет)
+     * @param previewComments сколько последних комментариев добавить к новостям (по умолчанию 0, не более 10)
      * @return страница DTO новостей
      */
     @GetMapping("/paged")
@@ -59,13 +88,39 @@ public class NewsController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "creationDate") String sortBy,
-            @RequestParam(defaultValue = "desc") String direction
+            @RequestParam(defaultValue = "desc") String direction,
+            @RequestParam(defaultValue = "false") boolean withCommentStats,
+            @RequestParam(defaultValue = "0") int previewComments
     ) {
-        log.info("GET /api/news/paged — page={}, size={}, sortBy={}, direction={}", page, size, sortBy, direction);
+        log.info("GET /api/news/paged — page={}, size={}, sortBy={}, direction={}, withCommentStats={}, previewComments={}",
+                page, size, sortBy, direction, withCommentStats, previewComments);
+        if (previewComments < 0 || previewComments > MAX_PREVIEW_COMMENTS) {
+            throw new InvalidRequestException("Parameter 'previewComments' must be between 0 and " + MAX_PREVIEW_COMMENTS);
+        }
         Sort sort = direction.equalsIgnoreCase("desc") ?
                 Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
         Pageable pageable = PageRequest.of(page, size, sort);
-        return ResponseEntity.ok(newsService.getNewsPaged(pageable));
+        return ResponseEntity.ok(newsService.getNewsPaged(pageable, withCommentStats, previewComments));
+    }
+
+    /**
+     * Получает ленту новостей от недавно активных к давним.
+     *
+     * Страница читается одним диапазонным сканированием индекса витрины {@code news_feed}:
+     * заголовок, отрывок, имя автора и число комментариев уже лежат в её строках.
+     *
+     * @param cursor курсор предыдущей страницы (без него — первая страница)
+     * @param limit  размер страницы (по умолчанию 20, не более 100)
+     * @return страница ленты с курсором продолжения
+     */
+    @GetMapping("/feed")
+    public ResponseEntity<NewsFeedPageDto> getFeed(@RequestParam(required = false) String cursor,
+                                                   @RequestParam(defaultValue = "20") int limit) {
+        log.info("GET /api/news/feed — cursor={}, limit={}", cursor, limit);
+        if (limit < 1 || limit > MAX_FEED_LIMIT) {
+            throw new InvalidRequestException("Parameter 'limit' must be between 1 and " + MAX_FEED_LIMIT);
+        }
+        return ResponseEntity.ok(newsFeedService.getFeed(cursor, limit));
     }
 
     /**
@@ -96,25 +151,58 @@ public class NewsController {
     /**
      * Выполняет поиск новостей по заголовку или тексту.
      *
+     * Поиск выполняется в отдельном отсеке, поток запроса освобождается сразу.
+     * По истечении {@code app.search.bulkhead.timeout-millis} или при разрыве соединения
+     * поиск отменяется.
+     *
      * @param query поисковый запрос
-     * @return список подходящих DTO новостей
+     * @return отложенный список подходящих DTO новостей
      */
     @GetMapping("/search")
-    public ResponseEntity<List<NewsDto>> search(@RequestParam String query) {
+    public DeferredResult<ResponseEntity<List<NewsDto>>> search(@RequestParam String query) {
         log.info("GET /api/news/search — query='{}'", query);
-        return ResponseEntity.ok(newsService.search(query));
+        DeferredResult<ResponseEntity<List<NewsDto>>> result = new DeferredResult<>(searchTimeoutMillis);
+        CompletableFuture<List<NewsDto>> search = newsSearchService.search(query);
+        search.whenComplete((news, error) -> {
+            if (error == null) {
+                result.setResult(ResponseEntity.ok(news));
+            } else if (!(error instanceof CancellationException)) {
+                result.setErrorResult(error instanceof CompletionException ? error.getCause() : error);
+            }
+        });
+        result.onTimeout(() -> result.setErrorResult(
+                new ServiceUnavailableException("Search timed out, retry later", searchRetryAfterSeconds)));
+        result.onCompletion(() -> search.cancel(false));
+        return result;
+    }
+
+    /**
+     * Подсказывает заголовки новостей по введённому префиксу.
+     *
+     * Отвечает из памяти без обращения к БД, поэтому подходит для вызова на каждое нажатие клавиши.
+     *
+     * @param prefix введённый префикс заголовка
+     * @param limit наибольшее число подсказок (по умолчанию 10, не больше {@code app.news.suggest.top-k})
+     * @return подсказки от популярных к менее популярным
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<List<NewsSuggestionDto>> suggest(@RequestParam String prefix,
+                                                           @RequestParam(defaultValue = "10") int limit) {
+        log.debug("GET /api/news/suggest — prefix='{}', limit={}", prefix, limit);
+        return ResponseEntity.ok(newsSearchService.suggest(prefix, limit));
     }
 
     /**
      * Получает новость по её идентификатору.
      *
      * @param id идентификатор новости
-     * @return DTO новости
+     * @return DTO новости с ETag версии
      */
     @GetMapping("/{id}")
     public ResponseEntity<NewsDto> get(@PathVariable Long id) {
         log.info("GET /api/news/{} — fetch news by ID", id);
-        return ResponseEntity.ok(newsService.getNewsById(id));
+        NewsDto news = newsService.getNewsById(id);
+        return ETags.ok(news, news.getVersion());
     }
 
     /**
@@ -144,6 +232,25 @@ public class NewsController {
         return ResponseEntity.ok(newsService.updateNews(id, dto));
     }
 
+    /**
+     * Частично изменяет новость одним условным UPDATE.
+     *
+     * @param id      идентификатор новости
+     * @param ifMatch ETag версии, на которой основано изменение, или {@code *}
+     * @param dto     изменяемые поля: {@code title}, {@code text}, {@code updatedById}
+     * @return изменённая новость с ETag новой версии; 412 — если версия уже другая,
+     *         428 — если {@code If-Match} не передан
+     */
+    @PatchMapping("/{id}")
+    public ResponseEntity<NewsDto> patch(@PathVariable Long id,
+                                         @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                         @RequestBody NewsDto dto) {
+        log.info("PATCH /api/news/{} — patch news, If-Match={}", id, ifMatch);
+        log.debug("Payload: {}", dto);
+        NewsDto patched = newsService.patchNews(id, ETags.parseIfMatch(ifMatch, "News", id), dto);
+        return ETags.ok(patched, patched.getVersion());
+    }
+
     /**
      * Удаляет новость по её идентификатору.
      *
@@ -0,0 +1,36 @@
+package by.mosquitto.api;
+
+import by.mosquitto.dto.NewsFeedRebuildDto;
+import by.mosquitto.service.contract.NewsFeedService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST-контроллер обслуживания витрины ленты новостей (доступен только роли ADMIN).
+ *
+ * Эндпоинты:
+ * - Полная пересборка витрины {@code news_feed} из таблиц новостей, комментариев и пользователей
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/admin/news-feed")
+@RequiredArgsConstructor
+public class NewsFeedAdminController {
+
+    private final NewsFeedService newsFeedService;
+
+    /**
+     * Пересобирает витрину параллельными пачками по диапазонам id.
+     *
+     * @return число строк, пачек и длительность пересборки
+     */
+    @PostMapping("/rebuild")
+    public ResponseEntity<NewsFeedRebuildDto> rebuild() {
+        log.info("POST /api/admin/news-feed/rebuild");
+        return ResponseEntity.ok(newsFeedService.rebuild());
+    }
+}
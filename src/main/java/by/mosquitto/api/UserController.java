@@ -1,10 +1,14 @@
 package by.mosquitto.api;
 
+import by.mosquitto.dto.UserActivityPageDto;
 import by.mosquitto.dto.UserDto;
+import by.mosquitto.exception.InvalidRequestException;
+import by.mosquitto.service.contract.UserActivityService;
 import by.mosquitto.service.contract.UserService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -17,10 +21,13 @@ import java.util.List;
  * Эндпоинты:
  * - Получение пользователя по ID
  * - Получение всех пользователей
+ * - Лента активности пользователя (новости и комментарии) с курсором
  * - Создание нового пользователя
  * - Обновление существующего пользователя
+ * - Частичное изменение пользователя (PATCH) с проверкой версии по {@code If-Match}
  * - Удаление пользователя
  *
+ * Пользователь по ID и результат PATCH отдаются с ETag версии строки.
  * Все действия логируются. Используется валидация входных данных.
  */
 @Slf4j
@@ -29,18 +36,22 @@ import java.util.List;
 @RequiredArgsConstructor
 public class UserController {
 
+    private static final int MAX_ACTIVITY_LIMIT = 100;
+
     private final UserService userService;
+    private final UserActivityService userActivityService;
 
     /**
      * Получает пользователя по его идентификатору.
      *
      * @param id идентификатор пользователя
-     * @return DTO пользователя
+     * @return DTO пользователя с ETag версии
      */
     @GetMapping("/{id}")
     public ResponseEntity<UserDto> getUser(@PathVariable Long id) {
         log.info("GET /api/users/{} — fetch user by ID", id);
-        return ResponseEntity.ok(userService.getById(id));
+        UserDto user = userService.getById(id);
+        return ETags.ok(user, user.getVersion());
     }
 
     /**
@@ -54,6 +65,28 @@ public class UserController {
         return ResponseEntity.ok(userService.getAll());
     }
 
+    /**
+     * Получает новости и комментарии пользователя от новых к старым.
+     *
+     * Клиент передаёт {@code nextCursor} из ответа в {@code cursor} следующего запроса;
+     * стоимость страницы не зависит от её глубины и числа публикаций пользователя.
+     *
+     * @param id     идентификатор пользователя
+     * @param cursor курсор предыдущей страницы (без него — первая страница)
+     * @param limit  размер страницы (по умолчанию 20, не более 100)
+     * @return страница активности с курсором продолжения
+     */
+    @GetMapping("/{id}/activity")
+    public ResponseEntity<UserActivityPageDto> getUserActivity(@PathVariable Long id,
+                                                               @RequestParam(required = false) String cursor,
+                                                               @RequestParam(defaultValue = "20") int limit) {
+        log.info("GET /api/users/{}/activity — cursor={}, limit={}", id, cursor, limit);
+        if (limit < 1 || limit > MAX_ACTIVITY_LIMIT) {
+            throw new InvalidRequestException("Parameter 'limit' must be between 1 and " + MAX_ACTIVITY_LIMIT);
+        }
+        return ResponseEntity.ok(userActivityService.getActivity(id, cursor, limit));
+    }
+
     /**
      * Создаёт нового пользователя.
      *
@@ -82,6 +115,25 @@ public class UserController {
         return ResponseEntity.ok(userService.update(id, userDto));
     }
 
+    /**
+     * Частично изменяет пользователя по ID одним условным UPDATE.
+     *
+     * @param id      идентификатор пользователя
+     * @param ifMatch ETag версии, на которой основано изменение, или {@code *}
+     * @param userDto изменяемые поля; отсутствующие не меняются
+     * @return изменённый пользователь с ETag новой версии; 412 — если версия уже другая,
+     *         428 — если {@code If-Match} не передан
+     */
+    @PatchMapping("/{id}")
+    public ResponseEntity<UserDto> patchUser(@PathVariable Long id,
+                                             @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                             @RequestBody UserDto userDto) {
+        log.info("PATCH /api/users/{} — patch user, If-Match={}", id, ifMatch);
+        log.debug("Payload: {}", userDto);
+        UserDto patched = userService.patch(id, ETags.parseIfMatch(ifMatch, "User", id), userDto);
+        return ETags.ok(patched, patched.getVersion());
+    }
+
     /**
      * Удаляет пользователя по ID.
      *
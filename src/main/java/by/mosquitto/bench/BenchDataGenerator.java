@@ -0,0 +1,242 @@
+package by.mosquitto.bench;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Генератор синтетических данных для профиля {@code bench}.
+ *
+ * Заполняет пустую БД пользователями, новостями и комментариями в объёмах
+ * {@code app.bench.generator.*}:
+ * - Данные детерминированы: каждая порция строк генерируется собственным
+ *   генератором случайных чисел, производным от {@code seed} и номера первой строки,
+ *   поэтому результат не зависит от числа потоков и порядка их выполнения
+ * - Идентификаторы назначаются явно, после загрузки счётчики identity сдвигаются за максимум
+ * - Число комментариев на новость распределено по закону Ципфа ({@code comment-skew})
+ * - Порции вставляются параллельно JDBC-батчами, каждая в своей транзакции
+ *
+ * Если в БД уже есть пользователи, генерация пропускается — файловую БД профиля
+ * можно переиспользовать между запусками.
+ */
+@Slf4j
+@Component
+@Profile("bench")
+@RequiredArgsConstructor
+public class BenchDataGenerator implements ApplicationRunner {
+
+    private static final String INSERT_USER_SQL =
+            "INSERT INTO app_user (id, username, password, name, surname, parent_name, creation_date, last_edit_date) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_NEWS_SQL =
+            "INSERT INTO news (id, title, text, creation_date, last_edit_date, created_by_user, updated_by_user) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_COMMENT_SQL =
+            "INSERT INTO comments (id, text, creation_date, last_edit_date, created_by_user, news_id) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final long USERS_SALT = 0x5553_4552L;
+    private static final long NEWS_SALT = 0x4E45_5753L;
+    private static final long COMMENTS_SALT = 0x434F_4D4DL;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${app.bench.generator.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.bench.generator.seed:42}")
+    private long seed;
+
+    @Value("${app.bench.generator.users:10000}")
+    private int users;
+
+    @Value("${app.bench.generator.news:1000000}")
+    private int news;
+
+    @Value("${app.bench.generator.comments:20000000}")
+    private long comments;
+
+    @Value("${app.bench.generator.comment-skew:1.1}")
+    private double commentSkew;
+
+    @Value("${app.bench.generator.reference-date:2025-09-01T00:00:00}")
+    private LocalDateTime referenceDate;
+
+    @Value("${app.bench.generator.history-days:365}")
+    private int historyDays;
+
+    @Value("${app.bench.generator.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${app.bench.generator.chunk-size:20000}")
+    private int chunkSize;
+
+    @Value("${app.bench.generator.parallelism:8}")
+    private int parallelism;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        Long existingUsers = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM app_user", Long.class);
+        if (existingUsers != null && existingUsers > 0) {
+            log.info("Bench data already present ({} users), generation skipped", existingUsers);
+            return;
+        }
+
+        log.info("Generating bench data: users={}, news={}, comments={}, seed={}, parallelism={}",
+                users, news, comments, seed, parallelism);
+        long start = System.nanoTime();
+        ZipfSampler newsPopularity = new ZipfSampler(news, commentSkew);
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        try {
+            load(executor, "app_user", users, this::insertUsers);
+            load(executor, "news", news, this::insertNews);
+            load(executor, "comments", comments, (from, to) -> insertComments(from, to, newsPopularity));
+        } finally {
+            executor.shutdownNow();
+        }
+        log.info("Bench data generated in {}s", TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start));
+    }
+
+    private void load(ExecutorService executor, String table, long rows, ChunkWriter writer) {
+        long start = System.nanoTime();
+        List<Future<?>> chunks = new ArrayList<>();
+        for (long from = 1; from <= rows; from += chunkSize) {
+            long chunkFrom = from;
+            long chunkTo = Math.min(from + chunkSize, rows + 1);
+            chunks.add(executor.submit(() -> new TransactionTemplate(transactionManager)
+                    .executeWithoutResult(status -> writer.write(chunkFrom, chunkTo))));
+        }
+        try {
+            for (Future<?> chunk : chunks) {
+                chunk.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Bench data generation interrupted", e);
+        } catch (ExecutionException e) {
+            chunks.forEach(chunk -> chunk.cancel(true));
+            throw new IllegalStateException("Failed to generate bench data for table " + table, e.getCause());
+        }
+        if (rows > 0) {
+            restartIdentity(table, rows + 1);
+        }
+
+        long millis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        log.info("Loaded {} rows into {} in {}ms ({} rows/s)", rows, table, millis, rows * 1000 / millis);
+    }
+
+    private void insertUsers(long from, long to) {
+        SplittableRandom random = random(USERS_SALT, from);
+        List<Object[]> rows = new ArrayList<>((int) (to - from));
+        for (long id = from; id < to; id++) {
+            LocalDateTime created = referenceDate.minusMinutes(random.nextLong(TimeUnit.DAYS.toMinutes(historyDays) + 1));
+            rows.add(new Object[]{
+                    id,
+                    "user" + id,
+                    "pass123",
+                    SyntheticText.firstName(random),
+                    SyntheticText.surname(random),
+                    SyntheticText.parentName(random),
+                    Timestamp.valueOf(created),
+                    Timestamp.valueOf(created.plusMinutes(random.nextInt(60 * 24)))
+            });
+        }
+        batchInsert(INSERT_USER_SQL, rows);
+    }
+
+    private void insertNews(long from, long to) {
+        SplittableRandom random = random(NEWS_SALT, from);
+        List<Object[]> rows = new ArrayList<>((int) (to - from));
+        for (long id = from; id < to; id++) {
+            LocalDateTime created = newsCreationDate(id);
+            boolean edited = random.nextInt(5) == 0;
+            rows.add(new Object[]{
+                    id,
+                    SyntheticText.title(random),
+                    SyntheticText.newsText(random),
+                    Timestamp.valueOf(created),
+                    Timestamp.valueOf(edited ? created.plusMinutes(1 + random.nextInt(60 * 24)) : created),
+                    1 + random.nextInt(users),
+                    edited ? 1L + random.nextInt(users) : null
+            });
+        }
+        batchInsert(INSERT_NEWS_SQL, rows);
+    }
+
+    private void insertComments(long from, long to, ZipfSampler newsPopularity) {
+        SplittableRandom random = random(COMMENTS_SALT, from);
+        List<Object[]> rows = new ArrayList<>((int) (to - from));
+        for (long id = from; id < to; id++) {
+            long newsId = 1L + newsPopularity.next(random);
+            LocalDateTime newsCreated = newsCreationDate(newsId);
+            long window = Math.max(1, Duration.between(newsCreated, referenceDate).toSeconds());
+            LocalDateTime created = newsCreated.plusSeconds(random.nextLong(window));
+            rows.add(new Object[]{
+                    id,
+                    SyntheticText.comment(random),
+                    Timestamp.valueOf(created),
+                    Timestamp.valueOf(created),
+                    1 + random.nextInt(users),
+                    newsId
+            });
+        }
+        batchInsert(INSERT_COMMENT_SQL, rows);
+    }
+
+    private void batchInsert(String sql, List<Object[]> rows) {
+        ParameterizedPreparedStatementSetter<Object[]> setter = (ps, row) -> {
+            for (int i = 0; i < row.length; i++) {
+                ps.setObject(i + 1, row[i]);
+            }
+        };
+        jdbcTemplate.batchUpdate(sql, rows, batchSize, setter);
+    }
+
+    /**
+     * Новости равномерно распределены по {@code history-days} до опорной даты: чем больше id, тем новее.
+     */
+    private LocalDateTime newsCreationDate(long newsId) {
+        long historySeconds = TimeUnit.DAYS.toSeconds(historyDays);
+        return referenceDate.minusSeconds(historySeconds * (news - newsId) / news);
+    }
+
+    private SplittableRandom random(long salt, long firstRow) {
+        return new SplittableRandom(seed ^ salt ^ (firstRow * 0x9E37_79B9_7F4A_7C15L));
+    }
+
+    private void restartIdentity(String table, long next) {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) con -> con.getMetaData().getDatabaseProductName());
+        if ("PostgreSQL".equalsIgnoreCase(product)) {
+            jdbcTemplate.queryForObject("SELECT setval(pg_get_serial_sequence(?, 'id'), ?)", Long.class, table, next - 1);
+        } else {
+            jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + next);
+        }
+    }
+
+    @FunctionalInterface
+    private interface ChunkWriter {
+        void write(long from, long to);
+    }
+}
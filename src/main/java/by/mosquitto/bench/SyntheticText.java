@@ -0,0 +1,119 @@
+package by.mosquitto.bench;
+
+import java.util.SplittableRandom;
+
+/**
+ * Генерация синтетических текстов для нагрузочных данных.
+ *
+ * Тексты смешивают кириллицу и латиницу (примерно 70/30 по предложениям),
+ * чтобы кодировка, LIKE-поиск и сериализация работали на реалистичном наборе символов.
+ * Все методы детерминированы относительно переданного генератора случайных чисел.
+ */
+final class SyntheticText {
+
+    static final int MAX_TITLE_LENGTH = 150;
+    static final int MAX_NEWS_TEXT_LENGTH = 2000;
+    static final int MAX_COMMENT_LENGTH = 300;
+    static final int MAX_NAME_LENGTH = 50;
+
+    private static final String[] CYRILLIC_WORDS = {
+            "новость", "город", "сегодня", "проект", "команда", "решение", "данные", "система",
+            "развитие", "рынок", "погода", "выборы", "спорт", "матч", "заявление", "министерство",
+            "исследование", "технология", "компания", "открытие", "жители", "центр", "дорога", "школа",
+            "университет", "концерт", "выставка", "отчёт", "бюджет", "снижение", "рост", "партнёры",
+            "пресс-служба", "вопрос", "ответ", "событие", "регион", "столица", "неделя", "итоги"
+    };
+
+    private static final String[] LATIN_WORDS = {
+            "release", "update", "cloud", "server", "performance", "latency", "startup", "market",
+            "report", "launch", "security", "open", "source", "framework", "database", "network",
+            "mobile", "design", "team", "growth", "data", "platform", "research", "energy",
+            "policy", "league", "final", "season", "review", "feature", "benchmark", "java"
+    };
+
+    private static final String[] FIRST_NAMES = {
+            "Иван", "Анна", "Сергей", "Мария", "Алексей", "Ольга", "Дмитрий", "Елена",
+            "Alice", "Bob", "Carol", "Dave", "Eve", "Frank", "Grace", "Henry"
+    };
+
+    private static final String[] SURNAMES = {
+            "Иванов", "Петрова", "Сидоров", "Кузнецова", "Смирнов", "Попова", "Волков", "Лебедева",
+            "Smith", "Johnson", "Williams", "Brown", "Jones", "Miller", "Davis", "Wilson"
+    };
+
+    private static final String[] PARENT_NAMES = {
+            "Сергеевич", "Ивановна", "Петрович", "Алексеевна", "Дмитриевич", "Николаевна",
+            "Marie", "Edward", "Helen", "George", "James", "Rose"
+    };
+
+    private SyntheticText() {
+    }
+
+    static String firstName(SplittableRandom random) {
+        return pick(random, FIRST_NAMES);
+    }
+
+    static String surname(SplittableRandom random) {
+        return pick(random, SURNAMES);
+    }
+
+    static String parentName(SplittableRandom random) {
+        return pick(random, PARENT_NAMES);
+    }
+
+    /**
+     * Заголовок новости из 3–10 слов.
+     */
+    static String title(SplittableRandom random) {
+        return truncate(capitalize(words(random, 3 + random.nextInt(8))), MAX_TITLE_LENGTH);
+    }
+
+    /**
+     * Текст новости длиной от 200 символов до ограничения схемы.
+     */
+    static String newsText(SplittableRandom random) {
+        return paragraph(random, 200 + random.nextInt(MAX_NEWS_TEXT_LENGTH - 200), MAX_NEWS_TEXT_LENGTH);
+    }
+
+    /**
+     * Комментарий из одного–трёх коротких предложений.
+     */
+    static String comment(SplittableRandom random) {
+        return paragraph(random, 20 + random.nextInt(200), MAX_COMMENT_LENGTH);
+    }
+
+    private static String paragraph(SplittableRandom random, int targetLength, int maxLength) {
+        StringBuilder text = new StringBuilder(targetLength + 64);
+        while (text.length() < targetLength) {
+            if (!text.isEmpty()) {
+                text.append(' ');
+            }
+            text.append(capitalize(words(random, 4 + random.nextInt(10)))).append('.');
+        }
+        return truncate(text.toString(), maxLength);
+    }
+
+    private static String words(SplittableRandom random, int count) {
+        String[] dictionary = random.nextInt(10) < 7 ? CYRILLIC_WORDS : LATIN_WORDS;
+        StringBuilder sentence = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                sentence.append(' ');
+            }
+            sentence.append(pick(random, dictionary));
+        }
+        return sentence.toString();
+    }
+
+    private static String pick(SplittableRandom random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static String capitalize(String value) {
+        return Character.toUpperCase(value.charAt(0)) + value.substring(1);
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value.length() <= maxLength ? value : value.substring(0, maxLength).stripTrailing();
+    }
+}
@@ -0,0 +1,52 @@
+package by.mosquitto.bench;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Выбор элемента из {@code size} позиций по закону Ципфа: вероятность позиции
+ * ранга {@code r} пропорциональна {@code 1 / r^skew}.
+ *
+ * Ранги переставлены мультипликативной перестановкой, поэтому «популярные»
+ * элементы разбросаны по всему диапазону, а не сосредоточены в его начале.
+ * Экземпляр неизменяем и безопасен для использования из нескольких потоков.
+ */
+final class ZipfSampler {
+
+    private static final long STRIDE = 2_654_435_761L;
+
+    private final double[] cumulative;
+    private final long stride;
+
+    ZipfSampler(int size, double skew) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Zipf sampler size must be positive: " + size);
+        }
+        cumulative = new double[size];
+        double total = 0;
+        for (int rank = 0; rank < size; rank++) {
+            total += 1.0 / Math.pow(rank + 1, skew);
+            cumulative[rank] = total;
+        }
+        stride = gcd(STRIDE % size, size) == 1 ? STRIDE % size : 1;
+    }
+
+    /**
+     * Возвращает позицию в диапазоне {@code [0, size)}.
+     *
+     * @param random генератор случайных чисел вызывающего потока
+     * @return выбранная позиция
+     */
+    int next(SplittableRandom random) {
+        double point = random.nextDouble() * cumulative[cumulative.length - 1];
+        int rank = Arrays.binarySearch(cumulative, point);
+        if (rank < 0) {
+            rank = -rank - 1;
+        }
+        return (int) ((rank * stride) % cumulative.length);
+    }
+
+    private static long gcd(long a, long b) {
+        return b == 0 ? a : gcd(b, a % b);
+    }
+}
@@ -0,0 +1,248 @@
+package by.mosquitto.cache;
+
+import by.mosquitto.dto.NewsDto;
+import by.mosquitto.event.NewsChangedEvent;
+import by.mosquitto.mapper.NewsMapper;
+import by.mosquitto.repository.NewsRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * In-memory лента последних новостей для первых страниц {@code /api/news/paged}.
+ *
+ * Хранит до {@code capacity} свежих новостей, отсортированных по {@code creationDate desc},
+ * и общее число новостей. Чтение — без блокировок: неизменяемый снимок публикуется через
+ * {@link AtomicReference}, изменения применяются CAS-циклом поверх копии. Каждое событие публикует
+ * новый экземпляр снимка, поэтому загрузка сохраняет результат только через {@code compareAndSet}
+ * со снимком, прочитанным до запроса, и не затирает изменение, пришедшее во время запроса.
+ *
+ * Событие приходит уже после коммита, поэтому запрос загрузки может увидеть запись, событие которой
+ * ещё не применено, — и тогда оно учлось бы дважды. Транзакции с изменениями новостей считаются
+ * от {@code BEFORE_COMMIT} до завершения: загрузка начинается, только когда незавершённых нет, и
+ * сохраняет результат, только если за время запроса ни одна новая не дошла до коммита.
+ *
+ * Особенности:
+ * - Загружается при старте приложения одним запросом к БД; не загруженная или опустевшая лента
+ *   перезагружается по расписанию ({@code app.news.hot-feed.reload-millis})
+ * - Обновляется после коммита createNews/updateNews/deleteNews и каскадного удаления новостей
+ *   вместе с пользователем ({@link NewsChangedEvent})
+ * - Порядок совпадает с запросом к БД: при равной дате создания новее большая по id новость
+ * - Страница отдаётся из памяти, только если она целиком покрыта лентой и
+ *   запрошена сортировка по умолчанию; иначе вызывающий идёт в репозиторий
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class HotNewsFeed {
+
+    static final Sort FEED_SORT = Sort.by("creationDate").descending();
+    private static final Sort FEED_SORT_WITH_ID = FEED_SORT.and(Sort.by("id").descending());
+
+    private static final Comparator<NewsDto> NEWEST_FIRST = Comparator
+            .comparing(NewsDto::getCreationDate, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(NewsDto::getId, Comparator.nullsLast(Comparator.reverseOrder()));
+
+    private static final int MAX_LOAD_ATTEMPTS = 3;
+
+    private final NewsRepository newsRepository;
+
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(Snapshot.EMPTY);
+
+    /**
+     * События транзакций, которые дошли до коммита, но ещё не завершились.
+     */
+    private final Set<NewsChangedEvent> committing = Collections.synchronizedSet(
+            Collections.newSetFromMap(new IdentityHashMap<>()));
+
+    /**
+     * Число транзакций, дошедших до коммита, — метка, по которой загрузка узнаёт о записях во время запроса.
+     */
+    private final AtomicLong commits = new AtomicLong();
+
+    @Value("${app.news.hot-feed.capacity:30}")
+    private int capacity;
+
+    /**
+     * Загружает ленту из БД после старта приложения.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        for (int attempt = 1; attempt <= MAX_LOAD_ATTEMPTS; attempt++) {
+            Snapshot before = snapshot.get();
+            long commitsBefore = commits.get();
+            if (!committing.isEmpty()) {
+                log.debug("News transactions in flight, hot feed load postponed: attempt={}", attempt);
+                continue;
+            }
+            Page<NewsDto> latest = newsRepository.findAll(PageRequest.of(0, capacity, FEED_SORT_WITH_ID))
+                    .map(NewsMapper::toDto);
+            Snapshot loaded = new Snapshot(List.copyOf(latest.getContent()), latest.getTotalElements(), true);
+            if (commits.get() == commitsBefore && snapshot.compareAndSet(before, loaded)) {
+                log.info("Hot news feed loaded: size={}, total={}", latest.getNumberOfElements(), latest.getTotalElements());
+                return;
+            }
+            log.debug("News changed while loading hot feed, retrying: attempt={}", attempt);
+        }
+        log.warn("Hot news feed was not loaded: concurrent writes during {} attempts, will retry", MAX_LOAD_ATTEMPTS);
+    }
+
+    /**
+     * Повторяет загрузку, если лента не загружена или опустела после удалений.
+     */
+    @Scheduled(fixedDelayString = "${app.news.hot-feed.reload-millis:5000}")
+    public void reloadIfNeeded() {
+        if (needsReload(snapshot.get())) {
+            load();
+        }
+    }
+
+    /**
+     * Возвращает страницу из памяти, если лента способна её обслужить.
+     *
+     * @param pageable параметры пагинации и сортировки
+     * @return страница DTO новостей или пустой Optional, если нужен запрос к БД
+     */
+    public Optional<Page<NewsDto>> find(Pageable pageable) {
+        Snapshot current = snapshot.get();
+        if (!current.loaded() || !FEED_SORT.equals(pageable.getSort())) {
+            return Optional.empty();
+        }
+
+        List<NewsDto> items = current.items();
+        long from = pageable.getOffset();
+        long to = from + pageable.getPageSize();
+        if (to > items.size() && items.size() < current.total()) {
+            return Optional.empty();
+        }
+
+        List<NewsDto> content = from >= items.size()
+                ? List.of()
+                : items.subList((int) from, (int) Math.min(to, items.size()));
+        return Optional.of(new PageImpl<>(content, pageable, current.total()));
+    }
+
+    /**
+     * Добавляет к сортировке ленты по умолчанию id как второй ключ, чтобы страницы из БД
+     * шли в том же порядке, что и страницы из памяти.
+     *
+     * @param pageable параметры пагинации и сортировки
+     * @return те же параметры, при сортировке по умолчанию — с id
+     */
+    public static Pageable withTieBreak(Pageable pageable) {
+        return FEED_SORT.equals(pageable.getSort())
+                ? PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), FEED_SORT_WITH_ID)
+                : pageable;
+    }
+
+    /**
+     * Отмечает транзакцию с изменением новости, которая переходит к коммиту.
+     *
+     * @param event событие изменения новости
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onNewsCommitting(NewsChangedEvent event) {
+        committing.add(event);
+        commits.incrementAndGet();
+    }
+
+    /**
+     * Применяет изменение новости к ленте после коммита транзакции.
+     *
+     * @param event событие изменения новости
+     */
+    @Order(0)
+    @TransactionalEventListener
+    public void onNewsChanged(NewsChangedEvent event) {
+        snapshot.updateAndGet(current -> current.loaded() ? apply(current, event) : Snapshot.empty());
+    }
+
+    /**
+     * Снимает отметку транзакции после её завершения — уже после {@link #onNewsChanged} — и
+     * перезагружает ленту, если она опустела.
+     *
+     * @param event событие изменения новости
+     */
+    @Order(1)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION)
+    public void onNewsCompleted(NewsChangedEvent event) {
+        committing.remove(event);
+
+        Snapshot current = snapshot.get();
+        if (current.loaded() && needsReload(current)) {
+            log.debug("Hot news feed drained to {} items, reloading", current.items().size());
+            load();
+        }
+    }
+
+    private boolean needsReload(Snapshot current) {
+        return !current.loaded()
+                || current.items().size() < capacity / 2 && current.items().size() < current.total();
+    }
+
+    private Snapshot apply(Snapshot current, NewsChangedEvent event) {
+        List<NewsDto> items = new ArrayList<>(current.items());
+        boolean removed = items.removeIf(item -> Objects.equals(item.getId(), event.newsId()));
+
+        return switch (event.type()) {
+            case CREATED -> {
+                items.add(event.news());
+                items.sort(NEWEST_FIRST);
+                if (items.size() > capacity) {
+                    items.subList(capacity, items.size()).clear();
+                }
+                yield new Snapshot(List.copyOf(items), current.total() + 1, true);
+            }
+            case UPDATED -> {
+                if (!removed) {
+                    yield new Snapshot(current.items(), current.total(), true);
+                }
+                items.add(event.news());
+                items.sort(NEWEST_FIRST);
+                yield new Snapshot(List.copyOf(items), current.total(), true);
+            }
+            case DELETED -> new Snapshot(List.copyOf(items), Math.max(0, current.total() - 1), true);
+        };
+    }
+
+    /**
+     * Неизменяемый снимок ленты.
+     *
+     * @param items  новости, от новых к старым
+     * @param total  общее число новостей в БД
+     * @param loaded признак выполненной начальной загрузки
+     */
+    private record Snapshot(List<NewsDto> items, long total, boolean loaded) {
+        static final Snapshot EMPTY = empty();
+
+        /**
+         * Новый экземпляр незагруженного снимка: отличается по ссылке от прочитанного загрузкой.
+         */
+        static Snapshot empty() {
+            return new Snapshot(List.of(), 0, false);
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package by.mosquitto.cache;
+
+import by.mosquitto.event.ChangeType;
+import by.mosquitto.event.CommentChangedEvent;
+import by.mosquitto.event.NewsChangedEvent;
+import by.mosquitto.event.UserChangedEvent;
+import by.mosquitto.sql.ReadYourWrites;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Короткоживущий кэш отсутствующих id: повторный запрос несуществующей сущности
+ * получает 404 без обращения к БД.
+ *
+ * Особенности:
+ * - Промах запоминается на {@code app.cache.negative.ttl-millis}; за это время новая сущность с таким id
+ *   может появиться только через создание в этом приложении, а оно сбрасывает запись после коммита
+ *   ({@link NewsChangedEvent}, {@link CommentChangedEvent}, {@link UserChangedEvent} типа CREATED);
+ *   обновление и удаление отсутствующий id существующим не делают
+ * - Счётчик поколений по виду сущности не даёт запомнить промах, прочитанный до коммита
+ *   конкурирующей записи (как в {@link ResponseByteCache})
+ * - Размер ограничен {@code app.cache.negative.max-entries} на вид сущности: при заполнении новые промахи
+ *   не запоминаются до очистки устаревших записей (раз в {@code ttl-millis})
+ *
+ * Публикует метрики с тегом {@code entity}: {@code cache.negative.hits}, {@code cache.negative.size}.
+ */
+@Slf4j
+@Component
+public class NegativeLookupCache implements MeterBinder {
+
+    /**
+     * Вид сущности; у каждого — свой набор id и своё поколение.
+     */
+    public enum Entity {
+        NEWS,
+        COMMENT,
+        USER
+    }
+
+    private final Map<Entity, Region> regions = new EnumMap<>(Entity.class);
+    private final LongSupplier clock;
+
+    @Value("${app.cache.negative.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.cache.negative.ttl-millis:5000}")
+    private long ttlMillis;
+
+    @Value("${app.cache.negative.max-entries:100000}")
+    private int maxEntries;
+
+    public NegativeLookupCache() {
+        this(System::nanoTime);
+    }
+
+    NegativeLookupCache(LongSupplier clock) {
+        this.clock = clock;
+        for (Entity entity : Entity.values()) {
+            regions.put(entity, new Region());
+        }
+    }
+
+    /**
+     * Текущее поколение вида сущности; фиксируется до чтения из БД и передаётся в {@link #markMissing}.
+     *
+     * @param entity вид сущности
+     * @return номер поколения
+     */
+    public long generation(Entity entity) {
+        return regions.get(entity).generation.get();
+    }
+
+    /**
+     * Проверяет, известно ли, что сущности с таким id нет.
+     *
+     * @param entity вид сущности
+     * @param id     идентификатор
+     * @return {@code true}, если недавний промах ещё действителен; всегда {@code false} для клиента,
+     *         который недавно писал ({@link ReadYourWrites}): запомненный промах мог быть прочитан с отстающей реплики
+     */
+    public boolean isMissing(Entity entity, Long id) {
+        if (!enabled || ReadYourWrites.isPrimaryRequired()) {
+            return false;
+        }
+        Region region = regions.get(entity);
+        Long expiresAt = region.missing.get(id);
+        if (expiresAt == null) {
+            return false;
+        }
+        if (expiresAt - clock.getAsLong() <= 0) {
+            region.missing.remove(id, expiresAt);
+            return false;
+        }
+        region.hits.increment();
+        return true;
+    }
+
+    /**
+     * Запоминает промах, если с момента {@code observedGeneration} сущности этого вида не создавались.
+     *
+     * @param entity             вид сущности
+     * @param id                 идентификатор, не найденный в БД
+     * @param observedGeneration поколение, зафиксированное до чтения
+     */
+    public void markMissing(Entity entity, Long id, long observedGeneration) {
+        Region region = regions.get(entity);
+        if (!enabled || observedGeneration != region.generation.get() || region.missing.size() >= maxEntries) {
+            return;
+        }
+        Long expiresAt = clock.getAsLong() + TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        region.missing.put(id, expiresAt);
+        if (observedGeneration != region.generation.get()) {
+            region.missing.remove(id, expiresAt);
+        }
+    }
+
+    /**
+     * Сбрасывает промах по id и отменяет незавершённые {@link #markMissing} этого вида.
+     *
+     * @param entity вид сущности
+     * @param id     идентификатор
+     */
+    public void invalidate(Entity entity, Long id) {
+        Region region = regions.get(entity);
+        region.generation.incrementAndGet();
+        region.missing.remove(id);
+    }
+
+    @TransactionalEventListener
+    public void onNewsChanged(NewsChangedEvent event) {
+        if (event.type() == ChangeType.CREATED) {
+            invalidate(Entity.NEWS, event.newsId());
+        }
+    }
+
+    @TransactionalEventListener
+    public void onCommentChanged(CommentChangedEvent event) {
+        if (event.type() == ChangeType.CREATED) {
+            invalidate(Entity.COMMENT, event.commentId());
+        }
+    }
+
+    @TransactionalEventListener
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.type() == ChangeType.CREATED) {
+            invalidate(Entity.USER, event.userId());
+        }
+    }
+
+    /**
+     * Удаляет устаревшие промахи.
+     */
+    @Scheduled(fixedDelayString = "${app.cache.negative.ttl-millis:5000}")
+    public void evictExpired() {
+        long now = clock.getAsLong();
+        regions.forEach((entity, region) -> {
+            int before = region.missing.size();
+            region.missing.values().removeIf(expiresAt -> expiresAt - now <= 0);
+            if (before >= maxEntries) {
+                log.debug("Negative cache for {} was full, {} entries left after eviction", entity, region.missing.size());
+            }
+        });
+    }
+
+    public long getHits(Entity entity) {
+        return regions.get(entity).hits.sum();
+    }
+
+    public int getSize(Entity entity) {
+        return regions.get(entity).missing.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (Entity entity : Entity.values()) {
+            String tag = entity.name().toLowerCase();
+            FunctionCounter.builder("cache.negative.hits", this, cache -> cache.getHits(entity))
+                    .tag("entity", tag)
+                    .description("Lookups answered as missing without a database query")
+                    .register(registry);
+            Gauge.builder("cache.negative.size", this, cache -> cache.getSize(entity))
+                    .tag("entity", tag)
+                    .description("Remembered missing ids")
+                    .register(registry);
+        }
+    }
+
+    /**
+     * Промахи одного вида сущности: id и момент устаревания, нс.
+     */
+    private static final class Region {
+        private final Map<Long, Long> missing = new ConcurrentHashMap<>();
+        private final AtomicLong generation = new AtomicLong();
+        private final LongAdder hits = new LongAdder();
+    }
+}
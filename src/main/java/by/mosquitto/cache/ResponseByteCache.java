@@ -0,0 +1,196 @@
+package by.mosquitto.cache;
+
+import by.mosquitto.event.NewsChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.DigestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Кэш готовых сериализованных ответов горячих GET-эндпоинтов новостей.
+ *
+ * Хранит итоговые JSON-байты, заранее сжатый gzip-вариант и ETag для каждого URL;
+ * вариант по {@code Accept-Encoding} выбирается при отдаче.
+ *
+ * Особенности:
+ * - Инвалидация после коммита по id новости ({@link NewsChangedEvent});
+ *   страницы ленты сбрасываются при любой записи
+ * - Счётчик поколений не даёт сохранить ответ, собранный до инвалидации; проверка повторяется после
+ *   вставки, поэтому запись и чтение обходятся без общей блокировки
+ * - Хранилище — Caffeine с весом по размеру тел (несжатое и gzip): не больше
+ *   {@code app.cache.response.max-bytes} байт, запись живёт не дольше {@code ttl-millis}
+ * - При чтении с реплик ({@code app.datasource.replica.enabled}) ответы не сохраняются
+ *   {@code read-your-writes-millis} после инвалидации: отстающая реплика могла отдать данные до изменения
+ */
+@Slf4j
+@Component
+public class ResponseByteCache {
+
+    private static final int GZIP_MIN_SIZE = 256;
+
+    private final LongSupplier clock;
+    private final AtomicLong generation = new AtomicLong();
+    private Cache<String, CachedResponse> entries;
+    private volatile long fillsPausedUntil;
+
+    @Value("${app.cache.response.max-bytes:67108864}")
+    private long maxBytes;
+
+    @Value("${app.cache.response.ttl-millis:30000}")
+    private long ttlMillis;
+
+    @Value("${app.datasource.replica.enabled:false}")
+    private boolean replicasEnabled;
+
+    @Value("${app.datasource.replica.read-your-writes-millis:5000}")
+    private long replicaLagMillis;
+
+    public ResponseByteCache() {
+        this(System::nanoTime);
+    }
+
+    ResponseByteCache(LongSupplier clock) {
+        this.clock = clock;
+        this.fillsPausedUntil = clock.getAsLong();
+    }
+
+    /**
+     * Создаёт хранилище по настройкам размера и TTL.
+     */
+    @PostConstruct
+    public void init() {
+        entries = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String key, CachedResponse response) -> (int) Math.min(response.size(), Integer.MAX_VALUE))
+                .expireAfterWrite(Duration.ofMillis(ttlMillis))
+                .ticker(clock::getAsLong)
+                .build();
+    }
+
+    /**
+     * Возвращает закэшированный ответ по ключу.
+     *
+     * @param key ключ запроса (URI и строка параметров)
+     * @return закэшированный ответ или {@code null}, если его нет или он устарел
+     */
+    public CachedResponse get(String key) {
+        return entries.getIfPresent(key);
+    }
+
+    /**
+     * Текущее поколение кэша; фиксируется до выполнения запроса и передаётся в {@link #put}.
+     *
+     * @return номер поколения
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Сохраняет ответ, если с момента {@code observedGeneration} не было инвалидаций.
+     *
+     * @param key                ключ запроса
+     * @param newsId             id новости для точечной инвалидации ({@code null} для страниц ленты)
+     * @param observedGeneration поколение, зафиксированное до выполнения запроса
+     * @param body               JSON-байты ответа
+     * @param contentType        тип содержимого
+     * @param etag               ETag, выставленный контроллером, или {@code null}
+     * @return ответ с вычисленным ETag (сохранённый или нет)
+     */
+    public CachedResponse put(String key, Long newsId, long observedGeneration,
+                              byte[] body, String contentType, String etag) {
+        CachedResponse response = new CachedResponse(
+                newsId,
+                body,
+                body.length >= GZIP_MIN_SIZE ? gzip(body) : null,
+                contentType,
+                etag != null ? etag : "\"0" + DigestUtils.md5DigestAsHex(body) + "\"");
+
+        if (response.size() > maxBytes || fillsPausedUntil - clock.getAsLong() > 0
+                || observedGeneration != generation.get()) {
+            return response;
+        }
+        entries.put(key, response);
+        if (observedGeneration != generation.get()) {
+            // Инвалидация между проверкой и вставкой могла не увидеть этот ответ
+            entries.asMap().remove(key, response);
+        }
+        return response;
+    }
+
+    /**
+     * Сбрасывает ответы, затронутые изменением новости.
+     *
+     * @param event событие изменения новости
+     */
+    @TransactionalEventListener
+    public void onNewsChanged(NewsChangedEvent event) {
+        invalidate(event.newsId());
+    }
+
+    /**
+     * Сбрасывает ответ по новости и все закэшированные страницы ленты.
+     *
+     * @param newsId идентификатор новости
+     */
+    public void invalidate(Long newsId) {
+        if (replicasEnabled) {
+            fillsPausedUntil = clock.getAsLong() + TimeUnit.MILLISECONDS.toNanos(replicaLagMillis);
+        }
+        generation.incrementAndGet();
+        entries.asMap().values()
+                .removeIf(response -> response.newsId() == null || Objects.equals(response.newsId(), newsId));
+        log.debug("Response cache invalidated for newsId={}", newsId);
+    }
+
+    /**
+     * Суммарный размер закэшированных тел, байт.
+     */
+    public long getBytes() {
+        entries.cleanUp();
+        return entries.policy().eviction()
+                .map(eviction -> eviction.weightedSize().orElse(0L))
+                .orElse(0L);
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 2);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        byte[] compressed = out.toByteArray();
+        return compressed.length < body.length ? compressed : null;
+    }
+
+    /**
+     * Закэшированный ответ.
+     *
+     * @param newsId      id новости ({@code null} для страниц ленты)
+     * @param identity    несжатое тело
+     * @param gzip        gzip-тело или {@code null}, если сжатие не выгодно
+     * @param contentType тип содержимого
+     * @param etag        строгий ETag
+     */
+    public record CachedResponse(Long newsId, byte[] identity, byte[] gzip, String contentType, String etag) {
+
+        long size() {
+            return identity.length + (gzip != null ? gzip.length : 0);
+        }
+    }
+}
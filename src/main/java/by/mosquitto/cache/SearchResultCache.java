@@ -0,0 +1,235 @@
+package by.mosquitto.cache;
+
+import by.mosquitto.dto.NewsDto;
+import by.mosquitto.event.ChangeType;
+import by.mosquitto.event.NewsChangedEvent;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Кэш результатов поиска новостей: нормализованный запрос → список id найденных новостей.
+ *
+ * Хранятся только id: новости по ним дочитываются по первичному ключу, поэтому удаление новости
+ * не требует инвалидации, а изменённые поля берутся актуальными.
+ *
+ * Особенности:
+ * - Ключ — запрос после {@link #normalize}: NFKC, нижний регистр, без крайних и повторных пробелов
+ * - LRU на {@code app.search.cache.max-entries} запросов, запись живёт не дольше {@code ttl-seconds};
+ *   результаты длиннее {@code max-ids} не кэшируются
+ * - Выборочная инвалидация после коммита ({@link NewsChangedEvent}): сбрасываются только запросы,
+ *   которые являются подстрокой заголовка или текста созданной/изменённой новости (та же семантика,
+ *   что у {@code LIKE '%q%'}), а при изменении — ещё и запросы, в результат которых новость входила;
+ *   запросы с символами шаблона {@code LIKE} сбрасываются всегда
+ * - Счётчик поколений не даёт сохранить результат поиска, начатого до инвалидации
+ *
+ * Публикует метрики: {@code search.cache.hits}, {@code search.cache.misses},
+ * {@code search.cache.invalidations}, {@code search.cache.size}.
+ */
+@Slf4j
+@Component
+public class SearchResultCache implements MeterBinder {
+
+    private final LongSupplier clock;
+    private final AtomicLong generation = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    private final Map<String, CachedResult> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    @Value("${app.search.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.search.cache.max-entries:1000}")
+    private int maxEntries;
+
+    @Value("${app.search.cache.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    @Value("${app.search.cache.max-ids:1000}")
+    private int maxIds;
+
+    public SearchResultCache() {
+        this(System::nanoTime);
+    }
+
+    SearchResultCache(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Приводит запрос к ключу кэша.
+     *
+     * @param query поисковый запрос
+     * @return запрос в NFKC и нижнем регистре, без крайних и повторных пробелов
+     */
+    public static String normalize(String query) {
+        return Normalizer.normalize(query, Normalizer.Form.NFKC)
+                .toLowerCase(Locale.ROOT)
+                .strip()
+                .replaceAll("\\s+", " ");
+    }
+
+    /**
+     * Текущее поколение кэша; фиксируется до поиска и передаётся в {@link #put}.
+     *
+     * @return номер поколения
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Возвращает id результата поиска по нормализованному запросу.
+     *
+     * @param query нормализованный запрос
+     * @return id найденных новостей или {@code null}, если результата нет или он устарел
+     */
+    public List<Long> get(String query) {
+        if (!enabled) {
+            return null;
+        }
+        CachedResult cached;
+        synchronized (entries) {
+            cached = entries.get(query);
+            if (cached != null && cached.expiresAt() - clock.getAsLong() <= 0) {
+                entries.remove(query);
+                cached = null;
+            }
+        }
+        if (cached == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return cached.ids();
+    }
+
+    /**
+     * Сохраняет результат, если с момента {@code observedGeneration} не было инвалидаций.
+     *
+     * @param query              нормализованный запрос
+     * @param news               найденные новости
+     * @param observedGeneration поколение, зафиксированное до поиска
+     */
+    public void put(String query, List<NewsDto> news, long observedGeneration) {
+        if (!enabled || news.size() > maxIds) {
+            return;
+        }
+        CachedResult result = new CachedResult(news.stream().map(NewsDto::getId).toList(),
+                clock.getAsLong() + TimeUnit.SECONDS.toNanos(ttlSeconds));
+        synchronized (entries) {
+            if (observedGeneration != generation.get()) {
+                return;
+            }
+            entries.put(query, result);
+            Iterator<CachedResult> eldest = entries.values().iterator();
+            while (entries.size() > maxEntries) {
+                eldest.next();
+                eldest.remove();
+            }
+        }
+    }
+
+    /**
+     * Сбрасывает результаты, на которые влияет изменение новости.
+     *
+     * @param event событие изменения новости
+     */
+    @TransactionalEventListener
+    public void onNewsChanged(NewsChangedEvent event) {
+        if (event.news() == null) {
+            return;
+        }
+        String title = normalize(nullToEmpty(event.news().getTitle()));
+        String text = normalize(nullToEmpty(event.news().getText()));
+        boolean updated = event.type() == ChangeType.UPDATED;
+        int removed = 0;
+        synchronized (entries) {
+            generation.incrementAndGet();
+            Iterator<Map.Entry<String, CachedResult>> it = entries.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<String, CachedResult> entry = it.next();
+                String query = entry.getKey();
+                if (hasWildcards(query) || title.contains(query) || text.contains(query)
+                        || (updated && entry.getValue().ids().contains(event.newsId()))) {
+                    it.remove();
+                    removed++;
+                }
+            }
+        }
+        invalidations.add(removed);
+        log.debug("Search cache: {} queries invalidated by {} of newsId={}", removed, event.type(), event.newsId());
+    }
+
+    public int getSize() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getInvalidations() {
+        return invalidations.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("search.cache.hits", this, SearchResultCache::getHits)
+                .description("Searches answered from the result cache")
+                .register(registry);
+        FunctionCounter.builder("search.cache.misses", this, SearchResultCache::getMisses)
+                .description("Searches that missed the result cache")
+                .register(registry);
+        FunctionCounter.builder("search.cache.invalidations", this, SearchResultCache::getInvalidations)
+                .description("Cached queries invalidated by news writes")
+                .register(registry);
+        Gauge.builder("search.cache.size", this, SearchResultCache::getSize)
+                .description("Cached search queries")
+                .register(registry);
+    }
+
+    /**
+     * Запросы с {@code %} и {@code _} в {@code LIKE} совпадают не только как подстрока,
+     * поэтому сбрасываются при любой записи.
+     */
+    private static boolean hasWildcards(String query) {
+        return query.indexOf('%') >= 0 || query.indexOf('_') >= 0;
+    }
+
+    private static String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+
+    /**
+     * Закэшированный результат.
+     *
+     * @param ids       id найденных новостей в порядке результата
+     * @param expiresAt момент устаревания, нс
+     */
+    private record CachedResult(List<Long> ids, long expiresAt) {
+    }
+}
@@ -0,0 +1,284 @@
+package by.mosquitto.cache;
+
+import by.mosquitto.entity.User;
+import by.mosquitto.event.ChangeType;
+import by.mosquitto.event.UserChangedEvent;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Инвалидация и статистика второго уровня кэша Hibernate для пользователей в кластере.
+ *
+ * Кэш у каждого узла свой (Caffeine JCache), поэтому правка пользователя на одном узле
+ * должна вытеснить его на остальных:
+ * - {@link #invalidate} в транзакции записи добавляет строку в {@code cache_invalidation}
+ *   и коммитится (или откатывается) вместе с изменением
+ * - Каждый узел раз в {@code app.cache.users.poll-millis} читает новые строки по первичному ключу и вытесняет
+ *   пользователей из региона сущностей; регион натуральных ключей очищается целиком, так как
+ *   вытеснить из него одно старое имя нельзя
+ * - Идентификатор строки выделяется до коммита, поэтому строка может стать видна позже строк с большим id.
+ *   Пропущенные id ниже прочитанной отметки запоминаются и перечитываются при каждом опросе, пока строка
+ *   не появится или пропуск не станет старше {@code app.cache.users.gap-timeout-millis} (откат транзакции)
+ * - Строки старше {@code app.cache.users.retention-millis} удаляются
+ *
+ * Свой узел кэш поддерживает сам: Hibernate обновляет его при сохранении и удалении сущности,
+ * а пользователя, изменённого условным UPDATE мимо Hibernate, вытесняет {@link #onUserChanged} после
+ * завершения транзакции. TTL регионов в {@code application.conf} ограничивает устаревание,
+ * если инвалидация всё же потеряна.
+ *
+ * Публикует метрики с тегом {@code region}: {@code cache.users.hits}, {@code cache.users.misses},
+ * {@code cache.users.puts}, {@code cache.users.hit.ratio}; а также {@code cache.users.invalidations}.
+ * При выключенном втором уровне кэша ({@code hibernate.cache.use_second_level_cache=false})
+ * ничего не записывает и не опрашивает.
+ */
+@Slf4j
+@Component
+public class UserEntityCache implements MeterBinder {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO cache_invalidation (region, entity_id, created_at) VALUES (?, ?, ?)";
+    private static final String SELECT_SQL =
+            "SELECT id, entity_id FROM cache_invalidation WHERE id > ? AND region = ? ORDER BY id";
+    private static final String SETTLED_MAX_ID_SQL =
+            "SELECT COALESCE(MAX(id), 0) FROM cache_invalidation WHERE created_at < ?";
+    private static final String PURGE_SQL = "DELETE FROM cache_invalidation WHERE created_at < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SessionFactory sessionFactory;
+    private final boolean enabled;
+    private final LongAdder invalidations = new LongAdder();
+
+    /**
+     * Наибольший прочитанный id; {@code -1} — до первого опроса.
+     */
+    private volatile long watermark = -1;
+
+    /**
+     * Id ниже {@link #watermark}, строк которых ещё не было видно, со временем, когда пропуск замечен.
+     * Меняется только потоком опроса.
+     */
+    private final NavigableMap<Long, LocalDateTime> gaps = new TreeMap<>();
+
+    @Value("${app.cache.users.gap-timeout-millis:60000}")
+    private long gapTimeoutMillis;
+
+    @Value("${app.cache.users.retention-millis:3600000}")
+    private long retentionMillis;
+
+    @Autowired
+    public UserEntityCache(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory,
+                           @Value("${spring.jpa.properties.hibernate.cache.use_second_level_cache:false}") boolean enabled) {
+        this(jdbcTemplate, entityManagerFactory.unwrap(SessionFactory.class), enabled);
+    }
+
+    UserEntityCache(JdbcTemplate jdbcTemplate, SessionFactory sessionFactory, boolean enabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.sessionFactory = sessionFactory;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Записывает инвалидацию пользователя для остальных узлов. Вызывается только внутри транзакции записи.
+     *
+     * @param userId идентификатор изменённого или удаляемого пользователя
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void invalidate(Long userId) {
+        if (!enabled) {
+            return;
+        }
+        log.debug("Recording user cache invalidation: id={}", userId);
+        jdbcTemplate.update(INSERT_SQL, User.CACHE_REGION, userId, Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    /**
+     * Вытесняет изменённого пользователя из кэша своего узла, не дожидаясь опроса.
+     *
+     * @param event событие изменения пользователя
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION)
+    public void onUserChanged(UserChangedEvent event) {
+        if (!enabled || event.type() != ChangeType.UPDATED) {
+            return;
+        }
+        Cache cache = sessionFactory.getCache();
+        cache.evictEntityData(User.class, event.userId());
+        cache.evictNaturalIdData(User.class);
+    }
+
+    /**
+     * Читает инвалидации, записанные после последнего опроса, и строки пропущенных id;
+     * вытесняет пользователей из кэша.
+     */
+    @Scheduled(fixedDelayString = "${app.cache.users.poll-millis:1000}")
+    public void poll() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        if (watermark < 0) {
+            // кэш узла только создан: вытеснять нечего, кроме строк транзакций, которые могли ещё не закоммититься
+            watermark = jdbcTemplate.queryForObject(SETTLED_MAX_ID_SQL, Long.class,
+                    Timestamp.valueOf(now.minusNanos(gapTimeoutMillis * 1_000_000)));
+        }
+        List<Invalidation> rows = jdbcTemplate.query(SELECT_SQL,
+                (rs, rowNum) -> new Invalidation(rs.getLong("id"), rs.getLong("entity_id")),
+                lowestUnread(), User.CACHE_REGION);
+        apply(rows, now);
+    }
+
+    /**
+     * Id, после которого опрос читает строки: перед самым старым пропуском или сама отметка.
+     *
+     * @return нижняя граница (не включительно) следующего опроса
+     */
+    long lowestUnread() {
+        return gaps.isEmpty() ? watermark : gaps.firstKey() - 1;
+    }
+
+    /**
+     * Вытесняет пользователей новых строк и строк, закрывших пропуски; сдвигает отметку на последний
+     * прочитанный id, запоминает пропущенные id и забывает пропуски старше {@code gap-timeout-millis}.
+     * Строки не выше отметки, не бывшие пропусками, уже применены и пропускаются.
+     *
+     * @param rows строки после {@link #lowestUnread()} в порядке id
+     * @param now  время опроса
+     */
+    void apply(List<Invalidation> rows, LocalDateTime now) {
+        long previous = watermark;
+        long read = previous;
+        Set<Long> userIds = new LinkedHashSet<>();
+        for (Invalidation row : rows) {
+            if (row.id() > read) {
+                for (long gap = read + 1; gap < row.id(); gap++) {
+                    gaps.put(gap, now);
+                }
+                read = row.id();
+            } else if (gaps.remove(row.id()) == null) {
+                continue;
+            }
+            userIds.add(row.entityId());
+        }
+        watermark = read;
+        LocalDateTime expired = now.minusNanos(gapTimeoutMillis * 1_000_000);
+        gaps.values().removeIf(noticed -> noticed.isBefore(expired));
+        if (userIds.isEmpty()) {
+            return;
+        }
+        Cache cache = sessionFactory.getCache();
+        userIds.forEach(id -> cache.evictEntityData(User.class, id));
+        cache.evictNaturalIdData(User.class);
+        invalidations.add(userIds.size());
+        log.debug("Evicted {} users from second-level cache, watermark {} -> {}, {} gaps pending",
+                userIds.size(), previous, read, gaps.size());
+    }
+
+    /**
+     * Удаляет прочитанные всеми узлами строки.
+     */
+    @Scheduled(fixedDelayString = "${app.cache.users.retention-millis:3600000}")
+    public void purge() {
+        if (!enabled) {
+            return;
+        }
+        int purged = jdbcTemplate.update(PURGE_SQL,
+                Timestamp.valueOf(LocalDateTime.now().minusNanos(retentionMillis * 1_000_000)));
+        if (purged > 0) {
+            log.debug("Purged {} user cache invalidations", purged);
+        }
+    }
+
+    public long getInvalidations() {
+        return invalidations.sum();
+    }
+
+    /**
+     * Доля попаданий в регионе: попадания / (попадания + промахи), {@code NaN} до первого обращения.
+     *
+     * @param region имя региона
+     * @return доля попаданий
+     */
+    public double getHitRatio(String region) {
+        CacheRegionStatistics stats = regionStatistics(region);
+        long lookups = stats.getHitCount() + stats.getMissCount();
+        return lookups == 0 ? Double.NaN : (double) stats.getHitCount() / lookups;
+    }
+
+    private CacheRegionStatistics regionStatistics(String region) {
+        return sessionFactory.getStatistics().getDomainDataRegionStatistics(region);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (!enabled) {
+            return;
+        }
+        FunctionCounter.builder("cache.users.invalidations", this, UserEntityCache::getInvalidations)
+                .description("Users evicted from the second-level cache after changes on any node")
+                .register(registry);
+
+        Statistics statistics = sessionFactory.getStatistics();
+        if (!statistics.isStatisticsEnabled()) {
+            log.info("Hibernate statistics are disabled, second-level cache hit ratio is not published");
+            return;
+        }
+        List<String> regions = Arrays.asList(statistics.getSecondLevelCacheRegionNames());
+        for (String region : List.of(User.CACHE_REGION, User.NATURAL_ID_CACHE_REGION)) {
+            if (!regions.contains(region)) {
+                continue;
+            }
+            FunctionCounter.builder("cache.users.hits", this, cache -> cache.regionStatistics(region).getHitCount())
+                    .tag("region", region)
+                    .description("Second-level cache hits")
+                    .register(registry);
+            FunctionCounter.builder("cache.users.misses", this, cache -> cache.regionStatistics(region).getMissCount())
+                    .tag("region", region)
+                    .description("Second-level cache misses")
+                    .register(registry);
+            FunctionCounter.builder("cache.users.puts", this, cache -> cache.regionStatistics(region).getPutCount())
+                    .tag("region", region)
+                    .description("Second-level cache puts")
+                    .register(registry);
+            Gauge.builder("cache.users.hit.ratio", this, cache -> cache.getHitRatio(region))
+                    .tag("region", region)
+                    .description("Share of second-level cache lookups answered without a database query")
+                    .register(registry);
+        }
+    }
+
+    /**
+     * Строка журнала инвалидаций.
+     *
+     * @param id       идентификатор строки
+     * @param entityId идентификатор пользователя
+     */
+    record Invalidation(long id, long entityId) {
+    }
+}
@@ -0,0 +1,52 @@
+package by.mosquitto.config;
+
+import by.mosquitto.limit.AdaptiveConcurrencyLimiter;
+import by.mosquitto.limit.ConcurrencyLimits;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Адаптивные лимиты конкурентности API ({@code app.concurrency-limit.enabled=true}).
+ *
+ * Границы лимитов задаются отдельно для чтений и записей
+ * ({@code app.concurrency-limit.read.*}, {@code app.concurrency-limit.write.*}),
+ * параметры алгоритма — общие.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.concurrency-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class ConcurrencyLimitConfig {
+
+    @Value("${app.concurrency-limit.tolerance:1.5}")
+    private double tolerance;
+
+    @Value("${app.concurrency-limit.smoothing:0.2}")
+    private double smoothing;
+
+    @Value("${app.concurrency-limit.window-millis:100}")
+    private long windowMillis;
+
+    @Value("${app.concurrency-limit.min-window-samples:10}")
+    private int minWindowSamples;
+
+    @Value("${app.concurrency-limit.baseline-windows:600}")
+    private int baselineWindows;
+
+    @Bean
+    public ConcurrencyLimits concurrencyLimits(Environment environment) {
+        return new ConcurrencyLimits(limiter("read", environment, 100, 10, 500),
+                limiter("write", environment, 20, 4, 100));
+    }
+
+    private AdaptiveConcurrencyLimiter limiter(String type, Environment environment,
+                                               int initialLimit, int minLimit, int maxLimit) {
+        String prefix = "app.concurrency-limit." + type + ".";
+        return new AdaptiveConcurrencyLimiter(type,
+                environment.getProperty(prefix + "initial-limit", Integer.class, initialLimit),
+                environment.getProperty(prefix + "min-limit", Integer.class, minLimit),
+                environment.getProperty(prefix + "max-limit", Integer.class, maxLimit),
+                tolerance, smoothing, windowMillis, minWindowSamples, baselineWindows);
+    }
+}
@@ -0,0 +1,62 @@
+package by.mosquitto.config;
+
+import by.mosquitto.sql.JfrSqlListener;
+import by.mosquitto.sql.QueryStatsListener;
+import by.mosquitto.sql.SqlTimingListener;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+/**
+ * Оборачивает источники данных в datasource-proxy.
+ *
+ * Всегда подключаются {@link SqlTimingListener} (время пула и SQL, журнал медленных запросов)
+ * и {@link JfrSqlListener} (события JFR, пока идёт запись);
+ * подсчёт выражений и строк {@link QueryStatsListener} требует обёртки каждого {@code ResultSet}
+ * и подключается только при {@code app.debug.query-stats.enabled=true}.
+ */
+@Configuration
+public class DataSourceProxyConfig {
+
+    @Bean
+    public static BeanPostProcessor instrumentedDataSourcePostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    return instrument(dataSource, beanName, environment);
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * Оборачивает источник данных, не опубликованный как бин (пулы отсеков), теми же слушателями.
+     *
+     * @param dataSource исходный источник данных
+     * @param name       имя в журналах datasource-proxy
+     * @return инструментированный источник данных
+     */
+    public static DataSource instrument(DataSource dataSource, String name, Environment environment) {
+        SqlTimingListener timingListener =
+                new SqlTimingListener(environment.getProperty("app.timing.slow-query-millis", Long.class, 200L));
+        ProxyDataSourceBuilder builder = ProxyDataSourceBuilder.create(dataSource)
+                .name(name)
+                .listener(timingListener)
+                .methodListener(timingListener)
+                .listener(new JfrSqlListener());
+        if (environment.getProperty("app.debug.query-stats.enabled", Boolean.class, false)) {
+            QueryStatsListener statsListener = new QueryStatsListener();
+            builder.listener(statsListener)
+                    .methodListener(statsListener)
+                    .proxyResultSet();
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,38 @@
+package by.mosquitto.config;
+
+import by.mosquitto.limit.RateLimiter;
+import by.mosquitto.limit.RateLimiters;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ограничение частоты запросов по клиентам ({@code app.rate-limit.enabled=true}).
+ *
+ * Группы эндпоинтов задаются в {@code app.rate-limit.policies} и проверяются в порядке объявления.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitConfig {
+
+    @Value("${app.rate-limit.max-clients:1000000}")
+    private int maxClients;
+
+    @Bean
+    public RateLimiters rateLimiters(Environment environment) {
+        Map<String, RateLimiter.Settings> policies = Binder.get(environment)
+                .bind("app.rate-limit.policies", Bindable.mapOf(String.class, RateLimiter.Settings.class))
+                .orElse(Map.of());
+        List<RateLimiter> limiters = new ArrayList<>();
+        policies.forEach((name, settings) -> limiters.add(new RateLimiter(name, settings, maxClients)));
+        return new RateLimiters(limiters);
+    }
+}
@@ -0,0 +1,83 @@
+package by.mosquitto.config;
+
+import by.mosquitto.sql.ReplicaRouter;
+import by.mosquitto.sql.ReplicaRouter.Replica;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Маршрутизация чтений на реплики ({@code app.datasource.replica.enabled=true}).
+ *
+ * Единственный бин {@link DataSource} — {@link LazyConnectionDataSourceProxy} над основной БД:
+ * физическое соединение берётся при первом выражении, когда уже известно, что транзакция read-only,
+ * и тогда оно выдаётся {@link ReplicaRouter}. Пулы основной БД и реплик не публикуются как бины,
+ * чтобы datasource-proxy и автоконфигурация видели один источник данных.
+ *
+ * Пул основной БД настраивается как обычно ({@code spring.datasource.*}, {@code spring.datasource.hikari.*}),
+ * пулы реплик наследуют эти настройки с адресами из {@code app.datasource.replica.urls}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replica.enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    @Value("${app.datasource.replica.urls}")
+    private List<String> replicaUrls;
+
+    @Value("${app.datasource.replica.username:${spring.datasource.username:}}")
+    private String replicaUsername;
+
+    @Value("${app.datasource.replica.password:${spring.datasource.password:}}")
+    private String replicaPassword;
+
+    @Value("${app.datasource.replica.maximum-pool-size:10}")
+    private int replicaPoolSize;
+
+    @Value("${app.datasource.replica.validation-timeout-seconds:1}")
+    private int validationTimeoutSeconds;
+
+    @Bean(destroyMethod = "close")
+    public ReplicaRouter replicaRouter(DataSourceProperties properties, Environment environment) {
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        if (primary.getPoolName() == null) {
+            primary.setPoolName("primary");
+        }
+
+        List<Replica> replicas = new ArrayList<>();
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            HikariDataSource replica = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .driverClassName(properties.determineDriverClassName())
+                    .url(replicaUrls.get(i).trim())
+                    .username(replicaUsername)
+                    .password(replicaPassword)
+                    .build();
+            Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(replica));
+            replica.setPoolName("replica-" + (i + 1));
+            replica.setMaximumPoolSize(replicaPoolSize);
+            replica.setReadOnly(true);
+            replicas.add(new Replica(replica.getPoolName(), replica));
+        }
+        return new ReplicaRouter(primary, replicas, validationTimeoutSeconds);
+    }
+
+    @Bean
+    public DataSource dataSource(ReplicaRouter replicaRouter) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(replicaRouter.getPrimary());
+        dataSource.setReadOnlyDataSource(replicaRouter.getReadOnlyDataSource());
+        return dataSource;
+    }
+}
@@ -0,0 +1,58 @@
+package by.mosquitto.config;
+
+import by.mosquitto.limit.Bulkhead;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+/**
+ * Отсек для поиска новостей ({@code app.search.bulkhead.*}).
+ *
+ * Пул соединений отсека наследует настройки основного ({@code spring.datasource.*},
+ * {@code spring.datasource.hikari.*}) с размером по числу потоков отсека и не публикуется как бин,
+ * чтобы автоконфигурация видела один источник данных. При {@code app.search.bulkhead.enabled=false}
+ * поиск выполняется в потоке запроса на основном пуле.
+ */
+@Configuration
+public class SearchBulkheadConfig {
+
+    private static final String NAME = "search";
+
+    @Value("${app.search.bulkhead.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.search.bulkhead.threads:4}")
+    private int threads;
+
+    @Value("${app.search.bulkhead.queue-capacity:16}")
+    private int queueCapacity;
+
+    @Value("${app.search.bulkhead.query-timeout-seconds:3}")
+    private int queryTimeoutSeconds;
+
+    @Value("${app.search.bulkhead.connection-timeout-millis:1000}")
+    private long connectionTimeoutMillis;
+
+    @Bean(destroyMethod = "close")
+    public Bulkhead searchBulkhead(DataSourceProperties properties, Environment environment, DataSource dataSource) {
+        if (!enabled) {
+            return Bulkhead.shared(NAME, dataSource, queryTimeoutSeconds);
+        }
+        HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        pool.setPoolName(NAME);
+        pool.setMaximumPoolSize(threads);
+        pool.setMinimumIdle(threads);
+        pool.setConnectionTimeout(connectionTimeoutMillis);
+        pool.setReadOnly(true);
+        return Bulkhead.isolated(NAME, threads, queueCapacity,
+                DataSourceProxyConfig.instrument(pool, NAME, environment), pool, queryTimeoutSeconds);
+    }
+}
@@ -1,28 +1,72 @@
 package by.mosquitto.config;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.factory.PasswordEncoderFactories;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
 
+/**
+ * Доступ к административным эндпоинтам ({@code /api/admin/**}, {@code /actuator/**} кроме health).
+ *
+ * Учётная запись администратора задаётся {@code app.admin.username} и {@code app.admin.password}
+ * ({@code APP_ADMIN_PASSWORD}); пароля по умолчанию нет. Пока пароль не задан, административные
+ * эндпоинты закрыты для всех, а пользователей нет вовсе — без сгенерированного пароля в логе.
+ */
+@Slf4j
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity
 @RequiredArgsConstructor
 public class SecurityConfig {
+
+    @Value("${app.admin.username:admin}")
+    private String adminUsername;
+
+    @Value("${app.admin.password:}")
+    private String adminPassword;
+
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+        boolean adminEnabled = isAdminEnabled();
         http
                 .csrf(csrf -> csrf.disable())
-                .authorizeHttpRequests(auth -> auth
-                        .anyRequest().permitAll()
-                )
+                .authorizeHttpRequests(auth -> {
+                    auth.requestMatchers("/actuator/health").permitAll();
+                    if (adminEnabled) {
+                        auth.requestMatchers("/api/admin/**", "/actuator/**").hasRole("ADMIN");
+                    } else {
+                        auth.requestMatchers("/api/admin/**", "/actuator/**").denyAll();
+                    }
+                    auth.anyRequest().permitAll();
+                })
                 .httpBasic(Customizer.withDefaults());
 
         return http.build();
     }
+
+    @Bean
+    public UserDetailsService userDetailsService() {
+        if (!isAdminEnabled()) {
+            log.warn("APP_ADMIN_PASSWORD is not set: /api/admin/** and /actuator/** are disabled");
+            return new InMemoryUserDetailsManager();
+        }
+        return new InMemoryUserDetailsManager(User.withUsername(adminUsername)
+                .password(PasswordEncoderFactories.createDelegatingPasswordEncoder().encode(adminPassword))
+                .roles("ADMIN")
+                .build());
+    }
+
+    private boolean isAdminEnabled() {
+        return adminPassword != null && !adminPassword.isBlank();
+    }
 }
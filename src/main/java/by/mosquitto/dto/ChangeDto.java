@@ -0,0 +1,28 @@
+package by.mosquitto.dto;
+
+import by.mosquitto.event.ChangeEntityType;
+import by.mosquitto.event.ChangeType;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ChangeDto {
+    private Long token;
+    private ChangeEntityType entityType;
+    private Long entityId;
+    private Long newsId;
+    private ChangeType operation;
+    private LocalDateTime changedAt;
+
+    private NewsDto news;
+    private CommentDto comment;
+}
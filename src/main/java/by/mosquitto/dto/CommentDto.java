@@ -1,5 +1,6 @@
 package by.mosquitto.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -16,6 +17,9 @@ public class CommentDto {
     private String text;
     private LocalDateTime creationDate;
     private LocalDateTime lastEditDate;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long version;
     private Long userId;
     private Long newsId;
 }
\ No newline at end of file
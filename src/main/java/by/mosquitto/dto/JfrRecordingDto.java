@@ -0,0 +1,22 @@
+package by.mosquitto.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class JfrRecordingDto {
+    private String name;
+    private String state;
+    private String settings;
+    private Instant startTime;
+    private Long maxAgeSeconds;
+    private long sizeBytes;
+    private boolean continuous;
+}
@@ -1,11 +1,13 @@
 package by.mosquitto.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Data
 @Builder(toBuilder = true)
@@ -18,6 +20,14 @@ public class NewsDto {
     private LocalDateTime creationDate;
     private LocalDateTime lastEditDate;
 
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long version;
+
     private Long insertedById;
     private Long updatedById;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long commentCount;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<CommentDto> latestComments;
 }
@@ -0,0 +1,23 @@
+package by.mosquitto.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NewsFeedItemDto {
+    private Long newsId;
+    private String title;
+    private String excerpt;
+    private Long authorId;
+    private String authorName;
+    private long commentCount;
+    private LocalDateTime creationDate;
+    private LocalDateTime lastActivity;
+}
@@ -0,0 +1,16 @@
+package by.mosquitto.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NewsFeedRebuildDto {
+    private long rows;
+    private int chunks;
+    private long millis;
+}
@@ -0,0 +1,37 @@
+package by.mosquitto.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PendingCommentDto {
+    private String pendingId;
+    private Long newsId;
+    private LocalDateTime acceptedAt;
+    private Status status;
+    private Long commentId;
+    private String error;
+
+    /**
+     * Состояние принятого комментария.
+     */
+    public enum Status {
+        /** В очереди или в записываемой пачке. */
+        PENDING,
+        /** Записан, {@code commentId} — id комментария. */
+        WRITTEN,
+        /** Не записан: новость или автор не существуют. */
+        REJECTED,
+        /** Не записан из-за ошибки записи, в том числе при повторе по одному. */
+        FAILED
+    }
+}
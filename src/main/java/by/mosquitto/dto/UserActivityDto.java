@@ -0,0 +1,23 @@
+package by.mosquitto.dto;
+
+import by.mosquitto.event.ChangeEntityType;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UserActivityDto {
+    private ChangeEntityType type;
+    private LocalDateTime creationDate;
+
+    private NewsDto news;
+    private CommentDto comment;
+}
@@ -0,0 +1,18 @@
+package by.mosquitto.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserActivityPageDto {
+    private List<UserActivityDto> items;
+    private String nextCursor;
+    private boolean hasMore;
+}
@@ -1,5 +1,6 @@
 package by.mosquitto.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -20,4 +21,7 @@ public class UserDto {
     private String parentName;
     private LocalDateTime creationDate;
     private LocalDateTime lastEditDate;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long version;
 }
\ No newline at end of file
@@ -26,10 +26,17 @@ public class Comment {
     @Column(name = "last_edit_date", nullable = false)
     private LocalDateTime lastEditDate;
 
+    @Version
+    private long version;
+
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "created_by_user", nullable = false)
     private User createdByUser;
 
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "news_id", nullable = false)
     private News news;
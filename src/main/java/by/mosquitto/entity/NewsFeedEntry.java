@@ -0,0 +1,40 @@
+package by.mosquitto.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "news_feed")
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class NewsFeedEntry {
+
+    @Id
+    @Column(name = "news_id")
+    private Long newsId;
+
+    @Column(length = 150, nullable = false)
+    private String title;
+
+    @Column(length = 200, nullable = false)
+    private String excerpt;
+
+    @Column(name = "author_id", nullable = false)
+    private Long authorId;
+
+    @Column(name = "author_name", length = 101, nullable = false)
+    private String authorName;
+
+    @Column(name = "comment_count", nullable = false)
+    private long commentCount;
+
+    @Column(name = "creation_date")
+    private LocalDateTime creationDate;
+
+    @Column(name = "last_activity", nullable = false)
+    private LocalDateTime lastActivity;
+}
@@ -2,22 +2,40 @@ package by.mosquitto.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
+/**
+ * Пользователь.
+ *
+ * Хранится во втором уровне кэша Hibernate: пользователи читаются почти при каждой записи
+ * (автор новости и комментария), а меняются редко. {@code username} — изменяемый натуральный ключ
+ * с собственным регионом кэша.
+ */
 @Entity
 @Table(name = "app_user")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = User.CACHE_REGION)
+@NaturalIdCache(region = User.NATURAL_ID_CACHE_REGION)
 @Data
 @Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class User {
 
+    public static final String CACHE_REGION = "users";
+    public static final String NATURAL_ID_CACHE_REGION = "users-by-username";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @NaturalId(mutable = true)
     @Column(length = 255, nullable = false, unique = true)
     private String username;
 
@@ -39,12 +57,21 @@ public class User {
     @Column(name = "last_edit_date", nullable = false)
     private LocalDateTime lastEditDate;
 
+    @Version
+    private long version;
+
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @OneToMany(mappedBy = "createdByUser", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<News> createdNews;
 
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @OneToMany(mappedBy = "updatedByUser", cascade = CascadeType.ALL)
     private List<News> updatedNews;
 
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @OneToMany(mappedBy = "createdByUser", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Comment> comments;
 }
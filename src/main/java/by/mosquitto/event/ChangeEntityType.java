@@ -0,0 +1,9 @@
+package by.mosquitto.event;
+
+/**
+ * Тип сущности, изменения которой фиксируются в журнале изменений.
+ */
+public enum ChangeEntityType {
+    NEWS,
+    COMMENT
+}
@@ -0,0 +1,10 @@
+package by.mosquitto.event;
+
+/**
+ * Тип изменения сущности, о котором сообщают доменные события.
+ */
+public enum ChangeType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
@@ -0,0 +1,29 @@
+package by.mosquitto.event;
+
+import by.mosquitto.dto.CommentDto;
+
+/**
+ * Событие изменения комментария.
+ *
+ * Публикуется {@code CommentServiceManager} внутри транзакции записи;
+ * слушатели получают его через {@code @TransactionalEventListener} после коммита.
+ *
+ * @param type      тип изменения
+ * @param commentId идентификатор комментария
+ * @param newsId    идентификатор новости, к которой относится комментарий
+ * @param comment   актуальное состояние комментария ({@code null} для удаления)
+ */
+public record CommentChangedEvent(ChangeType type, Long commentId, Long newsId, CommentDto comment) {
+
+    public static CommentChangedEvent created(CommentDto comment) {
+        return new CommentChangedEvent(ChangeType.CREATED, comment.getId(), comment.getNewsId(), comment);
+    }
+
+    public static CommentChangedEvent updated(CommentDto comment) {
+        return new CommentChangedEvent(ChangeType.UPDATED, comment.getId(), comment.getNewsId(), comment);
+    }
+
+    public static CommentChangedEvent deleted(Long commentId, Long newsId) {
+        return new CommentChangedEvent(ChangeType.DELETED, commentId, newsId, null);
+    }
+}
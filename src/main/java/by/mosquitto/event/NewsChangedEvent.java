@@ -0,0 +1,28 @@
+package by.mosquitto.event;
+
+import by.mosquitto.dto.NewsDto;
+
+/**
+ * Событие изменения новости.
+ *
+ * Публикуется {@code NewsServiceManager} внутри транзакции записи;
+ * слушатели получают его через {@code @TransactionalEventListener} после коммита.
+ *
+ * @param type   тип изменения
+ * @param newsId идентификатор новости
+ * @param news   актуальное состояние новости ({@code null} для удаления)
+ */
+public record NewsChangedEvent(ChangeType type, Long newsId, NewsDto news) {
+
+    public static NewsChangedEvent created(NewsDto news) {
+        return new NewsChangedEvent(ChangeType.CREATED, news.getId(), news);
+    }
+
+    public static NewsChangedEvent updated(NewsDto news) {
+        return new NewsChangedEvent(ChangeType.UPDATED, news.getId(), news);
+    }
+
+    public static NewsChangedEvent deleted(Long newsId) {
+        return new NewsChangedEvent(ChangeType.DELETED, newsId, null);
+    }
+}
@@ -0,0 +1,25 @@
+package by.mosquitto.event;
+
+/**
+ * Событие изменения пользователя.
+ *
+ * Публикуется {@code UserServiceManager} внутри транзакции записи;
+ * слушатели получают его через {@code @TransactionalEventListener} после коммита.
+ *
+ * @param type   тип изменения
+ * @param userId идентификатор пользователя
+ */
+public record UserChangedEvent(ChangeType type, Long userId) {
+
+    public static UserChangedEvent created(Long userId) {
+        return new UserChangedEvent(ChangeType.CREATED, userId);
+    }
+
+    public static UserChangedEvent updated(Long userId) {
+        return new UserChangedEvent(ChangeType.UPDATED, userId);
+    }
+
+    public static UserChangedEvent deleted(Long userId) {
+        return new UserChangedEvent(ChangeType.DELETED, userId);
+    }
+}
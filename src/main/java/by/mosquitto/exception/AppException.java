@@ -10,7 +10,16 @@ public abstract class AppException extends RuntimeException {
         this.status = status;
     }
 
+    /**
+     * Для ожидаемых ошибок клиента (например, 404 на перебор id): стек не захватывается,
+     * так как обработчик его не логирует, а заполнение стека — основная стоимость исключения.
+     */
+    protected AppException(String message, HttpStatus status, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+        this.status = status;
+    }
+
     public HttpStatus getStatus() {
         return status;
     }
-}
\ No newline at end of file
+}
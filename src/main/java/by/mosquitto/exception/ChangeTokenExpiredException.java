@@ -0,0 +1,9 @@
+package by.mosquitto.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class ChangeTokenExpiredException extends AppException {
+    public ChangeTokenExpiredException(Long since) {
+        super("Change token " + since + " is older than the retained change log, full resync is required", HttpStatus.GONE, false);
+    }
+}
@@ -4,6 +4,6 @@ import org.springframework.http.HttpStatus;
 
 public class CommentNotFoundException extends AppException {
     public CommentNotFoundException(Long id) {
-        super("Comment not found with id: " + id, HttpStatus.NOT_FOUND);
+        super("Comment not found with id: " + id, HttpStatus.NOT_FOUND, false);
     }
 }
\ No newline at end of file
@@ -4,6 +4,6 @@ import org.springframework.http.HttpStatus;
 
 public class NewsNotFoundException extends AppException {
     public NewsNotFoundException(Long id) {
-        super("News not found with id: " + id, HttpStatus.NOT_FOUND);
+        super("News not found with id: " + id, HttpStatus.NOT_FOUND, false);
     }
 }
\ No newline at end of file
@@ -0,0 +1,9 @@
+package by.mosquitto.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class PendingCommentNotFoundException extends AppException {
+    public PendingCommentNotFoundException(String pendingId) {
+        super("Pending comment not found with id: " + pendingId, HttpStatus.NOT_FOUND, false);
+    }
+}
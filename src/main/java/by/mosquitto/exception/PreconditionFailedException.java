@@ -0,0 +1,13 @@
+package by.mosquitto.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class PreconditionFailedException extends AppException {
+    public PreconditionFailedException(String entity, Long id, long expectedVersion) {
+        this(entity + " with id " + id + " was modified: version " + expectedVersion + " is outdated");
+    }
+
+    public PreconditionFailedException(String message) {
+        super(message, HttpStatus.PRECONDITION_FAILED, false);
+    }
+}
@@ -0,0 +1,9 @@
+package by.mosquitto.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class PreconditionRequiredException extends AppException {
+    public PreconditionRequiredException() {
+        super("Header 'If-Match' with the entity ETag is required", HttpStatus.PRECONDITION_REQUIRED, false);
+    }
+}
@@ -4,6 +4,6 @@ import org.springframework.http.HttpStatus;
 
 public class UserNotFoundException extends AppException {
     public UserNotFoundException(Long id) {
-        super("User not found with id: " + id, HttpStatus.NOT_FOUND);
+        super("User not found with id: " + id, HttpStatus.NOT_FOUND, false);
     }
 }
\ No newline at end of file
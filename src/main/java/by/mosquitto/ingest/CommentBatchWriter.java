@@ -0,0 +1,141 @@
+package by.mosquitto.ingest;
+
+import by.mosquitto.dto.CommentDto;
+import by.mosquitto.event.ChangeEntityType;
+import by.mosquitto.event.ChangeType;
+import by.mosquitto.event.CommentChangedEvent;
+import by.mosquitto.repository.NewsRepository;
+import by.mosquitto.repository.UserRepository;
+import by.mosquitto.service.contract.ChangeFeedService;
+import by.mosquitto.service.contract.NewsFeedService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Пакетная запись комментариев, накопленных {@link CommentIngestionQueue}.
+ *
+ * Одна транзакция на пачку:
+ * - Существование новостей и пользователей проверяется двумя запросами на всю пачку
+ * - Комментарии вставляются одним JDBC-батчем (для PostgreSQL драйвер с
+ *   {@code reWriteBatchedInserts=true} превращает его в многострочные INSERT)
+ * - Изменения фиксируются в журнале изменений ещё одним JDBC-батчем и публикуются как {@link CommentChangedEvent}
+ * - Витрина ленты ({@link NewsFeedService}) обновляется одним UPDATE на каждую затронутую новость
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CommentBatchWriter {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO comments (text, creation_date, last_edit_date, created_by_user, news_id) VALUES (?, ?, ?, ?, ?)";
+
+    /**
+     * Версия новой строки — значение по умолчанию столбца {@code version}.
+     */
+    private static final long INITIAL_VERSION = 0L;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NewsRepository newsRepository;
+    private final UserRepository userRepository;
+    private final ChangeFeedService changeFeedService;
+    private final NewsFeedService newsFeedService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Записывает пачку комментариев.
+     *
+     * @param batch принятые комментарии
+     * @return id записанных комментариев по pending id; комментарии к отсутствующим новостям
+     *         или от отсутствующих пользователей не записываются и в результат не попадают
+     */
+    @Transactional
+    public Map<String, Long> write(List<PendingComment> batch) {
+        Set<Long> existingNews = new HashSet<>(newsRepository.findExistingIds(
+                batch.stream().map(PendingComment::newsId).distinct().toList()));
+        Set<Long> existingUsers = new HashSet<>(userRepository.findExistingIds(
+                batch.stream().map(PendingComment::userId).distinct().toList()));
+
+        List<PendingComment> valid = batch.stream()
+                .filter(comment -> existingNews.contains(comment.newsId()) && existingUsers.contains(comment.userId()))
+                .toList();
+        if (valid.size() < batch.size()) {
+            log.warn("Dropping {} pending comments referencing missing news or users", batch.size() - valid.size());
+        }
+        if (valid.isEmpty()) {
+            return Map.of();
+        }
+
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(con -> con.prepareStatement(INSERT_SQL, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        PendingComment comment = valid.get(i);
+                        Timestamp createdAt = Timestamp.valueOf(comment.acceptedAt());
+                        ps.setString(1, comment.text());
+                        ps.setTimestamp(2, createdAt);
+                        ps.setTimestamp(3, createdAt);
+                        ps.setLong(4, comment.userId());
+                        ps.setLong(5, comment.newsId());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return valid.size();
+                    }
+                }, keys);
+
+        List<Map<String, Object>> keyList = keys.getKeyList();
+        Map<Long, Long> countByNews = new HashMap<>();
+        Map<Long, LocalDateTime> latestByNews = new HashMap<>();
+        Map<String, Long> written = new LinkedHashMap<>();
+        Map<Long, Long> newsIdsByCommentId = new LinkedHashMap<>();
+        for (int i = 0; i < valid.size(); i++) {
+            PendingComment pending = valid.get(i);
+            Long id = extractId(keyList.get(i));
+            written.put(pending.pendingId(), id);
+            newsIdsByCommentId.put(id, pending.newsId());
+            eventPublisher.publishEvent(CommentChangedEvent.created(CommentDto.builder()
+                    .id(id)
+                    .text(pending.text())
+                    .creationDate(pending.acceptedAt())
+                    .lastEditDate(pending.acceptedAt())
+                    .newsId(pending.newsId())
+                    .userId(pending.userId())
+                    .version(INITIAL_VERSION)
+                    .build()));
+            countByNews.merge(pending.newsId(), 1L, Long::sum);
+            latestByNews.merge(pending.newsId(), pending.acceptedAt(), (a, b) -> a.isAfter(b) ? a : b);
+        }
+        changeFeedService.record(ChangeEntityType.COMMENT, ChangeType.CREATED, newsIdsByCommentId);
+        countByNews.forEach((newsId, count) -> newsFeedService.commentsAdded(newsId, count, latestByNews.get(newsId)));
+        log.debug("Comment batch written: size={}", valid.size());
+        return written;
+    }
+
+    private static Long extractId(Map<String, Object> key) {
+        Object id = key.containsKey("id") ? key.get("id") : key.get("ID");
+        if (id == null) {
+            id = key.values().iterator().next();
+        }
+        return ((Number) id).longValue();
+    }
+}
@@ -0,0 +1,313 @@
+package by.mosquitto.ingest;
+
+import by.mosquitto.dto.CommentDto;
+import by.mosquitto.dto.PendingCommentDto;
+import by.mosquitto.exception.InvalidRequestException;
+import by.mosquitto.exception.PendingCommentNotFoundException;
+import by.mosquitto.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Очередь асинхронного приёма комментариев (write-behind).
+ *
+ * Включается {@code app.comments.ingestion.mode=async}. Запрос валидируется,
+ * помещается в ограниченную очередь и подтверждается ответом 202 с pending id;
+ * единственный поток-писатель собирает пачки до {@code batch-size} элементов
+ * или {@code max-delay-millis} и передаёт их {@link CommentBatchWriter}.
+ *
+ * При заполненной очереди запрос отклоняется {@link ServiceUnavailableException}
+ * (503 с {@code Retry-After}). Счётчики принятых, отклонённых и записанных
+ * комментариев экспортируются метриками {@code comments.ingestion.*} и позволяют
+ * сравнивать режим с синхронным путём под нагрузкой.
+ *
+ * Если пачка не записалась целиком, её комментарии повторяются по одному: одна плохая
+ * строка не теряет остальные. Состояние последних {@code status-capacity} принятых
+ * комментариев доступно по pending id ({@link #getStatus}); оно хранится в памяти узла,
+ * принявшего комментарий.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CommentIngestionQueue implements MeterBinder {
+
+    private static final int MAX_TEXT_LENGTH = 300;
+
+    private final CommentBatchWriter batchWriter;
+
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong retriedBatches = new AtomicLong();
+
+    @Value("${app.comments.ingestion.mode:sync}")
+    private String mode;
+
+    @Value("${app.comments.ingestion.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${app.comments.ingestion.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.comments.ingestion.max-delay-millis:5}")
+    private long maxDelayMillis;
+
+    @Value("${app.comments.ingestion.retry-after-seconds:1}")
+    private long retryAfterSeconds;
+
+    @Value("${app.comments.ingestion.status-capacity:100000}")
+    private int statusCapacity;
+
+    private final Map<String, PendingCommentDto> statuses = new LinkedHashMap<>();
+
+    private BlockingQueue<PendingComment> queue;
+    private Thread writer;
+    private volatile boolean running;
+
+    @PostConstruct
+    public void start() {
+        if (!isAsync()) {
+            return;
+        }
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        running = true;
+        writer = Thread.ofPlatform().name("comment-ingestion-writer").daemon().start(this::runWriter);
+        log.info("Async comment ingestion started: capacity={}, batchSize={}, maxDelayMillis={}",
+                queueCapacity, batchSize, maxDelayMillis);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+        log.info("Async comment ingestion stopped: accepted={}, written={}, dropped={}, failed={}, pending={}",
+                accepted.get(), written.get(), dropped.get(), failed.get(), queue.size());
+    }
+
+    /**
+     * Признак включённого асинхронного режима.
+     *
+     * @return {@code true}, если комментарии принимаются через очередь
+     */
+    public boolean isAsync() {
+        return "async".equalsIgnoreCase(mode);
+    }
+
+    /**
+     * Валидирует комментарий и ставит его в очередь на запись.
+     *
+     * @param dto DTO с данными комментария
+     * @return подтверждение приёма с pending id
+     * @throws InvalidRequestException     если комментарий не проходит валидацию
+     * @throws ServiceUnavailableException если очередь заполнена
+     */
+    public PendingCommentDto submit(CommentDto dto) {
+        validate(dto);
+        PendingComment pending = new PendingComment(
+                UUID.randomUUID().toString(), dto.getText(), dto.getNewsId(), dto.getUserId(), LocalDateTime.now());
+        if (!queue.offer(pending)) {
+            rejected.incrementAndGet();
+            log.warn("Comment ingestion queue is full: capacity={}", queueCapacity);
+            throw new ServiceUnavailableException("Comment ingestion queue is full", retryAfterSeconds);
+        }
+        accepted.incrementAndGet();
+        PendingCommentDto status = PendingCommentDto.builder()
+                .pendingId(pending.pendingId())
+                .newsId(pending.newsId())
+                .acceptedAt(pending.acceptedAt())
+                .status(PendingCommentDto.Status.PENDING)
+                .build();
+        putStatus(status);
+        return status;
+    }
+
+    /**
+     * Возвращает состояние принятого комментария.
+     *
+     * @param pendingId идентификатор из ответа 202
+     * @return состояние комментария
+     * @throws PendingCommentNotFoundException если id неизвестен этому узлу или уже вытеснен
+     */
+    public PendingCommentDto getStatus(String pendingId) {
+        synchronized (statuses) {
+            PendingCommentDto status = statuses.get(pendingId);
+            if (status == null) {
+                throw new PendingCommentNotFoundException(pendingId);
+            }
+            return status;
+        }
+    }
+
+    public long getAccepted() {
+        return accepted.get();
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    public long getWritten() {
+        return written.get();
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    public long getFailed() {
+        return failed.get();
+    }
+
+    public long getBatches() {
+        return batches.get();
+    }
+
+    public long getRetriedBatches() {
+        return retriedBatches.get();
+    }
+
+    public int getQueueSize() {
+        return queue == null ? 0 : queue.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        counter(registry, "comments.ingestion.accepted", CommentIngestionQueue::getAccepted, "Comments accepted into the queue");
+        counter(registry, "comments.ingestion.rejected", CommentIngestionQueue::getRejected, "Comments rejected with 503 on a full queue");
+        counter(registry, "comments.ingestion.written", CommentIngestionQueue::getWritten, "Queued comments written to the database");
+        counter(registry, "comments.ingestion.dropped", CommentIngestionQueue::getDropped, "Queued comments referencing missing news or users");
+        counter(registry, "comments.ingestion.failed", CommentIngestionQueue::getFailed, "Queued comments that failed to write even one by one");
+        counter(registry, "comments.ingestion.batches", CommentIngestionQueue::getBatches, "Comment batches flushed");
+        counter(registry, "comments.ingestion.batches.retried", CommentIngestionQueue::getRetriedBatches, "Comment batches retried row by row");
+        Gauge.builder("comments.ingestion.queue.size", this, CommentIngestionQueue::getQueueSize)
+                .description("Comments waiting in the queue")
+                .register(registry);
+    }
+
+    private void counter(MeterRegistry registry, String name, ToDoubleFunction<CommentIngestionQueue> value,
+                         String description) {
+        FunctionCounter.builder(name, this, value).description(description).register(registry);
+    }
+
+    private static void validate(CommentDto dto) {
+        if (dto.getNewsId() == null || dto.getUserId() == null) {
+            throw new InvalidRequestException("Comment must reference newsId and userId");
+        }
+        if (dto.getText() == null || dto.getText().isBlank() || dto.getText().length() > MAX_TEXT_LENGTH) {
+            throw new InvalidRequestException("Comment text must be 1.." + MAX_TEXT_LENGTH + " characters");
+        }
+    }
+
+    private void runWriter() {
+        List<PendingComment> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingComment first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+                while (batch.size() < batchSize) {
+                    if (queue.drainTo(batch, batchSize - batch.size()) > 0) {
+                        continue;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    PendingComment next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<PendingComment> batch) {
+        long start = System.nanoTime();
+        try {
+            complete(batch, batchWriter.write(batch));
+        } catch (RuntimeException e) {
+            log.warn("Failed to write comment batch, retrying one by one: size={}, error={}", batch.size(), e.toString());
+            retriedBatches.incrementAndGet();
+            batch.forEach(this::retry);
+        }
+        batches.incrementAndGet();
+        log.debug("Comment batch flushed: size={}, took={}µs", batch.size(), (System.nanoTime() - start) / 1_000);
+    }
+
+    private void retry(PendingComment comment) {
+        try {
+            complete(List.of(comment), batchWriter.write(List.of(comment)));
+        } catch (RuntimeException e) {
+            failed.incrementAndGet();
+            log.error("Failed to write pending comment: pendingId={}, newsId={}, userId={}",
+                    comment.pendingId(), comment.newsId(), comment.userId(), e);
+            updateStatus(comment.pendingId(), PendingCommentDto.Status.FAILED, null, e.getMessage());
+        }
+    }
+
+    private void complete(List<PendingComment> batch, Map<String, Long> commentIds) {
+        for (PendingComment comment : batch) {
+            Long commentId = commentIds.get(comment.pendingId());
+            if (commentId != null) {
+                written.incrementAndGet();
+                updateStatus(comment.pendingId(), PendingCommentDto.Status.WRITTEN, commentId, null);
+            } else {
+                dropped.incrementAndGet();
+                updateStatus(comment.pendingId(), PendingCommentDto.Status.REJECTED, null, "News or user does not exist");
+            }
+        }
+    }
+
+    private void putStatus(PendingCommentDto status) {
+        synchronized (statuses) {
+            statuses.put(status.getPendingId(), status);
+            if (statuses.size() > statusCapacity) {
+                statuses.remove(statuses.keySet().iterator().next());
+            }
+        }
+    }
+
+    private void updateStatus(String pendingId, PendingCommentDto.Status status, Long commentId, String error) {
+        synchronized (statuses) {
+            statuses.computeIfPresent(pendingId, (id, current) -> current.toBuilder()
+                    .status(status)
+                    .commentId(commentId)
+                    .error(error)
+                    .build());
+        }
+    }
+}
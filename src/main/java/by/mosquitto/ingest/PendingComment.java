@@ -0,0 +1,15 @@
+package by.mosquitto.ingest;
+
+import java.time.LocalDateTime;
+
+/**
+ * Принятый, но ещё не записанный комментарий.
+ *
+ * @param pendingId  идентификатор, выданный клиенту в ответе 202
+ * @param text       текст комментария
+ * @param newsId     идентификатор новости
+ * @param userId     идентификатор автора
+ * @param acceptedAt время приёма, становится датой создания комментария
+ */
+public record PendingComment(String pendingId, String text, Long newsId, Long userId, LocalDateTime acceptedAt) {
+}
@@ -0,0 +1,13 @@
+package by.mosquitto.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name(JfrEvents.PREFIX + "ControllerInvocation")
+@Label("Controller Invocation")
+@Category({JfrEvents.CATEGORY, "Web"})
+@Description("Вызов метода REST-контроллера")
+public class ControllerInvocationEvent extends InvocationEvent {
+}
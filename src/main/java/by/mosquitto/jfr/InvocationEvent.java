@@ -0,0 +1,23 @@
+package by.mosquitto.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+/**
+ * Общие поля событий вызова контроллера, сервиса или репозитория.
+ */
+@StackTrace(false)
+public abstract class InvocationEvent extends Event {
+
+    @Label("Method")
+    public String method;
+
+    @Label("Entity Id")
+    @Description("Первый числовой аргумент вызова (id новости, комментария или пользователя), 0 — нет")
+    public long entityId;
+
+    @Label("Failed")
+    public boolean failed;
+}
@@ -0,0 +1,37 @@
+package by.mosquitto.jfr;
+
+import java.util.List;
+
+/**
+ * Имена и вспомогательные методы собственных событий JFR приложения.
+ */
+public final class JfrEvents {
+
+    public static final String PREFIX = "by.mosquitto.";
+    public static final String CATEGORY = "Springnews";
+
+    public static final List<Class<? extends jdk.jfr.Event>> TYPES = List.of(
+            ControllerInvocationEvent.class,
+            ServiceInvocationEvent.class,
+            RepositoryCallEvent.class,
+            SqlStatementEvent.class,
+            TransactionEvent.class);
+
+    private JfrEvents() {
+    }
+
+    /**
+     * Идентификатор сущности для события: первый аргумент типа {@link Long} или {@link Integer}.
+     *
+     * @param args аргументы вызова
+     * @return id или 0, если числового аргумента нет
+     */
+    public static long entityId(Object[] args) {
+        for (Object arg : args) {
+            if (arg instanceof Long || arg instanceof Integer) {
+                return ((Number) arg).longValue();
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,58 @@
+package by.mosquitto.jfr;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Записывает {@link TransactionEvent} на фиксацию и откат транзакций.
+ *
+ * Spring Boot подключает слушатель к менеджеру транзакций автоматически.
+ * Фиксация внутренней транзакции ({@code REQUIRES_NEW}) может выполняться во время
+ * фиксации внешней, поэтому незавершённые события хранятся стеком потока; событие кладётся
+ * в стек всегда, даже при выключенной записи, чтобы пары begin/end не расходились при её включении.
+ */
+@Component
+public class JfrTransactionListener implements TransactionExecutionListener {
+
+    private static final ThreadLocal<Deque<TransactionEvent>> PENDING = ThreadLocal.withInitial(ArrayDeque::new);
+
+    @Override
+    public void beforeCommit(TransactionExecution transaction) {
+        begin(transaction);
+    }
+
+    @Override
+    public void afterCommit(TransactionExecution transaction, Throwable commitFailure) {
+        end(commitFailure == null ? "commit" : "failed");
+    }
+
+    @Override
+    public void beforeRollback(TransactionExecution transaction) {
+        begin(transaction);
+    }
+
+    @Override
+    public void afterRollback(TransactionExecution transaction, Throwable rollbackFailure) {
+        end(rollbackFailure == null ? "rollback" : "failed");
+    }
+
+    private static void begin(TransactionExecution transaction) {
+        TransactionEvent event = new TransactionEvent();
+        event.name = transaction.getTransactionName();
+        event.readOnly = transaction.isReadOnly();
+        event.begin();
+        PENDING.get().push(event);
+    }
+
+    private static void end(String outcome) {
+        TransactionEvent event = PENDING.get().poll();
+        if (event != null) {
+            event.outcome = outcome;
+            event.commit();
+        }
+    }
+}
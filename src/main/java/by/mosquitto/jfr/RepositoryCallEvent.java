@@ -0,0 +1,13 @@
+package by.mosquitto.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name(JfrEvents.PREFIX + "RepositoryCall")
+@Label("Repository Call")
+@Category({JfrEvents.CATEGORY, "Data"})
+@Description("Вызов метода репозитория Spring Data")
+public class RepositoryCallEvent extends InvocationEvent {
+}
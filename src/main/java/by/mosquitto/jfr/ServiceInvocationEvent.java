@@ -0,0 +1,13 @@
+package by.mosquitto.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name(JfrEvents.PREFIX + "ServiceInvocation")
+@Label("Service Invocation")
+@Category({JfrEvents.CATEGORY, "Service"})
+@Description("Вызов метода сервиса (*ServiceManager)")
+public class ServiceInvocationEvent extends InvocationEvent {
+}
@@ -0,0 +1,25 @@
+package by.mosquitto.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name(JfrEvents.PREFIX + "SqlStatement")
+@Label("SQL Statement")
+@Category({JfrEvents.CATEGORY, "Data"})
+@Description("Выполнение SQL-выражения или пакета через источник данных")
+@StackTrace(false)
+public class SqlStatementEvent extends Event {
+
+    @Label("SQL")
+    public String sql;
+
+    @Label("Batch Size")
+    public int batchSize;
+
+    @Label("Success")
+    public boolean success;
+}
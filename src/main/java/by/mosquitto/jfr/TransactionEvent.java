@@ -0,0 +1,26 @@
+package by.mosquitto.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name(JfrEvents.PREFIX + "Transaction")
+@Label("Transaction Completion")
+@Category({JfrEvents.CATEGORY, "Data"})
+@Description("Фиксация или откат транзакции Spring")
+@StackTrace(false)
+public class TransactionEvent extends Event {
+
+    @Label("Name")
+    public String name;
+
+    @Label("Read Only")
+    public boolean readOnly;
+
+    @Label("Outcome")
+    @Description("commit, rollback или failed")
+    public String outcome;
+}
@@ -0,0 +1,176 @@
+package by.mosquitto.limit;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Адаптивный лимит одновременно выполняемых запросов (градиентный алгоритм в духе TCP Vegas).
+ *
+ * Лимит пересчитывается раз в окно {@code windowMillis} по времени ответа:
+ * - {@code rtt} — среднее время ответа за окно, {@code baseRtt} — минимальное {@code rtt}
+ *   за последние {@code baselineWindows}..{@code 2 * baselineWindows} окон, то есть время ответа без очереди
+ * - {@code gradient = clamp(tolerance * baseRtt / rtt, 0.5, 1)}: пока задержка не растёт,
+ *   градиент равен 1 и лимит растёт на {@code sqrt(limit)}; рост задержки (очередь в пуле
+ *   или медленная БД) уменьшает лимит пропорционально
+ * - Новый лимит сглаживается ({@code smoothing}) и ограничивается {@code [minLimit, maxLimit]}
+ * - Лимит не растёт, если в окне было занято меньше половины лимита, — иначе он
+ *   уходит к максимуму при малой нагрузке и не защищает при всплеске
+ *
+ * Минимум, а не скользящее среднее: при устойчивой очереди среднее догоняет текущую задержку,
+ * градиент возвращается к 1 и лимит снова растёт. Устаревший минимум вытесняется
+ * сменой горизонта, поэтому постоянное изменение нормы (другой профиль запросов) тоже учитывается.
+ *
+ * Захват и освобождение разрешения не блокируются: счётчики атомарны, а пересчёт выполняет
+ * тот поток, который первым закрыл окно (остальные его не ждут).
+ */
+@Slf4j
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double MIN_GRADIENT = 0.5;
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+    private final long windowNanos;
+    private final int minWindowSamples;
+    private final int baselineWindows;
+    private final LongSupplier clock;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger windowMaxInFlight = new AtomicInteger();
+    private final LongAdder windowRttNanos = new LongAdder();
+    private final LongAdder windowSamples = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final ReentrantLock updateLock = new ReentrantLock();
+
+    private volatile int limit;
+    private volatile long windowEnd;
+    private double estimatedLimit;
+    private double currentMinRtt = Double.MAX_VALUE;
+    private double previousMinRtt = Double.MAX_VALUE;
+    private int baselineWindowCount;
+
+    public AdaptiveConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit,
+                                      double tolerance, double smoothing, long windowMillis, int minWindowSamples,
+                                      int baselineWindows) {
+        this(name, initialLimit, minLimit, maxLimit, tolerance, smoothing, windowMillis, minWindowSamples,
+                baselineWindows, System::nanoTime);
+    }
+
+    AdaptiveConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit,
+                               double tolerance, double smoothing, long windowMillis, int minWindowSamples,
+                               int baselineWindows, LongSupplier clock) {
+        if (minLimit < 1 || minLimit > maxLimit) {
+            throw new IllegalArgumentException("Invalid limit bounds for " + name + ": " + minLimit + ".." + maxLimit);
+        }
+        this.name = name;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+        this.minWindowSamples = minWindowSamples;
+        this.baselineWindows = baselineWindows;
+        this.clock = clock;
+        this.estimatedLimit = Math.clamp(initialLimit, minLimit, maxLimit);
+        this.limit = (int) estimatedLimit;
+        this.windowEnd = clock.getAsLong() + windowNanos;
+    }
+
+    /**
+     * Пытается занять разрешение на выполнение запроса.
+     *
+     * @return время начала запроса для {@link #release(long)} или {@code -1}, если лимит исчерпан
+     */
+    public long tryAcquire() {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= limit) {
+                rejected.increment();
+                return -1;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        windowMaxInFlight.accumulateAndGet(current + 1, Math::max);
+        return clock.getAsLong();
+    }
+
+    /**
+     * Освобождает разрешение и учитывает время ответа.
+     *
+     * @param startNanos значение, полученное от {@link #tryAcquire()}
+     */
+    public void release(long startNanos) {
+        long now = clock.getAsLong();
+        inFlight.decrementAndGet();
+        windowRttNanos.add(now - startNanos);
+        windowSamples.increment();
+        if (now - windowEnd >= 0 && updateLock.tryLock()) {
+            try {
+                if (now - windowEnd >= 0) {
+                    update(now);
+                }
+            } finally {
+                updateLock.unlock();
+            }
+        }
+    }
+
+    private void update(long now) {
+        windowEnd = now + windowNanos;
+        long samples = windowSamples.sumThenReset();
+        long rttSum = windowRttNanos.sumThenReset();
+        if (samples < minWindowSamples) {
+            // слишком мало ответов для оценки — копим дальше
+            windowSamples.add(samples);
+            windowRttNanos.add(rttSum);
+            return;
+        }
+        int maxInFlight = windowMaxInFlight.getAndSet(inFlight.get());
+
+        double rtt = Math.max(1, (double) rttSum / samples);
+        currentMinRtt = Math.min(currentMinRtt, rtt);
+        double baseRtt = Math.min(currentMinRtt, previousMinRtt);
+        if (++baselineWindowCount >= baselineWindows) {
+            previousMinRtt = currentMinRtt;
+            currentMinRtt = Double.MAX_VALUE;
+            baselineWindowCount = 0;
+        }
+        if (maxInFlight < estimatedLimit / 2) {
+            return;
+        }
+
+        double gradient = Math.clamp(tolerance * baseRtt / rtt, MIN_GRADIENT, 1.0);
+        double target = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        double next = Math.clamp(estimatedLimit * (1 - smoothing) + target * smoothing, minLimit, maxLimit);
+        if ((int) next != limit) {
+            log.debug("Concurrency limit '{}': {} -> {} (rtt={}us, baseRtt={}us, inFlight max {})",
+                    name, limit, (int) next, (long) rtt / 1_000, (long) baseRtt / 1_000, maxInFlight);
+        }
+        estimatedLimit = next;
+        limit = (int) next;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+}
@@ -0,0 +1,141 @@
+package by.mosquitto.limit;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import javax.sql.DataSource;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Изолированный отсек для тяжёлых запросов: свои потоки и свой пул соединений.
+ *
+ * Особенности:
+ * - Задачи выполняются фиксированным числом потоков с ограниченной очередью; переполнение
+ *   сразу отклоняется ({@link RejectedExecutionException}), а не ждёт
+ * - Запросы идут через собственный {@link JdbcTemplate} с таймаутом выражения, поэтому
+ *   даже зависшие запросы не занимают соединения основного пула
+ * - Без изоляции ({@link #shared}) задачи выполняются в вызывающем потоке на основном пуле —
+ *   для сравнения и отключения отсека
+ *
+ * Публикует метрики с тегом {@code name}: {@code bulkhead.active}, {@code bulkhead.queued},
+ * {@code bulkhead.rejected}.
+ */
+@Slf4j
+public class Bulkhead implements MeterBinder, AutoCloseable {
+
+    private final String name;
+    private final ThreadPoolExecutor executor;
+    private final JdbcTemplate jdbcTemplate;
+    private final AutoCloseable pool;
+    private final LongAdder rejected = new LongAdder();
+
+    private Bulkhead(String name, ThreadPoolExecutor executor, DataSource dataSource, AutoCloseable pool,
+                     int queryTimeoutSeconds) {
+        this.name = name;
+        this.executor = executor;
+        this.pool = pool;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setQueryTimeout(queryTimeoutSeconds);
+    }
+
+    /**
+     * @param dataSource источник соединений отсека
+     * @param pool       пул под {@code dataSource}, закрываемый вместе с отсеком
+     */
+    public static Bulkhead isolated(String name, int threads, int queueCapacity,
+                                    DataSource dataSource, AutoCloseable pool, int queryTimeoutSeconds) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory(name + "-"));
+        return new Bulkhead(name, executor, dataSource, pool, queryTimeoutSeconds);
+    }
+
+    public static Bulkhead shared(String name, DataSource dataSource, int queryTimeoutSeconds) {
+        return new Bulkhead(name, null, dataSource, null, queryTimeoutSeconds);
+    }
+
+    /**
+     * Выполняет задачу в потоках отсека (или в вызывающем потоке без изоляции).
+     *
+     * @throws RejectedExecutionException если все потоки заняты и очередь полна
+     */
+    public void execute(Runnable task) {
+        if (executor == null) {
+            task.run();
+            return;
+        }
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw e;
+        }
+    }
+
+    /**
+     * Убирает из очереди ещё не начатую задачу.
+     */
+    public void remove(Runnable task) {
+        if (executor != null) {
+            executor.remove(task);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isIsolated() {
+        return executor != null;
+    }
+
+    public JdbcTemplate getJdbcTemplate() {
+        return jdbcTemplate;
+    }
+
+    public int getActive() {
+        return executor == null ? 0 : executor.getActiveCount();
+    }
+
+    public int getQueued() {
+        return executor == null ? 0 : executor.getQueue().size();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("bulkhead.active", this, Bulkhead::getActive)
+                .tag("name", name)
+                .description("Bulkhead threads executing a task")
+                .register(registry);
+        Gauge.builder("bulkhead.queued", this, Bulkhead::getQueued)
+                .tag("name", name)
+                .description("Tasks waiting for a bulkhead thread")
+                .register(registry);
+        FunctionCounter.builder("bulkhead.rejected", this, Bulkhead::getRejected)
+                .tag("name", name)
+                .description("Tasks rejected because the bulkhead was full")
+                .register(registry);
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+        if (pool != null) {
+            pool.close();
+        }
+    }
+}
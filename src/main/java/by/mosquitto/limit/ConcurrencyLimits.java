@@ -0,0 +1,65 @@
+package by.mosquitto.limit;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.http.HttpMethod;
+
+import java.util.List;
+
+/**
+ * Раздельные лимиты конкурентности для чтений (GET, HEAD) и записей (остальные методы).
+ *
+ * Записи держат соединение дольше и конкурируют за блокировки, поэтому их лимит меньше
+ * и адаптируется независимо: медленные записи не отнимают ёмкость у чтений, и наоборот.
+ *
+ * Публикует метрики с тегом {@code type=read|write}:
+ * - {@code http.concurrency.limit} — текущий лимит
+ * - {@code http.concurrency.in-flight} — выполняющиеся запросы
+ * - {@code http.concurrency.rejected} — отклонённые запросы (счётчик)
+ */
+public class ConcurrencyLimits implements MeterBinder {
+
+    private final AdaptiveConcurrencyLimiter read;
+    private final AdaptiveConcurrencyLimiter write;
+
+    public ConcurrencyLimits(AdaptiveConcurrencyLimiter read, AdaptiveConcurrencyLimiter write) {
+        this.read = read;
+        this.write = write;
+    }
+
+    /**
+     * @param method HTTP-метод запроса
+     * @return лимит, которому подчиняется запрос
+     */
+    public AdaptiveConcurrencyLimiter forMethod(String method) {
+        return HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method) ? read : write;
+    }
+
+    public AdaptiveConcurrencyLimiter getRead() {
+        return read;
+    }
+
+    public AdaptiveConcurrencyLimiter getWrite() {
+        return write;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (AdaptiveConcurrencyLimiter limiter : List.of(read, write)) {
+            Gauge.builder("http.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                    .tag("type", limiter.getName())
+                    .description("Current adaptive concurrency limit")
+                    .register(registry);
+            Gauge.builder("http.concurrency.in-flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                    .tag("type", limiter.getName())
+                    .description("Requests currently holding a concurrency permit")
+                    .register(registry);
+            FunctionCounter.builder("http.concurrency.rejected", limiter, AdaptiveConcurrencyLimiter::getRejected)
+                    .tag("type", limiter.getName())
+                    .description("Requests rejected with 503 by the concurrency limit")
+                    .register(registry);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package by.mosquitto.limit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Ограничение частоты записей в журнал для шумных, но ожидаемых событий (например, 4xx от ботов).
+ *
+ * Разрешает всплеск до {@code burst} записей и далее {@code perSecond} в секунду (корзина токенов
+ * {@link TokenBucket}); пропущенные записи считаются и отдаются со следующей разрешённой,
+ * чтобы журнал показывал реальный объём.
+ */
+public class LogThrottle {
+
+    private final TokenBucket bucket;
+    private final long intervalNanos;
+    private final long capacityNanos;
+    private final LongSupplier clock;
+    private final LongAdder suppressed = new LongAdder();
+
+    public LogThrottle(double perSecond, int burst) {
+        this(perSecond, burst, System::nanoTime);
+    }
+
+    LogThrottle(double perSecond, int burst, LongSupplier clock) {
+        if (perSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Invalid log throttle: " + perSecond + "/s, burst " + burst);
+        }
+        this.clock = clock;
+        this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / perSecond);
+        this.capacityNanos = intervalNanos * burst;
+        this.bucket = new TokenBucket(clock.getAsLong());
+    }
+
+    /**
+     * Решает, писать ли очередную запись.
+     *
+     * @return {@code -1}, если запись нужно пропустить; иначе число записей, пропущенных
+     *         с предыдущей разрешённой
+     */
+    public long tryAcquire() {
+        if (bucket.tryConsume(clock.getAsLong(), intervalNanos, capacityNanos) > 0) {
+            return suppressed.sumThenReset();
+        }
+        suppressed.increment();
+        return -1;
+    }
+}
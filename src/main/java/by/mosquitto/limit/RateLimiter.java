@@ -0,0 +1,170 @@
+package by.mosquitto.limit;
+
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * Ограничение частоты запросов одной группы эндпоинтов по клиентам.
+ *
+ * Каждый клиент получает {@link TokenBucket} ёмкостью {@code capacity}, пополняемую со скоростью
+ * {@code refillPerSecond}. Корзины хранятся в {@link ConcurrentHashMap} (внутри разбита на сегменты,
+ * чтение без блокировок) и удаляются {@link #evictIdle()}, как только снова полны.
+ *
+ * Число корзин ограничено {@code maxClients}: новые клиенты сверх него делят одну общую корзину,
+ * пока очистка не освободит место. Так память не растёт с числом адресов, а поток запросов
+ * с множества адресов всё равно ограничен.
+ */
+public class RateLimiter {
+
+    private static final PathPatternParser PATTERN_PARSER = PathPatternParser.defaultInstance;
+
+    private final String name;
+    private final List<PathPattern> paths;
+    private final Set<String> methods;
+    private final int capacity;
+    private final long intervalNanos;
+    private final long capacityNanos;
+    private final int maxClients;
+    private final LongSupplier clock;
+
+    private final ConcurrentHashMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final TokenBucket overflow;
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder overflowed = new LongAdder();
+
+    public RateLimiter(String name, Settings settings, int maxClients) {
+        this(name, settings, maxClients, System::nanoTime);
+    }
+
+    RateLimiter(String name, Settings settings, int maxClients, LongSupplier clock) {
+        if (settings.capacity() < 1 || settings.refillPerSecond() <= 0 || settings.paths().isEmpty()) {
+            throw new IllegalArgumentException("Invalid rate limit policy '" + name + "': " + settings);
+        }
+        this.name = name;
+        this.paths = settings.paths().stream().map(PATTERN_PARSER::parse).toList();
+        this.methods = settings.methods() == null ? Set.of()
+                : settings.methods().stream().map(m -> m.toUpperCase(Locale.ROOT)).collect(Collectors.toUnmodifiableSet());
+        this.capacity = settings.capacity();
+        this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / settings.refillPerSecond());
+        this.capacityNanos = intervalNanos * capacity;
+        this.maxClients = maxClients;
+        this.clock = clock;
+        this.overflow = new TokenBucket(clock.getAsLong());
+    }
+
+    /**
+     * @return {@code true}, если запрос относится к группе эндпоинтов этого ограничения
+     */
+    public boolean matches(String method, PathContainer path) {
+        if (!methods.isEmpty() && !methods.contains(method)) {
+            return false;
+        }
+        for (PathPattern pattern : paths) {
+            if (pattern.matches(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Списывает токен клиента.
+     *
+     * @param client ключ клиента (пользователь или адрес)
+     * @return решение с данными для заголовков {@code RateLimit-*}
+     */
+    public Decision tryAcquire(String client) {
+        long now = clock.getAsLong();
+        long result = bucket(client, now).tryConsume(now, intervalNanos, capacityNanos);
+        if (result > 0) {
+            return new Decision(true, (capacityNanos - result) / intervalNanos, toSeconds(result));
+        }
+        rejected.increment();
+        return new Decision(false, 0, toSeconds(-result));
+    }
+
+    private TokenBucket bucket(String client, long now) {
+        TokenBucket bucket = buckets.get(client);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= maxClients) {
+            overflowed.increment();
+            return overflow;
+        }
+        // корзина, удалённая очисткой между get и списанием, теряет один токен — допустимо
+        return buckets.computeIfAbsent(client, key -> new TokenBucket(now));
+    }
+
+    /**
+     * Удаляет полные корзины: их состояние совпадает с новой корзиной.
+     *
+     * @return число удалённых корзин
+     */
+    public int evictIdle() {
+        long now = clock.getAsLong();
+        int before = buckets.size();
+        buckets.values().removeIf(bucket -> bucket.isFull(now));
+        return before - buckets.size();
+    }
+
+    /**
+     * @return значение заголовка {@code RateLimit-Policy}: ёмкость и время полного пополнения
+     */
+    public String policyHeader() {
+        return capacity + ";w=" + toSeconds(capacityNanos);
+    }
+
+    private static long toSeconds(long nanos) {
+        return (nanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int getClients() {
+        return buckets.size();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    public long getOverflowed() {
+        return overflowed.sum();
+    }
+
+    /**
+     * Настройки группы эндпоинтов ({@code app.rate-limit.policies.<name>.*}).
+     *
+     * @param paths           шаблоны путей ({@code /api/comments/**})
+     * @param methods         HTTP-методы; пусто — все
+     * @param capacity        максимальный всплеск запросов
+     * @param refillPerSecond устойчивая частота запросов
+     */
+    public record Settings(List<String> paths, List<String> methods, int capacity, double refillPerSecond) {
+    }
+
+    /**
+     * @param allowed      запрос разрешён
+     * @param remaining    оставшиеся токены
+     * @param resetSeconds при разрешении — время до полного пополнения, при отказе — до следующего токена
+     */
+    public record Decision(boolean allowed, long remaining, long resetSeconds) {
+    }
+}
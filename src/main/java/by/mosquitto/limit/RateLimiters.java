@@ -0,0 +1,76 @@
+package by.mosquitto.limit;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.server.PathContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.List;
+
+/**
+ * Ограничения частоты запросов по группам эндпоинтов, в порядке объявления.
+ *
+ * Запрос подчиняется первому подходящему ограничению. Полные корзины удаляются каждые
+ * {@code app.rate-limit.eviction-millis}.
+ *
+ * Публикует метрики с тегом {@code policy}:
+ * - {@code http.rate-limit.rejected} — отклонённые запросы
+ * - {@code http.rate-limit.clients} — клиенты с неполной корзиной
+ * - {@code http.rate-limit.overflow} — запросы новых клиентов сверх {@code max-clients}
+ */
+@Slf4j
+public class RateLimiters implements MeterBinder {
+
+    private final List<RateLimiter> limiters;
+
+    public RateLimiters(List<RateLimiter> limiters) {
+        this.limiters = List.copyOf(limiters);
+    }
+
+    /**
+     * @return ограничение для запроса или {@code null}, если группа не ограничена
+     */
+    public RateLimiter find(String method, PathContainer path) {
+        for (RateLimiter limiter : limiters) {
+            if (limiter.matches(method, path)) {
+                return limiter;
+            }
+        }
+        return null;
+    }
+
+    public List<RateLimiter> getLimiters() {
+        return limiters;
+    }
+
+    @Scheduled(fixedDelayString = "${app.rate-limit.eviction-millis:60000}")
+    public void evictIdle() {
+        for (RateLimiter limiter : limiters) {
+            int evicted = limiter.evictIdle();
+            if (evicted > 0) {
+                log.debug("Rate limit '{}': evicted {} idle buckets, {} left", limiter.getName(), evicted, limiter.getClients());
+            }
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (RateLimiter limiter : limiters) {
+            FunctionCounter.builder("http.rate-limit.rejected", limiter, RateLimiter::getRejected)
+                    .tag("policy", limiter.getName())
+                    .description("Requests rejected with 429 by the rate limit")
+                    .register(registry);
+            Gauge.builder("http.rate-limit.clients", limiter, RateLimiter::getClients)
+                    .tag("policy", limiter.getName())
+                    .description("Clients with a partially drained token bucket")
+                    .register(registry);
+            FunctionCounter.builder("http.rate-limit.overflow", limiter, RateLimiter::getOverflowed)
+                    .tag("policy", limiter.getName())
+                    .description("Requests of new clients served by the shared overflow bucket")
+                    .register(registry);
+        }
+    }
+}
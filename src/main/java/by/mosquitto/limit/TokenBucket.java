@@ -0,0 +1,47 @@
+package by.mosquitto.limit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Корзина токенов одного клиента без блокировок.
+ *
+ * Состояние — единственное число: момент, к которому корзина снова будет полной
+ * (theoretical arrival time из GCRA). Пополнение не хранится отдельно, а вычисляется
+ * из разницы с текущим временем, поэтому списание токена — один CAS.
+ * Корзина, чей момент уже наступил, полна и может быть удалена без потери состояния.
+ */
+final class TokenBucket {
+
+    private final AtomicLong fullAt;
+
+    TokenBucket(long now) {
+        this.fullAt = new AtomicLong(now);
+    }
+
+    /**
+     * Списывает один токен.
+     *
+     * @param now           текущее время, нс
+     * @param intervalNanos время пополнения одного токена
+     * @param capacityNanos время пополнения всей корзины ({@code capacity * intervalNanos})
+     * @return если токен списан — время до полного пополнения (больше нуля);
+     *         если токенов нет — минус время до появления следующего
+     */
+    long tryConsume(long now, long intervalNanos, long capacityNanos) {
+        while (true) {
+            long current = fullAt.get();
+            long next = (current - now > 0 ? current : now) + intervalNanos;
+            long debt = next - now;
+            if (debt > capacityNanos) {
+                return capacityNanos - debt;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return debt;
+            }
+        }
+    }
+
+    boolean isFull(long now) {
+        return fullAt.get() - now <= 0;
+    }
+}
@@ -2,17 +2,44 @@ package by.mosquitto.mapper;
 
 import by.mosquitto.dto.CommentDto;
 import by.mosquitto.entity.Comment;
+import by.mosquitto.timing.RequestTimings;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
 
 public class CommentMapper {
 
+    /**
+     * Колонки таблицы {@code comments}, которые читает {@link #toDto(ResultSet)}.
+     */
+    public static final List<String> COLUMNS = List.of(
+            "id", "text", "creation_date", "last_edit_date", "created_by_user", "news_id", "version");
+
     public static CommentDto toDto(Comment comment) {
-        return CommentDto.builder()
+        long start = RequestTimings.begin();
+        CommentDto dto = CommentDto.builder()
                 .id(comment.getId())
                 .text(comment.getText())
                 .creationDate(comment.getCreationDate())
                 .lastEditDate(comment.getLastEditDate())
+                .version(comment.getVersion())
                 .newsId(comment.getNews().getId())
                 .userId(comment.getCreatedByUser().getId())
                 .build();
+        RequestTimings.end(RequestTimings.Phase.MAP, start);
+        return dto;
+    }
+
+    public static CommentDto toDto(ResultSet rs) throws SQLException {
+        return CommentDto.builder()
+                .id(rs.getLong("id"))
+                .text(rs.getString("text"))
+                .creationDate(NewsMapper.toLocalDateTime(rs.getTimestamp("creation_date")))
+                .lastEditDate(NewsMapper.toLocalDateTime(rs.getTimestamp("last_edit_date")))
+                .version(rs.getLong("version"))
+                .newsId(rs.getLong("news_id"))
+                .userId(rs.getLong("created_by_user"))
+                .build();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,33 @@
+package by.mosquitto.mapper;
+
+import by.mosquitto.dto.NewsFeedItemDto;
+import by.mosquitto.entity.NewsFeedEntry;
+
+public class NewsFeedMapper {
+
+    public static final int EXCERPT_LENGTH = 200;
+
+    public static NewsFeedItemDto toDto(NewsFeedEntry entry) {
+        return NewsFeedItemDto.builder()
+                .newsId(entry.getNewsId())
+                .title(entry.getTitle())
+                .excerpt(entry.getExcerpt())
+                .authorId(entry.getAuthorId())
+                .authorName(entry.getAuthorName())
+                .commentCount(entry.getCommentCount())
+                .creationDate(entry.getCreationDate())
+                .lastActivity(entry.getLastActivity())
+                .build();
+    }
+
+    public static String excerpt(String text) {
+        if (text == null) {
+            return "";
+        }
+        return text.length() <= EXCERPT_LENGTH ? text : text.substring(0, EXCERPT_LENGTH);
+    }
+
+    public static String authorName(String name, String surname) {
+        return name + " " + surname;
+    }
+}
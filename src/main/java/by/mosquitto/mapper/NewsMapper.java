@@ -2,18 +2,56 @@ package by.mosquitto.mapper;
 
 import by.mosquitto.dto.NewsDto;
 import by.mosquitto.entity.News;
+import by.mosquitto.timing.RequestTimings;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
 
 public class NewsMapper {
 
+    /**
+     * Колонки таблицы {@code news}, которые читает {@link #toDto(ResultSet)}.
+     */
+    public static final List<String> COLUMNS = List.of(
+            "id", "title", "text", "creation_date", "last_edit_date", "created_by_user", "updated_by_user", "version");
+
     public static NewsDto toDto(News news) {
-        return NewsDto.builder()
+        long start = RequestTimings.begin();
+        NewsDto dto = NewsDto.builder()
                 .id(news.getId())
                 .title(news.getTitle())
                 .text(news.getText())
                 .creationDate(news.getCreationDate())
                 .lastEditDate(news.getLastEditDate())
+                .version(news.getVersion())
                 .insertedById(news.getCreatedByUser().getId())
                 .updatedById(news.getUpdatedByUser() != null ? news.getUpdatedByUser().getId() : null)
                 .build();
+        RequestTimings.end(RequestTimings.Phase.MAP, start);
+        return dto;
+    }
+
+    public static NewsDto toDto(ResultSet rs) throws SQLException {
+        Long updatedById = rs.getLong("updated_by_user");
+        if (rs.wasNull()) {
+            updatedById = null;
+        }
+        return NewsDto.builder()
+                .id(rs.getLong("id"))
+                .title(rs.getString("title"))
+                .text(rs.getString("text"))
+                .creationDate(toLocalDateTime(rs.getTimestamp("creation_date")))
+                .lastEditDate(toLocalDateTime(rs.getTimestamp("last_edit_date")))
+                .insertedById(rs.getLong("created_by_user"))
+                .updatedById(updatedById)
+                .version(rs.getLong("version"))
+                .build();
+    }
+
+    static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
     }
-}
\ No newline at end of file
+}
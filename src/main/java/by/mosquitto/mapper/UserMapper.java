@@ -3,8 +3,19 @@ package by.mosquitto.mapper;
 import by.mosquitto.dto.UserDto;
 import by.mosquitto.entity.User;
 
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
 public class UserMapper {
 
+    /**
+     * Колонки таблицы {@code app_user}, которые читает {@link #toDto(ResultSet)}.
+     */
+    public static final List<String> COLUMNS = List.of(
+            "id", "username", "password", "name", "surname", "parent_name", "creation_date", "last_edit_date",
+            "version");
+
     public static UserDto toDto(User user) {
         return UserDto.builder()
                 .id(user.getId())
@@ -15,6 +26,7 @@ public class UserMapper {
                 .parentName(user.getParentName())
                 .creationDate(user.getCreationDate())
                 .lastEditDate(user.getLastEditDate())
+                .version(user.getVersion())
                 .build();
     }
 
@@ -30,4 +42,18 @@ public class UserMapper {
                 .lastEditDate(dto.getLastEditDate())
                 .build();
     }
-}
\ No newline at end of file
+
+    public static UserDto toDto(ResultSet rs) throws SQLException {
+        return UserDto.builder()
+                .id(rs.getLong("id"))
+                .username(rs.getString("username"))
+                .password(rs.getString("password"))
+                .name(rs.getString("name"))
+                .surname(rs.getString("surname"))
+                .parentName(rs.getString("parent_name"))
+                .creationDate(NewsMapper.toLocalDateTime(rs.getTimestamp("creation_date")))
+                .lastEditDate(NewsMapper.toLocalDateTime(rs.getTimestamp("last_edit_date")))
+                .version(rs.getLong("version"))
+                .build();
+    }
+}
@@ -0,0 +1,19 @@
+package by.mosquitto.repository;
+
+import by.mosquitto.entity.ChangeLogEntry;
+import by.mosquitto.event.ChangeEntityType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ChangeLogRepository extends JpaRepository<ChangeLogEntry, Long> {
+
+    List<ChangeLogEntry> findBySeqGreaterThanOrderBySeqAsc(Long seq, Limit limit);
+    List<ChangeLogEntry> findBySeqGreaterThanAndNewsIdOrderBySeqAsc(Long seq, Long newsId, Limit limit);
+    List<ChangeLogEntry> findBySeqGreaterThanAndEntityTypeOrderBySeqAsc(Long seq, ChangeEntityType entityType, Limit limit);
+    List<ChangeLogEntry> findBySeqGreaterThanAndNewsIdAndEntityTypeOrderBySeqAsc(Long seq, Long newsId,
+                                                                                  ChangeEntityType entityType, Limit limit);
+}
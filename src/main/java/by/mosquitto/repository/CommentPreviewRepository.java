@@ -0,0 +1,88 @@
+package by.mosquitto.repository;
+
+import by.mosquitto.dto.CommentDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Число комментариев и последние комментарии для набора новостей одним запросом.
+ *
+ * Оконные функции считают комментарии и нумеруют их от новых к старым внутри каждой новости;
+ * наружу выходят только первые {@code preview} строк каждой новости (хотя бы одна — ради счётчика).
+ * Запрос читает комментарии по индексу {@code (news_id, creation_date, id)}.
+ */
+@Repository
+@RequiredArgsConstructor
+public class CommentPreviewRepository {
+
+    private static final String PREVIEW_SQL =
+            "SELECT news_id, comment_count, id, text, creation_date, last_edit_date, created_by_user, version FROM ("
+                    + "SELECT c.news_id, c.id, c.text, c.creation_date, c.last_edit_date, c.created_by_user, c.version, "
+                    + "COUNT(*) OVER (PARTITION BY c.news_id) AS comment_count, "
+                    + "ROW_NUMBER() OVER (PARTITION BY c.news_id ORDER BY c.creation_date DESC, c.id DESC) AS rn "
+                    + "FROM comments c WHERE c.news_id IN (:newsIds)) ranked "
+                    + "WHERE rn <= :rows ORDER BY news_id, rn";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Возвращает число комментариев и последние комментарии новостей.
+     *
+     * @param newsIds идентификаторы новостей
+     * @param preview сколько последних комментариев вернуть для каждой новости
+     * @return статистика по новостям, у которых есть комментарии
+     */
+    public Map<Long, CommentStats> findStats(Collection<Long> newsIds, int preview) {
+        if (newsIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, CommentStats> stats = new HashMap<>(newsIds.size() * 2);
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("newsIds", newsIds)
+                .addValue("rows", Math.max(1, preview));
+        jdbcTemplate.query(PREVIEW_SQL, params, (RowCallbackHandler) rs -> {
+            long newsId = rs.getLong("news_id");
+            CommentStats current = stats.get(newsId);
+            if (current == null) {
+                current = new CommentStats(rs.getLong("comment_count"), new ArrayList<>(preview));
+                stats.put(newsId, current);
+            }
+            if (current.latest().size() < preview) {
+                current.latest().add(CommentDto.builder()
+                        .id(rs.getLong("id"))
+                        .text(rs.getString("text"))
+                        .creationDate(toLocalDateTime(rs.getTimestamp("creation_date")))
+                        .lastEditDate(toLocalDateTime(rs.getTimestamp("last_edit_date")))
+                        .userId(rs.getLong("created_by_user"))
+                        .newsId(newsId)
+                        .version(rs.getLong("version"))
+                        .build());
+            }
+        });
+        return stats;
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+
+    /**
+     * Комментарии новости.
+     *
+     * @param count  число комментариев
+     * @param latest последние комментарии, от новых к старым
+     */
+    public record CommentStats(long count, List<CommentDto> latest) {
+    }
+}
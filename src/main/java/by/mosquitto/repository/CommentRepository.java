@@ -1,11 +1,16 @@
 package by.mosquitto.repository;
 
 import by.mosquitto.entity.Comment;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -13,4 +18,32 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
 
     List<Comment> findByNewsId(Long newsId);
     Page<Comment> findByNewsId(Long newsId, Pageable pageable);
+
+    List<Comment> findByCreatedByUserIdOrderByCreationDateDescIdDesc(Long userId, Limit limit);
+
+    @Query("SELECT c FROM Comment c WHERE c.createdByUser.id = :userId "
+            + "AND (c.creationDate < :before OR (c.creationDate = :before AND c.id < :beforeId)) "
+            + "ORDER BY c.creationDate DESC, c.id DESC")
+    List<Comment> findByAuthorBefore(@Param("userId") Long userId, @Param("before") LocalDateTime before,
+                                     @Param("beforeId") Long beforeId, Limit limit);
+
+    /**
+     * Комментарии автора, которые удалит каскад при удалении пользователя.
+     */
+    @Query("SELECT c.id AS id, c.news.id AS newsId FROM Comment c WHERE c.createdByUser.id = :userId")
+    List<CommentRef> findRefsByAuthor(@Param("userId") Long userId);
+
+    /**
+     * Комментарии новостей, которые удалит каскад вместе с новостями.
+     */
+    @Query("SELECT c.id AS id, c.news.id AS newsId FROM Comment c WHERE c.news.id IN :newsIds")
+    List<CommentRef> findRefsByNewsIds(@Param("newsIds") Collection<Long> newsIds);
+
+    /**
+     * Идентификатор комментария и его новости.
+     */
+    interface CommentRef {
+        Long getId();
+        Long getNewsId();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,77 @@
+package by.mosquitto.repository;
+
+import by.mosquitto.entity.NewsFeedEntry;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Витрина ленты новостей.
+ *
+ * Нативные изменяющие запросы объявляют затронутую таблицу ({@link #NEWS_FEED_SPACE}): без этого
+ * Hibernate не знает, что они меняют, и очищает после них весь второй уровень кэша.
+ */
+@Repository
+public interface NewsFeedRepository extends JpaRepository<NewsFeedEntry, Long> {
+
+    String NEWS_FEED_SPACE = "news_feed";
+
+    List<NewsFeedEntry> findAllByOrderByLastActivityDescNewsIdDesc(Limit limit);
+
+    @Query("SELECT e FROM NewsFeedEntry e WHERE e.lastActivity < :before "
+            + "OR (e.lastActivity = :before AND e.newsId < :beforeId) "
+            + "ORDER BY e.lastActivity DESC, e.newsId DESC")
+    List<NewsFeedEntry> findBefore(@Param("before") LocalDateTime before, @Param("beforeId") Long beforeId, Limit limit);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = NEWS_FEED_SPACE))
+    @Query(value = "INSERT INTO news_feed (news_id, title, excerpt, author_id, author_name, comment_count, creation_date, last_activity) "
+            + "VALUES (:newsId, :title, :excerpt, :authorId, :authorName, 0, :at, :at)", nativeQuery = true)
+    void insertNews(@Param("newsId") Long newsId, @Param("title") String title, @Param("excerpt") String excerpt,
+                    @Param("authorId") Long authorId, @Param("authorName") String authorName,
+                    @Param("at") LocalDateTime at);
+
+    @Modifying
+    @Query("UPDATE NewsFeedEntry e SET e.title = :title, e.excerpt = :excerpt, e.lastActivity = :at WHERE e.newsId = :newsId")
+    int updateNews(@Param("newsId") Long newsId, @Param("title") String title, @Param("excerpt") String excerpt,
+                   @Param("at") LocalDateTime at);
+
+    @Modifying
+    @Query("UPDATE NewsFeedEntry e SET e.commentCount = e.commentCount + :count, "
+            + "e.lastActivity = CASE WHEN e.lastActivity < :at THEN :at ELSE e.lastActivity END WHERE e.newsId = :newsId")
+    int addComments(@Param("newsId") Long newsId, @Param("count") long count, @Param("at") LocalDateTime at);
+
+    @Modifying
+    @Query("UPDATE NewsFeedEntry e SET e.commentCount = e.commentCount - 1 WHERE e.newsId = :newsId AND e.commentCount > 0")
+    int removeComment(@Param("newsId") Long newsId);
+
+    @Modifying
+    @Query("UPDATE NewsFeedEntry e SET e.authorName = :authorName WHERE e.authorId = :authorId")
+    int renameAuthor(@Param("authorId") Long authorId, @Param("authorName") String authorName);
+
+    @Modifying
+    @Query("DELETE FROM NewsFeedEntry e WHERE e.newsId = :newsId")
+    int deleteByNewsId(@Param("newsId") Long newsId);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = NEWS_FEED_SPACE))
+    @Query(value = "DELETE FROM news_feed WHERE news_id IN "
+            + "(SELECT n.id FROM news n WHERE n.created_by_user = :userId OR n.updated_by_user = :userId)", nativeQuery = true)
+    int deleteNewsOfUser(@Param("userId") Long userId);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = NEWS_FEED_SPACE))
+    @Query(value = "UPDATE news_feed SET comment_count = comment_count - "
+            + "(SELECT COUNT(*) FROM comments c WHERE c.news_id = news_feed.news_id AND c.created_by_user = :userId) "
+            + "WHERE news_id IN (SELECT c.news_id FROM comments c WHERE c.created_by_user = :userId)", nativeQuery = true)
+    int subtractCommentsOfUser(@Param("userId") Long userId);
+}
@@ -1,13 +1,30 @@
 package by.mosquitto.repository;
 
 import by.mosquitto.entity.News;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface NewsRepository extends JpaRepository<News, Long> {
-    @Query("SELECT n FROM News n WHERE LOWER(n.title) LIKE LOWER(CONCAT('%', :query, '%')) OR LOWER(n.text) LIKE LOWER(CONCAT('%', :query, '%'))")
-    List<News> searchByTitleOrText(@Param("query") String query);
+    @Query("SELECT n.id FROM News n WHERE n.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Новости, которые удалит каскад при удалении пользователя: созданные или последними изменённые им.
+     */
+    @Query("SELECT n.id FROM News n WHERE n.createdByUser.id = :userId OR n.updatedByUser.id = :userId")
+    List<Long> findIdsByUser(@Param("userId") Long userId);
+
+    List<News> findByCreatedByUserIdOrderByCreationDateDescIdDesc(Long userId, Limit limit);
+
+    @Query("SELECT n FROM News n WHERE n.createdByUser.id = :userId "
+            + "AND (n.creationDate < :before OR (n.creationDate = :before AND n.id < :beforeId)) "
+            + "ORDER BY n.creationDate DESC, n.id DESC")
+    List<News> findByAuthorBefore(@Param("userId") Long userId, @Param("before") LocalDateTime before,
+                                  @Param("beforeId") Long beforeId, Limit limit);
 }
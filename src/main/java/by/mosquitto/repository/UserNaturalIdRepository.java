@@ -0,0 +1,28 @@
+package by.mosquitto.repository;
+
+import by.mosquitto.entity.User;
+
+import java.util.Optional;
+
+/**
+ * Поиск пользователей по натуральному ключу {@code username} через кэш натуральных ключей Hibernate.
+ */
+public interface UserNaturalIdRepository {
+
+    /**
+     * Находит пользователя по имени: id берётся из региона натуральных ключей,
+     * сущность — из региона пользователей; к БД — только при промахах.
+     *
+     * @param username имя пользователя
+     * @return пользователь, если найден
+     */
+    Optional<User> findByUsername(String username);
+
+    /**
+     * Проверяет, занято ли имя, не загружая сущность.
+     *
+     * @param username имя пользователя
+     * @return {@code true}, если пользователь с таким именем есть
+     */
+    boolean existsByUsername(String username);
+}
@@ -0,0 +1,96 @@
+package by.mosquitto.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCallback;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Условное частичное изменение версионируемой строки одним UPDATE без предварительного чтения.
+ *
+ * В {@code SET} попадают только переданные колонки и {@code version = version + 1};
+ * {@code WHERE id = ? AND version = ?} делает запись атомарной проверкой версии без блокировок.
+ * Изменённая строка возвращается тем же выражением: колонки запрашиваются как сгенерированные ключи,
+ * и драйвер PostgreSQL дописывает к UPDATE {@code RETURNING}, а H2 отдаёт строку после изменения.
+ * Драйвер Oracle возвращает ключи только для INSERT, поэтому на остальных СУБД строка дочитывается
+ * по первичному ключу в той же транзакции.
+ *
+ * Запрос идёт мимо Hibernate: сущность не должна быть загружена в текущий контекст персистентности
+ * до вызова, а второй уровень кэша вызывающий сбрасывает сам.
+ */
+@Repository
+@RequiredArgsConstructor
+public class VersionedUpdateRepository {
+
+    private static final Set<String> RETURNING_PRODUCTS = Set.of("PostgreSQL", "H2");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile Boolean returning;
+
+    /**
+     * Изменяет колонки строки, если её версия совпадает с ожидаемой, и возвращает строку после изменения.
+     *
+     * @param table           таблица с колонками {@code id} и {@code version}
+     * @param id              идентификатор строки
+     * @param expectedVersion ожидаемая версия или {@code null}, чтобы изменить любую
+     * @param changes         новые значения колонок (имя колонки — значение)
+     * @param columns         колонки изменённой строки для {@code rowMapper}
+     * @param rowMapper       преобразование изменённой строки
+     * @return изменённая строка; пусто, если её нет или версия другая
+     */
+    public <T> Optional<T> update(String table, Long id, Long expectedVersion, Map<String, Object> changes,
+                                  List<String> columns, RowMapper<T> rowMapper) {
+        StringBuilder sql = new StringBuilder("UPDATE ").append(table).append(" SET ");
+        List<Object> args = new ArrayList<>(changes.values());
+        changes.keySet().forEach(column -> sql.append(column).append(" = ?, "));
+        sql.append("version = version + 1 WHERE id = ?");
+        args.add(id);
+        if (expectedVersion != null) {
+            sql.append(" AND version = ?");
+            args.add(expectedVersion);
+        }
+        ArgumentPreparedStatementSetter setter = new ArgumentPreparedStatementSetter(args.toArray());
+
+        if (!isReturning()) {
+            if (jdbcTemplate.update(sql.toString(), setter) == 0) {
+                return Optional.empty();
+            }
+            String select = "SELECT " + String.join(", ", columns) + " FROM " + table + " WHERE id = ?";
+            return jdbcTemplate.query(select, rowMapper, id).stream().findFirst();
+        }
+
+        String[] returned = columns.toArray(String[]::new);
+        return jdbcTemplate.execute(con -> con.prepareStatement(sql.toString(), returned),
+                (PreparedStatementCallback<Optional<T>>) ps -> {
+                    setter.setValues(ps);
+                    if (ps.executeUpdate() == 0) {
+                        return Optional.empty();
+                    }
+                    try (ResultSet rs = ps.getGeneratedKeys()) {
+                        return rs.next() ? Optional.of(rowMapper.mapRow(rs, 0)) : Optional.empty();
+                    }
+                });
+    }
+
+    private boolean isReturning() {
+        Boolean supported = returning;
+        if (supported == null) {
+            String product = jdbcTemplate.execute(
+                    (ConnectionCallback<String>) con -> con.getMetaData().getDatabaseProductName());
+            supported = RETURNING_PRODUCTS.contains(product);
+            returning = supported;
+        }
+        return supported;
+    }
+}
@@ -0,0 +1,345 @@
+package by.mosquitto.service;
+
+import by.mosquitto.dto.ChangeDto;
+import by.mosquitto.dto.ChangeFeedDto;
+import by.mosquitto.dto.CommentDto;
+import by.mosquitto.dto.NewsDto;
+import by.mosquitto.entity.ChangeLogEntry;
+import by.mosquitto.event.ChangeEntityType;
+import by.mosquitto.event.ChangeType;
+import by.mosquitto.exception.ChangeTokenExpiredException;
+import by.mosquitto.mapper.CommentMapper;
+import by.mosquitto.mapper.NewsMapper;
+import by.mosquitto.repository.ChangeLogRepository;
+import by.mosquitto.repository.CommentRepository;
+import by.mosquitto.repository.NewsRepository;
+import by.mosquitto.service.contract.ChangeFeedService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Сервис журнала изменений для дельта-синхронизации клиентов.
+ *
+ * Реализует:
+ * - Запись изменений новостей и комментариев в транзакции операции записи; изменения пачки
+ *   (пакетная запись комментариев, каскадное удаление) пишутся одним JDBC-батчем
+ * - Выдачу изменений после токена {@code since} с возобновляемым монотонным токеном
+ * - Выдачу изменений комментариев без схлопывания — для рассылки и возобновления SSE-потоков
+ * - Нумерацию закоммиченных записей и удаление записей старше срока хранения
+ *
+ * Особенности:
+ * - Удаления хранятся как tombstone-записи без полезной нагрузки
+ * - В пределах страницы несколько изменений одной сущности схлопываются в последнее
+ * - Актуальное состояние сущностей подгружается пачкой (один запрос на тип)
+ * - Токен — номер {@code seq} в порядке фиксации, а не id: id выделяется до коммита, и долгая
+ *   транзакция закоммитила бы запись позади уже выданного токена. Раз в {@code app.changes.sequence-millis}
+ *   {@link #sequence} под блокировкой строки {@code change_log_sequence} нумерует видимые (закоммиченные)
+ *   записи подряд; узлы нумеруют по очереди, и номер, видимый клиенту, никогда не обгоняет ненумерованную запись
+ * - Записи старше {@code app.changes.retention-millis} удаляются; токен из удалённой части журнала
+ *   отклоняется с 410, и клиент выполняет полную синхронизацию
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ChangeFeedServiceManager implements ChangeFeedService {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO change_log (entity_type, entity_id, news_id, operation, changed_at) VALUES (?, ?, ?, ?, ?)";
+    private static final String LOCK_SEQUENCE_SQL = "SELECT last_seq FROM change_log_sequence WHERE id = 1 FOR UPDATE";
+    private static final String UNSEQUENCED_SQL = "SELECT id FROM change_log WHERE seq IS NULL ORDER BY id";
+    private static final String ASSIGN_SEQ_SQL = "UPDATE change_log SET seq = ? WHERE id = ?";
+    private static final String UPDATE_LAST_SEQ_SQL = "UPDATE change_log_sequence SET last_seq = ? WHERE id = 1";
+    private static final String LAST_SEQ_SQL = "SELECT last_seq FROM change_log_sequence WHERE id = 1";
+    private static final String PURGED_SEQ_SQL = "SELECT purged_seq FROM change_log_sequence WHERE id = 1";
+    private static final String MAX_EXPIRED_SEQ_SQL = "SELECT MAX(seq) FROM change_log WHERE changed_at < ?";
+    private static final String PURGE_SQL = "DELETE FROM change_log WHERE seq <= ?";
+    private static final String UPDATE_PURGED_SEQ_SQL = "UPDATE change_log_sequence SET purged_seq = ? WHERE id = 1";
+
+    private final ChangeLogRepository changeLogRepository;
+    private final NewsRepository newsRepository;
+    private final CommentRepository commentRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${app.changes.sequence-batch-size:1000}")
+    private int sequenceBatchSize;
+
+    @Value("${app.changes.retention-millis:604800000}")
+    private long retentionMillis;
+
+    /**
+     * Записывает изменение в журнал. Вызывается только внутри транзакции записи.
+     *
+     * @param entityType тип сущности
+     * @param operation  тип изменения
+     * @param entityId   идентификатор сущности
+     * @param newsId     идентификатор новости, к которой относится сущность
+     */
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(ChangeEntityType entityType, ChangeType operation, Long entityId, Long newsId) {
+        log.debug("Recording change: {} {} id={}", operation, entityType, entityId);
+        changeLogRepository.save(ChangeLogEntry.builder()
+                .entityType(entityType)
+                .operation(operation)
+                .entityId(entityId)
+                .newsId(newsId)
+                .changedAt(LocalDateTime.now())
+                .build());
+    }
+
+    /**
+     * Записывает однотипные изменения нескольких сущностей одним JDBC-батчем — для пакетной записи
+     * комментариев. Вызывается только внутри транзакции записи.
+     *
+     * @param entityType        тип сущности
+     * @param operation         тип изменения
+     * @param newsIdsByEntityId идентификаторы сущностей и новостей, к которым они относятся
+     */
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(ChangeEntityType entityType, ChangeType operation, Map<Long, Long> newsIdsByEntityId) {
+        if (newsIdsByEntityId.isEmpty()) {
+            return;
+        }
+        log.debug("Recording {} changes: {} {}", newsIdsByEntityId.size(), operation, entityType);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Map.Entry<Long, Long>> entries = new ArrayList<>(newsIdsByEntityId.entrySet());
+        jdbcTemplate.batchUpdate(INSERT_SQL, entries, entries.size(), (ps, entry) -> {
+            ps.setString(1, entityType.name());
+            ps.setLong(2, entry.getKey());
+            ps.setObject(3, entry.getValue(), Types.BIGINT);
+            ps.setString(4, operation.name());
+            ps.setTimestamp(5, now);
+        });
+    }
+
+    /**
+     * Записывает удаления сущностей одним пакетом — для каскадного удаления вместе с пользователем.
+     * Вызывается только внутри транзакции записи.
+     *
+     * @param entityType       тип сущности
+     * @param newsIdsByEntityId идентификаторы удалённых сущностей и новостей, к которым они относятся
+     */
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordDeleted(ChangeEntityType entityType, Map<Long, Long> newsIdsByEntityId) {
+        record(entityType, ChangeType.DELETED, newsIdsByEntityId);
+    }
+
+    /**
+     * Возвращает изменения после указанного токена.
+     *
+     * @param since  токен последнего полученного изменения (0 — с начала журнала)
+     * @param newsId фильтр по новости или {@code null}
+     * @param limit  максимальное число записей журнала на страницу
+     * @return страница изменений и токен для следующего запроса
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public ChangeFeedDto getChanges(Long since, Long newsId, int limit) {
+        log.info("Fetching changes since={}, newsId={}, limit={}", since, newsId, limit);
+
+        List<ChangeLogEntry> entries = newsId == null
+                ? changeLogRepository.findBySeqGreaterThanOrderBySeqAsc(since, Limit.of(limit + 1))
+                : changeLogRepository.findBySeqGreaterThanAndNewsIdOrderBySeqAsc(since, newsId, Limit.of(limit + 1));
+        checkNotPurged(since, newsId == null ? entries : List.of());
+
+        boolean hasMore = entries.size() > limit;
+        if (hasMore) {
+            entries = entries.subList(0, limit);
+        }
+        if (entries.isEmpty()) {
+            return ChangeFeedDto.builder().changes(List.of()).nextToken(since).hasMore(false).build();
+        }
+
+        Map<String, ChangeLogEntry> latest = new LinkedHashMap<>();
+        for (ChangeLogEntry entry : entries) {
+            String key = entry.getEntityType() + ":" + entry.getEntityId();
+            latest.remove(key);
+            latest.put(key, entry);
+        }
+
+        Map<Long, NewsDto> news = loadNews(latest.values());
+        Map<Long, CommentDto> comments = loadComments(latest.values());
+
+        List<ChangeDto> changes = latest.values().stream()
+                .map(entry -> toDto(entry, news, comments))
+                .toList();
+
+        Long nextToken = entries.get(entries.size() - 1).getSeq();
+        log.debug("Returning {} changes, nextToken={}, hasMore={}", changes.size(), nextToken, hasMore);
+        return ChangeFeedDto.builder().changes(changes).nextToken(nextToken).hasMore(hasMore).build();
+    }
+
+    /**
+     * Возвращает изменения комментариев после указанного токена по одному на запись журнала, в порядке
+     * {@code seq} и без схлопывания: каждое изменение доставляется подписчику SSE отдельным событием.
+     *
+     * @param since  токен последнего полученного изменения
+     * @param newsId фильтр по новости или {@code null}
+     * @param limit  максимальное число изменений
+     * @return изменения комментариев с актуальным состоянием (кроме удалений)
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<ChangeDto> getCommentChanges(Long since, Long newsId, int limit) {
+        List<ChangeLogEntry> entries = newsId == null
+                ? changeLogRepository.findBySeqGreaterThanAndEntityTypeOrderBySeqAsc(since, ChangeEntityType.COMMENT, Limit.of(limit))
+                : changeLogRepository.findBySeqGreaterThanAndNewsIdAndEntityTypeOrderBySeqAsc(
+                        since, newsId, ChangeEntityType.COMMENT, Limit.of(limit));
+        checkNotPurged(since, List.of());
+        if (entries.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, CommentDto> comments = loadComments(entries);
+        return entries.stream()
+                .map(entry -> toDto(entry, Map.of(), comments))
+                .toList();
+    }
+
+    /**
+     * Возвращает последний выданный номер журнала.
+     *
+     * @return токен, после которого изменений ещё нет
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Long getLastToken() {
+        return jdbcTemplate.queryForObject(LAST_SEQ_SQL, Long.class);
+    }
+
+    /**
+     * Отклоняет токен из удалённой части журнала.
+     *
+     * @param since   токен клиента
+     * @param entries записи сразу после токена без фильтра или пустой список, если по ним нельзя судить о разрыве
+     */
+    private void checkNotPurged(Long since, List<ChangeLogEntry> entries) {
+        if (since <= 0 || !entries.isEmpty() && entries.get(0).getSeq() == since + 1) {
+            return;
+        }
+        // номера выдаются подряд: разрыв после токена означает удалённую часть журнала или фильтр
+        Long purgedSeq = jdbcTemplate.queryForObject(PURGED_SEQ_SQL, Long.class);
+        if (purgedSeq != null && since < purgedSeq) {
+            throw new ChangeTokenExpiredException(since);
+        }
+    }
+
+    /**
+     * Нумерует закоммиченные записи журнала в порядке id. Строка {@code change_log_sequence} блокируется
+     * до коммита: узлы нумеруют по очереди, и каждый пакет номеров становится видимым целиком.
+     */
+    @Scheduled(fixedDelayString = "${app.changes.sequence-millis:200}")
+    public void sequence() {
+        Integer sequenced;
+        do {
+            sequenced = new TransactionTemplate(transactionManager).execute(status -> sequenceBatch());
+        } while (sequenced != null && sequenced == sequenceBatchSize);
+    }
+
+    private int sequenceBatch() {
+        Long lastSeq = jdbcTemplate.queryForObject(LOCK_SEQUENCE_SQL, Long.class);
+        List<Long> ids = jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(UNSEQUENCED_SQL);
+            statement.setMaxRows(sequenceBatchSize);
+            return statement;
+        }, (rs, rowNum) -> rs.getLong(1));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        long seq = Objects.requireNonNull(lastSeq);
+        List<Object[]> batch = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            batch.add(new Object[]{++seq, id});
+        }
+        jdbcTemplate.batchUpdate(ASSIGN_SEQ_SQL, batch);
+        jdbcTemplate.update(UPDATE_LAST_SEQ_SQL, seq);
+        log.debug("Sequenced {} change log entries up to seq={}", ids.size(), seq);
+        return ids.size();
+    }
+
+    /**
+     * Удаляет записи старше срока хранения и запоминает границу удалённой части журнала.
+     */
+    @Scheduled(fixedDelayString = "${app.changes.purge-millis:3600000}")
+    public void purge() {
+        LocalDateTime horizon = LocalDateTime.now().minusNanos(retentionMillis * 1_000_000);
+        Integer purged = new TransactionTemplate(transactionManager).execute(status -> {
+            jdbcTemplate.queryForObject(LOCK_SEQUENCE_SQL, Long.class);
+            Long maxSeq = jdbcTemplate.queryForObject(MAX_EXPIRED_SEQ_SQL, Long.class, Timestamp.valueOf(horizon));
+            if (maxSeq == null) {
+                return 0;
+            }
+            int deleted = jdbcTemplate.update(PURGE_SQL, maxSeq);
+            jdbcTemplate.update(UPDATE_PURGED_SEQ_SQL, maxSeq);
+            return deleted;
+        });
+        if (purged != null && purged > 0) {
+            log.info("Purged {} change log entries older than {}", purged, horizon);
+        }
+    }
+
+    private Map<Long, NewsDto> loadNews(Collection<ChangeLogEntry> entries) {
+        List<Long> ids = liveIds(entries, ChangeEntityType.NEWS);
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        return newsRepository.findAllById(ids).stream()
+                .map(NewsMapper::toDto)
+                .collect(Collectors.toMap(NewsDto::getId, Function.identity()));
+    }
+
+    private Map<Long, CommentDto> loadComments(Collection<ChangeLogEntry> entries) {
+        List<Long> ids = liveIds(entries, ChangeEntityType.COMMENT);
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        return commentRepository.findAllById(ids).stream()
+                .map(CommentMapper::toDto)
+                .collect(Collectors.toMap(CommentDto::getId, Function.identity()));
+    }
+
+    private static List<Long> liveIds(Collection<ChangeLogEntry> entries, ChangeEntityType type) {
+        return entries.stream()
+                .filter(entry -> entry.getEntityType() == type && entry.getOperation() != ChangeType.DELETED)
+                .map(ChangeLogEntry::getEntityId)
+                .distinct()
+                .toList();
+    }
+
+    private static ChangeDto toDto(ChangeLogEntry entry, Map<Long, NewsDto> news, Map<Long, CommentDto> comments) {
+        ChangeDto.ChangeDtoBuilder builder = ChangeDto.builder()
+                .token(entry.getSeq())
+                .entityType(entry.getEntityType())
+                .entityId(entry.getEntityId())
+                .newsId(entry.getNewsId())
+                .operation(entry.getOperation())
+                .changedAt(entry.getChangedAt());
+        if (entry.getOperation() != ChangeType.DELETED) {
+            if (entry.getEntityType() == ChangeEntityType.NEWS) {
+                builder.news(news.get(entry.getEntityId()));
+            } else {
+                builder.comment(comments.get(entry.getEntityId()));
+            }
+        }
+        return builder.build();
+    }
+}
@@ -1,24 +1,36 @@
 package by.mosquitto.service;
 
+import by.mosquitto.cache.NegativeLookupCache;
 import by.mosquitto.dto.CommentDto;
 import by.mosquitto.entity.Comment;
 import by.mosquitto.entity.News;
 import by.mosquitto.entity.User;
+import by.mosquitto.event.ChangeEntityType;
+import by.mosquitto.event.ChangeType;
+import by.mosquitto.event.CommentChangedEvent;
 import by.mosquitto.exception.CommentNotFoundException;
+import by.mosquitto.exception.InvalidRequestException;
 import by.mosquitto.exception.NewsNotFoundException;
+import by.mosquitto.exception.PreconditionFailedException;
 import by.mosquitto.exception.UserNotFoundException;
 import by.mosquitto.mapper.CommentMapper;
 import by.mosquitto.repository.CommentRepository;
 import by.mosquitto.repository.NewsRepository;
 import by.mosquitto.repository.UserRepository;
+import by.mosquitto.repository.VersionedUpdateRepository;
+import by.mosquitto.service.contract.ChangeFeedService;
 import by.mosquitto.service.contract.CommentService;
+import by.mosquitto.service.contract.NewsFeedService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Сервис управления комментариями.
@@ -28,21 +40,34 @@ import java.util.List;
  * - Получение комментариев по новости
  * - Получение комментария по ID
  * - Создание, обновление и удаление комментария
+ * - Частичное изменение комментария с проверкой версии
  *
  * Особенности:
  * - Проверка существования News и User перед созданием
  * - Обработка ошибок через кастомные исключения (CommentNotFoundException и др.)
- * - Логирование: debug — для payload'ов, info — для действий, warn — при ошибках
- * - Используется @Transactional для операций записи
+ * - Логирование: debug — для payload'ов и промахов чтения, info — для действий, warn — при ошибках записи
+ * - Используется @Transactional для операций записи; чтения идут в транзакции репозитория,
+ *   соединение возвращается в пул до маппинга и сериализации
+ * - Операции записи фиксируются в журнале изменений ({@link ChangeFeedService}) в той же транзакции;
+ *   там же меняются число комментариев и время активности новости в витрине ленты ({@link NewsFeedService})
+ * - Операции записи публикуют {@link CommentChangedEvent}, обрабатываемые после коммита
+ * - Недавние промахи по id отвечаются из {@link NegativeLookupCache} без обращения к БД
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class CommentServiceManager implements CommentService {
 
+    private static final String COMMENTS_TABLE = "comments";
+
     private final CommentRepository commentRepository;
     private final NewsRepository newsRepository;
     private final UserRepository userRepository;
+    private final VersionedUpdateRepository versionedUpdateRepository;
+    private final ChangeFeedService changeFeedService;
+    private final NewsFeedService newsFeedService;
+    private final NegativeLookupCache negativeLookupCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Получает список всех комментариев.
@@ -84,16 +109,22 @@ public class CommentServiceManager implements CommentService {
                     return new UserNotFoundException(dto.getUserId());
                 });
 
+        LocalDateTime now = LocalDateTime.now();
         Comment comment = Comment.builder()
                 .text(dto.getText())
-                .creationDate(LocalDateTime.now())
+                .creationDate(now)
+                .lastEditDate(now)
                 .news(news)
                 .createdByUser(user)
                 .build();
 
         Comment saved = commentRepository.save(comment);
         log.info("Comment created: id={}", saved.getId());
-        return CommentMapper.toDto(saved);
+        changeFeedService.record(ChangeEntityType.COMMENT, ChangeType.CREATED, saved.getId(), news.getId());
+        newsFeedService.commentsAdded(news.getId(), 1, now);
+        CommentDto created = CommentMapper.toDto(saved);
+        eventPublisher.publishEvent(CommentChangedEvent.created(created));
+        return created;
     }
 
     /**
@@ -106,9 +137,15 @@ public class CommentServiceManager implements CommentService {
     @Override
     public CommentDto getComment(Long id) {
         log.info("Fetching comment by id={}", id);
+        if (negativeLookupCache.isMissing(NegativeLookupCache.Entity.COMMENT, id)) {
+            log.debug("Comment known to be missing: id={}", id);
+            throw new CommentNotFoundException(id);
+        }
+        long generation = negativeLookupCache.generation(NegativeLookupCache.Entity.COMMENT);
         Comment comment = commentRepository.findById(id)
                 .orElseThrow(() -> {
-                    log.warn("Comment not found: id={}", id);
+                    log.debug("Comment not found: id={}", id);
+                    negativeLookupCache.markMissing(NegativeLookupCache.Entity.COMMENT, id, generation);
                     return new CommentNotFoundException(id);
                 });
         return CommentMapper.toDto(comment);
@@ -153,7 +190,52 @@ public class CommentServiceManager implements CommentService {
 
         Comment updated = commentRepository.save(comment);
         log.info("Comment updated: id={}", updated.getId());
-        return CommentMapper.toDto(updated);
+        changeFeedService.record(ChangeEntityType.COMMENT, ChangeType.UPDATED, updated.getId(), updated.getNews().getId());
+        CommentDto result = CommentMapper.toDto(updated);
+        eventPublisher.publishEvent(CommentChangedEvent.updated(result));
+        return result;
+    }
+
+    /**
+     * Частично изменяет комментарий одним условным UPDATE.
+     *
+     * Запись проходит, только если версия комментария равна ожидаемой; изменённая строка
+     * для ответа и журнала изменений возвращается тем же UPDATE.
+     *
+     * @param id              идентификатор комментария
+     * @param expectedVersion ожидаемая версия или {@code null}, чтобы изменить любую
+     * @param changes         DTO с новым текстом
+     * @return изменённый комментарий
+     * @throws InvalidRequestException если текст не передан
+     * @throws CommentNotFoundException если комментарий не найден
+     * @throws PreconditionFailedException если версия комментария уже другая
+     */
+    @Override
+    @Transactional
+    public CommentDto patchComment(Long id, Long expectedVersion, CommentDto changes) {
+        log.info("Patching comment id={}, expectedVersion={}", id, expectedVersion);
+        log.debug("Payload: {}", changes);
+
+        if (changes.getText() == null) {
+            throw new InvalidRequestException("Request body must contain 'text'");
+        }
+        Map<String, Object> values = Map.of(
+                "text", changes.getText(), "last_edit_date", Timestamp.valueOf(LocalDateTime.now()));
+
+        CommentDto result = versionedUpdateRepository.update(COMMENTS_TABLE, id, expectedVersion, values,
+                        CommentMapper.COLUMNS, (rs, rowNum) -> CommentMapper.toDto(rs))
+                .orElseThrow(() -> {
+                    if (expectedVersion == null || !commentRepository.existsById(id)) {
+                        log.warn("Comment not found for patch: id={}", id);
+                        return new CommentNotFoundException(id);
+                    }
+                    log.info("Comment patch rejected, version changed: id={}, expectedVersion={}", id, expectedVersion);
+                    return new PreconditionFailedException("Comment", id, expectedVersion);
+                });
+        log.info("Comment patched: id={}, version={}", id, result.getVersion());
+        changeFeedService.record(ChangeEntityType.COMMENT, ChangeType.UPDATED, id, result.getNewsId());
+        eventPublisher.publishEvent(CommentChangedEvent.updated(result));
+        return result;
     }
 
     /**
@@ -166,11 +248,15 @@ public class CommentServiceManager implements CommentService {
     @Transactional
     public void deleteComment(Long id) {
         log.info("Deleting comment id={}", id);
-        if (!commentRepository.existsById(id)) {
-            log.warn("Comment not found for deletion: id={}", id);
-            throw new CommentNotFoundException(id);
-        }
-        commentRepository.deleteById(id);
+        Comment comment = commentRepository.findById(id)
+                .orElseThrow(() -> {
+                    log.warn("Comment not found for deletion: id={}", id);
+                    return new CommentNotFoundException(id);
+                });
+        commentRepository.delete(comment);
         log.info("Comment deleted: id={}", id);
+        changeFeedService.record(ChangeEntityType.COMMENT, ChangeType.DELETED, id, comment.getNews().getId());
+        newsFeedService.commentDeleted(comment.getNews().getId());
+        eventPublisher.publishEvent(CommentChangedEvent.deleted(id, comment.getNews().getId()));
     }
 }
\ No newline at end of file
@@ -0,0 +1,336 @@
+package by.mosquitto.service;
+
+import by.mosquitto.dto.NewsDto;
+import by.mosquitto.dto.NewsFeedItemDto;
+import by.mosquitto.dto.NewsFeedPageDto;
+import by.mosquitto.dto.NewsFeedRebuildDto;
+import by.mosquitto.entity.NewsFeedEntry;
+import by.mosquitto.exception.InvalidRequestException;
+import by.mosquitto.mapper.NewsFeedMapper;
+import by.mosquitto.repository.NewsFeedRepository;
+import by.mosquitto.service.contract.NewsFeedService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Витрина ленты новостей (CQRS read model) в таблице {@code news_feed}.
+ *
+ * Реализует:
+ * - Поддержку строк витрины из операций записи новостей, комментариев и пользователей
+ * - Выдачу ленты по последней активности с непрозрачным курсором {@code nextCursor}
+ * - Полную перестройку витрины параллельными порциями
+ *
+ * Особенности:
+ * - Строка витрины — заголовок, начало текста, имя автора, число комментариев и время последней
+ *   активности (правка новости или новый комментарий); лента читается без соединений с
+ *   {@code news}, {@code app_user} и {@code comments} одним диапазонным чтением индекса
+ *   {@code (last_activity, news_id)}
+ * - Методы записи вызываются только внутри транзакции операции записи и меняют витрину
+ *   в той же транзакции: откат операции откатывает и витрину
+ * - Перестройка делит диапазон id новостей на порции по {@code app.news.feed.rebuild-chunk-size}
+ *   и пересчитывает их в {@code rebuild-threads} потоках, каждую — в своей транзакции; при старте витрина
+ *   перестраивается, если число её строк расходится с числом новостей (например, после загрузки данных
+ *   в обход сервисов)
+ * - Порция сначала блокирует свои строки витрины ({@code SELECT ... FOR UPDATE}): операции записи, уже
+ *   изменившие строку, завершаются до пересчёта и попадают в него, а последующие ждут коммита порции.
+ *   Строки обновляются на месте одним {@code MERGE}, а не удаляются и вставляются заново, поэтому
+ *   дождавшийся инкремент счётчика комментариев применяется к пересчитанной строке, а не теряется
+ * - Перестройка выполняется под блокировкой строки {@code news_feed_rebuild} таблицы {@code job_lock}:
+ *   узлы кластера перестраивают витрину по очереди, а при старте узел, дождавшийся блокировки,
+ *   заново проверяет расхождение и не повторяет перестройку, уже выполненную другим узлом
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class NewsFeedServiceManager implements NewsFeedService {
+
+    private static final String LOCK_REBUILD_SQL = "SELECT name FROM job_lock WHERE name = 'news_feed_rebuild' FOR UPDATE";
+    private static final String LOCK_CHUNK_SQL = "SELECT news_id FROM news_feed WHERE news_id BETWEEN ? AND ? FOR UPDATE";
+    private static final String MERGE_CHUNK_SQL =
+            "MERGE INTO news_feed f USING ("
+                    + "SELECT n.id AS news_id, n.title, SUBSTR(n.text, 1, " + NewsFeedMapper.EXCERPT_LENGTH + ") AS excerpt, "
+                    + "u.id AS author_id, u.name || ' ' || u.surname AS author_name, "
+                    + "COALESCE(c.comment_count, 0) AS comment_count, n.creation_date, "
+                    + "CASE WHEN c.last_comment > n.last_edit_date THEN c.last_comment ELSE n.last_edit_date END AS last_activity "
+                    + "FROM news n JOIN app_user u ON u.id = n.created_by_user "
+                    + "LEFT JOIN (SELECT news_id, COUNT(*) AS comment_count, MAX(creation_date) AS last_comment "
+                    + "FROM comments WHERE news_id BETWEEN ? AND ? GROUP BY news_id) c ON c.news_id = n.id "
+                    + "WHERE n.id BETWEEN ? AND ?) s ON (f.news_id = s.news_id) "
+                    + "WHEN MATCHED THEN UPDATE SET title = s.title, excerpt = s.excerpt, author_id = s.author_id, "
+                    + "author_name = s.author_name, comment_count = s.comment_count, creation_date = s.creation_date, "
+                    + "last_activity = s.last_activity "
+                    + "WHEN NOT MATCHED THEN INSERT (news_id, title, excerpt, author_id, author_name, comment_count, "
+                    + "creation_date, last_activity) VALUES (s.news_id, s.title, s.excerpt, s.author_id, s.author_name, "
+                    + "s.comment_count, s.creation_date, s.last_activity)";
+    private static final String DELETE_CHUNK_SQL = "DELETE FROM news_feed WHERE news_id BETWEEN ? AND ? "
+            + "AND NOT EXISTS (SELECT 1 FROM news n WHERE n.id = news_feed.news_id)";
+
+    private final NewsFeedRepository newsFeedRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${app.news.feed.rebuild-chunk-size:10000}")
+    private int rebuildChunkSize;
+
+    @Value("${app.news.feed.rebuild-threads:4}")
+    private int rebuildThreads;
+
+    @Value("${app.news.feed.rebuild-on-startup:true}")
+    private boolean rebuildOnStartup;
+
+    /**
+     * Добавляет строку созданной новости.
+     *
+     * @param news       созданная новость
+     * @param authorName отображаемое имя автора
+     */
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void newsCreated(NewsDto news, String authorName) {
+        newsFeedRepository.insertNews(news.getId(), news.getTitle(), NewsFeedMapper.excerpt(news.getText()),
+                news.getInsertedById(), authorName, news.getCreationDate());
+    }
+
+    /**
+     * Обновляет заголовок, начало текста и время активности новости.
+     *
+     * @param news обновлённая новость
+     */
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void newsUpdated(NewsDto news) {
+        newsFeedRepository.updateNews(news.getId(), news.getTitle(), NewsFeedMapper.excerpt(news.getText()),
+                news.getLastEditDate());
+    }
+
+    /**
+     * Удаляет строку новости.
+     *
+     * @param newsId идентификатор новости
+     */
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void newsDeleted(Long newsId) {
+        newsFeedRepository.deleteByNewsId(newsId);
+    }
+
+    /**
+     * Учитывает новые комментарии новости.
+     *
+     * @param newsId идентификатор новости
+     * @param count  число новых комментариев
+     * @param at     время самого нового из них
+     */
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void commentsAdded(Long newsId, long count, LocalDateTime at) {
+        newsFeedRepository.addComments(newsId, count, at);
+    }
+
+    /**
+     * Учитывает удаление комментария новости.
+     *
+     * @param newsId идентификатор новости
+     */
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void commentDeleted(Long newsId) {
+        newsFeedRepository.removeComment(newsId);
+    }
+
+    /**
+     * Обновляет имя автора во всех его новостях.
+     *
+     * @param userId     идентификатор пользователя
+     * @param authorName новое отображаемое имя
+     */
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void userRenamed(Long userId, String authorName) {
+        int rows = newsFeedRepository.renameAuthor(userId, authorName);
+        log.debug("News feed: author renamed in {} rows, userId={}", rows, userId);
+    }
+
+    /**
+     * Готовит витрину к удалению пользователя вместе с его новостями и комментариями.
+     * Вызывается до удаления, пока комментарии пользователя ещё видны.
+     *
+     * @param userId идентификатор пользователя
+     */
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void userDeleting(Long userId) {
+        int removed = newsFeedRepository.deleteNewsOfUser(userId);
+        int recounted = newsFeedRepository.subtractCommentsOfUser(userId);
+        log.debug("News feed: {} rows removed, {} recounted for deleted userId={}", removed, recounted, userId);
+    }
+
+    /**
+     * Возвращает страницу ленты от недавно активных новостей к давним.
+     *
+     * @param cursor {@code nextCursor} предыдущей страницы или {@code null} для первой
+     * @param limit  размер страницы
+     * @return элементы страницы и курсор следующей
+     * @throws InvalidRequestException если курсор повреждён
+     */
+    @Override
+    public NewsFeedPageDto getFeed(String cursor, int limit) {
+        log.info("Fetching news feed: cursor={}, limit={}", cursor, limit);
+        Cursor after = cursor != null ? Cursor.decode(cursor) : null;
+        List<NewsFeedEntry> entries = after == null
+                ? newsFeedRepository.findAllByOrderByLastActivityDescNewsIdDesc(Limit.of(limit + 1))
+                : newsFeedRepository.findBefore(after.lastActivity(), after.newsId(), Limit.of(limit + 1));
+
+        boolean hasMore = entries.size() > limit;
+        if (hasMore) {
+            entries = entries.subList(0, limit);
+        }
+        List<NewsFeedItemDto> items = entries.stream().map(NewsFeedMapper::toDto).toList();
+        String nextCursor = items.isEmpty() ? cursor : Cursor.of(items.get(items.size() - 1)).encode();
+        return NewsFeedPageDto.builder().items(items).nextCursor(nextCursor).hasMore(hasMore).build();
+    }
+
+    /**
+     * Перестраивает витрину по данным таблиц записи. Если витрину перестраивает другой узел,
+     * ждёт окончания его перестройки.
+     *
+     * @return число строк, порций и длительность перестройки
+     */
+    @Override
+    public synchronized NewsFeedRebuildDto rebuild() {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            jdbcTemplate.queryForObject(LOCK_REBUILD_SQL, String.class);
+            return rebuildChunks();
+        });
+    }
+
+    /**
+     * Перестраивает витрину при старте, если она расходится с таблицей новостей.
+     * Узлы, стартующие одновременно, ждут друг друга, и перестраивает витрину только первый из них.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuildIfStale() {
+        if (!rebuildOnStartup || !isStale()) {
+            return;
+        }
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            jdbcTemplate.queryForObject(LOCK_REBUILD_SQL, String.class);
+            if (isStale()) {
+                log.info("News feed is out of sync with news, rebuilding");
+                rebuildChunks();
+            } else {
+                log.info("News feed was rebuilt by another node");
+            }
+        });
+    }
+
+    private boolean isStale() {
+        Long news = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM news", Long.class);
+        Long feed = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM news_feed", Long.class);
+        log.debug("News feed has {} rows for {} news", feed, news);
+        return !Objects.equals(news, feed);
+    }
+
+    private NewsFeedRebuildDto rebuildChunks() {
+        long start = System.nanoTime();
+        Long[] range = jdbcTemplate.queryForObject("SELECT MIN(id), MAX(id) FROM news",
+                (rs, rowNum) -> new Long[]{rs.getObject(1, Long.class), rs.getObject(2, Long.class)});
+        if (range == null || range[0] == null) {
+            jdbcTemplate.update("DELETE FROM news_feed");
+            log.info("News feed rebuilt: no news");
+            return NewsFeedRebuildDto.builder().millis(elapsedMillis(start)).build();
+        }
+        long minId = range[0];
+        long maxId = range[1];
+
+        List<long[]> chunks = new ArrayList<>();
+        for (long from = minId; from <= maxId; from += rebuildChunkSize) {
+            chunks.add(new long[]{from, Math.min(from + rebuildChunkSize - 1, maxId)});
+        }
+        long rows = 0;
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(rebuildThreads, chunks.size()),
+                new CustomizableThreadFactory("news-feed-rebuild-"));
+        List<Future<Integer>> results = new ArrayList<>(chunks.size());
+        try {
+            for (long[] chunk : chunks) {
+                results.add(executor.submit(() -> new TransactionTemplate(transactionManager)
+                        .execute(status -> rebuildChunk(chunk[0], chunk[1]))));
+            }
+            for (Future<Integer> result : results) {
+                rows += Objects.requireNonNullElse(result.get(), 0);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("News feed rebuild interrupted", e);
+        } catch (ExecutionException e) {
+            results.forEach(result -> result.cancel(true));
+            throw new IllegalStateException("News feed rebuild failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        jdbcTemplate.update("DELETE FROM news_feed WHERE news_id < ? OR news_id > ?", minId, maxId);
+
+        long millis = elapsedMillis(start);
+        log.info("News feed rebuilt: rows={}, chunks={}, threads={}, {}ms",
+                rows, chunks.size(), Math.min(rebuildThreads, chunks.size()), millis);
+        return NewsFeedRebuildDto.builder().rows(rows).chunks(chunks.size()).millis(millis).build();
+    }
+
+    private int rebuildChunk(long fromId, long toId) {
+        jdbcTemplate.queryForList(LOCK_CHUNK_SQL, Long.class, fromId, toId);
+        int rows = jdbcTemplate.update(MERGE_CHUNK_SQL, fromId, toId, fromId, toId);
+        jdbcTemplate.update(DELETE_CHUNK_SQL, fromId, toId);
+        return rows;
+    }
+
+    private static long elapsedMillis(long start) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    /**
+     * Позиция в ленте: новость с этими временем активности и id и все до неё уже выданы.
+     */
+    private record Cursor(LocalDateTime lastActivity, long newsId) {
+
+        static Cursor of(NewsFeedItemDto item) {
+            return new Cursor(item.getLastActivity(), item.getNewsId());
+        }
+
+        static Cursor decode(String value) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8).split("\\|");
+                return new Cursor(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]));
+            } catch (RuntimeException e) {
+                throw new InvalidRequestException("Invalid news feed cursor");
+            }
+        }
+
+        String encode() {
+            String value = lastActivity + "|" + newsId;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package by.mosquitto.service;
+
+import by.mosquitto.cache.SearchResultCache;
+import by.mosquitto.dto.NewsDto;
+import by.mosquitto.dto.NewsSuggestionDto;
+import by.mosquitto.exception.ServiceUnavailableException;
+import by.mosquitto.limit.Bulkhead;
+import by.mosquitto.mapper.NewsMapper;
+import by.mosquitto.repository.NewsRepository;
+import by.mosquitto.service.contract.NewsSearchService;
+import by.mosquitto.suggest.NewsTitleSuggester;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Поиск новостей по подстроке заголовка или текста и подсказки заголовков по префиксу.
+ *
+ * Особенности:
+ * - {@code LIKE '%q%'} не использует индексы и сканирует таблицу, поэтому поиск выполняется
+ *   в отдельном {@link Bulkhead} — своих потоках и своём пуле соединений — и не занимает
+ *   потоки Tomcat и соединения, нужные быстрым запросам
+ * - Переполненный отсек сразу отвечает {@link ServiceUnavailableException} (503)
+ * - Выражение ограничено таймаутом отсека; превышение тоже даёт 503
+ * - Отмена результата (таймаут ответа, разрыв соединения клиентом) снимает задачу из очереди
+ *   или отменяет выполняющееся выражение через {@link Statement#cancel()}
+ * - Строки читаются JDBC прямо в DTO, без сущностей и контекста персистентности
+ * - Запрос нормализуется ({@link SearchResultCache#normalize}); по нему кэшируются id результата,
+ *   а при попадании новости дочитываются по первичному ключу без похода в отсек
+ * - Подсказки отдаются из памяти ({@link NewsTitleSuggester}) без обращения к БД
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class NewsSearchServiceManager implements NewsSearchService {
+
+    private static final String SEARCH_SQL =
+            "SELECT id, title, text, creation_date, last_edit_date, created_by_user, updated_by_user, version FROM news "
+                    + "WHERE LOWER(title) LIKE LOWER('%' || ? || '%') OR LOWER(text) LIKE LOWER('%' || ? || '%')";
+
+    private static final RowMapper<NewsDto> NEWS_ROW_MAPPER = (rs, rowNum) -> NewsMapper.toDto(rs);
+
+    private final Bulkhead searchBulkhead;
+    private final NewsTitleSuggester newsTitleSuggester;
+    private final SearchResultCache searchResultCache;
+    private final NewsRepository newsRepository;
+
+    @Value("${app.search.bulkhead.retry-after-seconds:1}")
+    private long retryAfterSeconds;
+
+    /**
+     * Отдаёт результат из кэша или ставит поиск в очередь отсека.
+     *
+     * @param query поисковый запрос
+     * @return результат поиска; его отмена прерывает поиск
+     * @throws ServiceUnavailableException если отсек переполнен
+     */
+    @Override
+    public CompletableFuture<List<NewsDto>> search(String query) {
+        log.info("Searching news by query='{}'", query);
+        String normalized = SearchResultCache.normalize(query);
+        List<Long> cachedIds = searchResultCache.get(normalized);
+        if (cachedIds != null) {
+            log.debug("Search query='{}' answered from cache: {} ids", normalized, cachedIds.size());
+            return CompletableFuture.completedFuture(loadByIds(cachedIds));
+        }
+
+        long generation = searchResultCache.generation();
+        CompletableFuture<List<NewsDto>> result = new CompletableFuture<>();
+        result.thenAccept(news -> searchResultCache.put(normalized, news, generation));
+        SearchTask task = new SearchTask(normalized, result);
+        result.whenComplete((news, error) -> {
+            if (result.isCancelled()) {
+                task.cancel();
+            }
+        });
+        try {
+            searchBulkhead.execute(task);
+        } catch (RejectedExecutionException e) {
+            log.warn("Search bulkhead '{}' is full, query='{}' rejected", searchBulkhead.getName(), query);
+            throw new ServiceUnavailableException("Search is overloaded, retry later", retryAfterSeconds);
+        }
+        return result;
+    }
+
+    /**
+     * Возвращает самые популярные заголовки, начинающиеся с префикса.
+     *
+     * @param prefix введённый префикс
+     * @param limit  наибольшее число подсказок
+     * @return подсказки от популярных к менее популярным
+     */
+    @Override
+    public List<NewsSuggestionDto> suggest(String prefix, int limit) {
+        log.debug("Suggesting news titles for prefix='{}', limit={}", prefix, limit);
+        return newsTitleSuggester.suggest(prefix, limit).stream()
+                .map(entry -> NewsSuggestionDto.builder()
+                        .id(entry.id())
+                        .title(entry.title())
+                        .build())
+                .toList();
+    }
+
+    /**
+     * Дочитывает новости закэшированного результата в его порядке; удалённые после кэширования пропускаются.
+     */
+    private List<NewsDto> loadByIds(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, NewsDto> byId = new HashMap<>(ids.size() * 2);
+        newsRepository.findAllById(ids).forEach(news -> byId.put(news.getId(), NewsMapper.toDto(news)));
+        return ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+    }
+
+    /**
+     * Один поиск; запоминает выполняющееся выражение, чтобы его можно было отменить.
+     */
+    private final class SearchTask implements Runnable {
+
+        private final String query;
+        private final CompletableFuture<List<NewsDto>> result;
+        private final AtomicReference<Statement> statement = new AtomicReference<>();
+
+        private SearchTask(String query, CompletableFuture<List<NewsDto>> result) {
+            this.query = query;
+            this.result = result;
+        }
+
+        @Override
+        public void run() {
+            if (result.isDone()) {
+                return;
+            }
+            try {
+                result.complete(searchBulkhead.getJdbcTemplate().query(this::prepare, NEWS_ROW_MAPPER));
+            } catch (QueryTimeoutException e) {
+                log.warn("Search query='{}' timed out", query);
+                result.completeExceptionally(
+                        new ServiceUnavailableException("Search timed out, retry later", retryAfterSeconds));
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            } finally {
+                statement.set(null);
+            }
+        }
+
+        private PreparedStatement prepare(Connection connection) throws SQLException {
+            PreparedStatement ps = connection.prepareStatement(SEARCH_SQL);
+            ps.setString(1, query);
+            ps.setString(2, query);
+            statement.set(ps);
+            return ps;
+        }
+
+        private void cancel() {
+            searchBulkhead.remove(this);
+            Statement running = statement.get();
+            if (running == null) {
+                return;
+            }
+            try {
+                running.cancel();
+                log.debug("Search query='{}' cancelled", query);
+            } catch (SQLException e) {
+                log.debug("Failed to cancel search query='{}': {}", query, e.getMessage());
+            }
+        }
+    }
+}
@@ -1,53 +1,88 @@
 package by.mosquitto.service;
 
+import by.mosquitto.cache.HotNewsFeed;
+import by.mosquitto.cache.NegativeLookupCache;
 import by.mosquitto.dto.CommentDto;
 import by.mosquitto.dto.NewsDto;
 import by.mosquitto.dto.NewsWithCommentsPagedDto;
 import by.mosquitto.entity.News;
 import by.mosquitto.entity.User;
+import by.mosquitto.event.ChangeEntityType;
+import by.mosquitto.event.ChangeType;
+import by.mosquitto.event.NewsChangedEvent;
+import by.mosquitto.exception.InvalidRequestException;
 import by.mosquitto.exception.NewsNotFoundException;
+import by.mosquitto.exception.PreconditionFailedException;
 import by.mosquitto.exception.UserNotFoundException;
 import by.mosquitto.mapper.CommentMapper;
+import by.mosquitto.mapper.NewsFeedMapper;
 import by.mosquitto.mapper.NewsMapper;
+import by.mosquitto.repository.CommentPreviewRepository;
 import by.mosquitto.repository.CommentRepository;
 import by.mosquitto.repository.NewsRepository;
 import by.mosquitto.repository.UserRepository;
+import by.mosquitto.repository.VersionedUpdateRepository;
+import by.mosquitto.service.contract.ChangeFeedService;
+import by.mosquitto.service.contract.NewsFeedService;
 import by.mosquitto.service.contract.NewsService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Сервис управления новостями.
  *
  * Реализует:
  * - Получение всех новостей (в том числе с пагинацией)
- * - Поиск по заголовку и тексту
  * - Получение новости по ID
  * - Получение новости с постраничными комментариями
  * - Создание, обновление и удаление новости
+ * - Частичное изменение новости с проверкой версии
  *
  * Особенности:
  * - Проверка существования пользователя при создании/обновлении
  * - Обработка ошибок через кастомные исключения (NewsNotFoundException, UserNotFoundException)
- * - Логирование: debug — для payload'ов, info — для действий, warn — при ошибках
+ * - Логирование: debug — для payload'ов и промахов чтения, info — для действий, warn — при ошибках записи
  * - Используется @Transactional для операций записи
+ * - Open Session in View выключен: чтения с одним запросом идут в транзакции репозитория,
+ *   соединение возвращается в пул до маппинга и сериализации. План выборки — только корневая
+ *   сущность; мапперы берут id связей из неинициализированных прокси, не обращаясь к БД
  * - Возврат DTO через мапперы, без утечек сущностей
+ * - Первые страницы ленты отдаются из {@link HotNewsFeed} без обращения к БД
+ * - Число комментариев и последние комментарии для всей страницы ленты дочитываются одним запросом
+ *   ({@link CommentPreviewRepository}), без запроса на каждую новость
+ * - Недавние промахи по id отвечаются из {@link NegativeLookupCache} без обращения к БД
+ * - Операции записи публикуют {@link NewsChangedEvent}, обрабатываемые после коммита
+ * - Операции записи фиксируются в журнале изменений ({@link ChangeFeedService}) и витрине ленты
+ *   ({@link NewsFeedService}) в той же транзакции
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class NewsServiceManager implements NewsService {
 
+    private static final String NEWS_TABLE = "news";
+
     private final NewsRepository newsRepository;
     private final UserRepository userRepository;
     private final CommentRepository commentRepository;
+    private final CommentPreviewRepository commentPreviewRepository;
+    private final VersionedUpdateRepository versionedUpdateRepository;
+    private final HotNewsFeed hotNewsFeed;
+    private final NegativeLookupCache negativeLookupCache;
+    private final ChangeFeedService changeFeedService;
+    private final NewsFeedService newsFeedService;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Получает список всех новостей.
@@ -64,6 +99,7 @@ public class NewsServiceManager implements NewsService {
 
     /**
      * Получает новости с пагинацией.
+     * Первые страницы с сортировкой по умолчанию отдаются из {@link HotNewsFeed}.
      *
      * @param pageable параметры пагинации и сортировки
      * @return страница DTO новостей
@@ -71,8 +107,35 @@ public class NewsServiceManager implements NewsService {
     @Override
     public Page<NewsDto> getNewsPaged(Pageable pageable) {
         log.debug("Fetching paged news: page={}, size={}", pageable.getPageNumber(), pageable.getPageSize());
-        return newsRepository.findAll(pageable)
-                .map(NewsMapper::toDto);
+        return hotNewsFeed.find(pageable)
+                .orElseGet(() -> newsRepository.findAll(HotNewsFeed.withTieBreak(pageable))
+                        .map(NewsMapper::toDto));
+    }
+
+    /**
+     * Получает новости с пагинацией, числом комментариев и последними комментариями.
+     *
+     * @param pageable         параметры пагинации и сортировки
+     * @param withCommentStats добавить число комментариев каждой новости
+     * @param previewComments  сколько последних комментариев добавить к каждой новости
+     * @return страница DTO новостей
+     */
+    @Override
+    public Page<NewsDto> getNewsPaged(Pageable pageable, boolean withCommentStats, int previewComments) {
+        Page<NewsDto> page = getNewsPaged(pageable);
+        if (!withCommentStats && previewComments <= 0) {
+            return page;
+        }
+        log.debug("Fetching comment stats for {} news: preview={}", page.getNumberOfElements(), previewComments);
+        Map<Long, CommentPreviewRepository.CommentStats> stats = commentPreviewRepository.findStats(
+                page.getContent().stream().map(NewsDto::getId).toList(), previewComments);
+        return page.map(news -> {
+            CommentPreviewRepository.CommentStats newsStats = stats.get(news.getId());
+            return news.toBuilder()
+                    .commentCount(withCommentStats ? (newsStats != null ? newsStats.count() : 0L) : null)
+                    .latestComments(previewComments > 0 ? (newsStats != null ? newsStats.latest() : List.of()) : null)
+                    .build();
+        });
     }
 
     /**
@@ -84,14 +147,11 @@ public class NewsServiceManager implements NewsService {
      * @throws NewsNotFoundException если новость не найдена
      */
     @Override
+    @Transactional(readOnly = true)
     public NewsWithCommentsPagedDto getNewsWithCommentsPaged(Long newsId, Pageable pageable) {
         log.info("Fetching news with comments: newsId={}, page={}, size={}", newsId, pageable.getPageNumber(), pageable.getPageSize());
 
-        News news = newsRepository.findById(newsId)
-                .orElseThrow(() -> {
-                    log.warn("News not found: id={}", newsId);
-                    return new NewsNotFoundException(newsId);
-                });
+        News news = findNews(newsId);
 
         Page<CommentDto> comments = commentRepository.findByNewsId(newsId, pageable)
                 .map(CommentMapper::toDto);
@@ -109,35 +169,37 @@ public class NewsServiceManager implements NewsService {
     }
 
     /**
-     * Выполняет поиск новостей по заголовку или тексту.
+     * Получает новость по её идентификатору.
      *
-     * @param query поисковый запрос
-     * @return список подходящих DTO новостей
+     * @param id идентификатор новости
+     * @return DTO новости
+     * @throws NewsNotFoundException если новость не найдена
      */
     @Override
-    public List<NewsDto> search(String query) {
-        log.info("Searching news by query='{}'", query);
-        return newsRepository.searchByTitleOrText(query).stream()
-                .map(NewsMapper::toDto)
-                .toList();
+    public NewsDto getNewsById(Long id) {
+        log.info("Fetching news by id={}", id);
+        return NewsMapper.toDto(findNews(id));
     }
 
     /**
-     * Получает новость по её идентификатору.
+     * Ищет новость по id; недавний промах отвечается из {@link NegativeLookupCache}, новый — запоминается.
      *
      * @param id идентификатор новости
-     * @return DTO новости
+     * @return найденная новость
      * @throws NewsNotFoundException если новость не найдена
      */
-    @Override
-    public NewsDto getNewsById(Long id) {
-        log.info("Fetching news by id={}", id);
-        News news = newsRepository.findById(id)
+    private News findNews(Long id) {
+        if (negativeLookupCache.isMissing(NegativeLookupCache.Entity.NEWS, id)) {
+            log.debug("News known to be missing: id={}", id);
+            throw new NewsNotFoundException(id);
+        }
+        long generation = negativeLookupCache.generation(NegativeLookupCache.Entity.NEWS);
+        return newsRepository.findById(id)
                 .orElseThrow(() -> {
-                    log.warn("News not found: id={}", id);
+                    log.debug("News not found: id={}", id);
+                    negativeLookupCache.markMissing(NegativeLookupCache.Entity.NEWS, id, generation);
                     return new NewsNotFoundException(id);
                 });
-        return NewsMapper.toDto(news);
     }
 
     /**
@@ -159,16 +221,22 @@ public class NewsServiceManager implements NewsService {
                     return new UserNotFoundException(dto.getInsertedById());
                 });
 
+        LocalDateTime now = LocalDateTime.now();
         News news = News.builder()
                 .title(dto.getTitle())
                 .text(dto.getText())
-                .creationDate(LocalDateTime.now())
+                .creationDate(now)
+                .lastEditDate(now)
                 .createdByUser(createdByUser)
                 .build();
 
         News saved = newsRepository.save(news);
         log.info("News created: id={}", saved.getId());
-        return NewsMapper.toDto(saved);
+        NewsDto created = NewsMapper.toDto(saved);
+        changeFeedService.record(ChangeEntityType.NEWS, ChangeType.CREATED, saved.getId(), saved.getId());
+        newsFeedService.newsCreated(created, NewsFeedMapper.authorName(createdByUser.getName(), createdByUser.getSurname()));
+        eventPublisher.publishEvent(NewsChangedEvent.created(created));
+        return created;
     }
 
     /**
@@ -207,7 +275,69 @@ public class NewsServiceManager implements NewsService {
 
         News updated = newsRepository.save(news);
         log.info("News updated: id={}", updated.getId());
-        return NewsMapper.toDto(updated);
+        NewsDto result = NewsMapper.toDto(updated);
+        changeFeedService.record(ChangeEntityType.NEWS, ChangeType.UPDATED, updated.getId(), updated.getId());
+        newsFeedService.newsUpdated(result);
+        eventPublisher.publishEvent(NewsChangedEvent.updated(result));
+        return result;
+    }
+
+    /**
+     * Частично изменяет новость одним условным UPDATE.
+     *
+     * Меняются только переданные поля ({@code title}, {@code text}, {@code updatedById}), без чтения
+     * и перезаписи всей строки; запись проходит, только если версия новости равна ожидаемой.
+     * Изменённая строка для ответа, журнала изменений и витрины ленты возвращается тем же UPDATE.
+     *
+     * @param id              идентификатор новости
+     * @param expectedVersion ожидаемая версия или {@code null}, чтобы изменить любую
+     * @param changes         DTO, в котором {@code null} означает «не менять»
+     * @return изменённая новость
+     * @throws InvalidRequestException если ни одно поле не передано
+     * @throws UserNotFoundException если указанный обновляющий пользователь не найден
+     * @throws NewsNotFoundException если новость не найдена
+     * @throws PreconditionFailedException если версия новости уже другая
+     */
+    @Override
+    @Transactional
+    public NewsDto patchNews(Long id, Long expectedVersion, NewsDto changes) {
+        log.info("Patching news id={}, expectedVersion={}", id, expectedVersion);
+        log.debug("Payload: {}", changes);
+
+        Map<String, Object> values = new LinkedHashMap<>();
+        if (changes.getTitle() != null) {
+            values.put("title", changes.getTitle());
+        }
+        if (changes.getText() != null) {
+            values.put("text", changes.getText());
+        }
+        if (changes.getUpdatedById() != null) {
+            if (!userRepository.existsById(changes.getUpdatedById())) {
+                log.warn("User not found for patch: id={}", changes.getUpdatedById());
+                throw new UserNotFoundException(changes.getUpdatedById());
+            }
+            values.put("updated_by_user", changes.getUpdatedById());
+        }
+        if (values.isEmpty()) {
+            throw new InvalidRequestException("Request body must contain at least one of 'title', 'text', 'updatedById'");
+        }
+        values.put("last_edit_date", Timestamp.valueOf(LocalDateTime.now()));
+
+        NewsDto result = versionedUpdateRepository.update(NEWS_TABLE, id, expectedVersion, values,
+                        NewsMapper.COLUMNS, (rs, rowNum) -> NewsMapper.toDto(rs))
+                .orElseThrow(() -> {
+                    if (expectedVersion == null || !newsRepository.existsById(id)) {
+                        log.warn("News not found for patch: id={}", id);
+                        return new NewsNotFoundException(id);
+                    }
+                    log.info("News patch rejected, version changed: id={}, expectedVersion={}", id, expectedVersion);
+                    return new PreconditionFailedException("News", id, expectedVersion);
+                });
+        log.info("News patched: id={}, version={}", id, result.getVersion());
+        changeFeedService.record(ChangeEntityType.NEWS, ChangeType.UPDATED, id, id);
+        newsFeedService.newsUpdated(result);
+        eventPublisher.publishEvent(NewsChangedEvent.updated(result));
+        return result;
     }
 
     /**
@@ -226,5 +356,8 @@ public class NewsServiceManager implements NewsService {
         }
         newsRepository.deleteById(id);
         log.info("News deleted: id={}", id);
+        changeFeedService.record(ChangeEntityType.NEWS, ChangeType.DELETED, id, id);
+        newsFeedService.newsDeleted(id);
+        eventPublisher.publishEvent(NewsChangedEvent.deleted(id));
     }
 }
\ No newline at end of file
@@ -0,0 +1,260 @@
+package by.mosquitto.service;
+
+import by.mosquitto.dto.JfrRecordingDto;
+import by.mosquitto.exception.EntityAlreadyExistsException;
+import by.mosquitto.exception.InvalidRequestException;
+import by.mosquitto.exception.ServiceUnavailableException;
+import by.mosquitto.jfr.JfrEvents;
+import by.mosquitto.service.contract.ProfilingService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Сервис управления записью JFR без перезапуска приложения.
+ *
+ * Реализует:
+ * - Запуск и остановку записи с настройками {@code default} или {@code profile}
+ * - Выгрузку записи (снимок буфера, в том числе у идущей записи)
+ * - Трансляцию событий приложения ({@link JfrEvents#TYPES}) в SSE
+ *
+ * Особенности:
+ * - При {@code app.jfr.continuous.enabled=true} запись стартует вместе с приложением
+ *   и хранит последние {@code max-age-minutes} / {@code max-size-mb} — медленный путь
+ *   можно разобрать постфактум, выгрузив запись
+ * - Остановленная запись хранится до следующего запуска, чтобы её можно было выгрузить
+ * - Число одновременных трансляций ограничено {@code app.jfr.max-streams}
+ */
+@Slf4j
+@Service
+public class ProfilingServiceManager implements ProfilingService {
+
+    private static final String RECORDING_NAME = "springnews";
+    private static final Set<String> SETTINGS = Set.of("default", "profile");
+    private static final Set<String> COMMON_FIELDS = Set.of("startTime", "duration", "eventThread", "stackTrace");
+
+    private final Set<RecordingStream> streams = ConcurrentHashMap.newKeySet();
+    private Recording recording;
+    private String recordingSettings;
+    private boolean continuous;
+
+    @Value("${app.jfr.continuous.enabled:false}")
+    private boolean continuousEnabled;
+
+    @Value("${app.jfr.settings:default}")
+    private String defaultSettings;
+
+    @Value("${app.jfr.max-age-minutes:15}")
+    private long maxAgeMinutes;
+
+    @Value("${app.jfr.max-size-mb:100}")
+    private long maxSizeMb;
+
+    @Value("${app.jfr.max-streams:2}")
+    private int maxStreams;
+
+    @Value("${app.jfr.stream-timeout-millis:600000}")
+    private long streamTimeoutMillis;
+
+    @PostConstruct
+    public void startContinuous() {
+        if (continuousEnabled) {
+            start(defaultSettings);
+            continuous = true;
+            log.info("Continuous JFR recording started: settings={}, maxAge={}m, maxSize={}MB",
+                    defaultSettings, maxAgeMinutes, maxSizeMb);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        streams.forEach(RecordingStream::close);
+        closeRecording();
+    }
+
+    /**
+     * Возвращает состояние текущей (или последней остановленной) записи.
+     *
+     * @return состояние записи; {@code state=NONE}, если записи нет
+     */
+    @Override
+    public synchronized JfrRecordingDto getStatus() {
+        if (recording == null) {
+            return JfrRecordingDto.builder().name(RECORDING_NAME).state("NONE").build();
+        }
+        return JfrRecordingDto.builder()
+                .name(recording.getName())
+                .state(recording.getState().name())
+                .settings(recordingSettings)
+                .startTime(recording.getStartTime())
+                .maxAgeSeconds(recording.getMaxAge() != null ? recording.getMaxAge().toSeconds() : null)
+                .sizeBytes(recording.getSize())
+                .continuous(continuous)
+                .build();
+    }
+
+    /**
+     * Запускает запись JFR. Предыдущая остановленная запись удаляется.
+     *
+     * @param settings набор настроек JDK: {@code default} (около 1% накладных расходов) или {@code profile}
+     * @return состояние запущенной записи
+     * @throws InvalidRequestException      если набор настроек неизвестен
+     * @throws EntityAlreadyExistsException если запись уже идёт
+     */
+    @Override
+    public synchronized JfrRecordingDto start(String settings) {
+        if (settings == null || !SETTINGS.contains(settings)) {
+            throw new InvalidRequestException("JFR settings must be one of " + SETTINGS);
+        }
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            throw new EntityAlreadyExistsException("JFR recording", "name", recording.getName());
+        }
+        closeRecording();
+
+        Recording newRecording;
+        try {
+            newRecording = new Recording(Configuration.getConfiguration(settings));
+        } catch (IOException | ParseException e) {
+            throw new IllegalStateException("Failed to load JFR settings " + settings, e);
+        }
+        newRecording.setName(RECORDING_NAME);
+        newRecording.setToDisk(true);
+        newRecording.setMaxAge(Duration.ofMinutes(maxAgeMinutes));
+        newRecording.setMaxSize(maxSizeMb * 1024 * 1024);
+        for (Class<? extends jdk.jfr.Event> type : JfrEvents.TYPES) {
+            newRecording.enable(type);
+        }
+        newRecording.start();
+        recording = newRecording;
+        recordingSettings = settings;
+        continuous = false;
+        log.info("JFR recording started: settings={}", settings);
+        return getStatus();
+    }
+
+    /**
+     * Останавливает запись; данные остаются доступны для выгрузки.
+     *
+     * @return состояние остановленной записи
+     * @throws InvalidRequestException если запись не идёт
+     */
+    @Override
+    public synchronized JfrRecordingDto stop() {
+        if (recording == null || recording.getState() != RecordingState.RUNNING) {
+            throw new InvalidRequestException("No JFR recording is running");
+        }
+        recording.stop();
+        log.info("JFR recording stopped: size={} bytes", recording.getSize());
+        return getStatus();
+    }
+
+    /**
+     * Пишет снимок записи в формате {@code .jfr}.
+     *
+     * @param out поток ответа
+     * @throws InvalidRequestException если записи нет
+     */
+    @Override
+    public void writeRecording(OutputStream out) {
+        Path dump;
+        synchronized (this) {
+            if (recording == null) {
+                throw new InvalidRequestException("No JFR recording to download");
+            }
+            try {
+                dump = Files.createTempFile("springnews-", ".jfr");
+                recording.dump(dump);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to dump JFR recording", e);
+            }
+        }
+        try {
+            Files.copy(dump, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write JFR recording", e);
+        } finally {
+            try {
+                Files.deleteIfExists(dump);
+            } catch (IOException e) {
+                log.warn("Failed to delete JFR dump {}", dump, e);
+            }
+        }
+    }
+
+    /**
+     * Транслирует события приложения длительностью не меньше порога.
+     * Трансляция не зависит от записи, запущенной {@link #start(String)}.
+     *
+     * @param threshold минимальная длительность события
+     * @return SSE-эмиттер; имя SSE-события — имя типа JFR
+     * @throws ServiceUnavailableException если достигнут лимит одновременных трансляций
+     */
+    @Override
+    public SseEmitter streamEvents(Duration threshold) {
+        if (streams.size() >= maxStreams) {
+            throw new ServiceUnavailableException("Too many JFR event streams", 5);
+        }
+        SseEmitter emitter = new SseEmitter(streamTimeoutMillis);
+        RecordingStream stream = new RecordingStream();
+        streams.add(stream);
+        for (Class<? extends jdk.jfr.Event> type : JfrEvents.TYPES) {
+            stream.enable(type).withThreshold(threshold);
+        }
+        stream.onEvent(event -> {
+            try {
+                emitter.send(SseEmitter.event()
+                        .name(event.getEventType().getName())
+                        .data(toMap(event), MediaType.APPLICATION_JSON));
+            } catch (IOException | IllegalStateException e) {
+                stream.close();
+            }
+        });
+        stream.onClose(() -> {
+            streams.remove(stream);
+            emitter.complete();
+        });
+        emitter.onCompletion(stream::close);
+        emitter.onTimeout(stream::close);
+        emitter.onError(e -> stream.close());
+        stream.startAsync();
+        return emitter;
+    }
+
+    private void closeRecording() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+
+    static Map<String, Object> toMap(RecordedEvent event) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("startTime", event.getStartTime());
+        fields.put("durationMicros", event.getDuration().toNanos() / 1_000);
+        event.getFields().stream()
+                .filter(field -> !COMMON_FIELDS.contains(field.getName()))
+                .forEach(field -> fields.put(field.getName(), event.getValue(field.getName())));
+        return fields;
+    }
+}
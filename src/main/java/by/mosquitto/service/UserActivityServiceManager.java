@@ -0,0 +1,184 @@
+package by.mosquitto.service;
+
+import by.mosquitto.cache.NegativeLookupCache;
+import by.mosquitto.dto.UserActivityDto;
+import by.mosquitto.dto.UserActivityPageDto;
+import by.mosquitto.event.ChangeEntityType;
+import by.mosquitto.exception.InvalidRequestException;
+import by.mosquitto.exception.UserNotFoundException;
+import by.mosquitto.mapper.CommentMapper;
+import by.mosquitto.mapper.NewsMapper;
+import by.mosquitto.repository.CommentRepository;
+import by.mosquitto.repository.NewsRepository;
+import by.mosquitto.repository.UserRepository;
+import by.mosquitto.service.contract.UserActivityService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Лента активности пользователя: его новости и комментарии от новых к старым.
+ *
+ * Реализует:
+ * - Постраничную выдачу с непрозрачным курсором {@code nextCursor}
+ *
+ * Особенности:
+ * - Каждый источник читается keyset-запросом по индексу {@code (created_by_user, creation_date, id)}
+ *   не больше чем на {@code limit + 1} строк после курсора, и источники сливаются k-путевым слиянием;
+ *   стоимость страницы не зависит ни от её номера, ни от числа публикаций пользователя
+ * - Порядок: {@code creationDate} по убыванию, при равенстве — новости раньше комментариев,
+ *   затем {@code id} по убыванию; курсор — позиция последнего элемента страницы в этом порядке
+ * - Недавние промахи по id пользователя отвечаются из {@link NegativeLookupCache}
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserActivityServiceManager implements UserActivityService {
+
+    private static final Comparator<UserActivityDto> NEWEST_FIRST = Comparator
+            .comparing(UserActivityDto::getCreationDate).reversed()
+            .thenComparing(UserActivityDto::getType)
+            .thenComparing(Comparator.comparing(UserActivityServiceManager::idOf).reversed());
+
+    private final UserRepository userRepository;
+    private final NewsRepository newsRepository;
+    private final CommentRepository commentRepository;
+    private final NegativeLookupCache negativeLookupCache;
+
+    /**
+     * Возвращает страницу активности пользователя.
+     *
+     * @param userId идентификатор пользователя
+     * @param cursor {@code nextCursor} предыдущей страницы или {@code null} для первой
+     * @param limit  размер страницы
+     * @return элементы страницы и курсор следующей
+     * @throws UserNotFoundException   если пользователь не найден
+     * @throws InvalidRequestException если курсор повреждён
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public UserActivityPageDto getActivity(Long userId, String cursor, int limit) {
+        log.info("Fetching activity of user id={}, cursor={}, limit={}", userId, cursor, limit);
+        Cursor after = cursor != null ? Cursor.decode(cursor) : null;
+        requireUser(userId);
+
+        Limit fetch = Limit.of(limit + 1);
+        List<UserActivityDto> news = (after == null
+                ? newsRepository.findByCreatedByUserIdOrderByCreationDateDescIdDesc(userId, fetch)
+                : newsRepository.findByAuthorBefore(userId, after.creationDate(), after.idBound(ChangeEntityType.NEWS), fetch))
+                .stream()
+                .map(item -> UserActivityDto.builder()
+                        .type(ChangeEntityType.NEWS)
+                        .creationDate(item.getCreationDate())
+                        .news(NewsMapper.toDto(item))
+                        .build())
+                .toList();
+        List<UserActivityDto> comments = (after == null
+                ? commentRepository.findByCreatedByUserIdOrderByCreationDateDescIdDesc(userId, fetch)
+                : commentRepository.findByAuthorBefore(userId, after.creationDate(), after.idBound(ChangeEntityType.COMMENT), fetch))
+                .stream()
+                .map(item -> UserActivityDto.builder()
+                        .type(ChangeEntityType.COMMENT)
+                        .creationDate(item.getCreationDate())
+                        .comment(CommentMapper.toDto(item))
+                        .build())
+                .toList();
+
+        List<UserActivityDto> items = merge(List.of(news, comments), NEWEST_FIRST, limit + 1);
+        boolean hasMore = items.size() > limit;
+        if (hasMore) {
+            items = items.subList(0, limit);
+        }
+        String nextCursor = items.isEmpty() ? cursor : Cursor.of(items.get(items.size() - 1)).encode();
+        log.debug("Returning {} activity items of user id={}, hasMore={}", items.size(), userId, hasMore);
+        return UserActivityPageDto.builder().items(items).nextCursor(nextCursor).hasMore(hasMore).build();
+    }
+
+    /**
+     * Сливает отсортированные источники в общий порядок.
+     *
+     * @param sources источники, каждый отсортирован в порядке {@code order}
+     * @param order   общий порядок
+     * @param limit   наибольшее число элементов результата
+     * @return первые {@code limit} элементов объединения
+     */
+    static <T> List<T> merge(List<List<T>> sources, Comparator<? super T> order, int limit) {
+        PriorityQueue<int[]> heads = new PriorityQueue<>(Math.max(1, sources.size()),
+                (a, b) -> order.compare(sources.get(a[0]).get(a[1]), sources.get(b[0]).get(b[1])));
+        for (int i = 0; i < sources.size(); i++) {
+            if (!sources.get(i).isEmpty()) {
+                heads.add(new int[]{i, 0});
+            }
+        }
+        List<T> result = new ArrayList<>(limit);
+        while (result.size() < limit && !heads.isEmpty()) {
+            int[] head = heads.poll();
+            List<T> source = sources.get(head[0]);
+            result.add(source.get(head[1]));
+            if (++head[1] < source.size()) {
+                heads.add(head);
+            }
+        }
+        return result;
+    }
+
+    private void requireUser(Long userId) {
+        if (negativeLookupCache.isMissing(NegativeLookupCache.Entity.USER, userId)) {
+            log.debug("User known to be missing: id={}", userId);
+            throw new UserNotFoundException(userId);
+        }
+        long generation = negativeLookupCache.generation(NegativeLookupCache.Entity.USER);
+        if (!userRepository.existsById(userId)) {
+            log.debug("User not found: id={}", userId);
+            negativeLookupCache.markMissing(NegativeLookupCache.Entity.USER, userId, generation);
+            throw new UserNotFoundException(userId);
+        }
+    }
+
+    private static Long idOf(UserActivityDto item) {
+        return item.getNews() != null ? item.getNews().getId() : item.getComment().getId();
+    }
+
+    /**
+     * Позиция в ленте: элемент с этими датой, типом и id и все до него уже выданы.
+     */
+    private record Cursor(LocalDateTime creationDate, ChangeEntityType type, long id) {
+
+        static Cursor of(UserActivityDto item) {
+            return new Cursor(item.getCreationDate(), item.getType(), idOf(item));
+        }
+
+        static Cursor decode(String value) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8).split("\\|");
+                return new Cursor(LocalDateTime.parse(parts[0]), ChangeEntityType.valueOf(parts[1]), Long.parseLong(parts[2]));
+            } catch (RuntimeException e) {
+                throw new InvalidRequestException("Invalid activity cursor");
+            }
+        }
+
+        String encode() {
+            String value = creationDate + "|" + type + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+        }
+
+        /**
+         * Верхняя граница id источника среди элементов с датой курсора: источники, идущие
+         * после типа курсора, выдаются целиком, тип курсора — после его id, предшествующие — уже выданы.
+         */
+        long idBound(ChangeEntityType source) {
+            int cmp = source.compareTo(type);
+            return cmp > 0 ? Long.MAX_VALUE : cmp == 0 ? id : Long.MIN_VALUE;
+        }
+    }
+}
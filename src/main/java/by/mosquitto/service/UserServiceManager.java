@@ -1,18 +1,38 @@
 package by.mosquitto.service;
 
+import by.mosquitto.cache.NegativeLookupCache;
+import by.mosquitto.cache.UserEntityCache;
 import by.mosquitto.dto.UserDto;
 import by.mosquitto.entity.User;
+import by.mosquitto.event.ChangeEntityType;
+import by.mosquitto.event.CommentChangedEvent;
+import by.mosquitto.event.NewsChangedEvent;
+import by.mosquitto.event.UserChangedEvent;
+import by.mosquitto.exception.InvalidRequestException;
+import by.mosquitto.exception.PreconditionFailedException;
 import by.mosquitto.exception.UserNotFoundException;
+import by.mosquitto.mapper.NewsFeedMapper;
 import by.mosquitto.mapper.UserMapper;
+import by.mosquitto.repository.CommentRepository;
+import by.mosquitto.repository.NewsRepository;
 import by.mosquitto.repository.UserRepository;
+import by.mosquitto.repository.VersionedUpdateRepository;
+import by.mosquitto.service.contract.ChangeFeedService;
+import by.mosquitto.service.contract.NewsFeedService;
 import by.mosquitto.service.contract.UserService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Сервис управления пользователями.
@@ -21,20 +41,38 @@ import java.util.List;
  * - Получение пользователя по ID
  * - Получение списка всех пользователей
  * - Создание, обновление и удаление пользователя
+ * - Частичное изменение пользователя с проверкой версии
  *
  * Особенности:
  * - Обработка ошибок через кастомное исключение UserNotFoundException
- * - Логирование: info — для действий, debug — для payload'ов, warn — при ошибках
- * - Используется @Transactional на уровне класса для операций записи
+ * - Логирование: info — для действий, debug — для payload'ов и промахов чтения, warn — при ошибках записи
+ * - Используется @Transactional для операций записи; чтения идут в транзакции репозитория,
+ *   соединение возвращается в пул до маппинга и сериализации
  * - Преобразование между сущностями и DTO через UserMapper
+ * - Недавние промахи по id отвечаются из {@link NegativeLookupCache} без обращения к БД
+ * - Операции записи публикуют {@link UserChangedEvent}, обрабатываемые после коммита; удаление дополнительно
+ *   публикует {@link NewsChangedEvent} и {@link CommentChangedEvent} для каждой новости и комментария, удалённых
+ *   каскадом, и записывает их удаление в журнал изменений ({@link ChangeFeedService}) в той же транзакции
+ * - Переименование и удаление пользователя отражаются в витрине ленты ({@link NewsFeedService}) в той же транзакции
+ * - Пользователи хранятся во втором уровне кэша Hibernate; изменение и удаление записывают инвалидацию
+ *   для остальных узлов ({@link UserEntityCache}) в той же транзакции
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
-@Transactional
 public class UserServiceManager implements UserService {
 
+    private static final String USERS_TABLE = "app_user";
+
     private final UserRepository userRepository;
+    private final NewsRepository newsRepository;
+    private final CommentRepository commentRepository;
+    private final VersionedUpdateRepository versionedUpdateRepository;
+    private final NegativeLookupCache negativeLookupCache;
+    private final UserEntityCache userEntityCache;
+    private final NewsFeedService newsFeedService;
+    private final ChangeFeedService changeFeedService;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Получает пользователя по его идентификатору.
@@ -46,9 +84,15 @@ public class UserServiceManager implements UserService {
     @Override
     public UserDto getById(Long id) {
         log.info("Fetching user by id={}", id);
+        if (negativeLookupCache.isMissing(NegativeLookupCache.Entity.USER, id)) {
+            log.debug("User known to be missing: id={}", id);
+            throw new UserNotFoundException(id);
+        }
+        long generation = negativeLookupCache.generation(NegativeLookupCache.Entity.USER);
         User user = userRepository.findById(id)
                 .orElseThrow(() -> {
-                    log.warn("User not found: id={}", id);
+                    log.debug("User not found: id={}", id);
+                    negativeLookupCache.markMissing(NegativeLookupCache.Entity.USER, id, generation);
                     return new UserNotFoundException(id);
                 });
         return UserMapper.toDto(user);
@@ -74,15 +118,19 @@ public class UserServiceManager implements UserService {
      * @return созданный пользователь
      */
     @Override
+    @Transactional
     public UserDto create(UserDto userDto) {
         log.info("Creating user with username='{}'", userDto.getUsername());
         log.debug("Payload: {}", userDto);
 
         User user = UserMapper.toEntity(userDto);
-        user.setCreationDate(LocalDateTime.now());
+        LocalDateTime now = LocalDateTime.now();
+        user.setCreationDate(now);
+        user.setLastEditDate(now);
 
         User saved = userRepository.save(user);
         log.info("User created: id={}", saved.getId());
+        eventPublisher.publishEvent(UserChangedEvent.created(saved.getId()));
         return UserMapper.toDto(saved);
     }
 
@@ -95,6 +143,7 @@ public class UserServiceManager implements UserService {
      * @throws UserNotFoundException если пользователь не найден
      */
     @Override
+    @Transactional
     public UserDto update(Long id, UserDto userDto) {
         log.info("Updating user id={}", id);
         log.debug("Payload: {}", userDto);
@@ -114,9 +163,71 @@ public class UserServiceManager implements UserService {
 
         User updated = userRepository.save(existing);
         log.info("User updated: id={}", updated.getId());
+        userEntityCache.invalidate(updated.getId());
+        newsFeedService.userRenamed(updated.getId(), NewsFeedMapper.authorName(updated.getName(), updated.getSurname()));
+        eventPublisher.publishEvent(UserChangedEvent.updated(updated.getId()));
         return UserMapper.toDto(updated);
     }
 
+    /**
+     * Частично изменяет пользователя одним условным UPDATE.
+     *
+     * Меняются только переданные поля; запись проходит, только если версия пользователя равна
+     * ожидаемой, а изменённая строка возвращается тем же UPDATE. Витрина ленты переименовывает
+     * автора, только если изменились имя или фамилия.
+     *
+     * @param id              идентификатор пользователя
+     * @param expectedVersion ожидаемая версия или {@code null}, чтобы изменить любого
+     * @param changes         DTO, в котором {@code null} означает «не менять»
+     * @return изменённый пользователь
+     * @throws InvalidRequestException если ни одно поле не передано
+     * @throws UserNotFoundException если пользователь не найден
+     * @throws PreconditionFailedException если версия пользователя уже другая
+     */
+    @Override
+    @Transactional
+    public UserDto patch(Long id, Long expectedVersion, UserDto changes) {
+        log.info("Patching user id={}, expectedVersion={}", id, expectedVersion);
+        log.debug("Payload: {}", changes);
+
+        Map<String, Object> values = new LinkedHashMap<>();
+        putIfPresent(values, "username", changes.getUsername());
+        putIfPresent(values, "password", changes.getPassword());
+        putIfPresent(values, "name", changes.getName());
+        putIfPresent(values, "surname", changes.getSurname());
+        putIfPresent(values, "parent_name", changes.getParentName());
+        if (values.isEmpty()) {
+            throw new InvalidRequestException(
+                    "Request body must contain at least one of 'username', 'password', 'name', 'surname', 'parentName'");
+        }
+        boolean renamed = values.containsKey("name") || values.containsKey("surname");
+        values.put("last_edit_date", Timestamp.valueOf(LocalDateTime.now()));
+
+        UserDto patched = versionedUpdateRepository.update(USERS_TABLE, id, expectedVersion, values,
+                        UserMapper.COLUMNS, (rs, rowNum) -> UserMapper.toDto(rs))
+                .orElseThrow(() -> {
+                    if (expectedVersion == null || !userRepository.existsById(id)) {
+                        log.warn("User not found for patch: id={}", id);
+                        return new UserNotFoundException(id);
+                    }
+                    log.info("User patch rejected, version changed: id={}, expectedVersion={}", id, expectedVersion);
+                    return new PreconditionFailedException("User", id, expectedVersion);
+                });
+        log.info("User patched: id={}, version={}", id, patched.getVersion());
+        userEntityCache.invalidate(id);
+        if (renamed) {
+            newsFeedService.userRenamed(id, NewsFeedMapper.authorName(patched.getName(), patched.getSurname()));
+        }
+        eventPublisher.publishEvent(UserChangedEvent.updated(id));
+        return patched;
+    }
+
+    private static void putIfPresent(Map<String, Object> values, String column, Object value) {
+        if (value != null) {
+            values.put(column, value);
+        }
+    }
+
     /**
      * Удаляет пользователя по его идентификатору.
      *
@@ -124,13 +235,41 @@ public class UserServiceManager implements UserService {
      * @throws UserNotFoundException если пользователь не найден
      */
     @Override
+    @Transactional
     public void delete(Long id) {
         log.info("Deleting user id={}", id);
         if (!userRepository.existsById(id)) {
             log.warn("User not found for deletion: id={}", id);
             throw new UserNotFoundException(id);
         }
+        List<Long> cascadedNews = newsRepository.findIdsByUser(id);
+        Map<Long, Long> cascadedComments = cascadedComments(id, cascadedNews);
+        newsFeedService.userDeleting(id);
         userRepository.deleteById(id);
-        log.info("User deleted: id={}", id);
+        log.info("User deleted: id={}, cascaded news={}, comments={}", id, cascadedNews.size(), cascadedComments.size());
+        userEntityCache.invalidate(id);
+        changeFeedService.recordDeleted(ChangeEntityType.NEWS,
+                cascadedNews.stream().collect(Collectors.toMap(Function.identity(), Function.identity())));
+        changeFeedService.recordDeleted(ChangeEntityType.COMMENT, cascadedComments);
+        cascadedComments.forEach((commentId, newsId) ->
+                eventPublisher.publishEvent(CommentChangedEvent.deleted(commentId, newsId)));
+        cascadedNews.forEach(newsId -> eventPublisher.publishEvent(NewsChangedEvent.deleted(newsId)));
+        eventPublisher.publishEvent(UserChangedEvent.deleted(id));
+    }
+
+    /**
+     * Комментарии, удаляемые каскадом вместе с пользователем: его собственные и комментарии его новостей.
+     *
+     * @param userId       идентификатор пользователя
+     * @param cascadedNews новости, удаляемые каскадом
+     * @return идентификаторы комментариев и их новостей
+     */
+    private Map<Long, Long> cascadedComments(Long userId, List<Long> cascadedNews) {
+        Map<Long, Long> comments = new LinkedHashMap<>();
+        commentRepository.findRefsByAuthor(userId).forEach(ref -> comments.put(ref.getId(), ref.getNewsId()));
+        if (!cascadedNews.isEmpty()) {
+            commentRepository.findRefsByNewsIds(cascadedNews).forEach(ref -> comments.put(ref.getId(), ref.getNewsId()));
+        }
+        return comments;
     }
 }
\ No newline at end of file
@@ -0,0 +1,18 @@
+package by.mosquitto.service.contract;
+
+import by.mosquitto.dto.ChangeDto;
+import by.mosquitto.dto.ChangeFeedDto;
+import by.mosquitto.event.ChangeEntityType;
+import by.mosquitto.event.ChangeType;
+
+import java.util.List;
+import java.util.Map;
+
+public interface ChangeFeedService {
+    void record(ChangeEntityType entityType, ChangeType operation, Long entityId, Long newsId);
+    void record(ChangeEntityType entityType, ChangeType operation, Map<Long, Long> newsIdsByEntityId);
+    void recordDeleted(ChangeEntityType entityType, Map<Long, Long> newsIdsByEntityId);
+    ChangeFeedDto getChanges(Long since, Long newsId, int limit);
+    List<ChangeDto> getCommentChanges(Long since, Long newsId, int limit);
+    Long getLastToken();
+}
@@ -11,5 +11,6 @@ public interface CommentService {
     CommentDto getComment(Long id);
     List<CommentDto> getCommentsByNews(Long newsId);
     CommentDto updateComment(Long id, CommentDto dto);
+    CommentDto patchComment(Long id, Long expectedVersion, CommentDto changes);
     void deleteComment(Long id);
 }
@@ -0,0 +1,19 @@
+package by.mosquitto.service.contract;
+
+import by.mosquitto.dto.NewsDto;
+import by.mosquitto.dto.NewsFeedPageDto;
+import by.mosquitto.dto.NewsFeedRebuildDto;
+
+import java.time.LocalDateTime;
+
+public interface NewsFeedService {
+    void newsCreated(NewsDto news, String authorName);
+    void newsUpdated(NewsDto news);
+    void newsDeleted(Long newsId);
+    void commentsAdded(Long newsId, long count, LocalDateTime at);
+    void commentDeleted(Long newsId);
+    void userRenamed(Long userId, String authorName);
+    void userDeleting(Long userId);
+    NewsFeedPageDto getFeed(String cursor, int limit);
+    NewsFeedRebuildDto rebuild();
+}
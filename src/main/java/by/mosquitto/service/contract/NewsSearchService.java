@@ -0,0 +1,13 @@
+package by.mosquitto.service.contract;
+
+import by.mosquitto.dto.NewsDto;
+import by.mosquitto.dto.NewsSuggestionDto;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+public interface NewsSearchService {
+    CompletableFuture<List<NewsDto>> search(String query);
+
+    List<NewsSuggestionDto> suggest(String prefix, int limit);
+}
@@ -8,12 +8,13 @@ import org.springframework.data.domain.Pageable;
 import java.util.List;
 
 public interface NewsService {
-    List<NewsDto> search(String query);
     List<NewsDto> getAllNews();
     Page<NewsDto> getNewsPaged(Pageable pageable);
+    Page<NewsDto> getNewsPaged(Pageable pageable, boolean withCommentStats, int previewComments);
     NewsDto getNewsById(Long id);
     NewsDto createNews(NewsDto dto);
     NewsDto updateNews(Long id, NewsDto dto);
+    NewsDto patchNews(Long id, Long expectedVersion, NewsDto changes);
     void deleteNews(Long id);
     NewsWithCommentsPagedDto getNewsWithCommentsPaged(Long newsId, Pageable pageable);
 }
@@ -0,0 +1,15 @@
+package by.mosquitto.service.contract;
+
+import by.mosquitto.dto.JfrRecordingDto;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.OutputStream;
+import java.time.Duration;
+
+public interface ProfilingService {
+    JfrRecordingDto getStatus();
+    JfrRecordingDto start(String settings);
+    JfrRecordingDto stop();
+    void writeRecording(OutputStream out);
+    SseEmitter streamEvents(Duration threshold);
+}
@@ -0,0 +1,7 @@
+package by.mosquitto.service.contract;
+
+import by.mosquitto.dto.UserActivityPageDto;
+
+public interface UserActivityService {
+    UserActivityPageDto getActivity(Long userId, String cursor, int limit);
+}
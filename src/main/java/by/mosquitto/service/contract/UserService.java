@@ -9,5 +9,6 @@ public interface UserService {
     List<UserDto> getAll();
     UserDto create(UserDto userDto);
     UserDto update(Long id, UserDto userDto);
+    UserDto patch(Long id, Long expectedVersion, UserDto changes);
     void delete(Long id);
 }
@@ -0,0 +1,45 @@
+package by.mosquitto.sql;
+
+import by.mosquitto.jfr.SqlStatementEvent;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Слушатель datasource-proxy, записывающий {@link SqlStatementEvent} на каждое выражение.
+ *
+ * Выражения одного потока выполняются последовательно, поэтому начатое событие
+ * хранится в поле потока до {@link #afterQuery}.
+ */
+public class JfrSqlListener implements QueryExecutionListener {
+
+    private static final ThreadLocal<SqlStatementEvent> PENDING = new ThreadLocal<>();
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        SqlStatementEvent event = new SqlStatementEvent();
+        if (event.isEnabled()) {
+            event.begin();
+            PENDING.set(event);
+        }
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        SqlStatementEvent event = PENDING.get();
+        if (event == null) {
+            return;
+        }
+        PENDING.remove();
+        event.end();
+        if (event.shouldCommit()) {
+            event.sql = queryInfoList.stream().map(QueryInfo::getQuery).collect(Collectors.joining("; "));
+            event.batchSize = execInfo.isBatch() ? execInfo.getBatchSize() : 0;
+            event.success = execInfo.isSuccess();
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package by.mosquitto.sql;
+
+import lombok.Getter;
+
+/**
+ * Счётчики обращений к БД в пределах одного HTTP-запроса.
+ *
+ * Привязываются к потоку обработки запроса фильтром {@code QueryStatsFilter};
+ * вне запроса (фоновые потоки, старт приложения) счётчики не ведутся.
+ */
+@Getter
+public final class QueryStats {
+
+    private static final ThreadLocal<QueryStats> CURRENT = new ThreadLocal<>();
+
+    private int statements;
+    private long rows;
+    private int lazyLoads;
+
+    private QueryStats() {
+    }
+
+    /**
+     * Начинает подсчёт для текущего потока.
+     *
+     * @return счётчики текущего запроса
+     */
+    public static QueryStats start() {
+        QueryStats stats = new QueryStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    /**
+     * Завершает подсчёт для текущего потока.
+     */
+    public static void stop() {
+        CURRENT.remove();
+    }
+
+    static void statementExecuted() {
+        QueryStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.statements++;
+        }
+    }
+
+    static void rowFetched() {
+        QueryStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.rows++;
+        }
+    }
+
+    static void lazyLoaded() {
+        QueryStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.lazyLoads++;
+        }
+    }
+
+    /**
+     * Значение отладочного заголовка ответа.
+     *
+     * @return строка вида {@code statements=3, rows=12, lazy=0}
+     */
+    public String toHeaderValue() {
+        return "statements=" + statements + ", rows=" + rows + ", lazy=" + lazyLoads;
+    }
+}
@@ -0,0 +1,27 @@
+package by.mosquitto.sql;
+
+/**
+ * Признак «читать с основной БД» для текущего запроса.
+ *
+ * Выставляется для клиента, который недавно писал (окно {@code app.datasource.replica.read-your-writes-millis}),
+ * и после фиксации записи в текущем запросе, чтобы реплика с отставанием не вернула устаревшие данные.
+ */
+public final class ReadYourWrites {
+
+    private static final ThreadLocal<Boolean> PRIMARY_REQUIRED = new ThreadLocal<>();
+
+    private ReadYourWrites() {
+    }
+
+    public static void requirePrimary() {
+        PRIMARY_REQUIRED.set(Boolean.TRUE);
+    }
+
+    public static boolean isPrimaryRequired() {
+        return PRIMARY_REQUIRED.get() != null;
+    }
+
+    public static void clear() {
+        PRIMARY_REQUIRED.remove();
+    }
+}
@@ -0,0 +1,177 @@
+package by.mosquitto.sql;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Выбор реплики для read-only транзакций.
+ *
+ * Особенности:
+ * - Реплики выбираются по кругу, недоступные пропускаются
+ * - Реплика, не выдавшая соединение, сразу помечается недоступной; периодическая проверка
+ *   ({@code app.datasource.replica.health-check-millis}) возвращает её в ротацию
+ * - Если доступных реплик нет, чтение уходит на основную БД
+ * - Для запросов с {@link ReadYourWrites#isPrimaryRequired()} чтение всегда идёт на основную БД
+ *
+ * Маршрутизатор закрывает переданные пулы при остановке контекста.
+ */
+@Slf4j
+public class ReplicaRouter implements AutoCloseable {
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final int validationTimeoutSeconds;
+    private final AtomicInteger next = new AtomicInteger();
+    private final AtomicLong replicaConnections = new AtomicLong();
+    private final AtomicLong primaryFallbacks = new AtomicLong();
+    private final AtomicLong primaryForced = new AtomicLong();
+    private final DataSource readOnlyDataSource = new AbstractDataSource() {
+        @Override
+        public Connection getConnection() throws SQLException {
+            return readOnlyConnection();
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            throw new SQLException("Replica routing does not support explicit credentials");
+        }
+    };
+
+    public ReplicaRouter(DataSource primary, List<Replica> replicas, int validationTimeoutSeconds) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+    }
+
+    public DataSource getPrimary() {
+        return primary;
+    }
+
+    /**
+     * @return источник соединений для read-only транзакций
+     */
+    public DataSource getReadOnlyDataSource() {
+        return readOnlyDataSource;
+    }
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    public long getReplicaConnections() {
+        return replicaConnections.get();
+    }
+
+    public long getPrimaryFallbacks() {
+        return primaryFallbacks.get();
+    }
+
+    public long getPrimaryForced() {
+        return primaryForced.get();
+    }
+
+    Connection readOnlyConnection() throws SQLException {
+        if (ReadYourWrites.isPrimaryRequired()) {
+            primaryForced.incrementAndGet();
+            return primary.getConnection();
+        }
+        int size = replicas.size();
+        int start = size == 0 ? 0 : Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (!replica.isHealthy()) {
+                continue;
+            }
+            try {
+                Connection connection = replica.getDataSource().getConnection();
+                replicaConnections.incrementAndGet();
+                return connection;
+            } catch (SQLException e) {
+                markDown(replica, e);
+            }
+        }
+        primaryFallbacks.incrementAndGet();
+        return primary.getConnection();
+    }
+
+    /**
+     * Проверяет реплики и возвращает восстановившиеся в ротацию.
+     */
+    @Scheduled(fixedDelayString = "${app.datasource.replica.health-check-millis:5000}")
+    public void checkHealth() {
+        for (Replica replica : replicas) {
+            boolean healthy;
+            try (Connection connection = replica.getDataSource().getConnection()) {
+                healthy = connection.isValid(validationTimeoutSeconds);
+            } catch (SQLException e) {
+                healthy = false;
+            }
+            if (healthy && !replica.isHealthy()) {
+                log.info("Replica {} is back in rotation", replica.getName());
+            } else if (!healthy && replica.isHealthy()) {
+                log.warn("Replica {} failed health check, reads fall back", replica.getName());
+            }
+            replica.setHealthy(healthy);
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            closeIfPossible(replica.getDataSource());
+        }
+        closeIfPossible(primary);
+    }
+
+    private static void markDown(Replica replica, SQLException e) {
+        if (replica.isHealthy()) {
+            log.warn("Replica {} unavailable, removed from rotation: {}", replica.getName(), e.getMessage());
+        }
+        replica.setHealthy(false);
+    }
+
+    private static void closeIfPossible(DataSource dataSource) throws Exception {
+        if (dataSource instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    /**
+     * Пул реплики и её состояние.
+     */
+    public static final class Replica {
+
+        private final String name;
+        private final DataSource dataSource;
+        private volatile boolean healthy = true;
+
+        public Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public DataSource getDataSource() {
+            return dataSource;
+        }
+
+        public boolean isHealthy() {
+            return healthy;
+        }
+
+        void setHealthy(boolean healthy) {
+            this.healthy = healthy;
+        }
+    }
+}
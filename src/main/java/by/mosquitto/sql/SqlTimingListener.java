@@ -0,0 +1,120 @@
+package by.mosquitto.sql;
+
+import by.mosquitto.timing.RequestTimings;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * Слушатель datasource-proxy, измеряющий время ожидания соединения из пула и выполнения SQL
+ * для заголовка {@code Server-Timing} и пишущий медленные запросы в журнал {@value #SLOW_QUERY_LOGGER}.
+ *
+ * В журнал медленных запросов попадают текст SQL, размер пакета и «форма» параметров —
+ * типы и длины строк без самих значений, чтобы журнал не содержал персональных данных.
+ */
+public class SqlTimingListener implements QueryExecutionListener, MethodExecutionListener {
+
+    public static final String SLOW_QUERY_LOGGER = "SLOW_QUERY";
+
+    private static final Logger slowQueryLog = LoggerFactory.getLogger(SLOW_QUERY_LOGGER);
+
+    private final long slowQueryMillis;
+
+    public SqlTimingListener(long slowQueryMillis) {
+        this.slowQueryMillis = slowQueryMillis;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        RequestTimings timings = RequestTimings.current();
+        if (timings != null) {
+            timings.open(RequestTimings.Phase.DB);
+        }
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        RequestTimings timings = RequestTimings.current();
+        if (timings != null) {
+            timings.close(RequestTimings.Phase.DB);
+        }
+        if (execInfo.getElapsedTime() >= slowQueryMillis && slowQueryLog.isWarnEnabled()) {
+            for (QueryInfo query : queryInfoList) {
+                slowQueryLog.warn("{}ms batch={} params={} request=[{}] sql={}",
+                        execInfo.getElapsedTime(),
+                        execInfo.isBatch() ? execInfo.getBatchSize() : 0,
+                        parameterShapes(query),
+                        timings != null ? timings.getRequest() : "-",
+                        query.getQuery());
+            }
+        }
+    }
+
+    @Override
+    public void beforeMethod(MethodExecutionContext executionContext) {
+        if (isGetConnection(executionContext)) {
+            RequestTimings timings = RequestTimings.current();
+            if (timings != null) {
+                timings.open(RequestTimings.Phase.POOL);
+            }
+        }
+    }
+
+    @Override
+    public void afterMethod(MethodExecutionContext executionContext) {
+        if (isGetConnection(executionContext)) {
+            RequestTimings timings = RequestTimings.current();
+            if (timings != null) {
+                timings.close(RequestTimings.Phase.POOL);
+            }
+        }
+    }
+
+    /**
+     * Форма параметров первого набора привязок, например {@code [Long, String(12), null]};
+     * для пакета добавляется число наборов.
+     *
+     * @param query выполненный запрос
+     * @return описание типов параметров без значений
+     */
+    static String parameterShapes(QueryInfo query) {
+        List<List<ParameterSetOperation>> parameters = query.getParametersList();
+        if (parameters == null || parameters.isEmpty()) {
+            return "[]";
+        }
+        StringJoiner shape = new StringJoiner(", ", "[", "]");
+        for (ParameterSetOperation operation : parameters.get(0)) {
+            shape.add(shapeOf(operation));
+        }
+        return parameters.size() > 1 ? shape + " x" + parameters.size() : shape.toString();
+    }
+
+    private static String shapeOf(ParameterSetOperation operation) {
+        Object[] args = operation.getArgs();
+        if ("setNull".equals(operation.getMethod().getName()) || args == null || args.length < 2 || args[1] == null) {
+            return "null";
+        }
+        Object value = args[1];
+        if (value instanceof CharSequence text) {
+            return "String(" + text.length() + ")";
+        }
+        if (value instanceof byte[] bytes) {
+            return "byte[" + bytes.length + "]";
+        }
+        return value.getClass().getSimpleName();
+    }
+
+    private static boolean isGetConnection(MethodExecutionContext executionContext) {
+        return executionContext.getTarget() instanceof DataSource
+                && "getConnection".equals(executionContext.getMethod().getName());
+    }
+}
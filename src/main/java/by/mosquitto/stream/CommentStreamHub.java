@@ -0,0 +1,313 @@
+package by.mosquitto.stream;
+
+import by.mosquitto.dto.ChangeDto;
+import by.mosquitto.event.CommentChangedEvent;
+import by.mosquitto.exception.ChangeTokenExpiredException;
+import by.mosquitto.service.contract.ChangeFeedService;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * In-process хаб рассылки изменений комментариев подписчикам SSE.
+ *
+ * Особенности:
+ * - Простаивающий подписчик — это только {@link SseEmitter} (асинхронный сервлет) и пустая очередь,
+ *   без выделенного потока; доставка выполняется виртуальными потоками только при наличии событий
+ * - У каждого подписчика ограниченная очередь; переполнение означает медленного клиента,
+ *   и такой подписчик отключается
+ * - События читаются из журнала изменений ({@link ChangeFeedService}) раз в {@code poll-millis}, поэтому
+ *   каждый узел рассылает и комментарии, записанные другими узлами; id события — токен журнала ({@code seq}),
+ *   одинаковый на всех узлах и после перезапуска
+ * - Для каждой новости хранится кольцо последних событий; {@code Last-Event-ID} старше кольца
+ *   (новая или удалённая за простоем тема, другой узел) дочитывается из журнала
+ * - Если пропущенных событий больше буфера подписчика или они уже удалены из журнала, подписчик получает
+ *   событие {@code reset} и перечитывает комментарии целиком
+ * - Полезная нагрузка — {@link CommentChangedEvent} с актуальным на момент чтения журнала комментарием
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CommentStreamHub {
+
+    private final ChangeFeedService changeFeedService;
+
+    private final Map<Long, Topic> topics = new ConcurrentHashMap<>();
+    private final ExecutorService dispatcher = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * Токен журнала, до которого изменения разосланы; {@code -1} — до первого опроса.
+     */
+    private volatile long watermark = -1;
+
+    @Value("${app.comments.stream.timeout-millis:1800000}")
+    private long timeoutMillis;
+
+    @Value("${app.comments.stream.buffer-size:64}")
+    private int bufferSize;
+
+    @Value("${app.comments.stream.replay-size:100}")
+    private int replaySize;
+
+    @Value("${app.comments.stream.idle-topic-millis:300000}")
+    private long idleTopicMillis;
+
+    @Value("${app.comments.stream.poll-batch-size:500}")
+    private int pollBatchSize;
+
+    /**
+     * Подписывает клиента на изменения комментариев новости.
+     *
+     * @param newsId      идентификатор новости
+     * @param lastEventId последний полученный клиентом id события или {@code null}
+     * @return SSE-эмиттер подписки
+     */
+    public SseEmitter subscribe(Long newsId, Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter, new ArrayBlockingQueue<>(bufferSize));
+        emitter.onCompletion(() -> unsubscribe(newsId, subscriber));
+        emitter.onTimeout(() -> unsubscribe(newsId, subscriber));
+        emitter.onError(ex -> unsubscribe(newsId, subscriber));
+
+        Topic topic;
+        while (true) {
+            topic = topics.computeIfAbsent(newsId, id -> new Topic());
+            synchronized (topic) {
+                if (topic.removed) {
+                    continue;
+                }
+                topic.subscribers.add(subscriber);
+                if (lastEventId != null) {
+                    replay(newsId, topic, subscriber, lastEventId);
+                }
+                break;
+            }
+        }
+        log.debug("SSE subscriber added: newsId={}, lastEventId={}, subscribers={}", newsId, lastEventId, topic.subscribers.size());
+
+        scheduleDrain(subscriber);
+        return emitter;
+    }
+
+    /**
+     * Читает новые изменения комментариев из журнала и рассылает их подписчикам. Пока подписчиков нет,
+     * только сдвигает {@link #watermark} на последний токен журнала.
+     */
+    @Scheduled(fixedDelayString = "${app.comments.stream.poll-millis:500}")
+    public void poll() {
+        Long lastToken = changeFeedService.getLastToken();
+        if (lastToken == null) {
+            return;
+        }
+        if (watermark < 0 || topics.isEmpty()) {
+            watermark = lastToken;
+            return;
+        }
+        List<ChangeDto> changes;
+        do {
+            if (lastToken <= watermark) {
+                break;
+            }
+            changes = changeFeedService.getCommentChanges(watermark, null, pollBatchSize);
+            changes.forEach(this::publish);
+            if (!changes.isEmpty()) {
+                watermark = changes.get(changes.size() - 1).getToken();
+            }
+        } while (changes.size() == pollBatchSize);
+        if (watermark < lastToken) {
+            // остальные записи до lastToken относятся к новостям
+            watermark = lastToken;
+        }
+        // темы, созданные до этой точки, получат все события после watermark
+        topics.values().forEach(topic -> topic.coveredSince = Math.min(topic.coveredSince, watermark));
+    }
+
+    /**
+     * Отправляет heartbeat всем подписчикам и удаляет давно неактивные темы без подписчиков.
+     */
+    @Scheduled(fixedDelayString = "${app.comments.stream.heartbeat-millis:15000}")
+    public void heartbeat() {
+        long now = System.currentTimeMillis();
+        topics.forEach((newsId, topic) ->
+                topic.subscribers.forEach(subscriber -> deliver(newsId, subscriber, StreamEvent.HEARTBEAT)));
+        topics.keySet().forEach(newsId -> topics.computeIfPresent(newsId, (id, topic) -> {
+            synchronized (topic) {
+                topic.removed = topic.subscribers.isEmpty() && now - topic.lastActivity > idleTopicMillis;
+                return topic.removed ? null : topic;
+            }
+        }));
+    }
+
+    /**
+     * Число активных подписчиков по всем новостям.
+     *
+     * @return количество подписчиков
+     */
+    public int subscriberCount() {
+        return topics.values().stream().mapToInt(topic -> topic.subscribers.size()).sum();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        topics.values().forEach(topic -> topic.subscribers.forEach(subscriber -> subscriber.emitter.complete()));
+        dispatcher.shutdownNow();
+    }
+
+    private void publish(ChangeDto change) {
+        Topic topic = topics.get(change.getNewsId());
+        if (topic == null) {
+            return;
+        }
+        StreamEvent event = toStreamEvent(change);
+        synchronized (topic) {
+            if (event.id() <= topic.lastEventId) {
+                return;
+            }
+            topic.lastEventId = event.id();
+            topic.replay.addLast(event);
+            if (topic.replay.size() > replaySize) {
+                topic.coveredSince = Math.max(topic.coveredSince, topic.replay.removeFirst().id());
+            }
+            topic.lastActivity = System.currentTimeMillis();
+            topic.subscribers.forEach(subscriber -> {
+                if (event.id() > subscriber.lastEventId) {
+                    subscriber.lastEventId = event.id();
+                    deliver(change.getNewsId(), subscriber, event);
+                }
+            });
+        }
+    }
+
+    /**
+     * Ставит в очередь подписчика события после {@code lastEventId}: из кольца темы, если оно их покрывает,
+     * иначе из журнала изменений. Вызывается под блокировкой темы, поэтому рассылка новых событий
+     * ждёт окончания дочитывания и не нарушает порядок.
+     */
+    private void replay(Long newsId, Topic topic, Subscriber subscriber, long lastEventId) {
+        subscriber.lastEventId = lastEventId;
+        List<StreamEvent> missed;
+        if (lastEventId >= topic.coveredSince) {
+            missed = topic.replay.stream().filter(event -> event.id() > lastEventId).toList();
+        } else {
+            try {
+                missed = changeFeedService.getCommentChanges(lastEventId, newsId, bufferSize).stream()
+                        .map(CommentStreamHub::toStreamEvent)
+                        .toList();
+            } catch (ChangeTokenExpiredException ex) {
+                missed = null;
+            }
+        }
+        if (missed == null || missed.size() >= bufferSize) {
+            log.debug("SSE replay does not fit, resetting subscriber: newsId={}, lastEventId={}", newsId, lastEventId);
+            enqueue(subscriber, StreamEvent.reset(newsId, Math.max(watermark, topic.lastEventId)));
+            return;
+        }
+        missed.forEach(event -> enqueue(subscriber, event));
+    }
+
+    private static void enqueue(Subscriber subscriber, StreamEvent event) {
+        if (event.id() > subscriber.lastEventId && subscriber.queue.offer(event)) {
+            subscriber.lastEventId = event.id();
+        }
+    }
+
+    private static StreamEvent toStreamEvent(ChangeDto change) {
+        CommentChangedEvent payload = new CommentChangedEvent(change.getOperation(), change.getEntityId(),
+                change.getNewsId(), change.getComment());
+        return new StreamEvent(change.getToken(), change.getOperation().name().toLowerCase(), payload);
+    }
+
+    private void deliver(Long newsId, Subscriber subscriber, StreamEvent event) {
+        if (!subscriber.queue.offer(event)) {
+            log.warn("Dropping slow SSE subscriber: newsId={}, buffered={}", newsId, subscriber.queue.size());
+            unsubscribe(newsId, subscriber);
+            subscriber.emitter.complete();
+            return;
+        }
+        scheduleDrain(subscriber);
+    }
+
+    private void scheduleDrain(Subscriber subscriber) {
+        if (!subscriber.queue.isEmpty() && subscriber.draining.compareAndSet(false, true)) {
+            dispatcher.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        while (true) {
+            StreamEvent event = subscriber.queue.poll();
+            if (event == null) {
+                subscriber.draining.set(false);
+                if (subscriber.queue.isEmpty() || !subscriber.draining.compareAndSet(false, true)) {
+                    return;
+                }
+                continue;
+            }
+            try {
+                subscriber.emitter.send(event == StreamEvent.HEARTBEAT
+                        ? SseEmitter.event().comment("heartbeat")
+                        : SseEmitter.event().id(event.id().toString()).name(event.name()).data(event.payload(), MediaType.APPLICATION_JSON));
+            } catch (IOException | IllegalStateException ex) {
+                log.debug("SSE send failed, completing subscriber: {}", ex.getMessage());
+                subscriber.queue.clear();
+                subscriber.emitter.completeWithError(ex);
+                return;
+            }
+        }
+    }
+
+    private void unsubscribe(Long newsId, Subscriber subscriber) {
+        Topic topic = topics.get(newsId);
+        if (topic != null) {
+            topic.subscribers.remove(subscriber);
+        }
+    }
+
+    private static final class Topic {
+        final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+        final Deque<StreamEvent> replay = new ArrayDeque<>();
+        volatile long lastActivity = System.currentTimeMillis();
+        /** Кольцо содержит все события новости после этого токена; до первого опроса — ни одного. */
+        volatile long coveredSince = Long.MAX_VALUE;
+        long lastEventId;
+        boolean removed;
+    }
+
+    private static final class Subscriber {
+        final SseEmitter emitter;
+        final BlockingQueue<StreamEvent> queue;
+        final AtomicBoolean draining = new AtomicBoolean();
+        long lastEventId;
+
+        Subscriber(SseEmitter emitter, BlockingQueue<StreamEvent> queue) {
+            this.emitter = emitter;
+            this.queue = queue;
+        }
+    }
+
+    private record StreamEvent(Long id, String name, Object payload) {
+        static final StreamEvent HEARTBEAT = new StreamEvent(null, null, null);
+
+        static StreamEvent reset(Long newsId, long id) {
+            return new StreamEvent(id, "reset", Map.of("newsId", newsId));
+        }
+    }
+}
@@ -0,0 +1,286 @@
+package by.mosquitto.suggest;
+
+import by.mosquitto.event.ChangeType;
+import by.mosquitto.event.CommentChangedEvent;
+import by.mosquitto.event.NewsChangedEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Подсказки заголовков новостей по префиксу из памяти ({@link TitleTrie}).
+ *
+ * Вес заголовка — число комментариев к новости. В памяти не больше {@code app.news.suggest.max-entries}
+ * самых популярных заголовков (при равном весе — более новых).
+ *
+ * Особенности:
+ * - Загружается при старте одним агрегирующим запросом и перезагружается раз в {@code reload-millis},
+ *   чтобы подхватить новости, ставшие популярными за пределами индекса
+ * - Изменения createNews/updateNews/deleteNews применяются после коммита ({@link NewsChangedEvent})
+ *   к небольшому слою изменений поверх неизменяемого дерева; раз в {@code compact-millis} слой
+ *   и накопленные изменения числа комментариев ({@link CommentChangedEvent}) вливаются в новое дерево
+ * - Чтение без блокировок: состояние — неизменяемый снимок в {@link AtomicReference}
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NewsTitleSuggester implements MeterBinder {
+
+    private static final String LOAD_SQL =
+            "SELECT n.id, n.title, COUNT(c.id) AS comments FROM news n "
+                    + "LEFT JOIN comments c ON c.news_id = n.id GROUP BY n.id, n.title";
+
+    private static final Comparator<TitleTrie.Entry> MOST_POPULAR = Comparator
+            .comparingLong(TitleTrie.Entry::weight).reversed()
+            .thenComparing(Comparator.comparingLong(TitleTrie.Entry::id).reversed());
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final AtomicReference<State> state = new AtomicReference<>(State.EMPTY);
+    private final Map<Long, Long> pendingWeights = new ConcurrentHashMap<>();
+
+    @Value("${app.news.suggest.top-k:10}")
+    private int topK;
+
+    @Value("${app.news.suggest.max-entries:100000}")
+    private int maxEntries;
+
+    @Value("${app.news.suggest.leaf-size:32}")
+    private int leafSize;
+
+    @Value("${app.news.suggest.max-depth:32}")
+    private int maxDepth;
+
+    /**
+     * Возвращает самые популярные заголовки, начинающиеся с префикса
+     * (без учёта регистра, «ё» и повторных пробелов).
+     *
+     * @param prefix введённый префикс
+     * @param limit  наибольшее число подсказок, не больше {@code top-k}
+     * @return подсказки от популярных к менее популярным
+     */
+    public List<TitleTrie.Entry> suggest(String prefix, int limit) {
+        String key = TitleTrie.fold(prefix);
+        int count = Math.min(limit, topK);
+        if (key.isEmpty() || count <= 0) {
+            return List.of();
+        }
+        State current = state.get();
+        Map<Long, Change> changes = current.changes();
+        List<TitleTrie.Entry> result = current.base().suggest(key, count, changes::containsKey);
+        if (changes.isEmpty()) {
+            return result;
+        }
+        Set<String> keys = new HashSet<>();
+        result.forEach(entry -> keys.add(TitleTrie.fold(entry.title())));
+        for (Change change : changes.values()) {
+            if (change.entry() != null && change.key().startsWith(key) && keys.add(change.key())) {
+                result.add(change.entry());
+            }
+        }
+        result.sort(MOST_POPULAR);
+        return result.size() > count ? result.subList(0, count) : result;
+    }
+
+    /**
+     * Загружает индекс из БД после старта приложения.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void load() {
+        State snapshot = state.get();
+        pendingWeights.clear();
+
+        PriorityQueue<TitleTrie.Entry> best = new PriorityQueue<>(MOST_POPULAR.reversed());
+        jdbcTemplate.query(LOAD_SQL, (RowCallbackHandler) rs -> {
+            best.add(new TitleTrie.Entry(rs.getLong(1), rs.getString(2), rs.getLong(3)));
+            if (best.size() > maxEntries) {
+                best.poll();
+            }
+        });
+
+        TitleTrie base = build(best);
+        publish(snapshot, base);
+        log.info("News title suggester loaded: titles={}, nodes={}", base.size(), base.nodeCount());
+    }
+
+    /**
+     * Перезагружает индекс, чтобы в него попали новости, набравшие популярность вне индекса.
+     */
+    @Scheduled(initialDelayString = "${app.news.suggest.reload-millis:3600000}",
+            fixedDelayString = "${app.news.suggest.reload-millis:3600000}")
+    public void reload() {
+        load();
+    }
+
+    /**
+     * Вливает слой изменений и накопленные веса в новое дерево.
+     */
+    @Scheduled(fixedDelayString = "${app.news.suggest.compact-millis:30000}")
+    public synchronized void compact() {
+        State snapshot = state.get();
+        if (!snapshot.loaded() || (snapshot.changes().isEmpty() && pendingWeights.isEmpty())) {
+            return;
+        }
+        Map<Long, Long> weights = new HashMap<>();
+        for (Long newsId : List.copyOf(pendingWeights.keySet())) {
+            Long delta = pendingWeights.remove(newsId);
+            if (delta != null) {
+                weights.put(newsId, delta);
+            }
+        }
+
+        List<TitleTrie.Entry> entries = new ArrayList<>(snapshot.base().size() + snapshot.changes().size());
+        for (TitleTrie.Entry entry : snapshot.base().entries()) {
+            if (!snapshot.changes().containsKey(entry.id())) {
+                entries.add(withWeight(entry, weights));
+            }
+        }
+        for (Change change : snapshot.changes().values()) {
+            if (change.entry() != null) {
+                entries.add(withWeight(change.entry(), weights));
+            }
+        }
+        if (entries.size() > maxEntries) {
+            entries.sort(MOST_POPULAR);
+            entries = entries.subList(0, maxEntries);
+        }
+
+        TitleTrie base = build(entries);
+        publish(snapshot, base);
+        log.debug("News title suggester compacted: titles={}, nodes={}, changes={}",
+                base.size(), base.nodeCount(), snapshot.changes().size());
+    }
+
+    /**
+     * Применяет изменение новости после коммита транзакции.
+     *
+     * @param event событие изменения новости
+     */
+    @TransactionalEventListener
+    public void onNewsChanged(NewsChangedEvent event) {
+        state.updateAndGet(current -> current.with(event.newsId(), change(current, event)));
+    }
+
+    /**
+     * Учитывает изменение числа комментариев; вес обновится при следующем слиянии.
+     *
+     * @param event событие изменения комментария
+     */
+    @TransactionalEventListener
+    public void onCommentChanged(CommentChangedEvent event) {
+        if (event.type() == ChangeType.CREATED) {
+            pendingWeights.merge(event.newsId(), 1L, Long::sum);
+        } else if (event.type() == ChangeType.DELETED) {
+            pendingWeights.merge(event.newsId(), -1L, Long::sum);
+        }
+    }
+
+    public int getSize() {
+        return state.get().base().size();
+    }
+
+    public int getNodeCount() {
+        return state.get().base().nodeCount();
+    }
+
+    public int getPendingChanges() {
+        return state.get().changes().size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("news.suggest.titles", this, NewsTitleSuggester::getSize)
+                .description("Titles in the suggestion trie")
+                .register(registry);
+        Gauge.builder("news.suggest.nodes", this, NewsTitleSuggester::getNodeCount)
+                .description("Nodes in the suggestion trie")
+                .register(registry);
+        Gauge.builder("news.suggest.pending-changes", this, NewsTitleSuggester::getPendingChanges)
+                .description("News changes not yet compacted into the suggestion trie")
+                .register(registry);
+    }
+
+    private Change change(State current, NewsChangedEvent event) {
+        if (event.type() == ChangeType.DELETED) {
+            return Change.REMOVED;
+        }
+        long weight = 0;
+        Change previous = current.changes().get(event.newsId());
+        if (previous != null && previous.entry() != null) {
+            weight = previous.entry().weight();
+        } else if (event.type() == ChangeType.UPDATED) {
+            weight = Math.max(0, current.base().weightOf(event.newsId()));
+        }
+        String title = event.news().getTitle();
+        return new Change(new TitleTrie.Entry(event.newsId(), title, weight), TitleTrie.fold(title));
+    }
+
+    /**
+     * Публикует новое дерево, оставляя в слое только изменения, пришедшие после {@code snapshot}.
+     */
+    private void publish(State snapshot, TitleTrie base) {
+        state.updateAndGet(current -> {
+            Map<Long, Change> remaining = new HashMap<>(current.changes());
+            remaining.entrySet().removeIf(change -> snapshot.changes().get(change.getKey()) == change.getValue());
+            return new State(base, Map.copyOf(remaining), true);
+        });
+    }
+
+    private TitleTrie build(Collection<TitleTrie.Entry> entries) {
+        return TitleTrie.build(entries, 2 * topK, leafSize, maxDepth);
+    }
+
+    private static TitleTrie.Entry withWeight(TitleTrie.Entry entry, Map<Long, Long> weights) {
+        Long delta = weights.get(entry.id());
+        return delta == null ? entry : new TitleTrie.Entry(entry.id(), entry.title(), Math.max(0, entry.weight() + delta));
+    }
+
+    /**
+     * Изменение новости поверх дерева.
+     *
+     * @param entry актуальный заголовок или {@code null}, если новость удалена
+     * @param key   ключ заголовка ({@link TitleTrie#fold})
+     */
+    private record Change(TitleTrie.Entry entry, String key) {
+        static final Change REMOVED = new Change(null, null);
+    }
+
+    /**
+     * Неизменяемое состояние индекса.
+     *
+     * @param base    дерево последней загрузки или слияния
+     * @param changes изменения новостей после него; перекрывают заголовки дерева с тем же id
+     * @param loaded  признак выполненной начальной загрузки
+     */
+    private record State(TitleTrie base, Map<Long, Change> changes, boolean loaded) {
+        static final State EMPTY = new State(TitleTrie.empty(), Map.of(), false);
+
+        State with(Long newsId, Change change) {
+            Map<Long, Change> updated = new HashMap<>(changes);
+            updated.put(newsId, change);
+            return new State(base, Map.copyOf(updated), loaded);
+        }
+    }
+}
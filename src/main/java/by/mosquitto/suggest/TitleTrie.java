@@ -0,0 +1,385 @@
+package by.mosquitto.suggest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongPredicate;
+import java.util.stream.IntStream;
+
+/**
+ * Неизменяемое префиксное дерево заголовков с лучшими по популярности заголовками в каждом узле.
+ *
+ * Устройство (burst trie поверх отсортированного массива):
+ * - Заголовки приводятся к ключу ({@link #fold}: нижний регистр, «ё» → «е», схлопнутые пробелы),
+ *   дубликаты ключа схлопываются в самый популярный, ключи сортируются
+ * - Узел соответствует префиксу и непрерывному диапазону отсортированных ключей; дети узла лежат подряд
+ *   и отсортированы по символу, поэтому переход — двоичный поиск
+ * - Узел с диапазоном не больше {@code leafSize} (или на глубине {@code maxDepth}) — лист: оставшиеся
+ *   символы префикса проверяются просмотром его диапазона
+ * - Каждый узел хранит до {@code topK} индексов самых популярных заголовков поддерева, собранных
+ *   снизу вверх из детей, поэтому ответ для внутреннего узла не зависит от размера поддерева
+ *
+ * Все узлы — параллельные массивы примитивов, без объекта на узел; вес по id ищется
+ * двоичным поиском по перестановке, отсортированной по id.
+ */
+public final class TitleTrie {
+
+    private static final Comparator<Entry> MOST_POPULAR = Comparator
+            .comparingLong(Entry::weight).reversed()
+            .thenComparing(Comparator.comparingLong(Entry::id).reversed());
+
+    private static final TitleTrie EMPTY = build(List.of(), 1, 1, 1);
+
+    private final long[] ids;
+    private final String[] titles;
+    private final long[] weights;
+    private final int[] byId;
+
+    private final char[] labels;
+    private final int[] childStart;
+    private final int[] childCount;
+    private final int[] rangeFrom;
+    private final int[] rangeTo;
+    private final int[] topStart;
+    private final int[] top;
+
+    private TitleTrie(long[] ids, String[] titles, long[] weights, Builder builder) {
+        this.ids = ids;
+        this.titles = titles;
+        this.weights = weights;
+        this.byId = IntStream.range(0, ids.length).boxed()
+                .sorted(Comparator.comparingLong(i -> ids[i]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+        this.labels = Arrays.copyOf(builder.labels, builder.nodes);
+        this.childStart = Arrays.copyOf(builder.childStart, builder.nodes);
+        this.childCount = Arrays.copyOf(builder.childCount, builder.nodes);
+        this.rangeFrom = Arrays.copyOf(builder.rangeFrom, builder.nodes);
+        this.rangeTo = Arrays.copyOf(builder.rangeTo, builder.nodes);
+        this.topStart = Arrays.copyOf(builder.topStart, builder.nodes + 1);
+        this.top = Arrays.copyOf(builder.top, builder.topSize);
+    }
+
+    public static TitleTrie empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Строит дерево.
+     *
+     * @param entries  заголовки с весами
+     * @param topK     число лучших заголовков, хранимых в узле
+     * @param leafSize наибольший диапазон листа
+     * @param maxDepth наибольшая глубина узла
+     * @return дерево
+     */
+    public static TitleTrie build(Collection<Entry> entries, int topK, int leafSize, int maxDepth) {
+        Map<String, Entry> byKey = new HashMap<>();
+        for (Entry entry : entries) {
+            byKey.merge(fold(entry.title()), entry, (a, b) -> MOST_POPULAR.compare(a, b) <= 0 ? a : b);
+        }
+        List<Map.Entry<String, Entry>> sorted = new ArrayList<>(byKey.entrySet());
+        sorted.sort(Map.Entry.comparingByKey());
+
+        int size = sorted.size();
+        String[] keys = new String[size];
+        long[] ids = new long[size];
+        String[] titles = new String[size];
+        long[] weights = new long[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = sorted.get(i).getKey();
+            Entry entry = sorted.get(i).getValue();
+            ids[i] = entry.id();
+            titles[i] = entry.title();
+            weights[i] = entry.weight();
+        }
+
+        Builder builder = new Builder(keys, weights, ids, Math.max(1, topK), Math.max(1, leafSize), Math.max(1, maxDepth));
+        builder.build();
+        return new TitleTrie(ids, titles, weights, builder);
+    }
+
+    /**
+     * Приводит текст к ключу сравнения.
+     *
+     * @param text заголовок или введённый префикс
+     * @return ключ без учёта регистра, «ё» и повторных пробелов
+     */
+    public static String fold(String text) {
+        char[] key = new char[text.length()];
+        int length = 0;
+        boolean space = true;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                if (!space) {
+                    key[length++] = ' ';
+                    space = true;
+                }
+                continue;
+            }
+            c = Character.toLowerCase(c);
+            key[length++] = c == 'ё' ? 'е' : c;
+            space = false;
+        }
+        return new String(key, 0, length);
+    }
+
+    /**
+     * Возвращает самые популярные заголовки с заданным префиксом.
+     *
+     * @param prefix  ключ префикса ({@link #fold})
+     * @param limit   наибольшее число заголовков
+     * @param exclude id, которые нужно пропустить
+     * @return заголовки от популярных к менее популярным
+     */
+    public List<Entry> suggest(String prefix, int limit, LongPredicate exclude) {
+        List<Entry> result = new ArrayList<>(limit);
+        if (limit <= 0 || ids.length == 0) {
+            return result;
+        }
+        int node = 0;
+        for (int depth = 0; depth < prefix.length(); depth++) {
+            if (childCount[node] == 0) {
+                return scan(node, prefix, limit, exclude);
+            }
+            node = child(node, prefix.charAt(depth));
+            if (node < 0) {
+                return result;
+            }
+        }
+        for (int i = topStart[node]; i < topStart[node + 1] && result.size() < limit; i++) {
+            int entry = top[i];
+            if (!exclude.test(ids[entry])) {
+                result.add(entry(entry));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return все заголовки дерева
+     */
+    public List<Entry> entries() {
+        List<Entry> entries = new ArrayList<>(ids.length);
+        for (int i = 0; i < ids.length; i++) {
+            entries.add(entry(i));
+        }
+        return entries;
+    }
+
+    /**
+     * @return вес заголовка новости или {@code -1}, если её нет в дереве
+     */
+    public long weightOf(long id) {
+        int from = 0;
+        int to = byId.length - 1;
+        while (from <= to) {
+            int mid = (from + to) >>> 1;
+            long midId = ids[byId[mid]];
+            if (midId < id) {
+                from = mid + 1;
+            } else if (midId > id) {
+                to = mid - 1;
+            } else {
+                return weights[byId[mid]];
+            }
+        }
+        return -1;
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public int nodeCount() {
+        return labels.length;
+    }
+
+    private int child(int node, char label) {
+        int from = childStart[node];
+        int to = from + childCount[node] - 1;
+        while (from <= to) {
+            int mid = (from + to) >>> 1;
+            char midLabel = labels[mid];
+            if (midLabel < label) {
+                from = mid + 1;
+            } else if (midLabel > label) {
+                to = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private List<Entry> scan(int node, String prefix, int limit, LongPredicate exclude) {
+        List<Entry> matches = new ArrayList<>();
+        for (int i = rangeFrom[node]; i < rangeTo[node]; i++) {
+            if (!exclude.test(ids[i]) && fold(titles[i]).startsWith(prefix)) {
+                matches.add(entry(i));
+            }
+        }
+        matches.sort(MOST_POPULAR);
+        return matches.size() > limit ? new ArrayList<>(matches.subList(0, limit)) : matches;
+    }
+
+    private Entry entry(int index) {
+        return new Entry(ids[index], titles[index], weights[index]);
+    }
+
+    /**
+     * Заголовок новости с весом популярности.
+     *
+     * @param id     идентификатор новости
+     * @param title  заголовок
+     * @param weight популярность (больше — выше в подсказках)
+     */
+    public record Entry(long id, String title, long weight) {
+    }
+
+    /**
+     * Построение узлов в растущих массивах.
+     */
+    private static final class Builder {
+
+        private final String[] keys;
+        private final long[] weights;
+        private final long[] ids;
+        private final int topK;
+        private final int leafSize;
+        private final int maxDepth;
+
+        private char[] labels = new char[16];
+        private int[] childStart = new int[16];
+        private int[] childCount = new int[16];
+        private int[] rangeFrom = new int[16];
+        private int[] rangeTo = new int[16];
+        private int[][] nodeTop = new int[16][];
+        private int nodes;
+
+        private int[] topStart;
+        private int[] top;
+        private int topSize;
+
+        Builder(String[] keys, long[] weights, long[] ids, int topK, int leafSize, int maxDepth) {
+            this.keys = keys;
+            this.weights = weights;
+            this.ids = ids;
+            this.topK = topK;
+            this.leafSize = leafSize;
+            this.maxDepth = maxDepth;
+        }
+
+        void build() {
+            int root = allocate((char) 0, 0, keys.length);
+            fill(root, 0);
+
+            topStart = new int[nodes + 1];
+            top = new int[Arrays.stream(nodeTop, 0, nodes).mapToInt(t -> t.length).sum()];
+            for (int node = 0; node < nodes; node++) {
+                topStart[node] = topSize;
+                System.arraycopy(nodeTop[node], 0, top, topSize, nodeTop[node].length);
+                topSize += nodeTop[node].length;
+            }
+            topStart[nodes] = topSize;
+        }
+
+        private void fill(int node, int depth) {
+            int from = rangeFrom[node];
+            int to = rangeTo[node];
+            if (to - from <= leafSize || depth >= maxDepth) {
+                nodeTop[node] = best(from, to);
+                return;
+            }
+
+            int first = from;
+            int terminal = -1;
+            if (keys[first].length() == depth) {
+                terminal = first++;
+            }
+            int groups = 0;
+            for (int i = first; i < to; i++) {
+                if (i == first || keys[i].charAt(depth) != keys[i - 1].charAt(depth)) {
+                    groups++;
+                }
+            }
+
+            int start = nodes;
+            for (int i = first, groupFrom = first; i <= to; i++) {
+                if (i > groupFrom && (i == to || keys[i].charAt(depth) != keys[groupFrom].charAt(depth))) {
+                    allocate(keys[groupFrom].charAt(depth), groupFrom, i);
+                    groupFrom = i;
+                }
+            }
+            childStart[node] = start;
+            childCount[node] = groups;
+
+            int candidateCount = terminal >= 0 ? 1 : 0;
+            for (int child = start; child < start + groups; child++) {
+                fill(child, depth + 1);
+                candidateCount += nodeTop[child].length;
+            }
+            int[] candidates = new int[candidateCount];
+            int length = 0;
+            if (terminal >= 0) {
+                candidates[length++] = terminal;
+            }
+            for (int child = start; child < start + groups; child++) {
+                System.arraycopy(nodeTop[child], 0, candidates, length, nodeTop[child].length);
+                length += nodeTop[child].length;
+            }
+            candidates = best(candidates);
+            nodeTop[node] = candidates;
+        }
+
+        private int allocate(char label, int from, int to) {
+            if (nodes == labels.length) {
+                int capacity = nodes * 2;
+                labels = Arrays.copyOf(labels, capacity);
+                childStart = Arrays.copyOf(childStart, capacity);
+                childCount = Arrays.copyOf(childCount, capacity);
+                rangeFrom = Arrays.copyOf(rangeFrom, capacity);
+                rangeTo = Arrays.copyOf(rangeTo, capacity);
+                nodeTop = Arrays.copyOf(nodeTop, capacity);
+            }
+            labels[nodes] = label;
+            rangeFrom[nodes] = from;
+            rangeTo[nodes] = to;
+            return nodes++;
+        }
+
+        private int[] best(int from, int to) {
+            int[] range = new int[to - from];
+            for (int i = 0; i < range.length; i++) {
+                range[i] = from + i;
+            }
+            return best(range);
+        }
+
+        private int[] best(int[] candidates) {
+            int[] best = new int[Math.min(topK, candidates.length)];
+            int size = 0;
+            for (int candidate : candidates) {
+                if (size == best.length && !morePopular(candidate, best[size - 1])) {
+                    continue;
+                }
+                int i = size == best.length ? size - 1 : size++;
+                while (i > 0 && morePopular(candidate, best[i - 1])) {
+                    best[i] = best[i - 1];
+                    i--;
+                }
+                best[i] = candidate;
+            }
+            return best;
+        }
+
+        private boolean morePopular(int a, int b) {
+            return weights[a] != weights[b] ? weights[a] > weights[b] : ids[a] > ids[b];
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package by.mosquitto.timing;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Разбивка времени обработки HTTP-запроса по фазам для заголовка {@code Server-Timing}.
+ *
+ * Фазы:
+ * - {@code pool} — ожидание соединения из пула
+ * - {@code db} — выполнение SQL-выражений
+ * - {@code map} — маппинг сущностей в DTO
+ * - {@code ser} — сериализация ответа в JSON
+ * - {@code repo} — отдельные вызовы репозиториев (включают db и загрузку сущностей Hibernate)
+ *
+ * Контекст привязан к потоку обработки запроса фильтром {@code ServerTimingFilter};
+ * вне запроса все методы записи ничего не делают.
+ */
+public final class RequestTimings {
+
+    /** Значение {@link #begin()}, когда замер не ведётся. */
+    public static final long NOT_MEASURED = Long.MIN_VALUE;
+
+    private static final ThreadLocal<RequestTimings> CURRENT = new ThreadLocal<>();
+    private static final int MAX_REPOSITORY_CALLS = 16;
+
+    @Getter
+    @RequiredArgsConstructor
+    public enum Phase {
+        POOL("pool", "acquires"),
+        DB("db", "statements"),
+        MAP("map", "objects"),
+        SER("ser", null);
+
+        private final String metric;
+        private final String unit;
+    }
+
+    @Getter
+    private final String request;
+    private final long startedAt = System.nanoTime();
+    private final long[] nanos = new long[Phase.values().length];
+    private final int[] counts = new int[Phase.values().length];
+    private final long[] opened = new long[Phase.values().length];
+    private final List<RepositoryCall> repositoryCalls = new ArrayList<>();
+
+    private RequestTimings(String request) {
+        this.request = request;
+    }
+
+    /**
+     * Начинает замер для текущего потока.
+     *
+     * @param request описание запроса для журналов (метод и URI)
+     * @return контекст замера
+     */
+    public static RequestTimings start(String request) {
+        RequestTimings timings = new RequestTimings(request);
+        CURRENT.set(timings);
+        return timings;
+    }
+
+    public static void stop() {
+        CURRENT.remove();
+    }
+
+    /**
+     * @return контекст замера текущего потока или {@code null}
+     */
+    public static RequestTimings current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Отметка начала фазы; дешёвая вне запроса.
+     *
+     * @return текущее время в наносекундах или {@link #NOT_MEASURED}
+     */
+    public static long begin() {
+        return CURRENT.get() != null ? System.nanoTime() : NOT_MEASURED;
+    }
+
+    /**
+     * Завершает фазу, начатую {@link #begin()}.
+     */
+    public static void end(Phase phase, long begin) {
+        if (begin == NOT_MEASURED) {
+            return;
+        }
+        RequestTimings timings = CURRENT.get();
+        if (timings != null) {
+            timings.add(phase, System.nanoTime() - begin);
+        }
+    }
+
+    public void add(Phase phase, long elapsedNanos) {
+        nanos[phase.ordinal()] += elapsedNanos;
+        counts[phase.ordinal()]++;
+    }
+
+    /**
+     * Открывает фазу, которая будет закрыта {@link #close(Phase)} в другом обратном вызове
+     * (например, до и после выполнения SQL-выражения).
+     */
+    public void open(Phase phase) {
+        opened[phase.ordinal()] = System.nanoTime();
+    }
+
+    public void close(Phase phase) {
+        long start = opened[phase.ordinal()];
+        if (start != 0) {
+            opened[phase.ordinal()] = 0;
+            add(phase, System.nanoTime() - start);
+        }
+    }
+
+    public void addRepositoryCall(String name, long elapsedNanos) {
+        if (repositoryCalls.size() < MAX_REPOSITORY_CALLS) {
+            repositoryCalls.add(new RepositoryCall(name, elapsedNanos));
+        }
+    }
+
+    /**
+     * Значение заголовка {@code Server-Timing}.
+     *
+     * @return метрики через запятую, например {@code db;dur=1.20;desc="2 statements", total;dur=3.40}
+     */
+    public String toHeaderValue() {
+        StringBuilder header = new StringBuilder();
+        for (Phase phase : Phase.values()) {
+            int count = counts[phase.ordinal()];
+            if (count == 0) {
+                continue;
+            }
+            appendMetric(header, phase.getMetric(), nanos[phase.ordinal()],
+                    phase.getUnit() == null ? null : count + " " + phase.getUnit());
+        }
+        for (RepositoryCall call : repositoryCalls) {
+            appendMetric(header, "repo", call.nanos(), call.name());
+        }
+        appendMetric(header, "total", System.nanoTime() - startedAt, null);
+        return header.toString();
+    }
+
+    private static void appendMetric(StringBuilder header, String name, long nanos, String description) {
+        if (!header.isEmpty()) {
+            header.append(", ");
+        }
+        header.append(name).append(";dur=").append(String.format(Locale.ROOT, "%.2f", nanos / 1_000_000.0));
+        if (description != null) {
+            header.append(";desc=\"").append(description).append('"');
+        }
+    }
+
+    private record RepositoryCall(String name, long nanos) {
+    }
+}
@@ -0,0 +1,126 @@
+package by.mosquitto.web;
+
+import by.mosquitto.limit.AdaptiveConcurrencyLimiter;
+import by.mosquitto.limit.ConcurrencyLimits;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Фильтр, ограничивающий число одновременно выполняемых запросов к API адаптивным лимитом
+ * {@link ConcurrencyLimits}.
+ *
+ * Запрос сверх лимита сразу получает 503 с заголовком Retry-After, не занимая соединение пула
+ * и не дожидаясь таймаута. Время ответа принятых запросов (включая асинхронные)
+ * подстраивает лимит.
+ *
+ * Не ограничиваются:
+ * - {@code /api/admin/**} — управление должно работать и под перегрузкой
+ * - Потоки SSE ({@code .../stream}) — долгоживущие соединения без осмысленного времени ответа
+ * - Ответы из {@link ResponseCacheFilter}, который стоит раньше и не обращается к БД
+ *
+ * Включается {@code app.concurrency-limit.enabled=true}.
+ */
+@Slf4j
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 50)
+@ConditionalOnProperty(name = "app.concurrency-limit.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final String API_PREFIX = "/api/";
+    private static final String ADMIN_PREFIX = "/api/admin/";
+    private static final String STREAM_SUFFIX = "/stream";
+
+    private final ConcurrencyLimits limits;
+    private final ObjectMapper objectMapper;
+    private final UrlPathHelper pathHelper = new UrlPathHelper();
+
+    @Value("${app.concurrency-limit.retry-after-seconds:1}")
+    private long retryAfterSeconds;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = pathHelper.getPathWithinApplication(request);
+        return !path.startsWith(API_PREFIX) || path.startsWith(ADMIN_PREFIX) || path.endsWith(STREAM_SUFFIX);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        AdaptiveConcurrencyLimiter limiter = limits.forMethod(request.getMethod());
+        long start = limiter.tryAcquire();
+        if (start < 0) {
+            reject(limiter, request, response);
+            return;
+        }
+
+        AtomicBoolean released = new AtomicBoolean();
+        Runnable release = () -> {
+            if (released.compareAndSet(false, true)) {
+                limiter.release(start);
+            }
+        };
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleasingListener(release));
+            } else {
+                release.run();
+            }
+        }
+    }
+
+    private void reject(AdaptiveConcurrencyLimiter limiter, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        log.debug("Concurrency limit '{}' reached ({}), rejecting {} {}",
+                limiter.getName(), limiter.getLimit(), request.getMethod(), request.getRequestURI());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        ErrorResponses.write(objectMapper, request, response, HttpStatus.SERVICE_UNAVAILABLE, "Server is overloaded, retry later");
+    }
+
+    /**
+     * Освобождает разрешение по завершении асинхронной обработки.
+     */
+    private record ReleasingListener(Runnable release) implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release.run();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release.run();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release.run();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package by.mosquitto.web;
+
+import by.mosquitto.sql.QueryStats;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.WebUtils;
+
+import java.io.IOException;
+
+/**
+ * Отладочный фильтр, добавляющий в ответ заголовок {@value #HEADER}
+ * с числом SQL-выражений, прочитанных строк и ленивых загрузок за время запроса.
+ *
+ * Включается {@code app.debug.query-stats.enabled=true}. Ответ буферизуется целиком,
+ * чтобы в счётчики попали и загрузки во время сериализации; SSE-потоки не оборачиваются
+ * и получают счётчики только в логе. Асинхронный ответ (поиск) дописывается и получает заголовок
+ * при асинхронной диспетчеризации; выражения, выполненные в других потоках, в счётчики не входят.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@ConditionalOnProperty(name = "app.debug.query-stats.enabled", havingValue = "true")
+public class QueryStatsFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-Query-Stats";
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        QueryStats stats = QueryStats.start();
+        try {
+            if (isEventStream(request)) {
+                chain.doFilter(request, response);
+                return;
+            }
+            ContentCachingResponseWrapper wrapper = WebUtils.getNativeResponse(response, ContentCachingResponseWrapper.class);
+            if (wrapper == null) {
+                wrapper = new ContentCachingResponseWrapper(response);
+            }
+            chain.doFilter(request, wrapper);
+            if (isAsyncStarted(request)) {
+                return;
+            }
+            wrapper.setHeader(HEADER, stats.toHeaderValue());
+            wrapper.copyBodyToResponse();
+        } finally {
+            QueryStats.stop();
+            log.debug("{} {} — {}", request.getMethod(), request.getRequestURI(), stats.toHeaderValue());
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    private static boolean isEventStream(HttpServletRequest request) {
+        String accept = request.getHeader("Accept");
+        return request.getRequestURI().endsWith("/stream")
+                || accept != null && accept.contains(MediaType.TEXT_EVENT_STREAM_VALUE);
+    }
+}
@@ -0,0 +1,90 @@
+package by.mosquitto.web;
+
+import by.mosquitto.limit.RateLimiter;
+import by.mosquitto.limit.RateLimiter.Decision;
+import by.mosquitto.limit.RateLimiters;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.PathContainer;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.io.IOException;
+
+/**
+ * Фильтр, ограничивающий частоту запросов клиента к группам эндпоинтов {@link RateLimiters}.
+ *
+ * Клиент — аутентифицированный пользователь, иначе адрес из {@link HttpServletRequest#getRemoteAddr()}
+ * (за прокси адрес клиента подставляет {@code server.forward-headers-strategy}).
+ * Ответы ограниченных групп получают заголовки {@code RateLimit-Limit}, {@code RateLimit-Remaining},
+ * {@code RateLimit-Reset} и {@code RateLimit-Policy}; сверх лимита — 429 с Retry-After.
+ *
+ * Стоит после Spring Security (нужен пользователь) и до {@link ResponseCacheFilter}
+ * и {@link ConcurrencyLimitFilter}: отклонённый запрос не занимает лимит конкурентности.
+ * Включается {@code app.rate-limit.enabled=true}.
+ */
+@Slf4j
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 200)
+@ConditionalOnProperty(name = "app.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    public static final String LIMIT_HEADER = "RateLimit-Limit";
+    public static final String REMAINING_HEADER = "RateLimit-Remaining";
+    public static final String RESET_HEADER = "RateLimit-Reset";
+    public static final String POLICY_HEADER = "RateLimit-Policy";
+
+    private final RateLimiters limiters;
+    private final ObjectMapper objectMapper;
+    private final UrlPathHelper pathHelper = new UrlPathHelper();
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        PathContainer path = PathContainer.parsePath(pathHelper.getPathWithinApplication(request));
+        RateLimiter limiter = limiters.find(request.getMethod(), path);
+        if (limiter == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        String client = clientKey(request);
+        Decision decision = limiter.tryAcquire(client);
+        response.setHeader(LIMIT_HEADER, String.valueOf(limiter.getCapacity()));
+        response.setHeader(REMAINING_HEADER, String.valueOf(decision.remaining()));
+        response.setHeader(RESET_HEADER, String.valueOf(decision.resetSeconds()));
+        response.setHeader(POLICY_HEADER, limiter.policyHeader());
+        if (decision.allowed()) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        log.debug("Rate limit '{}' exceeded by {} at {}", limiter.getName(), client, request.getRequestURI());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(decision.resetSeconds()));
+        ErrorResponses.write(objectMapper, request, response, HttpStatus.TOO_MANY_REQUESTS, "Rate limit exceeded, retry later");
+    }
+
+    private static String clientKey(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return "user:" + authentication.getName();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+}
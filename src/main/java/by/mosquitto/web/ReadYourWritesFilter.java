@@ -0,0 +1,97 @@
+package by.mosquitto.web;
+
+import by.mosquitto.sql.ReadYourWrites;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read-your-writes при чтении с реплик.
+ *
+ * После фиксации пишущей транзакции клиент получает cookie {@value #COOKIE} со сроком
+ * {@code app.datasource.replica.read-your-writes-millis}; пока срок не истёк, его чтения идут
+ * на основную БД. Оставшиеся чтения того же запроса тоже переключаются на основную БД;
+ * записи вне HTTP-запроса (фоновые потоки) признак не выставляют.
+ * Включается вместе с репликами ({@code app.datasource.replica.enabled=true}).
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 20)
+@ConditionalOnProperty(name = "app.datasource.replica.enabled", havingValue = "true")
+public class ReadYourWritesFilter extends OncePerRequestFilter implements TransactionExecutionListener {
+
+    public static final String COOKIE = "rw-primary-until";
+
+    private static final String COOKIE_SET_ATTRIBUTE = ReadYourWritesFilter.class.getName() + ".cookieSet";
+
+    @Value("${app.datasource.replica.read-your-writes-millis:5000}")
+    private long windowMillis;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (recentlyWrote(request)) {
+            ReadYourWrites.requirePrimary();
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReadYourWrites.clear();
+        }
+    }
+
+    @Override
+    public void afterCommit(TransactionExecution transaction, Throwable commitFailure) {
+        if (commitFailure != null || transaction.isReadOnly()
+                || !(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return;
+        }
+        ReadYourWrites.requirePrimary();
+        if (attributes.getResponse() != null
+                && attributes.getRequest().getAttribute(COOKIE_SET_ATTRIBUTE) == null
+                && !attributes.getResponse().isCommitted()) {
+            attributes.getRequest().setAttribute(COOKIE_SET_ATTRIBUTE, Boolean.TRUE);
+            ResponseCookie cookie = ResponseCookie.from(COOKIE, String.valueOf(System.currentTimeMillis() + windowMillis))
+                    .path("/")
+                    .maxAge(Duration.ofSeconds(TimeUnit.MILLISECONDS.toSeconds(windowMillis) + 1))
+                    .httpOnly(true)
+                    .sameSite("Lax")
+                    .build();
+            attributes.getResponse().addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+        }
+    }
+
+    private static boolean recentlyWrote(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return false;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue()) > System.currentTimeMillis();
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+}
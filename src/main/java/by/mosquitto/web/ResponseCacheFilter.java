@@ -0,0 +1,222 @@
+package by.mosquitto.web;
+
+import by.mosquitto.cache.ResponseByteCache;
+import by.mosquitto.cache.ResponseByteCache.CachedResponse;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Фильтр, отдающий горячие GET-эндпоинты новостей из {@link ResponseByteCache}.
+ *
+ * Кэшируются:
+ * - {@code /api/news/{id}} без параметров запроса
+ * - {@code /api/news/paged} для страниц не глубже {@code app.cache.response.max-page} и не длиннее
+ *   {@code max-page-size} только с параметрами {@code page}, {@code size}, {@code sortBy}, {@code direction}:
+ *   посторонние параметры не порождают новых ключей, а страницы с комментариями
+ *   ({@code withCommentStats}, {@code previewComments}) меняются с каждым комментарием,
+ *   тогда как кэш сбрасывается только изменениями новостей
+ *
+ * При попадании байты пишутся прямо в выходной поток сервлета, минуя контроллер,
+ * маппер и Jackson; поддерживаются {@code If-None-Match} (список тегов и {@code *}, слабое сравнение) и gzip
+ * по {@code Accept-Encoding} с учётом q-значений.
+ * При промахе ответ буферизуется, получает ETag и сохраняется в кэш.
+ * Стоит раньше {@link ConcurrencyLimitFilter}: попадания в кэш не занимают лимит.
+ */
+@Slf4j
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 100)
+@RequiredArgsConstructor
+public class ResponseCacheFilter extends OncePerRequestFilter {
+
+    private static final Pattern NEWS_BY_ID = Pattern.compile("^/api/news/(\\d+)$");
+    private static final String NEWS_PAGED = "/api/news/paged";
+    private static final Set<String> PAGED_PARAMETERS = Set.of("page", "size", "sortBy", "direction");
+    private static final String ANY_TAG = "*";
+    private static final String WEAK_PREFIX = "W/";
+    private static final String GZIP = "gzip";
+    private static final String ANY_CODING = "*";
+
+    private final ResponseByteCache cache;
+    private final UrlPathHelper pathHelper = new UrlPathHelper();
+
+    @Value("${app.cache.response.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.cache.response.max-page:2}")
+    private int maxPage;
+
+    @Value("${app.cache.response.max-page-size:50}")
+    private int maxPageSize;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !HttpMethod.GET.matches(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String path = pathHelper.getPathWithinApplication(request);
+        Matcher byId = NEWS_BY_ID.matcher(path);
+        Long newsId;
+        if (byId.matches() && request.getQueryString() == null) {
+            newsId = Long.valueOf(byId.group(1));
+        } else if (NEWS_PAGED.equals(path) && isHotPage(request)) {
+            newsId = null;
+        } else {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        String key = request.getQueryString() == null ? path : path + '?' + request.getQueryString();
+        CachedResponse cached = cache.get(key);
+        if (cached != null) {
+            log.debug("Response cache hit: {}", key);
+            write(cached, request, response);
+            return;
+        }
+
+        long generation = cache.generation();
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        chain.doFilter(request, wrapper);
+
+        if (wrapper.getStatus() == HttpServletResponse.SC_OK && isJson(wrapper.getContentType())) {
+            CachedResponse stored = cache.put(key, newsId, generation, wrapper.getContentAsByteArray(),
+                    wrapper.getContentType(), wrapper.getHeader(HttpHeaders.ETAG));
+            wrapper.setHeader(HttpHeaders.ETAG, stored.etag());
+            wrapper.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+        wrapper.copyBodyToResponse();
+    }
+
+    private boolean isHotPage(HttpServletRequest request) {
+        Map<String, String[]> parameters = request.getParameterMap();
+        if (!PAGED_PARAMETERS.containsAll(parameters.keySet())
+                || parameters.values().stream().anyMatch(values -> values.length != 1)) {
+            return false;
+        }
+        return isAtMost(request.getParameter("page"), maxPage) && isAtMost(request.getParameter("size"), maxPageSize);
+    }
+
+    private static boolean isAtMost(String value, int max) {
+        if (value == null) {
+            return true;
+        }
+        try {
+            return Integer.parseInt(value) <= max;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Проверяет {@code If-None-Match}: список тегов через запятую или {@code *}; сравнение слабое (RFC 9110).
+     *
+     * @param ifNoneMatch значение заголовка или {@code null}
+     * @param etag        ETag закэшированного ответа
+     * @return {@code true}, если клиенту можно ответить 304
+     */
+    static boolean matchesIfNoneMatch(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String opaque = stripWeak(etag);
+        for (String tag : ifNoneMatch.split(",")) {
+            String candidate = tag.trim();
+            if (ANY_TAG.equals(candidate) || stripWeak(candidate).equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String stripWeak(String tag) {
+        return tag.startsWith(WEAK_PREFIX) ? tag.substring(WEAK_PREFIX.length()) : tag;
+    }
+
+    private static boolean isJson(String contentType) {
+        return contentType != null && MediaType.APPLICATION_JSON.isCompatibleWith(MediaType.parseMediaType(contentType));
+    }
+
+    private static void write(CachedResponse cached, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        response.setHeader(HttpHeaders.ETAG, cached.etag());
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+        if (matchesIfNoneMatch(request.getHeader(HttpHeaders.IF_NONE_MATCH), cached.etag())) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        byte[] body = cached.identity();
+        if (cached.gzip() != null && acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING))) {
+            body = cached.gzip();
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, GZIP);
+        }
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(cached.contentType());
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    /**
+     * Проверяет, принимает ли клиент gzip: кодировка {@code gzip} или {@code *} с ненулевым q-значением
+     * (RFC 9110, 12.5.3); явно указанный {@code gzip} важнее {@code *}.
+     *
+     * @param acceptEncoding значение заголовка {@code Accept-Encoding} или {@code null}
+     * @return {@code true}, если можно отдать gzip-тело
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        double gzip = -1;
+        double any = -1;
+        for (String element : acceptEncoding.split(",")) {
+            String[] parts = element.split(";");
+            String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+            if (GZIP.equals(coding)) {
+                gzip = qValue(parts);
+            } else if (ANY_CODING.equals(coding)) {
+                any = qValue(parts);
+            }
+        }
+        return gzip >= 0 ? gzip > 0 : any > 0;
+    }
+
+    private static double qValue(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+            int eq = parameter.indexOf('=');
+            if (eq > 0 && "q".equalsIgnoreCase(parameter.substring(0, eq).trim())) {
+                try {
+                    return Double.parseDouble(parameter.substring(eq + 1).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,45 @@
+package by.mosquitto.web;
+
+import by.mosquitto.timing.RequestTimings;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Фильтр, собирающий разбивку времени запроса {@link RequestTimings} и отдающий её
+ * в заголовке {@value #HEADER}.
+ *
+ * Для JSON-ответов заголовок выставляет {@link TimingJsonConverter} перед записью тела
+ * (с учётом сериализации); для ответов без тела — сам фильтр после обработки запроса.
+ * Асинхронные ответы (поиск) заголовок не получают: работа идёт вне потока запроса.
+ * Включается {@code app.timing.enabled=true}.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 5)
+@ConditionalOnProperty(name = "app.timing.enabled", havingValue = "true", matchIfMissing = true)
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Server-Timing";
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestTimings timings = RequestTimings.start(request.getMethod() + " " + request.getRequestURI());
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            RequestTimings.stop();
+            if (!request.isAsyncStarted() && !response.isCommitted() && !response.containsHeader(HEADER)) {
+                response.setHeader(HEADER, timings.toHeaderValue());
+            }
+        }
+    }
+}
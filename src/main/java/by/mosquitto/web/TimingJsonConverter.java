@@ -0,0 +1,95 @@
+package by.mosquitto.web;
+
+import by.mosquitto.timing.RequestTimings;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+
+/**
+ * JSON-конвертер, измеряющий время сериализации ответа для заголовка {@code Server-Timing}.
+ *
+ * Тело сериализуется в буфер, чтобы заголовок с фазой {@code ser} успел уйти до тела.
+ * Если ответ больше {@code app.timing.buffer-limit-bytes}, буфер сбрасывается в поток ответа,
+ * заголовок отправляется без фазы сериализации, а остаток тела пишется напрямую.
+ * Вне запроса с замером (например, события SSE) работает как стандартный конвертер.
+ */
+@Component
+public class TimingJsonConverter extends MappingJackson2HttpMessageConverter {
+
+    @Value("${app.timing.buffer-limit-bytes:262144}")
+    private int bufferLimit;
+
+    public TimingJsonConverter(ObjectMapper objectMapper) {
+        super(objectMapper);
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+        RequestTimings timings = RequestTimings.current();
+        if (timings == null) {
+            super.writeInternal(object, type, outputMessage);
+            return;
+        }
+        SpillingBody body = new SpillingBody(outputMessage, timings);
+        long start = System.nanoTime();
+        super.writeInternal(object, type, new HttpOutputMessage() {
+            @Override
+            public OutputStream getBody() {
+                return body;
+            }
+
+            @Override
+            public HttpHeaders getHeaders() {
+                return outputMessage.getHeaders();
+            }
+        });
+        timings.add(RequestTimings.Phase.SER, System.nanoTime() - start);
+        if (!body.spilled) {
+            outputMessage.getHeaders().set(ServerTimingFilter.HEADER, timings.toHeaderValue());
+            body.buffer.writeTo(outputMessage.getBody());
+        }
+    }
+
+    private final class SpillingBody extends OutputStream {
+
+        private final HttpOutputMessage outputMessage;
+        private final RequestTimings timings;
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(1024);
+        private boolean spilled;
+
+        private SpillingBody(HttpOutputMessage outputMessage, RequestTimings timings) {
+            this.outputMessage = outputMessage;
+            this.timings = timings;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            if (spilled) {
+                outputMessage.getBody().write(bytes, offset, length);
+                return;
+            }
+            if (buffer.size() + length <= bufferLimit) {
+                buffer.write(bytes, offset, length);
+                return;
+            }
+            spilled = true;
+            outputMessage.getHeaders().set(ServerTimingFilter.HEADER, timings.toHeaderValue());
+            OutputStream target = outputMessage.getBody();
+            buffer.writeTo(target);
+            target.write(bytes, offset, length);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+-- Журнал изменений не входил в исходную схему; версия 1.1 идёт раньше V5, которая его дополняет
+
+-- Журнал изменений для дельта-синхронизации (без FK: tombstone-записи переживают удаление)
+CREATE TABLE IF NOT EXISTS change_log (
+                                          id BIGSERIAL PRIMARY KEY,
+                                          entity_type VARCHAR(20) NOT NULL,
+    entity_id BIGINT NOT NULL,
+    news_id BIGINT,
+    operation VARCHAR(10) NOT NULL,
+    changed_at TIMESTAMP NOT NULL
+    );
+
+CREATE INDEX IF NOT EXISTS idx_change_log_news_id ON change_log (news_id, id);
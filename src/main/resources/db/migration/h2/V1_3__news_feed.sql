@@ -0,0 +1,14 @@
+-- Витрина ленты новостей (CQRS read model): денормализованные строки, поддерживаемые в транзакциях записи
+CREATE TABLE IF NOT EXISTS news_feed (
+    news_id BIGINT PRIMARY KEY,
+    title VARCHAR(150) NOT NULL,
+    excerpt VARCHAR(200) NOT NULL,
+    author_id BIGINT NOT NULL,
+    author_name VARCHAR(101) NOT NULL,
+    comment_count BIGINT NOT NULL,
+    creation_date TIMESTAMP,
+    last_activity TIMESTAMP NOT NULL
+    );
+
+CREATE INDEX IF NOT EXISTS idx_news_feed_activity ON news_feed (last_activity, news_id);
+CREATE INDEX IF NOT EXISTS idx_news_feed_author ON news_feed (author_id);
@@ -1,3 +1,7 @@
+-- Исходная схема до перехода на миграции: только app_user, news и comments.
+-- Базы, созданные прежним schema.sql или скриптами из util/, принимаются за эту версию (baseline-on-migrate),
+-- поэтому всё, что появилось позже, добавляется следующими версиями.
+
 -- Таблица пользователей
 CREATE TABLE IF NOT EXISTS app_user (
                                         id BIGSERIAL PRIMARY KEY,
@@ -0,0 +1,10 @@
+-- Индексы под запросы репозиториев (профиль bench и тесты на H2).
+-- Комментарии новости (findByNewsId) и превью читаются по idx_comments_news_created (news_id, creation_date, id) из V1.2,
+-- новости и комментарии автора — по idx_news_author_created и idx_comments_author_created.
+-- Триграммных индексов в H2 нет: поиск LIKE '%...%' остаётся полным просмотром.
+
+-- Сортировка /api/news/paged по умолчанию
+CREATE INDEX IF NOT EXISTS idx_news_creation_date ON news (creation_date);
+
+-- FK на редактора: ON DELETE SET NULL и очистка витрины при удалении пользователя
+CREATE INDEX IF NOT EXISTS idx_news_updated_by ON news (updated_by_user);
@@ -0,0 +1,20 @@
+-- Порядковый номер изменения в порядке фиксации: выдаётся фоновой задачей только закоммиченным строкам,
+-- поэтому токен клиента не может обогнать строку, закоммиченную позже. Старые строки получают номер = id,
+-- и выданные ранее токены остаются действительными
+ALTER TABLE change_log ADD COLUMN seq BIGINT;
+UPDATE change_log SET seq = id;
+
+CREATE UNIQUE INDEX IF NOT EXISTS idx_change_log_seq ON change_log (seq);
+CREATE INDEX IF NOT EXISTS idx_change_log_news_seq ON change_log (news_id, seq);
+CREATE INDEX IF NOT EXISTS idx_change_log_changed_at ON change_log (changed_at);
+DROP INDEX IF EXISTS idx_change_log_news_id;
+
+-- Последний выданный номер и граница удалённой по сроку хранения части журнала; строка блокируется
+-- на время нумерации, что упорядочивает узлы кластера
+CREATE TABLE IF NOT EXISTS change_log_sequence (
+    id INT PRIMARY KEY,
+    last_seq BIGINT NOT NULL,
+    purged_seq BIGINT NOT NULL
+);
+
+INSERT INTO change_log_sequence (id, last_seq, purged_seq) SELECT 1, COALESCE(MAX(id), 0), 0 FROM change_log;
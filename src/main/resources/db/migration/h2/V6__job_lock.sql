@@ -0,0 +1,7 @@
+-- Блокировки фоновых задач кластера: задача блокирует свою строку (SELECT ... FOR UPDATE) на всё время
+-- выполнения, и узлы выполняют её по очереди. news_feed_rebuild — перестройка витрины ленты
+CREATE TABLE IF NOT EXISTS job_lock (
+    name VARCHAR(100) PRIMARY KEY
+);
+
+INSERT INTO job_lock (name) VALUES ('news_feed_rebuild');
@@ -0,0 +1,13 @@
+-- Журнал изменений не входил в исходную схему; версия 1.1 идёт раньше V5, которая его дополняет
+
+-- Журнал изменений для дельта-синхронизации
+CREATE TABLE change_log (
+    id NUMBER GENERATED BY DEFAULT ON NULL AS IDENTITY PRIMARY KEY,
+    entity_type VARCHAR2(20) NOT NULL,
+    entity_id NUMBER NOT NULL,
+    news_id NUMBER,
+    operation VARCHAR2(10) NOT NULL,
+    changed_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_change_log_news_id ON change_log (news_id, id);
@@ -0,0 +1,8 @@
+-- Составные индексы для keyset-чтения, которых не было в исходной схеме
+
+-- Лента активности пользователя: keyset-чтение по автору
+CREATE INDEX idx_news_author_created ON news (created_by_user, creation_date, id);
+CREATE INDEX idx_comments_author_created ON comments (created_by_user, creation_date, id);
+
+-- Комментарии новости и превью последних комментариев в ленте
+CREATE INDEX idx_comments_news_created ON comments (news_id, creation_date, id);
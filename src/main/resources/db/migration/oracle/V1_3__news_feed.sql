@@ -0,0 +1,14 @@
+-- Витрина ленты новостей (CQRS read model): денормализованные строки, поддерживаемые в транзакциях записи
+CREATE TABLE news_feed (
+    news_id NUMBER PRIMARY KEY,
+    title VARCHAR2(150) NOT NULL,
+    excerpt VARCHAR2(200 CHAR) NOT NULL,
+    author_id NUMBER NOT NULL,
+    author_name VARCHAR2(101) NOT NULL,
+    comment_count NUMBER NOT NULL,
+    creation_date TIMESTAMP,
+    last_activity TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_news_feed_activity ON news_feed (last_activity, news_id);
+CREATE INDEX idx_news_feed_author ON news_feed (author_id);
@@ -0,0 +1,40 @@
+-- Исходная схема до перехода на миграции: только app_user, news и comments.
+-- Базы, созданные прежним schema.sql или скриптами из util/, принимаются за эту версию (baseline-on-migrate),
+-- поэтому всё, что появилось позже, добавляется следующими версиями.
+
+-- Таблица пользователей
+CREATE TABLE app_user (
+    id NUMBER GENERATED BY DEFAULT ON NULL AS IDENTITY PRIMARY KEY,
+    username VARCHAR2(255) NOT NULL UNIQUE,
+    password VARCHAR2(255) NOT NULL,
+    name VARCHAR2(50) NOT NULL,
+    surname VARCHAR2(50) NOT NULL,
+    parent_name VARCHAR2(50) NOT NULL,
+    creation_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    last_edit_date TIMESTAMP NOT NULL
+);
+
+-- Таблица новостей
+CREATE TABLE news (
+    id NUMBER GENERATED BY DEFAULT ON NULL AS IDENTITY PRIMARY KEY,
+    title VARCHAR2(150) NOT NULL,
+    text CLOB NOT NULL,
+    creation_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    last_edit_date TIMESTAMP NOT NULL,
+    created_by_user NUMBER NOT NULL,
+    updated_by_user NUMBER,
+    CONSTRAINT fk_news_created_by FOREIGN KEY (created_by_user) REFERENCES app_user(id) ON DELETE CASCADE,
+    CONSTRAINT fk_news_updated_by FOREIGN KEY (updated_by_user) REFERENCES app_user(id) ON DELETE SET NULL
+);
+
+-- Таблица комментариев
+CREATE TABLE comments (
+    id NUMBER GENERATED BY DEFAULT ON NULL AS IDENTITY PRIMARY KEY,
+    text VARCHAR2(300) NOT NULL,
+    creation_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    last_edit_date TIMESTAMP NOT NULL,
+    created_by_user NUMBER NOT NULL,
+    news_id NUMBER NOT NULL,
+    CONSTRAINT fk_comment_user FOREIGN KEY (created_by_user) REFERENCES app_user(id) ON DELETE CASCADE,
+    CONSTRAINT fk_comment_news FOREIGN KEY (news_id) REFERENCES news(id) ON DELETE CASCADE
+);
@@ -0,0 +1,16 @@
+-- Индексы под запросы репозиториев.
+-- Комментарии новости (findByNewsId) и превью читаются по idx_comments_news_created (news_id, creation_date, id) из V1.2,
+-- новости и комментарии автора — по idx_news_author_created и idx_comments_author_created.
+-- Поиск LOWER(...) LIKE '%...%' B-tree не ускоряет, а индекс Oracle Text требует CONTAINS вместо LIKE — индекса нет.
+
+-- Сортировка /api/news/paged по умолчанию
+CREATE INDEX idx_news_creation_date ON news (creation_date);
+
+-- FK на редактора: ON DELETE SET NULL и очистка витрины при удалении пользователя
+CREATE INDEX idx_news_updated_by ON news (updated_by_user);
+
+-- Длины в символах, как в PostgreSQL и в @Column: кириллица в байтовой семантике не помещалась
+ALTER TABLE app_user MODIFY (name VARCHAR2(50 CHAR), surname VARCHAR2(50 CHAR), parent_name VARCHAR2(50 CHAR));
+ALTER TABLE news MODIFY (title VARCHAR2(150 CHAR));
+ALTER TABLE comments MODIFY (text VARCHAR2(300 CHAR));
+ALTER TABLE news_feed MODIFY (title VARCHAR2(150 CHAR), author_name VARCHAR2(101 CHAR));
@@ -0,0 +1,4 @@
+-- Версии строк для оптимистичной блокировки (@Version) и условных PATCH по If-Match
+ALTER TABLE app_user ADD (version NUMBER(19) DEFAULT 0 NOT NULL);
+ALTER TABLE news ADD (version NUMBER(19) DEFAULT 0 NOT NULL);
+ALTER TABLE comments ADD (version NUMBER(19) DEFAULT 0 NOT NULL);
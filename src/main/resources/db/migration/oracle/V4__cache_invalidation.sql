@@ -0,0 +1,10 @@
+-- Журнал инвалидаций второго уровня кэша Hibernate: каждый узел опрашивает его и вытесняет
+-- изменённые на других узлах сущности из своего локального кэша
+CREATE TABLE cache_invalidation (
+    id NUMBER GENERATED BY DEFAULT ON NULL AS IDENTITY PRIMARY KEY,
+    region VARCHAR2(100) NOT NULL,
+    entity_id NUMBER NOT NULL,
+    created_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_cache_invalidation_created ON cache_invalidation (created_at);
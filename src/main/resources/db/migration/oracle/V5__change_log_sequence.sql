@@ -0,0 +1,23 @@
+-- Порядковый номер изменения в порядке фиксации: выдаётся фоновой задачей только закоммиченным строкам,
+-- поэтому токен клиента не может обогнать строку, закоммиченную позже. Старые строки получают номер = id,
+-- и выданные ранее токены остаются действительными
+ALTER TABLE change_log ADD seq NUMBER;
+UPDATE change_log SET seq = id;
+
+CREATE UNIQUE INDEX idx_change_log_seq ON change_log (seq);
+CREATE INDEX idx_change_log_news_seq ON change_log (news_id, seq);
+CREATE INDEX idx_change_log_changed_at ON change_log (changed_at);
+DROP INDEX idx_change_log_news_id;
+
+-- Строки, ещё не получившие номер: (NULL, id) попадает в индекс, в отличие от одного NULL
+CREATE INDEX idx_change_log_unsequenced ON change_log (seq, id);
+
+-- Последний выданный номер и граница удалённой по сроку хранения части журнала; строка блокируется
+-- на время нумерации, что упорядочивает узлы кластера
+CREATE TABLE change_log_sequence (
+    id NUMBER(10) PRIMARY KEY,
+    last_seq NUMBER NOT NULL,
+    purged_seq NUMBER NOT NULL
+);
+
+INSERT INTO change_log_sequence (id, last_seq, purged_seq) SELECT 1, COALESCE(MAX(id), 0), 0 FROM change_log;
@@ -0,0 +1,17 @@
+-- Индексы под запросы репозиториев; каждый проверяется RepositoryQueryPlanTest.
+-- Комментарии новости (findByNewsId) и превью читаются по idx_comments_news_created (news_id, creation_date, id) из V1.2,
+-- новости и комментарии автора — по idx_news_author_created и idx_comments_author_created.
+
+-- Сортировка /api/news/paged по умолчанию
+CREATE INDEX IF NOT EXISTS idx_news_creation_date ON news (creation_date);
+
+-- FK на редактора: ON DELETE SET NULL и очистка витрины при удалении пользователя
+CREATE INDEX IF NOT EXISTS idx_news_updated_by ON news (updated_by_user);
+
+-- Поиск LOWER(...) LIKE '%...%' по заголовку и тексту: триграммные индексы
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX IF NOT EXISTS idx_news_title_trgm ON news USING gin (LOWER(title) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_news_text_trgm ON news USING gin (LOWER(text) gin_trgm_ops);
+
+-- Базы, созданные util/prod-postgres-db-create-seed.txt: updated_by_user был NOT NULL вопреки ON DELETE SET NULL
+ALTER TABLE news ALTER COLUMN updated_by_user DROP NOT NULL;
@@ -0,0 +1,4 @@
+-- Версии строк для оптимистичной блокировки (@Version) и условных PATCH по If-Match
+ALTER TABLE app_user ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE news ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE comments ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
@@ -0,0 +1,10 @@
+-- Журнал инвалидаций второго уровня кэша Hibernate: каждый узел опрашивает его и вытесняет
+-- изменённые на других узлах сущности из своего локального кэша
+CREATE TABLE IF NOT EXISTS cache_invalidation (
+    id BIGSERIAL PRIMARY KEY,
+    region VARCHAR(100) NOT NULL,
+    entity_id BIGINT NOT NULL,
+    created_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_cache_invalidation_created ON cache_invalidation (created_at);
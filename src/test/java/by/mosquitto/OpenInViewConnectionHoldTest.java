@@ -0,0 +1,163 @@
+package by.mosquitto;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Сравнивает удержание соединений пула с Open Session in View и без него.
+ *
+ * Приложение поднимается дважды в профиле {@code bench} с пулом из двух соединений
+ * и получает одинаковую конкурентную нагрузку на {@code GET /api/news}. С OSIV соединение
+ * удерживается до конца запроса, включая маппинг и сериализацию нескольких сотен новостей,
+ * без него — только на время запроса к БД. Поэтому и время удержания, и ожидание соединения
+ * конкурирующими запросами без OSIV должны быть меньше.
+ */
+class OpenInViewConnectionHoldTest {
+
+    private static final int THREADS = 8;
+    private static final int REQUESTS_PER_THREAD = 25;
+    private static final int WARMUP_REQUESTS = 20;
+
+    @Test
+    void disablingOpenInView_shouldReduceConnectionHoldAndPoolWait() throws Exception {
+        PoolUsage withOpenInView = measure(true);
+        PoolUsage withoutOpenInView = measure(false);
+
+        String report = "with OSIV " + withOpenInView + ", without OSIV " + withoutOpenInView;
+        assertTrue(withoutOpenInView.meanHoldMicros() < withOpenInView.meanHoldMicros(), report);
+        assertTrue(withoutOpenInView.meanWaitMicros() < withOpenInView.meanWaitMicros(), report);
+    }
+
+    private static PoolUsage measure(boolean openInView) throws Exception {
+        ConnectionProbe probe = new ConnectionProbe();
+        // аргументы командной строки, а не properties(): те задают только значения по умолчанию,
+        // и URL базы из профиля test или переменных окружения перекрыл бы in-memory H2
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(SpringnewsApiApplication.class)
+                .initializers(context -> context.getBeanFactory().addBeanPostProcessor(probe));
+
+        try (ConfigurableApplicationContext context = builder.run(
+                "--spring.profiles.active=bench",
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:osiv-" + openInView + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.hikari.maximum-pool-size=2",
+                "--spring.jpa.open-in-view=" + openInView,
+                "--app.bench.generator.users=20",
+                "--app.bench.generator.news=400",
+                "--app.bench.generator.comments=400",
+                "--app.cache.response.enabled=false",
+                "--logging.level.by.mosquitto=WARN")) {
+            URI uri = URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/api/news");
+            HttpClient client = HttpClient.newHttpClient();
+            for (int i = 0; i < WARMUP_REQUESTS; i++) {
+                get(client, uri);
+            }
+
+            probe.reset();
+            ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+            try {
+                List<Future<?>> workers = new ArrayList<>();
+                for (int t = 0; t < THREADS; t++) {
+                    workers.add(executor.submit(() -> {
+                        for (int i = 0; i < REQUESTS_PER_THREAD; i++) {
+                            get(client, uri);
+                        }
+                        return null;
+                    }));
+                }
+                for (Future<?> worker : workers) {
+                    worker.get();
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+            return probe.snapshot();
+        }
+    }
+
+    private static void get(HttpClient client, URI uri) throws Exception {
+        HttpResponse<byte[]> response = client.send(HttpRequest.newBuilder(uri).GET().build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        assertEquals(200, response.statusCode());
+    }
+
+    record PoolUsage(long connections, long meanWaitMicros, long meanHoldMicros) {
+    }
+
+    /**
+     * Оборачивает источник данных (до datasource-proxy) и измеряет ожидание
+     * {@code getConnection()} и время от выдачи соединения до его возврата.
+     */
+    private static final class ConnectionProbe implements BeanPostProcessor {
+
+        private final LongAdder connections = new LongAdder();
+        private final LongAdder waitNanos = new LongAdder();
+        private final LongAdder holdNanos = new LongAdder();
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof DataSource dataSource && "dataSource".equals(beanName)) {
+                return new DelegatingDataSource(dataSource) {
+                    @Override
+                    public Connection getConnection() throws SQLException {
+                        long start = System.nanoTime();
+                        Connection connection = super.getConnection();
+                        long acquired = System.nanoTime();
+                        waitNanos.add(acquired - start);
+                        connections.increment();
+                        return track(connection, acquired);
+                    }
+                };
+            }
+            return bean;
+        }
+
+        private Connection track(Connection connection, long acquired) {
+            AtomicBoolean closed = new AtomicBoolean();
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        if ("close".equals(method.getName()) && closed.compareAndSet(false, true)) {
+                            holdNanos.add(System.nanoTime() - acquired);
+                        }
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    });
+        }
+
+        void reset() {
+            connections.reset();
+            waitNanos.reset();
+            holdNanos.reset();
+        }
+
+        PoolUsage snapshot() {
+            long count = Math.max(1, connections.sum());
+            return new PoolUsage(count, waitNanos.sum() / count / 1_000, holdNanos.sum() / count / 1_000);
+        }
+    }
+}
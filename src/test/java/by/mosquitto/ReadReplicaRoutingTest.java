@@ -0,0 +1,115 @@
+package by.mosquitto;
+
+import by.mosquitto.sql.ReplicaRouter;
+import by.mosquitto.web.ReadYourWritesFilter;
+import com.jayway.jsonpath.JsonPath;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Маршрутизация чтений на реплику с двумя in-memory H2 вместо основной БД и реплики.
+ *
+ * Основная БД заполняется генератором профиля {@code bench}, реплика — отдельно и с другим
+ * заголовком новости 1, поэтому по ответу видно, какая БД обслужила чтение. Репликации нет:
+ * созданная новость есть только на основной БД, что и проверяет read-your-writes.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:rw-primary;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1",
+        "app.datasource.replica.enabled=true",
+        "app.datasource.replica.urls=" + ReadReplicaRoutingTest.REPLICA_URL,
+        "app.bench.generator.users=3",
+        "app.bench.generator.news=3",
+        "app.bench.generator.comments=0",
+        "app.cache.response.enabled=false"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("bench")
+class ReadReplicaRoutingTest {
+
+    static final String REPLICA_URL =
+            "jdbc:h2:mem:rw-replica;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1";
+
+    private static final String REPLICA_TITLE = "Replica title";
+
+    static {
+        DriverManagerDataSource replica = new DriverManagerDataSource(REPLICA_URL, "sa", "");
+        new ResourceDatabasePopulator(new ClassPathResource("db/migration/h2/V1__baseline.sql"),
+                new ClassPathResource("db/migration/h2/V1_1__change_log.sql"),
+                new ClassPathResource("db/migration/h2/V1_2__keyset_indexes.sql"),
+                new ClassPathResource("db/migration/h2/V1_3__news_feed.sql"),
+                new ClassPathResource("db/migration/h2/V2__performance_indexes.sql"),
+                new ClassPathResource("db/migration/h2/V3__row_versions.sql"),
+                new ClassPathResource("db/migration/h2/V4__cache_invalidation.sql"),
+                new ClassPathResource("db/migration/h2/V5__change_log_sequence.sql"),
+                new ClassPathResource("db/migration/h2/V6__job_lock.sql")).execute(replica);
+        JdbcTemplate jdbc = new JdbcTemplate(replica);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbc.update("INSERT INTO app_user (id, username, password, name, surname, parent_name, creation_date, last_edit_date) "
+                + "VALUES (1, 'replica', 'pass123', 'Replica', 'Replica', 'Replica', ?, ?)", now, now);
+        jdbc.update("INSERT INTO news (id, title, text, creation_date, last_edit_date, created_by_user) "
+                + "VALUES (1, ?, 'Replica text', ?, ?, 1)", REPLICA_TITLE, now, now);
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ReplicaRouter replicaRouter;
+
+    @Test
+    void read_shouldBeServedByReplica() throws Exception {
+        long before = replicaRouter.getReplicaConnections();
+
+        mockMvc.perform(get("/api/news/1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value(REPLICA_TITLE));
+
+        assertTrue(replicaRouter.getReplicaConnections() > before);
+    }
+
+    @Test
+    void write_shouldGoToPrimaryAndReadYourWritesWithCookie() throws Exception {
+        MvcResult created = mockMvc.perform(post("/api/news").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Primary only\",\"text\":\"Written to primary\",\"insertedById\":1}"))
+                .andReturn();
+        assertEquals(201, created.getResponse().getStatus(), created.getResponse().getContentAsString());
+        Number id = JsonPath.read(created.getResponse().getContentAsString(), "$.id");
+        Cookie cookie = created.getResponse().getCookie(ReadYourWritesFilter.COOKIE);
+        assertNotNull(cookie, "Write must set " + ReadYourWritesFilter.COOKIE);
+
+        mockMvc.perform(get("/api/news/" + id))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/news/" + id).cookie(cookie))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Primary only"));
+    }
+
+    @Test
+    void expiredCookie_shouldReadFromReplica() throws Exception {
+        Cookie expired = new Cookie(ReadYourWritesFilter.COOKIE, String.valueOf(System.currentTimeMillis() - 1));
+
+        mockMvc.perform(get("/api/news/1").cookie(expired))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value(REPLICA_TITLE));
+    }
+}
@@ -0,0 +1,131 @@
+package by.mosquitto;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Сравнивает задержку {@code GET /api/news/{id}} при насыщенном поиске с отсеком и без него.
+ *
+ * Приложение поднимается дважды в профиле {@code bench} с основным пулом из двух соединений.
+ * Несколько клиентов непрерывно ищут по тексту новостей (полное сканирование), а отдельный клиент
+ * последовательно читает новости по id. Без отсека поиск занимает оба соединения основного пула,
+ * и чтение по id ждёт окончания сканирования; с отсеком поиск ограничен своими потоками и пулом,
+ * и чтение по id его не ждёт.
+ */
+class SearchBulkheadIsolationTest {
+
+    private static final int NEWS = 20_000;
+    private static final int SEARCH_CLIENTS = 8;
+    private static final int WARMUP_REQUESTS = 20;
+    private static final int MEASURED_REQUESTS = 100;
+    private static final String[] SEARCH_QUERIES = {"рынок", "погода", "latency", "open source"};
+
+    @Test
+    void bulkhead_shouldKeepFindByIdLatencyUnderSearchSaturation() throws Exception {
+        Latency shared = measure(false);
+        Latency isolated = measure(true);
+
+        String report = "without bulkhead " + shared + ", with bulkhead " + isolated;
+        assertTrue(shared.searches() > 0 && isolated.searches() > 0, report);
+        assertTrue(isolated.p90Micros() < shared.p90Micros(), report);
+        assertTrue(isolated.meanMicros() < shared.meanMicros(), report);
+    }
+
+    private static Latency measure(boolean bulkhead) throws Exception {
+        // аргументы командной строки, а не properties(): те задают только значения по умолчанию,
+        // и URL базы из профиля test или переменных окружения перекрыл бы in-memory H2
+        try (ConfigurableApplicationContext context = SpringApplication.run(SpringnewsApiApplication.class,
+                "--spring.profiles.active=bench",
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:bulkhead-" + bulkhead + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.hikari.maximum-pool-size=2",
+                "--app.search.bulkhead.enabled=" + bulkhead,
+                "--app.search.bulkhead.threads=2",
+                "--app.search.bulkhead.queue-capacity=4",
+                "--app.concurrency-limit.enabled=false",
+                "--app.bench.generator.users=20",
+                "--app.bench.generator.news=" + NEWS,
+                "--app.bench.generator.comments=0",
+                "--app.cache.response.enabled=false",
+                "--logging.level.by.mosquitto=WARN")) {
+            String base = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            HttpClient client = HttpClient.newHttpClient();
+            for (int i = 0; i < WARMUP_REQUESTS; i++) {
+                assertEquals(200, get(client, byId(base)));
+            }
+
+            AtomicBoolean running = new AtomicBoolean(true);
+            LongAdder searches = new LongAdder();
+            ExecutorService executor = Executors.newFixedThreadPool(SEARCH_CLIENTS);
+            try {
+                List<Future<?>> searchers = new ArrayList<>();
+                for (int t = 0; t < SEARCH_CLIENTS; t++) {
+                    searchers.add(executor.submit(() -> {
+                        while (running.get()) {
+                            if (get(client, search(base)) == 200) {
+                                searches.increment();
+                            }
+                        }
+                        return null;
+                    }));
+                }
+                TimeUnit.SECONDS.sleep(1);
+
+                long[] micros = new long[MEASURED_REQUESTS];
+                for (int i = 0; i < MEASURED_REQUESTS; i++) {
+                    long start = System.nanoTime();
+                    assertEquals(200, get(client, byId(base)));
+                    micros[i] = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+                }
+
+                running.set(false);
+                for (Future<?> searcher : searchers) {
+                    searcher.get();
+                }
+                Arrays.sort(micros);
+                return new Latency(Arrays.stream(micros).sum() / micros.length,
+                        micros[MEASURED_REQUESTS * 9 / 10], searches.sum());
+            } finally {
+                running.set(false);
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    private static URI byId(String base) {
+        return URI.create(base + "/api/news/" + ThreadLocalRandom.current().nextInt(1, NEWS + 1));
+    }
+
+    private static URI search(String base) {
+        String query = SEARCH_QUERIES[ThreadLocalRandom.current().nextInt(SEARCH_QUERIES.length)];
+        return URI.create(base + "/api/news/search?query=" + URLEncoder.encode(query, StandardCharsets.UTF_8));
+    }
+
+    private static int get(HttpClient client, URI uri) throws Exception {
+        return client.send(HttpRequest.newBuilder(uri).GET().build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    record Latency(long meanMicros, long p90Micros, long searches) {
+    }
+}
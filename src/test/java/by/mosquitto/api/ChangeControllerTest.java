@@ -0,0 +1,43 @@
+package by.mosquitto.api;
+
+import by.mosquitto.dto.ChangeFeedDto;
+import by.mosquitto.exception.InvalidRequestException;
+import by.mosquitto.service.contract.ChangeFeedService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@ExtendWith(MockitoExtension.class)
+class ChangeControllerTest {
+
+    @Mock
+    private ChangeFeedService changeFeedService;
+
+    @InjectMocks
+    private ChangeController changeController;
+
+    @Test
+    void getChanges_shouldReturnFeed() {
+        ChangeFeedDto feed = ChangeFeedDto.builder().changes(List.of()).nextToken(5L).build();
+        Mockito.when(changeFeedService.getChanges(5L, null, 100)).thenReturn(feed);
+
+        ResponseEntity<ChangeFeedDto> response = changeController.getChanges(5L, null, 100);
+
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals(feed, response.getBody());
+    }
+
+    @Test
+    void getChanges_shouldRejectInvalidLimit() {
+        assertThrows(InvalidRequestException.class, () -> changeController.getChanges(0L, null, 5000));
+    }
+}
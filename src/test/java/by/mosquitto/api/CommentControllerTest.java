@@ -1,6 +1,8 @@
 package by.mosquitto.api;
 
 import by.mosquitto.dto.CommentDto;
+import by.mosquitto.dto.PendingCommentDto;
+import by.mosquitto.ingest.CommentIngestionQueue;
 import by.mosquitto.service.contract.CommentService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -24,6 +26,9 @@ class CommentControllerTest {
     @Mock
     private CommentService commentService;
 
+    @Mock
+    private CommentIngestionQueue commentIngestionQueue;
+
     @InjectMocks
     private CommentController commentController;
 
@@ -77,12 +82,37 @@ class CommentControllerTest {
     void createComment_shouldReturnCreatedComment() {
         Mockito.when(commentService.createComment(comment)).thenReturn(comment);
 
-        ResponseEntity<CommentDto> response = commentController.createComment(comment);
+        ResponseEntity<?> response = commentController.createComment(comment);
 
         assertEquals(HttpStatus.CREATED, response.getStatusCode());
         assertEquals(comment, response.getBody());
     }
 
+    @Test
+    void createComment_shouldAcceptIntoQueueInAsyncMode() {
+        PendingCommentDto pending = PendingCommentDto.builder().pendingId("p-1").newsId(200L).build();
+        Mockito.when(commentIngestionQueue.isAsync()).thenReturn(true);
+        Mockito.when(commentIngestionQueue.submit(comment)).thenReturn(pending);
+
+        ResponseEntity<?> response = commentController.createComment(comment);
+
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        assertEquals(pending, response.getBody());
+        Mockito.verifyNoInteractions(commentService);
+    }
+
+    @Test
+    void getPendingComment_shouldReturnStatus() {
+        PendingCommentDto written = PendingCommentDto.builder()
+                .pendingId("p-1").status(PendingCommentDto.Status.WRITTEN).commentId(7L).build();
+        Mockito.when(commentIngestionQueue.getStatus("p-1")).thenReturn(written);
+
+        ResponseEntity<PendingCommentDto> response = commentController.getPendingComment("p-1");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(written, response.getBody());
+    }
+
     @Test
     void updateComment_shouldReturnUpdatedComment() {
         Mockito.when(commentService.updateComment(1L, comment)).thenReturn(comment);
@@ -93,6 +123,19 @@ class CommentControllerTest {
         assertEquals(comment, response.getBody());
     }
 
+    @Test
+    void patchComment_shouldReturnCommentWithVersionETag() {
+        CommentDto changes = CommentDto.builder().text("Edited").build();
+        CommentDto patched = comment.toBuilder().text("Edited").version(2L).build();
+        Mockito.when(commentService.patchComment(1L, 1L, changes)).thenReturn(patched);
+
+        ResponseEntity<CommentDto> response = commentController.patchComment(1L, "\"1\"", changes);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("\"2\"", response.getHeaders().getETag());
+        assertEquals(patched, response.getBody());
+    }
+
     @Test
     void deleteComment_shouldReturnNoContent() {
         Mockito.doNothing().when(commentService).deleteComment(1L);
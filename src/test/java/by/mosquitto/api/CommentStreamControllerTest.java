@@ -0,0 +1,47 @@
+package by.mosquitto.api;
+
+import by.mosquitto.exception.NewsNotFoundException;
+import by.mosquitto.service.contract.NewsService;
+import by.mosquitto.stream.CommentStreamHub;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class CommentStreamControllerTest {
+
+    @Mock
+    private NewsService newsService;
+
+    @Mock
+    private CommentStreamHub commentStreamHub;
+
+    @InjectMocks
+    private CommentStreamController commentStreamController;
+
+    @Test
+    void stream_shouldSubscribeWithLastEventId() {
+        SseEmitter emitter = new SseEmitter();
+        Mockito.when(commentStreamHub.subscribe(1L, 42L)).thenReturn(emitter);
+
+        SseEmitter result = commentStreamController.stream(1L, 42L);
+
+        assertSame(emitter, result);
+    }
+
+    @Test
+    void stream_shouldFailForUnknownNews() {
+        Mockito.when(newsService.getNewsById(999L)).thenThrow(new NewsNotFoundException(999L));
+
+        assertThrows(NewsNotFoundException.class, () -> commentStreamController.stream(999L, null));
+        verifyNoInteractions(commentStreamHub);
+    }
+}
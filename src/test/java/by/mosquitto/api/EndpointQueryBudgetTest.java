@@ -0,0 +1,280 @@
+package by.mosquitto.api;
+
+import by.mosquitto.web.QueryStatsFilter;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+
+/**
+ * Бюджет SQL-выражений и ленивых загрузок для каждого метода контроллеров.
+ *
+ * Приложение поднимается в профиле {@code bench} на in-memory H2 с небольшим набором данных.
+ * Кэши ответов выключены, а страницы ленты запрашиваются с сортировкой, которую
+ * горячая лента не обслуживает, — считаются реальные запросы к БД.
+ * Бюджеты не зависят от объёма данных: их превышение означает N+1 или лишнюю загрузку.
+ *
+ * Поиск выполняется в отдельном отсеке со своим пулом, и его выражения в счётчики не входят;
+ * повторный поиск из кэша результатов дочитывает новости одним запросом по id.
+ *
+ * Поток комментариев (SSE) не буферизуется фильтром и проверяется косвенно:
+ * его единственный запрос — {@code getNewsById}, покрытый {@link #getNews()}.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:budget;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1",
+        "app.bench.generator.users=5",
+        "app.bench.generator.news=20",
+        "app.bench.generator.comments=200",
+        "app.cache.response.enabled=false",
+        "app.debug.query-stats.enabled=true"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("bench")
+class EndpointQueryBudgetTest {
+
+    private static final Pattern STATS = Pattern.compile("statements=(\\d+), rows=(\\d+), lazy=(\\d+)");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    // --- NewsController ---
+
+    @Test
+    void getAllNews() throws Exception {
+        assertBudget(get("/api/news"), 1, 0);
+    }
+
+    @Test
+    void getNewsPaged() throws Exception {
+        assertBudget(get("/api/news/paged").param("page", "1").param("size", "5").param("sortBy", "title"), 2, 0);
+    }
+
+    @Test
+    void getNewsPagedWithCommentPreviews() throws Exception {
+        assertBudget(get("/api/news/paged").param("page", "1").param("size", "5").param("sortBy", "title")
+                .param("withCommentStats", "true").param("previewComments", "3"), 3, 0);
+    }
+
+    @Test
+    void getNewsFeed() throws Exception {
+        assertBudget(get("/api/news/feed").param("limit", "5"), 1, 0);
+
+        String cursor = JsonPath.read(mockMvc.perform(get("/api/news/feed").param("limit", "5"))
+                .andReturn().getResponse().getContentAsString(), "$.nextCursor");
+        assertBudget(get("/api/news/feed").param("limit", "5").param("cursor", cursor), 1, 0);
+    }
+
+    @Test
+    void getNewsWithCommentsPaged() throws Exception {
+        assertBudget(get("/api/news/20/with-comments-paged").param("size", "5"), 3, 0);
+    }
+
+    @Test
+    void searchNews() throws Exception {
+        assertBudget(get("/api/news/search").param("query", "рынок"), 1, 0);
+    }
+
+    @Test
+    void searchNewsCached() throws Exception {
+        assertBudget(get("/api/news/search").param("query", "погода"), 1, 0);
+        assertBudget(get("/api/news/search").param("query", " ПОГОДА "), 1, 0);
+    }
+
+    @Test
+    void suggestNews() throws Exception {
+        assertBudget(get("/api/news/suggest").param("prefix", "а"), 0, 0);
+    }
+
+    @Test
+    void getNews() throws Exception {
+        assertBudget(get("/api/news/7"), 1, 0);
+    }
+
+    @Test
+    void createNews() throws Exception {
+        assertBudget(post("/api/news").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\":\"Budget\",\"text\":\"Budget text\",\"insertedById\":1}"), 4, 0);
+    }
+
+    @Test
+    void updateNews() throws Exception {
+        long id = createNewsId();
+        assertBudget(put("/api/news/" + id).contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\":\"Updated\",\"text\":\"Updated text\",\"updatedById\":2}"), 5, 0);
+    }
+
+    @Test
+    void patchNews() throws Exception {
+        long id = createNewsId();
+        // условный UPDATE возвращает изменённую строку; журнал изменений и витрина ленты — ещё по одной записи
+        assertBudget(patch("/api/news/" + id).header(HttpHeaders.IF_MATCH, "\"0\"")
+                .contentType(MediaType.APPLICATION_JSON).content("{\"title\":\"Patched\"}"), 3, 0);
+    }
+
+    @Test
+    void deleteNews() throws Exception {
+        long id = createNewsId();
+        // каскадное удаление инициализирует коллекцию комментариев
+        assertBudget(delete("/api/news/" + id), 6, 1);
+    }
+
+    // --- CommentController ---
+
+    @Test
+    void getAllComments() throws Exception {
+        assertBudget(get("/api/comments"), 1, 0);
+    }
+
+    @Test
+    void getComment() throws Exception {
+        assertBudget(get("/api/comments/3"), 1, 0);
+    }
+
+    @Test
+    void getCommentsByNews() throws Exception {
+        assertBudget(get("/api/comments/news/20"), 1, 0);
+    }
+
+    @Test
+    void createComment() throws Exception {
+        assertBudget(post("/api/comments").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"text\":\"Budget comment\",\"newsId\":5,\"userId\":1}"), 5, 0);
+    }
+
+    @Test
+    void updateComment() throws Exception {
+        long id = createCommentId();
+        assertBudget(put("/api/comments/" + id).contentType(MediaType.APPLICATION_JSON)
+                .content("{\"text\":\"Updated comment\",\"newsId\":5,\"userId\":1}"), 3, 0);
+    }
+
+    @Test
+    void patchComment() throws Exception {
+        long id = createCommentId();
+        assertBudget(patch("/api/comments/" + id).header(HttpHeaders.IF_MATCH, "\"0\"")
+                .contentType(MediaType.APPLICATION_JSON).content("{\"text\":\"Patched comment\"}"), 2, 0);
+    }
+
+    @Test
+    void deleteComment() throws Exception {
+        long id = createCommentId();
+        assertBudget(delete("/api/comments/" + id), 4, 0);
+    }
+
+    // --- UserController ---
+
+    @Test
+    void getUser() throws Exception {
+        assertBudget(get("/api/users/2"), 1, 0);
+    }
+
+    @Test
+    void getUserActivity() throws Exception {
+        assertBudget(get("/api/users/2/activity").param("limit", "5"), 3, 0);
+
+        String cursor = JsonPath.read(mockMvc.perform(get("/api/users/2/activity").param("limit", "5"))
+                .andReturn().getResponse().getContentAsString(), "$.nextCursor");
+        assertBudget(get("/api/users/2/activity").param("limit", "5").param("cursor", cursor), 3, 0);
+    }
+
+    @Test
+    void getAllUsers() throws Exception {
+        assertBudget(get("/api/users"), 1, 0);
+    }
+
+    @Test
+    void createUser() throws Exception {
+        assertBudget(post("/api/users").contentType(MediaType.APPLICATION_JSON)
+                .content(userJson("budget-create")), 1, 0);
+    }
+
+    @Test
+    void updateUser() throws Exception {
+        long id = createUserId("budget-update");
+        // плюс запись инвалидации кэша пользователей для остальных узлов
+        assertBudget(put("/api/users/" + id).contentType(MediaType.APPLICATION_JSON)
+                .content(userJson("budget-updated")), 4, 0);
+    }
+
+    @Test
+    void patchUser() throws Exception {
+        long id = createUserId("budget-patch");
+        assertBudget(patch("/api/users/" + id).header(HttpHeaders.IF_MATCH, "\"0\"")
+                .contentType(MediaType.APPLICATION_JSON).content("{\"surname\":\"Patched\"}"), 3, 0);
+    }
+
+    @Test
+    void deleteUser() throws Exception {
+        long id = createUserId("budget-delete");
+        // каскадное удаление инициализирует три коллекции пользователя; витрина ленты — ещё два UPDATE/DELETE,
+        // инвалидация кэша пользователей — один INSERT, id удаляемых каскадом новостей и комментариев — два SELECT
+        assertBudget(delete("/api/users/" + id), 11, 3);
+    }
+
+    // --- ChangeController ---
+
+    @Test
+    void getChanges() throws Exception {
+        assertBudget(get("/api/changes").param("limit", "50"), 3, 0);
+    }
+
+    private void assertBudget(MockHttpServletRequestBuilder request, int maxStatements, int maxLazyLoads) throws Exception {
+        MvcResult result = mockMvc.perform(request).andReturn();
+        if (result.getRequest().isAsyncStarted()) {
+            result = mockMvc.perform(asyncDispatch(result)).andReturn();
+        }
+        int status = result.getResponse().getStatus();
+        assertTrue(status < 400, "Unexpected status " + status + ": " + result.getResponse().getContentAsString());
+
+        String header = result.getResponse().getHeader(QueryStatsFilter.HEADER);
+        assertNotNull(header, "Missing " + QueryStatsFilter.HEADER + " header");
+        Matcher stats = STATS.matcher(header);
+        assertTrue(stats.matches(), header);
+
+        String endpoint = result.getRequest().getMethod() + " " + result.getRequest().getRequestURI();
+        int statements = Integer.parseInt(stats.group(1));
+        int lazyLoads = Integer.parseInt(stats.group(3));
+        assertTrue(statements <= maxStatements,
+                endpoint + " executed " + statements + " statements, budget " + maxStatements + " (" + header + ")");
+        assertTrue(lazyLoads <= maxLazyLoads,
+                endpoint + " triggered " + lazyLoads + " lazy loads, budget " + maxLazyLoads + " (" + header + ")");
+    }
+
+    private long createNewsId() throws Exception {
+        return createId(post("/api/news").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\":\"Fixture\",\"text\":\"Fixture text\",\"insertedById\":1}"));
+    }
+
+    private long createCommentId() throws Exception {
+        return createId(post("/api/comments").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"text\":\"Fixture comment\",\"newsId\":5,\"userId\":1}"));
+    }
+
+    private long createUserId(String username) throws Exception {
+        return createId(post("/api/users").contentType(MediaType.APPLICATION_JSON).content(userJson(username)));
+    }
+
+    private long createId(MockHttpServletRequestBuilder request) throws Exception {
+        String body = mockMvc.perform(request).andReturn().getResponse().getContentAsString();
+        Number id = JsonPath.read(body, "$.id");
+        return id.longValue();
+    }
+
+    private static String userJson(String username) {
+        return "{\"username\":\"" + username + "\",\"password\":\"pass123\",\"name\":\"Budget\","
+                + "\"surname\":\"Test\",\"parentName\":\"Case\"}";
+    }
+}
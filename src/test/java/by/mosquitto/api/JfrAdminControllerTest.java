@@ -0,0 +1,53 @@
+package by.mosquitto.api;
+
+import by.mosquitto.dto.JfrRecordingDto;
+import by.mosquitto.exception.InvalidRequestException;
+import by.mosquitto.service.contract.ProfilingService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@ExtendWith(MockitoExtension.class)
+class JfrAdminControllerTest {
+
+    @Mock
+    private ProfilingService profilingService;
+
+    @InjectMocks
+    private JfrAdminController jfrAdminController;
+
+    @Test
+    void start_shouldReturnStatus() {
+        JfrRecordingDto status = JfrRecordingDto.builder().name("springnews").state("RUNNING").build();
+        Mockito.when(profilingService.start("profile")).thenReturn(status);
+
+        ResponseEntity<JfrRecordingDto> response = jfrAdminController.start("profile");
+
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals(status, response.getBody());
+    }
+
+    @Test
+    void stream_shouldPassThreshold() {
+        SseEmitter emitter = new SseEmitter();
+        Mockito.when(profilingService.streamEvents(Duration.ofMillis(50))).thenReturn(emitter);
+
+        assertSame(emitter, jfrAdminController.stream(50));
+    }
+
+    @Test
+    void stream_shouldRejectNegativeThreshold() {
+        assertThrows(InvalidRequestException.class, () -> jfrAdminController.stream(-1));
+    }
+}
@@ -2,7 +2,14 @@ package by.mosquitto.api;
 
 import by.mosquitto.dto.CommentDto;
 import by.mosquitto.dto.NewsDto;
+import by.mosquitto.dto.NewsFeedPageDto;
+import by.mosquitto.dto.NewsSuggestionDto;
 import by.mosquitto.dto.NewsWithCommentsPagedDto;
+import by.mosquitto.exception.InvalidRequestException;
+import by.mosquitto.exception.PreconditionFailedException;
+import by.mosquitto.exception.PreconditionRequiredException;
+import by.mosquitto.service.contract.NewsFeedService;
+import by.mosquitto.service.contract.NewsSearchService;
 import by.mosquitto.service.contract.NewsService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -13,13 +20,16 @@ import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.*;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.async.DeferredResult;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @ExtendWith(MockitoExtension.class)
 class NewsControllerTest {
@@ -27,6 +37,12 @@ class NewsControllerTest {
     @Mock
     private NewsService newsService;
 
+    @Mock
+    private NewsSearchService newsSearchService;
+
+    @Mock
+    private NewsFeedService newsFeedService;
+
     @InjectMocks
     private NewsController newsController;
 
@@ -67,9 +83,9 @@ class NewsControllerTest {
     void getNewsPaged_shouldReturnPagedNews() {
         Pageable pageable = PageRequest.of(0, 10, Sort.by("creationDate").descending());
         Page<NewsDto> page = new PageImpl<>(List.of(news), pageable, 1);
-        Mockito.when(newsService.getNewsPaged(pageable)).thenReturn(page);
+        Mockito.when(newsService.getNewsPaged(pageable, false, 0)).thenReturn(page);
 
-        ResponseEntity<Page<NewsDto>> response = newsController.getNewsPaged(0, 10, "creationDate", "desc");
+        ResponseEntity<Page<NewsDto>> response = newsController.getNewsPaged(0, 10, "creationDate", "desc", false, 0);
 
         assertEquals(200, response.getStatusCode().value());
         assertEquals(page, response.getBody());
@@ -103,14 +119,27 @@ class NewsControllerTest {
     @Test
     void search_shouldReturnMatchingNews() {
         List<NewsDto> results = List.of(news);
-        Mockito.when(newsService.search("Test")).thenReturn(results);
+        Mockito.when(newsSearchService.search("Test")).thenReturn(CompletableFuture.completedFuture(results));
 
-        ResponseEntity<List<NewsDto>> response = newsController.search("Test");
+        DeferredResult<ResponseEntity<List<NewsDto>>> result = newsController.search("Test");
 
-        assertEquals(200, response.getStatusCode().value());
+        @SuppressWarnings("unchecked")
+        ResponseEntity<List<NewsDto>> response = (ResponseEntity<List<NewsDto>>) result.getResult();
+        assertEquals(200, Objects.requireNonNull(response).getStatusCode().value());
         assertEquals(results, response.getBody());
     }
 
+    @Test
+    void suggest_shouldReturnSuggestions() {
+        List<NewsSuggestionDto> suggestions = List.of(new NewsSuggestionDto(1L, "Test News"));
+        Mockito.when(newsSearchService.suggest("te", 10)).thenReturn(suggestions);
+
+        ResponseEntity<List<NewsSuggestionDto>> response = newsController.suggest("te", 10);
+
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals(suggestions, response.getBody());
+    }
+
     @Test
     void get_shouldReturnNewsById() {
         Mockito.when(newsService.getNewsById(1L)).thenReturn(news);
@@ -121,6 +150,25 @@ class NewsControllerTest {
         assertEquals(news, response.getBody());
     }
 
+    @Test
+    void getFeed_shouldReturnFeedPage() {
+        NewsFeedPageDto page = NewsFeedPageDto.builder().items(List.of()).hasMore(false).build();
+        Mockito.when(newsFeedService.getFeed("c", 20)).thenReturn(page);
+
+        ResponseEntity<NewsFeedPageDto> response = newsController.getFeed("c", 20);
+
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals(page, response.getBody());
+    }
+
+    @Test
+    void getFeed_shouldRejectLimitOutOfRange() {
+        assertThrows(InvalidRequestException.class, () -> newsController.getFeed(null, 0));
+        assertThrows(InvalidRequestException.class, () -> newsController.getFeed(null, 101));
+
+        Mockito.verifyNoInteractions(newsFeedService);
+    }
+
     @Test
     void create_shouldReturnCreatedNews() {
         Mockito.when(newsService.createNews(news)).thenReturn(news);
@@ -141,6 +189,38 @@ class NewsControllerTest {
         assertEquals(news, response.getBody());
     }
 
+    @Test
+    void patch_shouldPassIfMatchVersionAndReturnNewETag() {
+        NewsDto changes = NewsDto.builder().title("New").build();
+        NewsDto patched = news.toBuilder().title("New").version(4L).build();
+        Mockito.when(newsService.patchNews(1L, 3L, changes)).thenReturn(patched);
+
+        ResponseEntity<NewsDto> response = newsController.patch(1L, "\"3\"", changes);
+
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals("\"4\"", response.getHeaders().getETag());
+        assertEquals(patched, response.getBody());
+    }
+
+    @Test
+    void patch_shouldTreatWildcardAsAnyVersion() {
+        NewsDto changes = NewsDto.builder().text("New").build();
+        Mockito.when(newsService.patchNews(1L, null, changes)).thenReturn(news.toBuilder().version(1L).build());
+
+        assertEquals(200, newsController.patch(1L, "*", changes).getStatusCode().value());
+    }
+
+    @Test
+    void patch_shouldRequireStrongVersionETag() {
+        NewsDto changes = NewsDto.builder().title("New").build();
+
+        assertThrows(PreconditionRequiredException.class, () -> newsController.patch(1L, null, changes));
+        assertThrows(PreconditionFailedException.class, () -> newsController.patch(1L, "W/\"3\"", changes));
+        assertThrows(PreconditionFailedException.class, () -> newsController.patch(1L, "\"abc\"", changes));
+
+        Mockito.verifyNoInteractions(newsService);
+    }
+
     @Test
     void delete_shouldReturnNoContent() {
         Mockito.doNothing().when(newsService).deleteNews(1L);
@@ -1,6 +1,9 @@
 package by.mosquitto.api;
 
+import by.mosquitto.dto.UserActivityPageDto;
 import by.mosquitto.dto.UserDto;
+import by.mosquitto.exception.InvalidRequestException;
+import by.mosquitto.service.contract.UserActivityService;
 import by.mosquitto.service.contract.UserService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -16,6 +19,7 @@ import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @ExtendWith(MockitoExtension.class)
 class UserControllerTest {
@@ -23,6 +27,9 @@ class UserControllerTest {
     @Mock
     private UserService userService;
 
+    @Mock
+    private UserActivityService userActivityService;
+
     @InjectMocks
     private UserController userController;
 
@@ -52,6 +59,24 @@ class UserControllerTest {
         assertEquals(user, response.getBody());
     }
 
+    @Test
+    void getUserActivity_shouldReturnPage() {
+        UserActivityPageDto page = UserActivityPageDto.builder().items(List.of()).nextCursor("c").build();
+        Mockito.when(userActivityService.getActivity(1L, "c", 20)).thenReturn(page);
+
+        ResponseEntity<UserActivityPageDto> response = userController.getUserActivity(1L, "c", 20);
+
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals(page, response.getBody());
+    }
+
+    @Test
+    void getUserActivity_shouldRejectLimitOutOfRange() {
+        assertThrows(InvalidRequestException.class, () -> userController.getUserActivity(1L, null, 0));
+        assertThrows(InvalidRequestException.class, () -> userController.getUserActivity(1L, null, 101));
+        Mockito.verifyNoInteractions(userActivityService);
+    }
+
     @Test
     void getAllUsers_shouldReturnListOfUsers() {
         List<UserDto> users = List.of(user);
@@ -83,6 +108,19 @@ class UserControllerTest {
         assertEquals(user, response.getBody());
     }
 
+    @Test
+    void patchUser_shouldReturnUserWithVersionETag() {
+        UserDto changes = UserDto.builder().name("Thror").build();
+        UserDto patched = user.toBuilder().name("Thror").version(7L).build();
+        Mockito.when(userService.patch(1L, 6L, changes)).thenReturn(patched);
+
+        ResponseEntity<UserDto> response = userController.patchUser(1L, "\"6\"", changes);
+
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals("\"7\"", response.getHeaders().getETag());
+        assertEquals(patched, response.getBody());
+    }
+
     @Test
     void deleteUser_shouldReturnNoContent() {
         Mockito.doNothing().when(userService).delete(1L);
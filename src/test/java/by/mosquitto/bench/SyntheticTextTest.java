@@ -0,0 +1,37 @@
+package by.mosquitto.bench;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SyntheticTextTest {
+
+    @Test
+    void texts_shouldRespectSchemaLimits() {
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(SyntheticText.title(random).length() <= SyntheticText.MAX_TITLE_LENGTH);
+            String text = SyntheticText.newsText(random);
+            assertTrue(text.length() >= 200 && text.length() <= SyntheticText.MAX_NEWS_TEXT_LENGTH);
+            String comment = SyntheticText.comment(random);
+            assertFalse(comment.isBlank());
+            assertTrue(comment.length() <= SyntheticText.MAX_COMMENT_LENGTH);
+            assertTrue(SyntheticText.surname(random).length() <= SyntheticText.MAX_NAME_LENGTH);
+        }
+    }
+
+    @Test
+    void texts_shouldMixCyrillicAndLatin() {
+        String text = SyntheticText.newsText(new SplittableRandom(42));
+
+        assertTrue(text.chars().anyMatch(c -> Character.UnicodeBlock.of(c) == Character.UnicodeBlock.CYRILLIC));
+        assertTrue(text.chars().anyMatch(c -> c >= 'a' && c <= 'z'));
+    }
+
+    @Test
+    void texts_shouldBeDeterministicForSameSeed() {
+        assertEquals(SyntheticText.newsText(new SplittableRandom(7)), SyntheticText.newsText(new SplittableRandom(7)));
+    }
+}
@@ -0,0 +1,52 @@
+package by.mosquitto.bench;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ZipfSamplerTest {
+
+    private static final int SIZE = 1_000;
+    private static final int SAMPLES = 200_000;
+
+    @Test
+    void next_shouldStayWithinRange() {
+        ZipfSampler sampler = new ZipfSampler(SIZE, 1.1);
+        SplittableRandom random = new SplittableRandom(1);
+
+        IntStream.range(0, SAMPLES).map(i -> sampler.next(random))
+                .forEach(position -> assertTrue(position >= 0 && position < SIZE));
+    }
+
+    @Test
+    void next_shouldBeDeterministicForSameSeed() {
+        ZipfSampler sampler = new ZipfSampler(SIZE, 1.1);
+        SplittableRandom first = new SplittableRandom(42);
+        SplittableRandom second = new SplittableRandom(42);
+
+        int[] a = IntStream.range(0, 1_000).map(i -> sampler.next(first)).toArray();
+        int[] b = IntStream.range(0, 1_000).map(i -> sampler.next(second)).toArray();
+
+        assertArrayEquals(a, b);
+    }
+
+    @Test
+    void next_shouldConcentrateSamplesOnFewPositions() {
+        ZipfSampler sampler = new ZipfSampler(SIZE, 1.1);
+        SplittableRandom random = new SplittableRandom(7);
+        int[] hits = new int[SIZE];
+        for (int i = 0; i < SAMPLES; i++) {
+            hits[sampler.next(random)]++;
+        }
+
+        int[] sorted = Arrays.stream(hits).sorted().toArray();
+        long topOnePercent = Arrays.stream(sorted, SIZE - SIZE / 100, SIZE).sum();
+
+        assertTrue(topOnePercent > SAMPLES * 0.3, "top 1% got only " + topOnePercent + " samples");
+        assertNotEquals(0, Arrays.stream(hits).limit(SIZE / 2).sum(), "popular positions must not cluster at the end");
+    }
+}
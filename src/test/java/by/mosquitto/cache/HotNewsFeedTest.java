@@ -0,0 +1,194 @@
+package by.mosquitto.cache;
+
+import by.mosquitto.dto.NewsDto;
+import by.mosquitto.entity.News;
+import by.mosquitto.entity.User;
+import by.mosquitto.event.NewsChangedEvent;
+import by.mosquitto.repository.NewsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class HotNewsFeedTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.now();
+
+    @Mock private NewsRepository newsRepository;
+
+    @InjectMocks private HotNewsFeed hotNewsFeed;
+
+    @BeforeEach
+    void setup() {
+        ReflectionTestUtils.setField(hotNewsFeed, "capacity", 4);
+    }
+
+    @Test
+    void find_shouldReturnEmptyBeforeLoad() {
+        assertTrue(hotNewsFeed.find(PageRequest.of(0, 2, HotNewsFeed.FEED_SORT)).isEmpty());
+    }
+
+    @Test
+    void find_shouldServeCoveredPagesFromMemory() {
+        loadWith(10, 4, 3, 2, 1);
+
+        Optional<Page<NewsDto>> page = hotNewsFeed.find(PageRequest.of(1, 2, HotNewsFeed.FEED_SORT));
+
+        assertTrue(page.isPresent());
+        assertEquals(List.of(2L, 1L), ids(page.get()));
+        assertEquals(10, page.get().getTotalElements());
+    }
+
+    @Test
+    void find_shouldFallBackForDeepPagesAndOtherSorts() {
+        loadWith(10, 4, 3, 2, 1);
+
+        assertTrue(hotNewsFeed.find(PageRequest.of(2, 2, HotNewsFeed.FEED_SORT)).isEmpty());
+        assertTrue(hotNewsFeed.find(PageRequest.of(0, 2, Sort.by("title").ascending())).isEmpty());
+        assertTrue(hotNewsFeed.find(PageRequest.of(0, 2, Sort.by("creationDate").ascending())).isEmpty());
+    }
+
+    @Test
+    void onNewsChanged_shouldPutCreatedNewsOnTopAndTrimToCapacity() {
+        loadWith(10, 4, 3, 2, 1);
+
+        hotNewsFeed.onNewsChanged(NewsChangedEvent.created(dto(11)));
+
+        Page<NewsDto> page = hotNewsFeed.find(PageRequest.of(0, 4, HotNewsFeed.FEED_SORT)).orElseThrow();
+        assertEquals(List.of(11L, 4L, 3L, 2L), ids(page));
+        assertEquals(11, page.getTotalElements());
+    }
+
+    @Test
+    void onNewsChanged_shouldReplaceUpdatedAndDropDeletedNews() {
+        loadWith(4, 4, 3, 2, 1);
+
+        hotNewsFeed.onNewsChanged(NewsChangedEvent.updated(dto(3).toBuilder().title("Updated").build()));
+        hotNewsFeed.onNewsChanged(NewsChangedEvent.deleted(4L));
+
+        Page<NewsDto> page = hotNewsFeed.find(PageRequest.of(0, 4, HotNewsFeed.FEED_SORT)).orElseThrow();
+        assertEquals(List.of(3L, 2L, 1L), ids(page));
+        assertEquals("Updated", page.getContent().get(0).getTitle());
+        assertEquals(3, page.getTotalElements());
+    }
+
+    @Test
+    void load_shouldSortByCreationDateThenId() {
+        loadWith(4, 4, 3, 2, 1);
+
+        ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+        verify(newsRepository).findAll(pageable.capture());
+        assertEquals(HotNewsFeed.FEED_SORT.and(Sort.by("id").descending()), pageable.getValue().getSort());
+    }
+
+    @Test
+    void load_shouldRetryWhenNewsChangesDuringQuery() {
+        List<News> stale = List.of(entity(2), entity(1));
+        List<News> fresh = List.of(entity(3), entity(2), entity(1));
+        when(newsRepository.findAll(any(Pageable.class)))
+                .thenAnswer(invocation -> {
+                    hotNewsFeed.onNewsChanged(NewsChangedEvent.created(dto(3)));
+                    return new PageImpl<>(stale, invocation.getArgument(0), 2);
+                })
+                .thenAnswer(invocation -> new PageImpl<>(fresh, invocation.getArgument(0), 3));
+
+        hotNewsFeed.load();
+
+        Page<NewsDto> page = hotNewsFeed.find(PageRequest.of(0, 4, HotNewsFeed.FEED_SORT)).orElseThrow();
+        assertEquals(List.of(3L, 2L, 1L), ids(page));
+        verify(newsRepository, times(2)).findAll(any(Pageable.class));
+    }
+
+    @Test
+    void load_shouldNotCountWriteCommittedDuringQueryTwice() {
+        NewsChangedEvent created = NewsChangedEvent.created(dto(3));
+        List<News> news = List.of(entity(3), entity(2), entity(1));
+        when(newsRepository.findAll(any(Pageable.class)))
+                .thenAnswer(invocation -> {
+                    hotNewsFeed.onNewsCommitting(created);
+                    return new PageImpl<>(news, invocation.getArgument(0), 3);
+                })
+                .thenAnswer(invocation -> new PageImpl<>(news, invocation.getArgument(0), 3));
+
+        hotNewsFeed.load();
+        hotNewsFeed.onNewsChanged(created);
+        hotNewsFeed.onNewsCompleted(created);
+
+        assertTrue(hotNewsFeed.find(PageRequest.of(0, 4, HotNewsFeed.FEED_SORT)).isEmpty());
+        verify(newsRepository, times(1)).findAll(any(Pageable.class));
+
+        hotNewsFeed.reloadIfNeeded();
+
+        Page<NewsDto> page = hotNewsFeed.find(PageRequest.of(0, 4, HotNewsFeed.FEED_SORT)).orElseThrow();
+        assertEquals(List.of(3L, 2L, 1L), ids(page));
+        assertEquals(3, page.getTotalElements());
+    }
+
+    @Test
+    void reloadIfNeeded_shouldSkipLoadedFeed() {
+        loadWith(4, 4, 3, 2, 1);
+
+        hotNewsFeed.reloadIfNeeded();
+
+        verify(newsRepository, times(1)).findAll(any(Pageable.class));
+    }
+
+    @Test
+    void withTieBreak_shouldAddIdOnlyToDefaultSort() {
+        Pageable byTitle = PageRequest.of(1, 10, Sort.by("title"));
+
+        assertEquals(HotNewsFeed.FEED_SORT.and(Sort.by("id").descending()),
+                HotNewsFeed.withTieBreak(PageRequest.of(1, 10, HotNewsFeed.FEED_SORT)).getSort());
+        assertSame(byTitle, HotNewsFeed.withTieBreak(byTitle));
+    }
+
+    private void loadWith(long total, long... ids) {
+        List<News> news = LongStream.of(ids).mapToObj(HotNewsFeedTest::entity).toList();
+        when(newsRepository.findAll(any(Pageable.class)))
+                .thenAnswer(invocation -> new PageImpl<>(news, invocation.getArgument(0), total));
+        hotNewsFeed.load();
+    }
+
+    private static List<Long> ids(Page<NewsDto> page) {
+        return page.getContent().stream().map(NewsDto::getId).toList();
+    }
+
+    private static News entity(long id) {
+        return News.builder()
+                .id(id)
+                .title("Title " + id)
+                .text("Text " + id)
+                .creationDate(NOW.plusMinutes(id))
+                .createdByUser(User.builder().id(1L).build())
+                .build();
+    }
+
+    private static NewsDto dto(long id) {
+        return NewsDto.builder()
+                .id(id)
+                .title("Title " + id)
+                .text("Text " + id)
+                .creationDate(NOW.plusMinutes(id))
+                .insertedById(1L)
+                .build();
+    }
+}
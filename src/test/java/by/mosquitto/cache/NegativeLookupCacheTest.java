@@ -0,0 +1,92 @@
+package by.mosquitto.cache;
+
+import by.mosquitto.dto.NewsDto;
+import by.mosquitto.event.CommentChangedEvent;
+import by.mosquitto.event.NewsChangedEvent;
+import by.mosquitto.sql.ReadYourWrites;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static by.mosquitto.cache.NegativeLookupCache.Entity.COMMENT;
+import static by.mosquitto.cache.NegativeLookupCache.Entity.NEWS;
+import static org.junit.jupiter.api.Assertions.*;
+
+class NegativeLookupCacheTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final NegativeLookupCache cache = new NegativeLookupCache(now::get);
+
+    @BeforeEach
+    void setup() {
+        ReflectionTestUtils.setField(cache, "enabled", true);
+        ReflectionTestUtils.setField(cache, "ttlMillis", 5_000L);
+        ReflectionTestUtils.setField(cache, "maxEntries", 2);
+    }
+
+    @AfterEach
+    void cleanup() {
+        ReadYourWrites.clear();
+    }
+
+    @Test
+    void markMissing_shouldAnswerUntilTtlExpires() {
+        cache.markMissing(NEWS, 1L, cache.generation(NEWS));
+
+        assertTrue(cache.isMissing(NEWS, 1L));
+        assertFalse(cache.isMissing(COMMENT, 1L));
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(5));
+        assertFalse(cache.isMissing(NEWS, 1L));
+        assertEquals(0, cache.getSize(NEWS));
+        assertEquals(1, cache.getHits(NEWS));
+    }
+
+    @Test
+    void created_shouldInvalidateMissAndDiscardConcurrentLookup() {
+        long generation = cache.generation(NEWS);
+        cache.markMissing(NEWS, 1L, generation);
+
+        cache.onNewsChanged(NewsChangedEvent.created(NewsDto.builder().id(1L).build()));
+        cache.markMissing(NEWS, 2L, generation);
+
+        assertFalse(cache.isMissing(NEWS, 1L));
+        assertFalse(cache.isMissing(NEWS, 2L), "Miss read before the commit must not be remembered");
+    }
+
+    @Test
+    void updateAndDelete_shouldKeepRememberedMisses() {
+        cache.markMissing(COMMENT, 1L, cache.generation(COMMENT));
+
+        cache.onCommentChanged(CommentChangedEvent.deleted(2L, 10L));
+
+        assertTrue(cache.isMissing(COMMENT, 1L));
+    }
+
+    @Test
+    void markMissing_shouldNotGrowPastMaxEntriesUntilEviction() {
+        cache.markMissing(NEWS, 1L, cache.generation(NEWS));
+        cache.markMissing(NEWS, 2L, cache.generation(NEWS));
+        cache.markMissing(NEWS, 3L, cache.generation(NEWS));
+        assertEquals(2, cache.getSize(NEWS));
+        assertFalse(cache.isMissing(NEWS, 3L));
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(5));
+        cache.evictExpired();
+        cache.markMissing(NEWS, 3L, cache.generation(NEWS));
+        assertTrue(cache.isMissing(NEWS, 3L));
+    }
+
+    @Test
+    void isMissing_shouldBeBypassedForRecentWriter() {
+        cache.markMissing(NEWS, 1L, cache.generation(NEWS));
+
+        ReadYourWrites.requirePrimary();
+
+        assertFalse(cache.isMissing(NEWS, 1L));
+    }
+}
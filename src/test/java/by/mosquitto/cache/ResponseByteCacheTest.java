@@ -0,0 +1,97 @@
+package by.mosquitto.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseByteCacheTest {
+
+    private static final String JSON = "application/json";
+
+    private final AtomicLong now = new AtomicLong();
+    private ResponseByteCache cache;
+
+    @BeforeEach
+    void setup() {
+        cache = new ResponseByteCache(now::get);
+        ReflectionTestUtils.setField(cache, "maxBytes", 300L);
+        ReflectionTestUtils.setField(cache, "ttlMillis", 1_000L);
+        ReflectionTestUtils.setField(cache, "replicaLagMillis", 500L);
+        cache.init();
+    }
+
+    @Test
+    void get_shouldExpireEntriesAfterTtl() {
+        put("/api/news/1", 1L, 10);
+
+        advanceMillis(999);
+        assertNotNull(cache.get("/api/news/1"));
+        advanceMillis(1);
+        assertNull(cache.get("/api/news/1"));
+        assertEquals(0, cache.getBytes());
+    }
+
+    @Test
+    void put_shouldBoundTotalBytesAndSkipOversizedBodies() {
+        put("/api/news/1", 1L, 120);
+        put("/api/news/2", 2L, 120);
+        put("/api/news/3", 3L, 120);
+
+        assertTrue(cache.getBytes() <= 300);
+
+        long before = cache.getBytes();
+        put("/api/news/4", 4L, 301);
+        assertNull(cache.get("/api/news/4"));
+        assertEquals(before, cache.getBytes());
+    }
+
+    @Test
+    void invalidate_shouldDropNewsAndFeedPagesOnly() {
+        put("/api/news/1", 1L, 10);
+        put("/api/news/2", 2L, 10);
+        put("/api/news/paged", null, 10);
+
+        cache.invalidate(1L);
+
+        assertNull(cache.get("/api/news/1"));
+        assertNotNull(cache.get("/api/news/2"));
+        assertNull(cache.get("/api/news/paged"));
+        assertEquals(10, cache.getBytes());
+    }
+
+    @Test
+    void put_shouldSkipFillsAfterInvalidationWhileReplicasMayLag() {
+        ReflectionTestUtils.setField(cache, "replicasEnabled", true);
+        cache.invalidate(1L);
+
+        put("/api/news/paged", null, 10);
+        assertNull(cache.get("/api/news/paged"));
+
+        advanceMillis(500);
+        put("/api/news/paged", null, 10);
+        assertNotNull(cache.get("/api/news/paged"));
+    }
+
+    @Test
+    void put_shouldIgnoreResponsesBuiltBeforeInvalidation() {
+        long generation = cache.generation();
+        cache.invalidate(1L);
+
+        cache.put("/api/news/1", 1L, generation, new byte[10], JSON, null);
+
+        assertNull(cache.get("/api/news/1"));
+    }
+
+    private void put(String key, Long newsId, int size) {
+        cache.put(key, newsId, cache.generation(), new byte[size], JSON, null);
+    }
+
+    private void advanceMillis(long millis) {
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+}
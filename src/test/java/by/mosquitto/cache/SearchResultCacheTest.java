@@ -0,0 +1,101 @@
+package by.mosquitto.cache;
+
+import by.mosquitto.dto.NewsDto;
+import by.mosquitto.event.NewsChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchResultCacheTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final SearchResultCache cache = new SearchResultCache(now::get);
+
+    @BeforeEach
+    void setup() {
+        ReflectionTestUtils.setField(cache, "enabled", true);
+        ReflectionTestUtils.setField(cache, "maxEntries", 2);
+        ReflectionTestUtils.setField(cache, "ttlSeconds", 60L);
+        ReflectionTestUtils.setField(cache, "maxIds", 2);
+    }
+
+    @Test
+    void normalize_shouldFoldCaseWidthAndSpaces() {
+        assertEquals("погода в минске", SearchResultCache.normalize("  Погода \t В  МИНСКЕ "));
+        assertEquals("abc 1", SearchResultCache.normalize("ＡＢＣ　１"));
+    }
+
+    @Test
+    void put_shouldEvictLeastRecentlyUsedAndExpire() {
+        cache.put("a", List.of(news(1L, "a", "")), cache.generation());
+        cache.put("b", List.of(news(2L, "b", "")), cache.generation());
+        assertEquals(List.of(1L), cache.get("a"));
+        cache.put("c", List.of(), cache.generation());
+
+        assertNull(cache.get("b"));
+        assertEquals(List.of(1L), cache.get("a"));
+        assertEquals(List.of(), cache.get("c"));
+
+        cache.put("d", List.of(news(1L, "d", ""), news(2L, "d", ""), news(3L, "d", "")), cache.generation());
+        assertNull(cache.get("d"));
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(60));
+        assertNull(cache.get("a"));
+        assertNull(cache.get("c"));
+        assertEquals(0, cache.getSize());
+        assertEquals(3, cache.getHits());
+    }
+
+    @Test
+    void created_shouldInvalidateOnlyMatchingQueries() {
+        cache.put("погода", List.of(news(1L, "Погода", "")), cache.generation());
+        cache.put("матч", List.of(), cache.generation());
+
+        cache.onNewsChanged(NewsChangedEvent.created(news(5L, "Новости", "Ночью ПОГОДА испортится")));
+
+        assertNull(cache.get("погода"));
+        assertEquals(List.of(), cache.get("матч"));
+        assertEquals(1, cache.getInvalidations());
+    }
+
+    @Test
+    void updated_shouldInvalidateQueriesContainingNews() {
+        cache.put("погода", List.of(news(1L, "Погода", "")), cache.generation());
+        cache.put("матч", List.of(), cache.generation());
+
+        cache.onNewsChanged(NewsChangedEvent.updated(news(1L, "Прогноз", "")));
+        cache.onNewsChanged(NewsChangedEvent.deleted(2L));
+
+        assertNull(cache.get("погода"));
+        assertEquals(List.of(), cache.get("матч"));
+    }
+
+    @Test
+    void put_shouldDiscardSearchStartedBeforeWrite() {
+        long generation = cache.generation();
+        cache.onNewsChanged(NewsChangedEvent.created(news(5L, "Матч года", "")));
+
+        cache.put("матч", List.of(), generation);
+
+        assertNull(cache.get("матч"));
+    }
+
+    @Test
+    void wildcardQueries_shouldBeInvalidatedByAnyWrite() {
+        cache.put("м_тч", List.of(), cache.generation());
+
+        cache.onNewsChanged(NewsChangedEvent.created(news(5L, "Мотч", "")));
+
+        assertNull(cache.get("м_тч"));
+    }
+
+    private static NewsDto news(Long id, String title, String text) {
+        return NewsDto.builder().id(id).title(title).text(text).build();
+    }
+}
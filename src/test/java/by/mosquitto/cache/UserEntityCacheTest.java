@@ -0,0 +1,121 @@
+package by.mosquitto.cache;
+
+import by.mosquitto.cache.UserEntityCache.Invalidation;
+import by.mosquitto.entity.User;
+import by.mosquitto.event.UserChangedEvent;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class UserEntityCacheTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 9, 1, 12, 0);
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final SessionFactory sessionFactory = mock(SessionFactory.class);
+    private final Cache hibernateCache = mock(Cache.class);
+
+    private UserEntityCache cache;
+
+    @BeforeEach
+    void setup() {
+        when(sessionFactory.getCache()).thenReturn(hibernateCache);
+        cache = new UserEntityCache(jdbcTemplate, sessionFactory, true);
+        ReflectionTestUtils.setField(cache, "gapTimeoutMillis", 60_000L);
+    }
+
+    @Test
+    void apply_shouldEvictUsersAndRememberSkippedIds() {
+        cache.apply(List.of(new Invalidation(0, 1)), NOW);
+
+        cache.apply(List.of(new Invalidation(1, 5), new Invalidation(3, 7), new Invalidation(4, 8)), NOW);
+
+        assertEquals(1, cache.lowestUnread());
+        verify(hibernateCache).evictEntityData(User.class, 5L);
+        verify(hibernateCache).evictEntityData(User.class, 7L);
+        verify(hibernateCache).evictEntityData(User.class, 8L);
+        verify(hibernateCache, times(2)).evictNaturalIdData(User.class);
+        assertEquals(4, cache.getInvalidations());
+    }
+
+    @Test
+    void apply_shouldEvictLateCommitBelowWatermarkOnce() {
+        cache.apply(List.of(new Invalidation(0, 1), new Invalidation(1, 5), new Invalidation(3, 7)), NOW);
+        clearInvocations(hibernateCache);
+
+        // строка 2 закоммичена позже строки 3; строки 3 и 4 уже применены
+        cache.apply(List.of(new Invalidation(2, 9), new Invalidation(3, 7), new Invalidation(4, 8)), NOW.plusMinutes(5));
+
+        assertEquals(4, cache.lowestUnread());
+        verify(hibernateCache).evictEntityData(User.class, 9L);
+        verify(hibernateCache).evictEntityData(User.class, 8L);
+        verify(hibernateCache, never()).evictEntityData(User.class, 7L);
+    }
+
+    @Test
+    void apply_shouldForgetGapsAfterTimeout() {
+        cache.apply(List.of(new Invalidation(0, 1), new Invalidation(3, 7)), NOW);
+
+        cache.apply(List.of(new Invalidation(3, 7)), NOW.plusSeconds(59));
+        assertEquals(0, cache.lowestUnread());
+
+        cache.apply(List.of(new Invalidation(3, 7)), NOW.plusSeconds(61));
+        assertEquals(3, cache.lowestUnread());
+    }
+
+    @Test
+    void apply_shouldKeepWatermarkWithoutRows() {
+        cache.apply(List.of(new Invalidation(0, 1)), NOW);
+        clearInvocations(hibernateCache);
+
+        cache.apply(List.of(), NOW);
+
+        assertEquals(0, cache.lowestUnread());
+        verifyNoInteractions(hibernateCache);
+    }
+
+    @Test
+    void onUserChanged_shouldEvictUpdatedUserOnOwnNode() {
+        cache.onUserChanged(UserChangedEvent.updated(5L));
+        cache.onUserChanged(UserChangedEvent.deleted(7L));
+
+        verify(hibernateCache).evictEntityData(User.class, 5L);
+        verify(hibernateCache).evictNaturalIdData(User.class);
+        verifyNoMoreInteractions(hibernateCache);
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void getHitRatio_shouldDivideHitsByLookups() {
+        Statistics statistics = mock(Statistics.class);
+        CacheRegionStatistics region = mock(CacheRegionStatistics.class);
+        when(sessionFactory.getStatistics()).thenReturn(statistics);
+        when(statistics.getDomainDataRegionStatistics(User.CACHE_REGION)).thenReturn(region);
+        when(region.getHitCount()).thenReturn(0L, 3L, 3L);
+        when(region.getMissCount()).thenReturn(0L, 1L);
+
+        assertTrue(Double.isNaN(cache.getHitRatio(User.CACHE_REGION)));
+        assertEquals(0.75, cache.getHitRatio(User.CACHE_REGION));
+    }
+
+    @Test
+    void invalidate_shouldSkipWritesWhenSecondLevelCacheIsDisabled() {
+        UserEntityCache disabled = new UserEntityCache(jdbcTemplate, sessionFactory, false);
+
+        disabled.invalidate(5L);
+        disabled.poll();
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+}
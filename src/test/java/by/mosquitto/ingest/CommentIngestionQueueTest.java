@@ -0,0 +1,236 @@
+package by.mosquitto.ingest;
+
+import by.mosquitto.dto.CommentDto;
+import by.mosquitto.dto.PendingCommentDto;
+import by.mosquitto.exception.InvalidRequestException;
+import by.mosquitto.exception.PendingCommentNotFoundException;
+import by.mosquitto.exception.ServiceUnavailableException;
+import by.mosquitto.repository.ChangeLogRepository;
+import by.mosquitto.repository.CommentRepository;
+import by.mosquitto.repository.NewsRepository;
+import by.mosquitto.repository.UserRepository;
+import by.mosquitto.service.ChangeFeedServiceManager;
+import by.mosquitto.service.contract.NewsFeedService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CommentIngestionQueueTest {
+
+    @Mock private CommentBatchWriter batchWriter;
+
+    @InjectMocks private CommentIngestionQueue queue;
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    void setup() {
+        ReflectionTestUtils.setField(queue, "mode", "async");
+        ReflectionTestUtils.setField(queue, "queueCapacity", 1);
+        ReflectionTestUtils.setField(queue, "batchSize", 10);
+        ReflectionTestUtils.setField(queue, "maxDelayMillis", 1L);
+        ReflectionTestUtils.setField(queue, "retryAfterSeconds", 2L);
+        ReflectionTestUtils.setField(queue, "statusCapacity", 100);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        release.countDown();
+        queue.stop();
+    }
+
+    @Test
+    void submit_shouldRejectInvalidComment() {
+        queue.start();
+
+        assertThrows(InvalidRequestException.class, () -> queue.submit(comment(" ")));
+        assertThrows(InvalidRequestException.class, () -> queue.submit(CommentDto.builder().text("text").build()));
+    }
+
+    @Test
+    void submit_shouldAcceptAndWriteInBatches() {
+        when(batchWriter.write(anyList())).thenAnswer(invocation -> written(invocation.getArgument(0)));
+        queue.start();
+
+        PendingCommentDto pending = queue.submit(comment("Nice article"));
+
+        assertNotNull(pending.getPendingId());
+        assertEquals(PendingCommentDto.Status.PENDING, pending.getStatus());
+        verify(batchWriter, timeout(2_000)).write(anyList());
+        assertEquals(1, queue.getAccepted());
+        awaitStatus(pending.getPendingId(), PendingCommentDto.Status.WRITTEN);
+        assertEquals(100L, queue.getStatus(pending.getPendingId()).getCommentId());
+    }
+
+    @Test
+    void flush_shouldRetryFailedBatchOneByOneAndRecordFailedRows() {
+        ReflectionTestUtils.setField(queue, "queueCapacity", 10);
+        ReflectionTestUtils.setField(queue, "maxDelayMillis", 200L);
+        when(batchWriter.write(anyList())).thenAnswer(invocation -> {
+            List<PendingComment> batch = invocation.getArgument(0);
+            if (batch.size() > 1 || "bad".equals(batch.get(0).text())) {
+                throw new IllegalStateException("constraint violation");
+            }
+            return written(batch);
+        });
+        queue.start();
+
+        PendingCommentDto good = queue.submit(comment("good"));
+        PendingCommentDto bad = queue.submit(comment("bad"));
+
+        awaitStatus(bad.getPendingId(), PendingCommentDto.Status.FAILED);
+        assertEquals(PendingCommentDto.Status.WRITTEN, queue.getStatus(good.getPendingId()).getStatus());
+        assertEquals("constraint violation", queue.getStatus(bad.getPendingId()).getError());
+        assertEquals(1, queue.getWritten());
+        assertEquals(1, queue.getFailed());
+        assertEquals(1, queue.getRetriedBatches());
+    }
+
+    @Test
+    void flush_shouldWriteCommentsAndChangeLogInOneStatementEach() throws InterruptedException {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        NewsRepository newsRepository = mock(NewsRepository.class);
+        UserRepository userRepository = mock(UserRepository.class);
+        ChangeLogRepository changeLogRepository = mock(ChangeLogRepository.class);
+        ChangeFeedServiceManager changeFeedService = new ChangeFeedServiceManager(changeLogRepository,
+                newsRepository, mock(CommentRepository.class), jdbcTemplate, mock(PlatformTransactionManager.class));
+        CommentIngestionQueue batchedQueue = new CommentIngestionQueue(new CommentBatchWriter(jdbcTemplate,
+                newsRepository, userRepository, changeFeedService, mock(NewsFeedService.class),
+                mock(ApplicationEventPublisher.class)));
+        ReflectionTestUtils.setField(batchedQueue, "mode", "async");
+        ReflectionTestUtils.setField(batchedQueue, "queueCapacity", 100);
+        ReflectionTestUtils.setField(batchedQueue, "batchSize", 50);
+        ReflectionTestUtils.setField(batchedQueue, "maxDelayMillis", 500L);
+        ReflectionTestUtils.setField(batchedQueue, "statusCapacity", 100);
+        when(newsRepository.findExistingIds(List.of(1L))).thenReturn(List.of(1L));
+        when(userRepository.findExistingIds(List.of(2L))).thenReturn(List.of(2L));
+        when(jdbcTemplate.batchUpdate(any(PreparedStatementCreator.class), any(BatchPreparedStatementSetter.class),
+                any(KeyHolder.class))).thenAnswer(invocation -> {
+                    BatchPreparedStatementSetter setter = invocation.getArgument(1);
+                    KeyHolder keys = invocation.getArgument(2);
+                    IntStream.range(0, setter.getBatchSize())
+                            .forEach(i -> keys.getKeyList().add(Map.of("id", 100L + i)));
+                    return new int[setter.getBatchSize()];
+                });
+        batchedQueue.start();
+        try {
+            List<PendingCommentDto> pending = IntStream.range(0, 50)
+                    .mapToObj(i -> batchedQueue.submit(comment("Comment " + i)))
+                    .toList();
+
+            String last = pending.get(49).getPendingId();
+            long deadline = System.currentTimeMillis() + 2_000;
+            while (batchedQueue.getStatus(last).getStatus() != PendingCommentDto.Status.WRITTEN
+                    && System.currentTimeMillis() < deadline) {
+                Thread.onSpinWait();
+            }
+
+            assertEquals(149L, batchedQueue.getStatus(last).getCommentId());
+            assertEquals(50, batchedQueue.getWritten());
+            assertEquals(1, batchedQueue.getBatches());
+            // INSERT комментариев и INSERT журнала изменений — по одному батчу на всю пачку
+            assertEquals(2, mockingDetails(jdbcTemplate).getInvocations().size());
+            verifyNoInteractions(changeLogRepository);
+        } finally {
+            batchedQueue.stop();
+        }
+    }
+
+    @Test
+    void flush_shouldMarkCommentsToMissingNewsAsRejected() {
+        when(batchWriter.write(anyList())).thenReturn(Map.of());
+        queue.start();
+
+        PendingCommentDto pending = queue.submit(comment("orphan"));
+
+        awaitStatus(pending.getPendingId(), PendingCommentDto.Status.REJECTED);
+        assertEquals(1, queue.getDropped());
+    }
+
+    @Test
+    void getStatus_shouldFailForUnknownPendingId() {
+        queue.start();
+
+        assertThrows(PendingCommentNotFoundException.class, () -> queue.getStatus("unknown"));
+    }
+
+    @Test
+    void bindTo_shouldExportCounters() {
+        when(batchWriter.write(anyList())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return Map.<String, Long>of();
+        });
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        queue.bindTo(registry);
+        queue.start();
+
+        queue.submit(comment("first"));
+        assertThrows(ServiceUnavailableException.class, () -> {
+            for (int i = 0; i < 10; i++) {
+                queue.submit(comment("next"));
+            }
+        });
+
+        assertEquals(queue.getAccepted(), registry.get("comments.ingestion.accepted").functionCounter().count());
+        assertEquals(1.0, registry.get("comments.ingestion.rejected").functionCounter().count());
+        assertNotNull(registry.get("comments.ingestion.queue.size").gauge());
+    }
+
+    @Test
+    void submit_shouldFailFastWhenQueueIsFull() throws InterruptedException {
+        when(batchWriter.write(anyList())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return Map.<String, Long>of();
+        });
+        queue.start();
+
+        queue.submit(comment("first"));
+        verify(batchWriter, timeout(2_000)).write(anyList());
+        queue.submit(comment("second"));
+
+        ServiceUnavailableException ex = assertThrows(ServiceUnavailableException.class, () -> queue.submit(comment("third")));
+        assertEquals(2L, ex.getRetryAfterSeconds());
+        assertEquals(1, queue.getRejected());
+    }
+
+    private void awaitStatus(String pendingId, PendingCommentDto.Status status) {
+        long deadline = System.currentTimeMillis() + 2_000;
+        while (queue.getStatus(pendingId).getStatus() != status && System.currentTimeMillis() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertEquals(status, queue.getStatus(pendingId).getStatus());
+    }
+
+    private static Map<String, Long> written(List<PendingComment> batch) {
+        return batch.stream().collect(Collectors.toMap(PendingComment::pendingId, comment -> 100L));
+    }
+
+    private static CommentDto comment(String text) {
+        return CommentDto.builder().text(text).newsId(1L).userId(2L).build();
+    }
+}
@@ -0,0 +1,109 @@
+package by.mosquitto.limit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long WINDOW_MILLIS = 10;
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    void tryAcquire_shouldRejectAboveLimit() {
+        AdaptiveConcurrencyLimiter limiter = limiter(2, 1, 10);
+
+        long first = limiter.tryAcquire();
+        long second = limiter.tryAcquire();
+
+        assertTrue(first >= 0 && second >= 0);
+        assertEquals(-1, limiter.tryAcquire());
+        assertEquals(1, limiter.getRejected());
+        assertEquals(2, limiter.getInFlight());
+
+        limiter.release(first);
+        assertTrue(limiter.tryAcquire() >= 0);
+    }
+
+    @Test
+    void stableLatency_shouldGrowLimit() {
+        AdaptiveConcurrencyLimiter limiter = limiter(10, 5, 100);
+
+        for (int window = 0; window < 30; window++) {
+            saturate(limiter, 10);
+        }
+
+        assertTrue(limiter.getLimit() > 10, "limit " + limiter.getLimit());
+        assertTrue(limiter.getLimit() <= 100);
+    }
+
+    @Test
+    void shrinkingCapacity_shouldFollowQueueingLatency() {
+        AdaptiveConcurrencyLimiter limiter = limiter(20, 5, 200);
+        for (int window = 0; window < 100; window++) {
+            saturateQueue(limiter, 80);
+        }
+        int healthyLimit = limiter.getLimit();
+
+        for (int window = 0; window < 100; window++) {
+            saturateQueue(limiter, 10);
+        }
+        int degradedLimit = limiter.getLimit();
+
+        assertTrue(healthyLimit >= 80, "healthy limit " + healthyLimit);
+        assertTrue(degradedLimit < healthyLimit / 2, healthyLimit + " -> " + degradedLimit);
+        assertTrue(degradedLimit >= 5);
+    }
+
+    @Test
+    void lowUtilization_shouldNotGrowLimit() {
+        AdaptiveConcurrencyLimiter limiter = limiter(40, 5, 100);
+
+        for (int window = 0; window < 30; window++) {
+            run(limiter, 3, 10);
+        }
+
+        assertEquals(40, limiter.getLimit());
+    }
+
+    @Test
+    void constructor_shouldRejectInvalidBounds() {
+        assertThrows(IllegalArgumentException.class, () -> limiter(10, 20, 10));
+        assertThrows(IllegalArgumentException.class, () -> limiter(10, 0, 10));
+    }
+
+    private AdaptiveConcurrencyLimiter limiter(int initial, int min, int max) {
+        return new AdaptiveConcurrencyLimiter("test", initial, min, max, 1.5, 0.5, WINDOW_MILLIS, 1, 50, clock::get);
+    }
+
+    /**
+     * Одно окно, в котором заняты все разрешения.
+     */
+    private void saturate(AdaptiveConcurrencyLimiter limiter, long rttMillis) {
+        run(limiter, limiter.getLimit(), rttMillis);
+    }
+
+    /**
+     * Окно с моделью очереди: сверх {@code capacity} запросы ждут, и время ответа растёт пропорционально.
+     */
+    private void saturateQueue(AdaptiveConcurrencyLimiter limiter, int capacity) {
+        int concurrency = limiter.getLimit();
+        run(limiter, concurrency, Math.max(WINDOW_MILLIS, WINDOW_MILLIS * concurrency / capacity));
+    }
+
+    private void run(AdaptiveConcurrencyLimiter limiter, int concurrency, long rttMillis) {
+        long[] starts = new long[concurrency];
+        for (int i = 0; i < concurrency; i++) {
+            starts[i] = limiter.tryAcquire();
+            assertTrue(starts[i] >= 0);
+        }
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(Math.max(rttMillis, WINDOW_MILLIS)));
+        for (long start : starts) {
+            limiter.release(start);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package by.mosquitto.limit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LogThrottleTest {
+
+    @Test
+    void tryAcquire_shouldAllowBurstThenReportSuppressedCount() {
+        AtomicLong now = new AtomicLong();
+        LogThrottle throttle = new LogThrottle(2, 3, now::get);
+
+        assertEquals(0, throttle.tryAcquire());
+        assertEquals(0, throttle.tryAcquire());
+        assertEquals(0, throttle.tryAcquire());
+        assertEquals(-1, throttle.tryAcquire());
+        assertEquals(-1, throttle.tryAcquire());
+
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+        assertEquals(2, throttle.tryAcquire());
+        assertEquals(-1, throttle.tryAcquire());
+    }
+}
@@ -0,0 +1,104 @@
+package by.mosquitto.limit;
+
+import by.mosquitto.limit.RateLimiter.Decision;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.server.PathContainer;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+
+    @Test
+    void tryAcquire_shouldAllowBurstThenReject() {
+        RateLimiter limiter = limiter(3, 1, 100);
+
+        assertEquals(new Decision(true, 2, 1), limiter.tryAcquire("ip:1"));
+        assertEquals(new Decision(true, 1, 2), limiter.tryAcquire("ip:1"));
+        assertEquals(new Decision(true, 0, 3), limiter.tryAcquire("ip:1"));
+        Decision rejected = limiter.tryAcquire("ip:1");
+
+        assertFalse(rejected.allowed());
+        assertEquals(1, rejected.resetSeconds());
+        assertEquals(1, limiter.getRejected());
+    }
+
+    @Test
+    void tryAcquire_shouldRefillOverTime() {
+        RateLimiter limiter = limiter(2, 2, 100);
+        limiter.tryAcquire("ip:1");
+        limiter.tryAcquire("ip:1");
+        assertFalse(limiter.tryAcquire("ip:1").allowed());
+
+        advanceMillis(500);
+
+        assertTrue(limiter.tryAcquire("ip:1").allowed());
+        assertFalse(limiter.tryAcquire("ip:1").allowed());
+    }
+
+    @Test
+    void tryAcquire_shouldKeepClientsIndependent() {
+        RateLimiter limiter = limiter(1, 1, 100);
+
+        assertTrue(limiter.tryAcquire("ip:1").allowed());
+        assertFalse(limiter.tryAcquire("ip:1").allowed());
+        assertTrue(limiter.tryAcquire("user:alice").allowed());
+        assertEquals(2, limiter.getClients());
+    }
+
+    @Test
+    void evictIdle_shouldRemoveOnlyFullBuckets() {
+        RateLimiter limiter = limiter(10, 1, 100);
+        limiter.tryAcquire("ip:1");
+        advanceMillis(500);
+        limiter.tryAcquire("ip:2");
+
+        advanceMillis(600);
+
+        assertEquals(1, limiter.evictIdle());
+        assertEquals(1, limiter.getClients());
+        assertEquals(new Decision(true, 9, 1), limiter.tryAcquire("ip:1"));
+    }
+
+    @Test
+    void tryAcquire_shouldShareOverflowBucketAboveMaxClients() {
+        RateLimiter limiter = limiter(1, 1, 2);
+        limiter.tryAcquire("ip:1");
+        limiter.tryAcquire("ip:2");
+
+        assertTrue(limiter.tryAcquire("ip:3").allowed());
+        assertFalse(limiter.tryAcquire("ip:4").allowed());
+        assertEquals(2, limiter.getClients());
+        assertEquals(2, limiter.getOverflowed());
+    }
+
+    @Test
+    void matches_shouldUsePathPatternsAndMethods() {
+        RateLimiter limiter = new RateLimiter("comments",
+                new RateLimiter.Settings(List.of("/api/comments/**"), List.of("get"), 1, 1), 10, clock::get);
+
+        assertTrue(limiter.matches("GET", PathContainer.parsePath("/api/comments")));
+        assertTrue(limiter.matches("GET", PathContainer.parsePath("/api/comments/news/5")));
+        assertFalse(limiter.matches("POST", PathContainer.parsePath("/api/comments")));
+        assertFalse(limiter.matches("GET", PathContainer.parsePath("/api/news/5")));
+    }
+
+    @Test
+    void policyHeader_shouldContainCapacityAndWindow() {
+        assertEquals("20;w=10", limiter(20, 2, 100).policyHeader());
+    }
+
+    private RateLimiter limiter(int capacity, double refillPerSecond, int maxClients) {
+        return new RateLimiter("test", new RateLimiter.Settings(List.of("/api/**"), null, capacity, refillPerSecond),
+                maxClients, clock::get);
+    }
+
+    private void advanceMillis(long millis) {
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+}
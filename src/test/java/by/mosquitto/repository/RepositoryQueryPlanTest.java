@@ -0,0 +1,283 @@
+package by.mosquitto.repository;
+
+import by.mosquitto.event.ChangeEntityType;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Планы запросов каждого метода репозиториев на PostgreSQL, схема которого создана миграциями.
+ *
+ * Метод вызывается в откатываемой транзакции, его SQL перехватывается datasource-proxy и
+ * разбирается {@code EXPLAIN (GENERIC_PLAN)} при {@code enable_seqscan = off}: планировщик
+ * выбирает полный просмотр, только если ни один индекс не подходит. Поэтому тест не зависит
+ * от объёма данных и проверяет, что индекс есть и применим, а не что он выгоднее на малой таблице.
+ *
+ * Второй уровень кэша выключен: иначе повторное чтение пользователя не дошло бы до БД.
+ *
+ * Без Docker тест пропускается.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(properties = {
+        "spring.flyway.locations=classpath:db/migration/{vendor}",
+        "app.news.feed.rebuild-on-startup=false",
+        "app.cache.response.enabled=false",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false"
+})
+class RepositoryQueryPlanTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 9, 1, 12, 0);
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    @Autowired private NewsRepository newsRepository;
+    @Autowired private CommentRepository commentRepository;
+    @Autowired private CommentPreviewRepository commentPreviewRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private ChangeLogRepository changeLogRepository;
+    @Autowired private NewsFeedRepository newsFeedRepository;
+    @Autowired private DataSource dataSource;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    private final StatementRecorder recorder = new StatementRecorder();
+
+    @BeforeEach
+    void setup() {
+        ((ProxyDataSource) dataSource).getProxyConfig().getQueryListener().addListener(recorder);
+    }
+
+    // --- NewsRepository ---
+
+    @Test
+    void news_findById() {
+        assertUsesIndex("news_pkey", () -> newsRepository.findById(1L));
+    }
+
+    @Test
+    void news_findAllPagedByCreationDate() {
+        assertUsesIndex("idx_news_creation_date",
+                () -> newsRepository.findAll(PageRequest.of(3, 10, Sort.by("creationDate").descending())));
+    }
+
+    @Test
+    void news_findExistingIds() {
+        assertUsesIndex("news_pkey", () -> newsRepository.findExistingIds(List.of(1L, 2L)));
+    }
+
+    @Test
+    void news_findByAuthor() {
+        assertUsesIndex("idx_news_author_created",
+                () -> newsRepository.findByCreatedByUserIdOrderByCreationDateDescIdDesc(1L, Limit.of(20)));
+        assertUsesIndex("idx_news_author_created",
+                () -> newsRepository.findByAuthorBefore(1L, NOW, 10L, Limit.of(20)));
+    }
+
+    @Test
+    void news_search() {
+        String plan = explain(jdbcTemplate, toGenericPlanSql("SELECT id FROM news "
+                + "WHERE LOWER(title) LIKE LOWER('%' || ? || '%') OR LOWER(text) LIKE LOWER('%' || ? || '%')"));
+
+        assertTrue(plan.contains("idx_news_title_trgm") && plan.contains("idx_news_text_trgm"), plan);
+        assertFalse(plan.contains("Seq Scan"), plan);
+    }
+
+    // --- CommentRepository, CommentPreviewRepository ---
+
+    @Test
+    void comments_findByNewsId() {
+        assertUsesIndex("idx_comments_news_created", () -> commentRepository.findByNewsId(1L));
+        assertUsesIndex("idx_comments_news_created",
+                () -> commentRepository.findByNewsId(1L, PageRequest.of(2, 10, Sort.by("creationDate"))));
+    }
+
+    @Test
+    void comments_findByAuthor() {
+        assertUsesIndex("idx_comments_author_created",
+                () -> commentRepository.findByCreatedByUserIdOrderByCreationDateDescIdDesc(1L, Limit.of(20)));
+        assertUsesIndex("idx_comments_author_created",
+                () -> commentRepository.findByAuthorBefore(1L, NOW, 10L, Limit.of(20)));
+    }
+
+    @Test
+    void comments_findCascadedRefs() {
+        assertUsesIndex("idx_comments_author_created", () -> commentRepository.findRefsByAuthor(1L));
+        assertUsesIndex("idx_comments_news_created", () -> commentRepository.findRefsByNewsIds(List.of(1L, 2L)));
+    }
+
+    @Test
+    void comments_findStats() {
+        assertUsesIndex("idx_comments_news_created", () -> commentPreviewRepository.findStats(List.of(1L, 2L, 3L), 3));
+    }
+
+    // --- UserRepository ---
+
+    @Test
+    void users_lookups() {
+        assertUsesIndex("app_user_pkey", () -> userRepository.findById(1L));
+        assertUsesIndex("app_user_username_key", () -> userRepository.existsByUsername("alice"));
+        assertUsesIndex("app_user_username_key", () -> userRepository.findByUsername("alice"));
+        assertUsesIndex("app_user_pkey", () -> userRepository.findExistingIds(List.of(1L, 2L)));
+    }
+
+    // --- ChangeLogRepository ---
+
+    @Test
+    void changeLog_findSince() {
+        assertUsesIndex("idx_change_log_seq",
+                () -> changeLogRepository.findBySeqGreaterThanOrderBySeqAsc(0L, Limit.of(50)));
+        assertUsesIndex("idx_change_log_news_seq",
+                () -> changeLogRepository.findBySeqGreaterThanAndNewsIdOrderBySeqAsc(0L, 1L, Limit.of(50)));
+        assertUsesIndex("idx_change_log_seq", () -> changeLogRepository
+                .findBySeqGreaterThanAndEntityTypeOrderBySeqAsc(0L, ChangeEntityType.COMMENT, Limit.of(50)));
+        assertUsesIndex("idx_change_log_news_seq", () -> changeLogRepository
+                .findBySeqGreaterThanAndNewsIdAndEntityTypeOrderBySeqAsc(0L, 1L, ChangeEntityType.COMMENT, Limit.of(50)));
+    }
+
+    // --- NewsFeedRepository ---
+
+    @Test
+    void newsFeed_reads() {
+        assertUsesIndex("idx_news_feed_activity",
+                () -> newsFeedRepository.findAllByOrderByLastActivityDescNewsIdDesc(Limit.of(20)));
+        assertUsesIndex("idx_news_feed_activity", () -> newsFeedRepository.findBefore(NOW, 10L, Limit.of(20)));
+    }
+
+    @Test
+    void newsFeed_writes() {
+        assertUsesIndex("news_feed_pkey", () -> newsFeedRepository.updateNews(1L, "t", "e", NOW));
+        assertUsesIndex("news_feed_pkey", () -> newsFeedRepository.addComments(1L, 2, NOW));
+        assertUsesIndex("news_feed_pkey", () -> newsFeedRepository.removeComment(1L));
+        assertUsesIndex("news_feed_pkey", () -> newsFeedRepository.deleteByNewsId(1L));
+        assertUsesIndex("idx_news_feed_author", () -> newsFeedRepository.renameAuthor(1L, "A B"));
+    }
+
+    @Test
+    void newsFeed_userDeleting() {
+        assertUsesIndex("idx_news_updated_by", () -> newsFeedRepository.deleteNewsOfUser(1L));
+        assertUsesIndex("idx_comments_author_created", () -> newsFeedRepository.subtractCommentsOfUser(1L));
+    }
+
+    /**
+     * Вызывает метод в откатываемой транзакции и проверяет планы всех его выражений:
+     * ни одного полного просмотра, и хотя бы в одном плане — ожидаемый индекс.
+     */
+    private void assertUsesIndex(String index, Runnable call) {
+        List<String> statements = recorder.record(() -> new TransactionTemplate(transactionManager)
+                .executeWithoutResult(status -> {
+                    call.run();
+                    status.setRollbackOnly();
+                }));
+        assertFalse(statements.isEmpty(), "No statements recorded");
+
+        List<String> plans = statements.stream().map(sql -> explain(jdbcTemplate, toGenericPlanSql(sql))).toList();
+        String report = String.join("\n---\n", plans);
+        assertFalse(report.contains("Seq Scan"), report);
+        assertTrue(report.contains(index), "Expected " + index + " in\n" + report);
+    }
+
+    private static String explain(JdbcTemplate jdbcTemplate, String sql) {
+        return jdbcTemplate.execute((Connection connection) -> {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET LOCAL enable_seqscan = off");
+                List<String> lines = new ArrayList<>();
+                try (ResultSet rs = statement.executeQuery("EXPLAIN (GENERIC_PLAN) " + sql)) {
+                    while (rs.next()) {
+                        lines.add(rs.getString(1));
+                    }
+                }
+                return String.join("\n", lines);
+            } finally {
+                connection.rollback();
+                connection.setAutoCommit(autoCommit);
+            }
+        });
+    }
+
+    /**
+     * Заменяет JDBC-параметры {@code ?} на {@code $1, $2, ...}, которые понимает {@code EXPLAIN (GENERIC_PLAN)}.
+     */
+    static String toGenericPlanSql(String sql) {
+        StringBuilder result = new StringBuilder(sql.length() + 16);
+        boolean quoted = false;
+        int parameter = 0;
+        for (char c : sql.toCharArray()) {
+            if (c == '\'') {
+                quoted = !quoted;
+            }
+            if (c == '?' && !quoted) {
+                result.append('$').append(++parameter);
+            } else {
+                result.append(c);
+            }
+        }
+        return result.toString();
+    }
+
+    /**
+     * Собирает SQL, выполненный текущим потоком, пока идёт запись.
+     */
+    private static final class StatementRecorder implements QueryExecutionListener {
+
+        private volatile Thread recording;
+        private final List<String> statements = new ArrayList<>();
+
+        List<String> record(Runnable action) {
+            statements.clear();
+            recording = Thread.currentThread();
+            try {
+                action.run();
+            } finally {
+                recording = null;
+            }
+            return List.copyOf(statements);
+        }
+
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            if (recording == Thread.currentThread()) {
+                queryInfoList.forEach(query -> statements.add(query.getQuery()));
+            }
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package by.mosquitto.service;
+
+import by.mosquitto.dto.ChangeDto;
+import by.mosquitto.dto.ChangeFeedDto;
+import by.mosquitto.entity.ChangeLogEntry;
+import by.mosquitto.entity.News;
+import by.mosquitto.entity.User;
+import by.mosquitto.event.ChangeEntityType;
+import by.mosquitto.event.ChangeType;
+import by.mosquitto.exception.ChangeTokenExpiredException;
+import by.mosquitto.repository.ChangeLogRepository;
+import by.mosquitto.repository.CommentRepository;
+import by.mosquitto.repository.NewsRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.PreparedStatement;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ChangeFeedServiceManagerTest {
+
+    @Mock private ChangeLogRepository changeLogRepository;
+    @Mock private NewsRepository newsRepository;
+    @Mock private CommentRepository commentRepository;
+    @Mock private JdbcTemplate jdbcTemplate;
+    @Mock private PlatformTransactionManager transactionManager;
+
+    @InjectMocks private ChangeFeedServiceManager changeFeedService;
+
+    @Test
+    void record_shouldSaveEntry() {
+        changeFeedService.record(ChangeEntityType.COMMENT, ChangeType.CREATED, 10L, 1L);
+
+        ArgumentCaptor<ChangeLogEntry> captor = ArgumentCaptor.forClass(ChangeLogEntry.class);
+        verify(changeLogRepository).save(captor.capture());
+        assertEquals(ChangeEntityType.COMMENT, captor.getValue().getEntityType());
+        assertEquals(ChangeType.CREATED, captor.getValue().getOperation());
+        assertEquals(10L, captor.getValue().getEntityId());
+        assertEquals(1L, captor.getValue().getNewsId());
+        assertNotNull(captor.getValue().getChangedAt());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void recordDeleted_shouldWriteTombstonesInOneBatch() throws Exception {
+        Map<Long, Long> comments = new LinkedHashMap<>();
+        comments.put(10L, 1L);
+        comments.put(11L, 2L);
+
+        changeFeedService.recordDeleted(ChangeEntityType.COMMENT, comments);
+
+        ArgumentCaptor<Collection<Map.Entry<Long, Long>>> rows = ArgumentCaptor.forClass(Collection.class);
+        ArgumentCaptor<ParameterizedPreparedStatementSetter<Map.Entry<Long, Long>>> setter =
+                ArgumentCaptor.forClass(ParameterizedPreparedStatementSetter.class);
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO change_log"), rows.capture(), eq(2), setter.capture());
+        assertEquals(List.of(10L, 11L), rows.getValue().stream().map(Map.Entry::getKey).toList());
+
+        PreparedStatement ps = mock(PreparedStatement.class);
+        setter.getValue().setValues(ps, rows.getValue().iterator().next());
+        verify(ps).setString(1, "COMMENT");
+        verify(ps).setLong(2, 10L);
+        verify(ps).setString(4, "DELETED");
+        verifyNoInteractions(changeLogRepository);
+    }
+
+    @Test
+    void recordDeleted_shouldSkipEmpty() {
+        changeFeedService.recordDeleted(ChangeEntityType.NEWS, Map.of());
+
+        verifyNoInteractions(changeLogRepository, jdbcTemplate);
+    }
+
+    @Test
+    void getChanges_shouldCoalesceAndAttachPayloadsExceptTombstones() {
+        News news = News.builder().id(1L).title("Title").createdByUser(User.builder().id(5L).build()).build();
+        when(changeLogRepository.findBySeqGreaterThanOrderBySeqAsc(0L, Limit.of(3)))
+                .thenReturn(List.of(
+                        entry(1L, ChangeEntityType.NEWS, 1L, ChangeType.CREATED),
+                        entry(2L, ChangeEntityType.NEWS, 1L, ChangeType.UPDATED),
+                        entry(3L, ChangeEntityType.COMMENT, 7L, ChangeType.DELETED)));
+        when(newsRepository.findAllById(List.of(1L))).thenReturn(List.of(news));
+
+        ChangeFeedDto result = changeFeedService.getChanges(0L, null, 2);
+
+        assertTrue(result.isHasMore());
+        assertEquals(2L, result.getNextToken());
+        assertEquals(1, result.getChanges().size());
+        ChangeDto change = result.getChanges().get(0);
+        assertEquals(ChangeType.UPDATED, change.getOperation());
+        assertEquals("Title", change.getNews().getTitle());
+        verifyNoInteractions(commentRepository);
+    }
+
+    @Test
+    void getChanges_shouldKeepTokenWhenNothingChanged() {
+        when(changeLogRepository.findBySeqGreaterThanAndNewsIdOrderBySeqAsc(eq(42L), eq(1L), any(Limit.class)))
+                .thenReturn(List.of());
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class))).thenReturn(0L);
+
+        ChangeFeedDto result = changeFeedService.getChanges(42L, 1L, 100);
+
+        assertEquals(42L, result.getNextToken());
+        assertFalse(result.isHasMore());
+        assertTrue(result.getChanges().isEmpty());
+    }
+
+    @Test
+    void getChanges_shouldRejectPurgedToken() {
+        when(changeLogRepository.findBySeqGreaterThanOrderBySeqAsc(5L, Limit.of(101)))
+                .thenReturn(List.of(entry(50L, ChangeEntityType.NEWS, 1L, ChangeType.UPDATED)));
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class))).thenReturn(49L);
+
+        assertThrows(ChangeTokenExpiredException.class, () -> changeFeedService.getChanges(5L, null, 100));
+    }
+
+    @Test
+    void getChanges_shouldNotCheckPurgeWhenTokenIsContiguous() {
+        when(changeLogRepository.findBySeqGreaterThanOrderBySeqAsc(5L, Limit.of(101)))
+                .thenReturn(List.of(entry(6L, ChangeEntityType.COMMENT, 7L, ChangeType.DELETED)));
+
+        ChangeFeedDto result = changeFeedService.getChanges(5L, null, 100);
+
+        assertEquals(6L, result.getNextToken());
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void getCommentChanges_shouldReturnEachChangeWithoutCoalescing() {
+        when(changeLogRepository.findBySeqGreaterThanAndNewsIdAndEntityTypeOrderBySeqAsc(6L, 1L, ChangeEntityType.COMMENT, Limit.of(64)))
+                .thenReturn(List.of(
+                        entry(8L, ChangeEntityType.COMMENT, 7L, ChangeType.UPDATED),
+                        entry(9L, ChangeEntityType.COMMENT, 7L, ChangeType.DELETED)));
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class))).thenReturn(0L);
+        when(commentRepository.findAllById(List.of(7L))).thenReturn(List.of());
+
+        List<ChangeDto> changes = changeFeedService.getCommentChanges(6L, 1L, 64);
+
+        assertEquals(List.of(8L, 9L), changes.stream().map(ChangeDto::getToken).toList());
+        assertEquals(ChangeType.DELETED, changes.get(1).getOperation());
+    }
+
+    @Test
+    void getCommentChanges_shouldRejectPurgedToken() {
+        when(changeLogRepository.findBySeqGreaterThanAndNewsIdAndEntityTypeOrderBySeqAsc(2L, 1L, ChangeEntityType.COMMENT, Limit.of(64)))
+                .thenReturn(List.of());
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class))).thenReturn(40L);
+
+        assertThrows(ChangeTokenExpiredException.class, () -> changeFeedService.getCommentChanges(2L, 1L, 64));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void sequence_shouldNumberCommittedEntriesAfterLastSeq() {
+        ReflectionTestUtils.setField(changeFeedService, "sequenceBatchSize", 1000);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(jdbcTemplate.queryForObject(startsWith("SELECT last_seq"), eq(Long.class))).thenReturn(10L);
+        when(jdbcTemplate.query(any(PreparedStatementCreator.class), any(RowMapper.class))).thenReturn(List.of(21L, 23L));
+
+        changeFeedService.sequence();
+
+        ArgumentCaptor<List<Object[]>> captor = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(eq("UPDATE change_log SET seq = ? WHERE id = ?"), captor.capture());
+        assertArrayEquals(new Object[]{11L, 21L}, captor.getValue().get(0));
+        assertArrayEquals(new Object[]{12L, 23L}, captor.getValue().get(1));
+        verify(jdbcTemplate).update("UPDATE change_log_sequence SET last_seq = ? WHERE id = 1", 12L);
+        verify(transactionManager).commit(any());
+    }
+
+    private static ChangeLogEntry entry(Long id, ChangeEntityType type, Long entityId, ChangeType operation) {
+        return ChangeLogEntry.builder()
+                .id(id)
+                .seq(id)
+                .entityType(type)
+                .entityId(entityId)
+                .newsId(1L)
+                .operation(operation)
+                .changedAt(LocalDateTime.now().minusMinutes(1))
+                .build();
+    }
+}
@@ -1,16 +1,24 @@
 package by.mosquitto.service;
 
+import by.mosquitto.cache.NegativeLookupCache;
 import by.mosquitto.dto.CommentDto;
 import by.mosquitto.entity.Comment;
 import by.mosquitto.entity.News;
 import by.mosquitto.entity.User;
+import by.mosquitto.event.ChangeEntityType;
+import by.mosquitto.event.ChangeType;
+import by.mosquitto.event.CommentChangedEvent;
 import by.mosquitto.exception.CommentNotFoundException;
 import by.mosquitto.exception.NewsNotFoundException;
+import by.mosquitto.exception.PreconditionFailedException;
 import by.mosquitto.exception.UserNotFoundException;
 import by.mosquitto.mapper.CommentMapper;
 import by.mosquitto.repository.CommentRepository;
 import by.mosquitto.repository.NewsRepository;
 import by.mosquitto.repository.UserRepository;
+import by.mosquitto.repository.VersionedUpdateRepository;
+import by.mosquitto.service.contract.ChangeFeedService;
+import by.mosquitto.service.contract.NewsFeedService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -18,6 +26,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -33,6 +42,11 @@ class CommentServiceManagerTest {
     @Mock private CommentRepository commentRepository;
     @Mock private NewsRepository newsRepository;
     @Mock private UserRepository userRepository;
+    @Mock private VersionedUpdateRepository versionedUpdateRepository;
+    @Mock private ChangeFeedService changeFeedService;
+    @Mock private NewsFeedService newsFeedService;
+    @Mock private NegativeLookupCache negativeLookupCache;
+    @Mock private ApplicationEventPublisher eventPublisher;
 
     @InjectMocks private CommentServiceManager commentService;
 
@@ -97,6 +111,16 @@ class CommentServiceManagerTest {
         when(commentRepository.findById(99L)).thenReturn(Optional.empty());
 
         assertThrows(CommentNotFoundException.class, () -> commentService.getComment(99L));
+        verify(negativeLookupCache).markMissing(NegativeLookupCache.Entity.COMMENT, 99L, 0L);
+    }
+
+    @Test
+    void getComment_shouldNotQueryKnownMissingId() {
+        when(negativeLookupCache.isMissing(NegativeLookupCache.Entity.COMMENT, 99L)).thenReturn(true);
+
+        assertThrows(CommentNotFoundException.class, () -> commentService.getComment(99L));
+
+        verifyNoInteractions(commentRepository);
     }
 
     @Test
@@ -124,6 +148,9 @@ class CommentServiceManagerTest {
 
             assertEquals(dto, result);
             verify(commentRepository).save(any(Comment.class));
+            verify(changeFeedService).record(ChangeEntityType.COMMENT, ChangeType.CREATED, 10L, 1L);
+            verify(newsFeedService).commentsAdded(eq(1L), eq(1L), any(LocalDateTime.class));
+            verify(eventPublisher).publishEvent(CommentChangedEvent.created(dto));
         }
     }
 
@@ -164,17 +191,58 @@ class CommentServiceManagerTest {
     }
 
     @Test
-    void deleteComment_shouldRemoveIfExists() {
+    void patchComment_shouldUpdateTextWithVersionCheck() {
+        comment.setVersion(2L);
+        when(versionedUpdateRepository.update(eq("comments"), eq(10L), eq(1L), anyMap(), eq(CommentMapper.COLUMNS), any()))
+                .thenReturn(Optional.of(CommentMapper.toDto(comment)));
+
+        CommentDto result = commentService.patchComment(10L, 1L, CommentDto.builder().text("Edited").build());
+
+        assertEquals(2L, result.getVersion());
+        verify(commentRepository, never()).findById(any());
+        verify(changeFeedService).record(ChangeEntityType.COMMENT, ChangeType.UPDATED, 10L, news.getId());
+        verify(eventPublisher).publishEvent(CommentChangedEvent.updated(result));
+        verify(commentRepository, never()).save(any());
+    }
+
+    @Test
+    void patchComment_shouldRejectOutdatedVersion() {
+        when(versionedUpdateRepository.update(eq("comments"), eq(10L), eq(1L), anyMap(), anyList(), any()))
+                .thenReturn(Optional.empty());
         when(commentRepository.existsById(10L)).thenReturn(true);
 
+        assertThrows(PreconditionFailedException.class,
+                () -> commentService.patchComment(10L, 1L, CommentDto.builder().text("Edited").build()));
+
+        verifyNoInteractions(changeFeedService, eventPublisher);
+    }
+
+    @Test
+    void patchComment_shouldThrowIfNotFound() {
+        when(versionedUpdateRepository.update(eq("comments"), eq(99L), isNull(), anyMap(), anyList(), any()))
+                .thenReturn(Optional.empty());
+
+        assertThrows(CommentNotFoundException.class,
+                () -> commentService.patchComment(99L, null, CommentDto.builder().text("Edited").build()));
+
+        verify(commentRepository, never()).existsById(any());
+    }
+
+    @Test
+    void deleteComment_shouldRemoveIfExists() {
+        when(commentRepository.findById(10L)).thenReturn(Optional.of(comment));
+
         commentService.deleteComment(10L);
 
-        verify(commentRepository).deleteById(10L);
+        verify(commentRepository).delete(comment);
+        verify(changeFeedService).record(ChangeEntityType.COMMENT, ChangeType.DELETED, 10L, 1L);
+        verify(newsFeedService).commentDeleted(1L);
+        verify(eventPublisher).publishEvent(CommentChangedEvent.deleted(10L, 1L));
     }
 
     @Test
     void deleteComment_shouldThrowIfNotFound() {
-        when(commentRepository.existsById(99L)).thenReturn(false);
+        when(commentRepository.findById(99L)).thenReturn(Optional.empty());
 
         assertThrows(CommentNotFoundException.class, () -> commentService.deleteComment(99L));
     }
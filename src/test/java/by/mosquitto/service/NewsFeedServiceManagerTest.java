@@ -0,0 +1,141 @@
+package by.mosquitto.service;
+
+import by.mosquitto.dto.NewsDto;
+import by.mosquitto.dto.NewsFeedPageDto;
+import by.mosquitto.dto.NewsFeedRebuildDto;
+import by.mosquitto.entity.NewsFeedEntry;
+import by.mosquitto.exception.InvalidRequestException;
+import by.mosquitto.repository.NewsFeedRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NewsFeedServiceManagerTest {
+
+    private static final LocalDateTime T = LocalDateTime.of(2025, 9, 1, 12, 0);
+
+    @Mock private NewsFeedRepository newsFeedRepository;
+    @Mock private JdbcTemplate jdbcTemplate;
+    @Mock private PlatformTransactionManager transactionManager;
+
+    @InjectMocks private NewsFeedServiceManager newsFeedService;
+
+    @BeforeEach
+    void setup() {
+        ReflectionTestUtils.setField(newsFeedService, "rebuildChunkSize", 10);
+        ReflectionTestUtils.setField(newsFeedService, "rebuildThreads", 2);
+    }
+
+    @Test
+    void getFeed_shouldReturnPageAndResumeAfterCursor() {
+        when(newsFeedRepository.findAllByOrderByLastActivityDescNewsIdDesc(Limit.of(3)))
+                .thenReturn(List.of(entry(7L, T.plusMinutes(2)), entry(5L, T), entry(4L, T)));
+
+        NewsFeedPageDto first = newsFeedService.getFeed(null, 2);
+
+        assertEquals(List.of(7L, 5L), first.getItems().stream().map(item -> item.getNewsId()).toList());
+        assertTrue(first.isHasMore());
+
+        when(newsFeedRepository.findBefore(T, 5L, Limit.of(3))).thenReturn(List.of(entry(4L, T)));
+
+        NewsFeedPageDto second = newsFeedService.getFeed(first.getNextCursor(), 2);
+
+        assertEquals(List.of(4L), second.getItems().stream().map(item -> item.getNewsId()).toList());
+        assertFalse(second.isHasMore());
+    }
+
+    @Test
+    void getFeed_shouldRejectMalformedCursor() {
+        assertThrows(InvalidRequestException.class, () -> newsFeedService.getFeed("not-a-cursor", 20));
+
+        verifyNoInteractions(newsFeedRepository);
+    }
+
+    @Test
+    void newsCreated_shouldStoreExcerptOfText() {
+        NewsDto news = NewsDto.builder().id(1L).title("t").text("x".repeat(500)).insertedById(5L).creationDate(T).build();
+
+        newsFeedService.newsCreated(news, "Thorin Oakenshield");
+
+        verify(newsFeedRepository).insertNews(1L, "t", "x".repeat(200), 5L, "Thorin Oakenshield", T);
+    }
+
+    @Test
+    void userDeleting_shouldDropAuthoredNewsAndRecountComments() {
+        newsFeedService.userDeleting(5L);
+
+        verify(newsFeedRepository).deleteNewsOfUser(5L);
+        verify(newsFeedRepository).subtractCommentsOfUser(5L);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void rebuild_shouldSplitIdRangeIntoChunks() {
+        when(jdbcTemplate.queryForObject(startsWith("SELECT name FROM job_lock"), eq(String.class))).thenReturn("news_feed_rebuild");
+        when(jdbcTemplate.queryForObject(eq("SELECT MIN(id), MAX(id) FROM news"), any(RowMapper.class)))
+                .thenReturn(new Long[]{1L, 25L});
+        when(jdbcTemplate.queryForList(startsWith("SELECT news_id FROM news_feed"), eq(Long.class), anyLong(), anyLong()))
+                .thenReturn(List.of());
+        when(jdbcTemplate.update(startsWith("MERGE INTO news_feed"), anyLong(), anyLong(), anyLong(), anyLong()))
+                .thenReturn(10, 10, 5);
+        when(jdbcTemplate.update(startsWith("DELETE FROM news_feed WHERE news_id BETWEEN"), anyLong(), anyLong()))
+                .thenReturn(0);
+
+        NewsFeedRebuildDto result = newsFeedService.rebuild();
+
+        assertEquals(3, result.getChunks());
+        assertEquals(25, result.getRows());
+        InOrder lastChunk = inOrder(jdbcTemplate);
+        lastChunk.verify(jdbcTemplate).queryForList(startsWith("SELECT news_id FROM news_feed"), eq(Long.class), eq(21L), eq(25L));
+        lastChunk.verify(jdbcTemplate).update(startsWith("MERGE INTO news_feed"), eq(21L), eq(25L), eq(21L), eq(25L));
+        lastChunk.verify(jdbcTemplate).update(startsWith("DELETE FROM news_feed WHERE news_id BETWEEN"), eq(21L), eq(25L));
+        verify(jdbcTemplate, times(3)).update(startsWith("DELETE FROM news_feed WHERE news_id BETWEEN"), anyLong(), anyLong());
+        verify(jdbcTemplate).update("DELETE FROM news_feed WHERE news_id < ? OR news_id > ?", 1L, 25L);
+    }
+
+    @Test
+    void rebuildIfStale_shouldSkipWhenAnotherNodeRebuiltWhileWaitingForLock() {
+        ReflectionTestUtils.setField(newsFeedService, "rebuildOnStartup", true);
+        when(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM news", Long.class)).thenReturn(25L, 25L);
+        when(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM news_feed", Long.class)).thenReturn(0L, 25L);
+        when(jdbcTemplate.queryForObject(startsWith("SELECT name FROM job_lock"), eq(String.class))).thenReturn("news_feed_rebuild");
+
+        newsFeedService.rebuildIfStale();
+
+        verify(jdbcTemplate, never()).queryForObject(eq("SELECT MIN(id), MAX(id) FROM news"), any(RowMapper.class));
+    }
+
+    @Test
+    void rebuildIfStale_shouldNotLockWhenFeedIsInSync() {
+        ReflectionTestUtils.setField(newsFeedService, "rebuildOnStartup", true);
+        when(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM news", Long.class)).thenReturn(25L);
+        when(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM news_feed", Long.class)).thenReturn(25L);
+
+        newsFeedService.rebuildIfStale();
+
+        verify(jdbcTemplate, never()).queryForObject(startsWith("SELECT name FROM job_lock"), eq(String.class));
+        verifyNoInteractions(transactionManager);
+    }
+
+    private static NewsFeedEntry entry(Long newsId, LocalDateTime lastActivity) {
+        return NewsFeedEntry.builder().newsId(newsId).title("t").excerpt("e").authorId(5L).authorName("a")
+                .lastActivity(lastActivity).build();
+    }
+}
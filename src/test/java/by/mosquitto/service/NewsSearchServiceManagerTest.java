@@ -0,0 +1,204 @@
+package by.mosquitto.service;
+
+import by.mosquitto.cache.SearchResultCache;
+import by.mosquitto.dto.NewsDto;
+import by.mosquitto.entity.News;
+import by.mosquitto.entity.User;
+import by.mosquitto.exception.ServiceUnavailableException;
+import by.mosquitto.limit.Bulkhead;
+import by.mosquitto.repository.NewsRepository;
+import by.mosquitto.suggest.NewsTitleSuggester;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class NewsSearchServiceManagerTest {
+
+    private final DataSource dataSource = mock(DataSource.class);
+    private final Connection connection = mock(Connection.class);
+    private final PreparedStatement statement = mock(PreparedStatement.class);
+    private final ResultSet resultSet = mock(ResultSet.class);
+    private final NewsRepository newsRepository = mock(NewsRepository.class);
+    private final SearchResultCache searchResultCache = new SearchResultCache();
+
+    private Bulkhead bulkhead;
+    private NewsSearchServiceManager searchService;
+
+    @BeforeEach
+    void setup() throws SQLException {
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        bulkhead = Bulkhead.isolated("search", 1, 1, dataSource, null, 3);
+        ReflectionTestUtils.setField(searchResultCache, "enabled", true);
+        ReflectionTestUtils.setField(searchResultCache, "maxEntries", 10);
+        ReflectionTestUtils.setField(searchResultCache, "ttlSeconds", 60L);
+        ReflectionTestUtils.setField(searchResultCache, "maxIds", 10);
+        searchService = new NewsSearchServiceManager(bulkhead, mock(NewsTitleSuggester.class),
+                searchResultCache, newsRepository);
+        ReflectionTestUtils.setField(searchService, "retryAfterSeconds", 2L);
+    }
+
+    @AfterEach
+    void cleanup() throws Exception {
+        bulkhead.close();
+    }
+
+    @Test
+    void search_shouldMapRowsOnBulkheadThread() throws Exception {
+        LocalDateTime created = LocalDateTime.of(2025, 9, 1, 12, 0);
+        AtomicReference<String> thread = new AtomicReference<>();
+        when(statement.executeQuery()).thenAnswer(invocation -> {
+            thread.set(Thread.currentThread().getName());
+            return resultSet;
+        });
+        when(resultSet.next()).thenReturn(true, false);
+        when(resultSet.getLong("id")).thenReturn(7L);
+        when(resultSet.getString("title")).thenReturn("Title");
+        when(resultSet.getString("text")).thenReturn("Text");
+        when(resultSet.getTimestamp("creation_date")).thenReturn(Timestamp.valueOf(created));
+        when(resultSet.getTimestamp("last_edit_date")).thenReturn(Timestamp.valueOf(created));
+        when(resultSet.getLong("created_by_user")).thenReturn(3L);
+        when(resultSet.getLong("updated_by_user")).thenReturn(0L);
+        when(resultSet.getLong("version")).thenReturn(2L);
+        when(resultSet.wasNull()).thenReturn(true);
+
+        List<NewsDto> result = searchService.search("tit").get(5, TimeUnit.SECONDS);
+
+        assertEquals(1, result.size());
+        NewsDto news = result.get(0);
+        assertEquals(7L, news.getId());
+        assertEquals("Title", news.getTitle());
+        assertEquals(created, news.getCreationDate());
+        assertEquals(3L, news.getInsertedById());
+        assertNull(news.getUpdatedById());
+        assertEquals(2L, news.getVersion());
+        assertTrue(thread.get().startsWith("search-"), thread.get());
+        verify(statement).setString(1, "tit");
+        verify(statement).setString(2, "tit");
+        verify(statement).setQueryTimeout(3);
+    }
+
+    @Test
+    void search_shouldAnswerNormalizedRepeatFromCache() throws Exception {
+        when(statement.executeQuery()).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true, true, false);
+        when(resultSet.getLong("id")).thenReturn(7L, 8L);
+        when(resultSet.getLong("created_by_user")).thenReturn(3L);
+
+        assertEquals(2, searchService.search("  Tit ").get(5, TimeUnit.SECONDS).size());
+        verify(statement).setString(1, "tit");
+
+        User author = new User();
+        author.setId(3L);
+        News news = new News();
+        news.setId(8L);
+        news.setTitle("Title");
+        news.setCreatedByUser(author);
+        when(newsRepository.findAllById(List.of(7L, 8L))).thenReturn(List.of(news));
+
+        CompletableFuture<List<NewsDto>> cached = searchService.search("TIT");
+
+        assertTrue(cached.isDone());
+        assertEquals(List.of(8L), cached.get().stream().map(NewsDto::getId).toList());
+        verify(statement, times(1)).executeQuery();
+        assertEquals(1, searchResultCache.getHits());
+    }
+
+    @Test
+    void search_shouldRejectWhenBulkheadIsFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        when(statement.executeQuery()).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return resultSet;
+        });
+
+        CompletableFuture<List<NewsDto>> running = searchService.search("a");
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<List<NewsDto>> queued = searchService.search("b");
+
+        ServiceUnavailableException e = assertThrows(ServiceUnavailableException.class, () -> searchService.search("c"));
+        assertEquals(2L, e.getRetryAfterSeconds());
+        assertEquals(1, bulkhead.getRejected());
+
+        release.countDown();
+        assertEquals(List.of(), running.get(5, TimeUnit.SECONDS));
+        assertEquals(List.of(), queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void cancel_shouldCancelRunningStatement() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch cancelled = new CountDownLatch(1);
+        when(statement.executeQuery()).thenAnswer(invocation -> {
+            started.countDown();
+            if (cancelled.await(5, TimeUnit.SECONDS)) {
+                throw new SQLException("canceling statement due to user request", "57014");
+            }
+            return resultSet;
+        });
+        doAnswer(invocation -> {
+            cancelled.countDown();
+            return null;
+        }).when(statement).cancel();
+
+        CompletableFuture<List<NewsDto>> result = searchService.search("slow");
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        result.cancel(false);
+
+        verify(statement, timeout(5000)).cancel();
+        verify(connection, timeout(5000)).close();
+        assertTrue(result.isCancelled());
+    }
+
+    @Test
+    void cancel_shouldDropQueuedSearch() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        when(statement.executeQuery()).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return resultSet;
+        });
+        CompletableFuture<List<NewsDto>> running = searchService.search("a");
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        searchService.search("b").cancel(false);
+
+        assertEquals(0, bulkhead.getQueued());
+        release.countDown();
+        running.get(5, TimeUnit.SECONDS);
+        verify(statement, times(1)).executeQuery();
+    }
+
+    @Test
+    void queryTimeout_shouldCompleteWithServiceUnavailable() throws Exception {
+        when(statement.executeQuery()).thenThrow(new SQLTimeoutException("timeout", "57014"));
+
+        ExecutionException e = assertThrows(ExecutionException.class,
+                () -> searchService.search("slow").get(5, TimeUnit.SECONDS));
+
+        assertInstanceOf(ServiceUnavailableException.class, e.getCause());
+    }
+}
@@ -1,17 +1,28 @@
 package by.mosquitto.service;
 
+import by.mosquitto.cache.HotNewsFeed;
+import by.mosquitto.cache.NegativeLookupCache;
 import by.mosquitto.dto.CommentDto;
 import by.mosquitto.dto.NewsDto;
 import by.mosquitto.dto.NewsWithCommentsPagedDto;
 import by.mosquitto.entity.News;
 import by.mosquitto.entity.User;
+import by.mosquitto.event.ChangeEntityType;
+import by.mosquitto.event.ChangeType;
+import by.mosquitto.event.NewsChangedEvent;
+import by.mosquitto.exception.InvalidRequestException;
 import by.mosquitto.exception.NewsNotFoundException;
+import by.mosquitto.exception.PreconditionFailedException;
 import by.mosquitto.exception.UserNotFoundException;
 import by.mosquitto.mapper.CommentMapper;
 import by.mosquitto.mapper.NewsMapper;
+import by.mosquitto.repository.CommentPreviewRepository;
 import by.mosquitto.repository.CommentRepository;
 import by.mosquitto.repository.NewsRepository;
 import by.mosquitto.repository.UserRepository;
+import by.mosquitto.repository.VersionedUpdateRepository;
+import by.mosquitto.service.contract.ChangeFeedService;
+import by.mosquitto.service.contract.NewsFeedService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -19,6 +30,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -26,9 +38,11 @@ import org.springframework.data.domain.Pageable;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.*;
 
@@ -38,6 +52,13 @@ class NewsServiceManagerTest {
     @Mock private NewsRepository newsRepository;
     @Mock private UserRepository userRepository;
     @Mock private CommentRepository commentRepository;
+    @Mock private CommentPreviewRepository commentPreviewRepository;
+    @Mock private VersionedUpdateRepository versionedUpdateRepository;
+    @Mock private HotNewsFeed hotNewsFeed;
+    @Mock private NegativeLookupCache negativeLookupCache;
+    @Mock private ChangeFeedService changeFeedService;
+    @Mock private NewsFeedService newsFeedService;
+    @Mock private ApplicationEventPublisher eventPublisher;
 
     @InjectMocks private NewsServiceManager newsService;
 
@@ -100,6 +121,49 @@ class NewsServiceManagerTest {
         }
     }
 
+    @Test
+    void getNewsPaged_shouldServeFromHotFeedWithoutRepository() {
+        Pageable pageable = PageRequest.of(0, 10);
+        Page<NewsDto> page = new PageImpl<>(List.of(dto), pageable, 1);
+        when(hotNewsFeed.find(pageable)).thenReturn(Optional.of(page));
+
+        Page<NewsDto> result = newsService.getNewsPaged(pageable);
+
+        assertEquals(page, result);
+        verifyNoInteractions(newsRepository);
+    }
+
+    @Test
+    void getNewsPaged_shouldAttachCommentStatsForWholePageInOneQuery() {
+        Pageable pageable = PageRequest.of(0, 10);
+        NewsDto silent = dto.toBuilder().id(101L).build();
+        when(hotNewsFeed.find(pageable)).thenReturn(Optional.of(new PageImpl<>(List.of(dto, silent), pageable, 2)));
+        CommentDto latest = CommentDto.builder().id(7L).newsId(100L).build();
+        when(commentPreviewRepository.findStats(List.of(100L, 101L), 3))
+                .thenReturn(Map.of(100L, new CommentPreviewRepository.CommentStats(12, List.of(latest))));
+
+        Page<NewsDto> result = newsService.getNewsPaged(pageable, true, 3);
+
+        assertEquals(12L, result.getContent().get(0).getCommentCount());
+        assertEquals(List.of(latest), result.getContent().get(0).getLatestComments());
+        assertEquals(0L, result.getContent().get(1).getCommentCount());
+        assertEquals(List.of(), result.getContent().get(1).getLatestComments());
+        assertNull(dto.getCommentCount());
+        verifyNoInteractions(commentRepository);
+    }
+
+    @Test
+    void getNewsPaged_shouldSkipStatsQueryWhenNotRequested() {
+        Pageable pageable = PageRequest.of(0, 10);
+        when(hotNewsFeed.find(pageable)).thenReturn(Optional.of(new PageImpl<>(List.of(dto), pageable, 1)));
+
+        Page<NewsDto> result = newsService.getNewsPaged(pageable, false, 0);
+
+        assertNull(result.getContent().get(0).getCommentCount());
+        assertNull(result.getContent().get(0).getLatestComments());
+        verifyNoInteractions(commentPreviewRepository);
+    }
+
     @Test
     void getNewsWithCommentsPaged_shouldReturnDtoWithComments() {
         Pageable pageable = PageRequest.of(0, 5);
@@ -126,19 +190,6 @@ class NewsServiceManagerTest {
         assertThrows(NewsNotFoundException.class, () -> newsService.getNewsWithCommentsPaged(999L, pageable));
     }
 
-    @Test
-    void search_shouldReturnMatchingNews() {
-        when(newsRepository.searchByTitleOrText("query")).thenReturn(List.of(news));
-        try (MockedStatic<NewsMapper> mocked = mockStatic(NewsMapper.class)) {
-            mocked.when(() -> NewsMapper.toDto(news)).thenReturn(dto);
-
-            List<NewsDto> result = newsService.search("query");
-
-            assertEquals(1, result.size());
-            assertEquals(dto, result.get(0));
-        }
-    }
-
     @Test
     void getNewsById_shouldReturnDto() {
         when(newsRepository.findById(100L)).thenReturn(Optional.of(news));
@@ -158,6 +209,25 @@ class NewsServiceManagerTest {
         assertThrows(NewsNotFoundException.class, () -> newsService.getNewsById(999L));
     }
 
+    @Test
+    void getNewsById_shouldRememberMissWithGenerationObservedBeforeLookup() {
+        when(negativeLookupCache.generation(NegativeLookupCache.Entity.NEWS)).thenReturn(7L);
+        when(newsRepository.findById(999L)).thenReturn(Optional.empty());
+
+        assertThrows(NewsNotFoundException.class, () -> newsService.getNewsById(999L));
+
+        verify(negativeLookupCache).markMissing(NegativeLookupCache.Entity.NEWS, 999L, 7L);
+    }
+
+    @Test
+    void getNewsById_shouldNotQueryKnownMissingId() {
+        when(negativeLookupCache.isMissing(NegativeLookupCache.Entity.NEWS, 999L)).thenReturn(true);
+
+        assertThrows(NewsNotFoundException.class, () -> newsService.getNewsById(999L));
+
+        verifyNoInteractions(newsRepository);
+    }
+
     @Test
     void createNews_shouldSaveAndReturnDto() {
         when(userRepository.findById(dto.getInsertedById())).thenReturn(Optional.of(user));
@@ -169,6 +239,9 @@ class NewsServiceManagerTest {
 
             assertEquals(dto, result);
             verify(newsRepository).save(any(News.class));
+            verify(eventPublisher).publishEvent(NewsChangedEvent.created(dto));
+            verify(changeFeedService).record(ChangeEntityType.NEWS, ChangeType.CREATED, 100L, 100L);
+            verify(newsFeedService).newsCreated(eq(dto), anyString());
         }
     }
 
@@ -191,6 +264,7 @@ class NewsServiceManagerTest {
 
             assertEquals(dto.getTitle(), result.getTitle());
             verify(newsRepository).save(news);
+            verify(newsFeedService).newsUpdated(result);
         }
     }
 
@@ -209,6 +283,60 @@ class NewsServiceManagerTest {
         assertThrows(UserNotFoundException.class, () -> newsService.updateNews(100L, dto));
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    void patchNews_shouldUpdateOnlyGivenFieldsWithVersionCheck() {
+        news.setVersion(4L);
+        when(versionedUpdateRepository.update(eq("news"), eq(100L), eq(3L), anyMap(), eq(NewsMapper.COLUMNS), any()))
+                .thenReturn(Optional.of(NewsMapper.toDto(news)));
+
+        NewsDto result = newsService.patchNews(100L, 3L, NewsDto.builder().title("New title").build());
+
+        assertEquals(4L, result.getVersion());
+        verify(versionedUpdateRepository).update(eq("news"), eq(100L), eq(3L), argThat((Map<String, Object> values) ->
+                values.keySet().equals(java.util.Set.of("title", "last_edit_date")) && "New title".equals(values.get("title"))),
+                eq(NewsMapper.COLUMNS), any());
+        verify(newsRepository, never()).findById(any());
+        verify(changeFeedService).record(ChangeEntityType.NEWS, ChangeType.UPDATED, 100L, 100L);
+        verify(newsFeedService).newsUpdated(result);
+        verify(eventPublisher).publishEvent(NewsChangedEvent.updated(result));
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void patchNews_shouldRejectOutdatedVersion() {
+        when(versionedUpdateRepository.update(eq("news"), eq(100L), eq(3L), anyMap(), anyList(), any()))
+                .thenReturn(Optional.empty());
+        when(newsRepository.existsById(100L)).thenReturn(true);
+
+        assertThrows(PreconditionFailedException.class,
+                () -> newsService.patchNews(100L, 3L, NewsDto.builder().text("t").build()));
+
+        verify(newsRepository, never()).findById(any());
+        verifyNoInteractions(changeFeedService, newsFeedService, eventPublisher);
+    }
+
+    @Test
+    void patchNews_shouldThrowIfNewsNotFound() {
+        when(versionedUpdateRepository.update(eq("news"), eq(999L), eq(3L), anyMap(), anyList(), any()))
+                .thenReturn(Optional.empty());
+        when(newsRepository.existsById(999L)).thenReturn(false);
+
+        assertThrows(NewsNotFoundException.class,
+                () -> newsService.patchNews(999L, 3L, NewsDto.builder().text("t").build()));
+    }
+
+    @Test
+    void patchNews_shouldRejectEmptyChangesAndUnknownUpdater() {
+        assertThrows(InvalidRequestException.class, () -> newsService.patchNews(100L, 3L, new NewsDto()));
+
+        when(userRepository.existsById(7L)).thenReturn(false);
+        assertThrows(UserNotFoundException.class,
+                () -> newsService.patchNews(100L, 3L, NewsDto.builder().updatedById(7L).build()));
+
+        verifyNoInteractions(versionedUpdateRepository);
+    }
+
     @Test
     void deleteNews_shouldRemoveIfExists() {
         when(newsRepository.existsById(100L)).thenReturn(true);
@@ -216,6 +344,9 @@ class NewsServiceManagerTest {
         newsService.deleteNews(100L);
 
         verify(newsRepository).deleteById(100L);
+        verify(eventPublisher).publishEvent(NewsChangedEvent.deleted(100L));
+        verify(changeFeedService).record(ChangeEntityType.NEWS, ChangeType.DELETED, 100L, 100L);
+        verify(newsFeedService).newsDeleted(100L);
     }
 
     @Test
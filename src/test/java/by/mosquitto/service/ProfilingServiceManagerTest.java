@@ -0,0 +1,84 @@
+package by.mosquitto.service;
+
+import by.mosquitto.dto.JfrRecordingDto;
+import by.mosquitto.exception.EntityAlreadyExistsException;
+import by.mosquitto.exception.InvalidRequestException;
+import by.mosquitto.jfr.ControllerInvocationEvent;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProfilingServiceManagerTest {
+
+    private ProfilingServiceManager service;
+
+    @BeforeEach
+    void setup() {
+        service = new ProfilingServiceManager();
+        ReflectionTestUtils.setField(service, "maxAgeMinutes", 1L);
+        ReflectionTestUtils.setField(service, "maxSizeMb", 10L);
+    }
+
+    @AfterEach
+    void cleanup() {
+        service.close();
+    }
+
+    @Test
+    void startStopAndDownload_shouldContainApplicationEvents() throws Exception {
+        JfrRecordingDto started = service.start("default");
+        assertEquals("RUNNING", started.getState());
+
+        ControllerInvocationEvent event = new ControllerInvocationEvent();
+        event.begin();
+        event.method = "NewsController.getNewsById(..)";
+        event.entityId = 42;
+        event.commit();
+
+        assertEquals("STOPPED", service.stop().getState());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.writeRecording(out);
+        Path file = Files.createTempFile("profiling-test-", ".jfr");
+        try {
+            Files.write(file, out.toByteArray());
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                    .filter(recorded -> recorded.getEventType().getName().equals("by.mosquitto.ControllerInvocation"))
+                    .toList();
+            assertEquals(1, events.size());
+            assertEquals(42L, events.get(0).getLong("entityId"));
+            assertEquals("NewsController.getNewsById(..)", events.get(0).getString("method"));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void start_whileRunning_shouldThrowConflict() {
+        service.start("default");
+
+        assertThrows(EntityAlreadyExistsException.class, () -> service.start("profile"));
+    }
+
+    @Test
+    void start_withUnknownSettings_shouldThrow() {
+        assertThrows(InvalidRequestException.class, () -> service.start("custom"));
+    }
+
+    @Test
+    void stopAndDownload_withoutRecording_shouldThrow() {
+        assertEquals("NONE", service.getStatus().getState());
+        assertThrows(InvalidRequestException.class, () -> service.stop());
+        assertThrows(InvalidRequestException.class, () -> service.writeRecording(new ByteArrayOutputStream()));
+    }
+}
@@ -0,0 +1,116 @@
+package by.mosquitto.service;
+
+import by.mosquitto.cache.NegativeLookupCache;
+import by.mosquitto.dto.UserActivityDto;
+import by.mosquitto.dto.UserActivityPageDto;
+import by.mosquitto.entity.Comment;
+import by.mosquitto.entity.News;
+import by.mosquitto.entity.User;
+import by.mosquitto.event.ChangeEntityType;
+import by.mosquitto.exception.InvalidRequestException;
+import by.mosquitto.exception.UserNotFoundException;
+import by.mosquitto.repository.CommentRepository;
+import by.mosquitto.repository.NewsRepository;
+import by.mosquitto.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserActivityServiceManagerTest {
+
+    private static final LocalDateTime T = LocalDateTime.of(2025, 9, 1, 12, 0);
+    private static final User AUTHOR = User.builder().id(5L).build();
+
+    @Mock private UserRepository userRepository;
+    @Mock private NewsRepository newsRepository;
+    @Mock private CommentRepository commentRepository;
+    @Mock private NegativeLookupCache negativeLookupCache;
+
+    @InjectMocks private UserActivityServiceManager activityService;
+
+    @Test
+    void getActivity_shouldMergeNewsAndCommentsNewestFirst() {
+        when(userRepository.existsById(5L)).thenReturn(true);
+        when(newsRepository.findByCreatedByUserIdOrderByCreationDateDescIdDesc(5L, Limit.of(3)))
+                .thenReturn(List.of(news(10L, T.plusMinutes(3)), news(9L, T.plusMinutes(1))));
+        when(commentRepository.findByCreatedByUserIdOrderByCreationDateDescIdDesc(5L, Limit.of(3)))
+                .thenReturn(List.of(comment(21L, T.plusMinutes(3)), comment(20L, T.plusMinutes(2)), comment(19L, T)));
+
+        UserActivityPageDto page = activityService.getActivity(5L, null, 2);
+
+        assertEquals(List.of("NEWS:10", "COMMENT:21"), keys(page.getItems()));
+        assertTrue(page.isHasMore());
+        assertNotNull(page.getNextCursor());
+    }
+
+    @Test
+    void getActivity_shouldResumeAfterCursorWithPerSourceBounds() {
+        when(userRepository.existsById(5L)).thenReturn(true);
+        when(newsRepository.findByCreatedByUserIdOrderByCreationDateDescIdDesc(5L, Limit.of(3)))
+                .thenReturn(List.of(news(10L, T.plusMinutes(3))));
+        when(commentRepository.findByCreatedByUserIdOrderByCreationDateDescIdDesc(5L, Limit.of(3)))
+                .thenReturn(List.of(comment(21L, T.plusMinutes(3)), comment(20L, T.plusMinutes(3))));
+        String cursor = activityService.getActivity(5L, null, 2).getNextCursor();
+
+        when(newsRepository.findByAuthorBefore(5L, T.plusMinutes(3), Long.MIN_VALUE, Limit.of(3))).thenReturn(List.of());
+        when(commentRepository.findByAuthorBefore(5L, T.plusMinutes(3), 21L, Limit.of(3)))
+                .thenReturn(List.of(comment(20L, T.plusMinutes(3))));
+
+        UserActivityPageDto page = activityService.getActivity(5L, cursor, 2);
+
+        assertEquals(List.of("COMMENT:20"), keys(page.getItems()));
+        assertFalse(page.isHasMore());
+    }
+
+    @Test
+    void getActivity_shouldThrowForUnknownUser() {
+        when(userRepository.existsById(404L)).thenReturn(false);
+
+        assertThrows(UserNotFoundException.class, () -> activityService.getActivity(404L, null, 20));
+
+        verify(negativeLookupCache).markMissing(eq(NegativeLookupCache.Entity.USER), eq(404L), anyLong());
+        verifyNoInteractions(newsRepository, commentRepository);
+    }
+
+    @Test
+    void getActivity_shouldRejectMalformedCursor() {
+        assertThrows(InvalidRequestException.class, () -> activityService.getActivity(5L, "not-a-cursor", 20));
+
+        verifyNoInteractions(userRepository, newsRepository, commentRepository);
+    }
+
+    @Test
+    void merge_shouldInterleaveSortedSourcesUpToLimit() {
+        List<Integer> merged = UserActivityServiceManager.merge(
+                List.of(List.of(9, 4, 1), List.of(), List.of(8, 7, 2), List.of(5)), Comparator.reverseOrder(), 5);
+
+        assertEquals(List.of(9, 8, 7, 5, 4), merged);
+    }
+
+    private static News news(Long id, LocalDateTime created) {
+        return News.builder().id(id).title("t").text("t").creationDate(created).createdByUser(AUTHOR).build();
+    }
+
+    private static Comment comment(Long id, LocalDateTime created) {
+        return Comment.builder().id(id).text("c").creationDate(created).createdByUser(AUTHOR)
+                .news(News.builder().id(1L).build()).build();
+    }
+
+    private static List<String> keys(List<UserActivityDto> items) {
+        return items.stream()
+                .map(item -> item.getType() + ":" + (item.getType() == ChangeEntityType.NEWS
+                        ? item.getNews().getId() : item.getComment().getId()))
+                .toList();
+    }
+}
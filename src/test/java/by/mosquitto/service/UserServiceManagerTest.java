@@ -1,20 +1,36 @@
 package by.mosquitto.service;
 
+import by.mosquitto.cache.NegativeLookupCache;
+import by.mosquitto.cache.UserEntityCache;
 import by.mosquitto.dto.UserDto;
 import by.mosquitto.entity.User;
+import by.mosquitto.event.ChangeEntityType;
+import by.mosquitto.event.CommentChangedEvent;
+import by.mosquitto.event.NewsChangedEvent;
+import by.mosquitto.event.UserChangedEvent;
+import by.mosquitto.exception.InvalidRequestException;
+import by.mosquitto.exception.PreconditionFailedException;
 import by.mosquitto.exception.UserNotFoundException;
 import by.mosquitto.mapper.UserMapper;
+import by.mosquitto.repository.CommentRepository;
+import by.mosquitto.repository.NewsRepository;
 import by.mosquitto.repository.UserRepository;
+import by.mosquitto.repository.VersionedUpdateRepository;
+import by.mosquitto.service.contract.ChangeFeedService;
+import by.mosquitto.service.contract.NewsFeedService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -25,6 +41,14 @@ import static org.mockito.Mockito.*;
 class UserServiceManagerTest {
 
     @Mock private UserRepository userRepository;
+    @Mock private NewsRepository newsRepository;
+    @Mock private CommentRepository commentRepository;
+    @Mock private VersionedUpdateRepository versionedUpdateRepository;
+    @Mock private NegativeLookupCache negativeLookupCache;
+    @Mock private UserEntityCache userEntityCache;
+    @Mock private ApplicationEventPublisher eventPublisher;
+    @Mock private NewsFeedService newsFeedService;
+    @Mock private ChangeFeedService changeFeedService;
     @InjectMocks private UserServiceManager userService;
 
     private User user;
@@ -72,6 +96,16 @@ class UserServiceManagerTest {
         when(userRepository.findById(999L)).thenReturn(Optional.empty());
 
         assertThrows(UserNotFoundException.class, () -> userService.getById(999L));
+        verify(negativeLookupCache).markMissing(NegativeLookupCache.Entity.USER, 999L, 0L);
+    }
+
+    @Test
+    void getById_shouldNotQueryKnownMissingId() {
+        when(negativeLookupCache.isMissing(NegativeLookupCache.Entity.USER, 999L)).thenReturn(true);
+
+        assertThrows(UserNotFoundException.class, () -> userService.getById(999L));
+
+        verifyNoInteractions(userRepository);
     }
 
     @Test
@@ -106,6 +140,7 @@ class UserServiceManagerTest {
 
             assertEquals(dto, result);
             verify(userRepository).save(any(User.class));
+            verify(eventPublisher).publishEvent(UserChangedEvent.created(1L));
         }
     }
 
@@ -120,6 +155,8 @@ class UserServiceManagerTest {
 
             assertEquals(dto.getUsername(), result.getUsername());
             verify(userRepository).save(user);
+            verify(newsFeedService).userRenamed(1L, "Thorin Oakenshield");
+            verify(userEntityCache).invalidate(1L);
         }
     }
 
@@ -130,13 +167,77 @@ class UserServiceManagerTest {
         assertThrows(UserNotFoundException.class, () -> userService.update(999L, dto));
     }
 
+    @Test
+    void patch_shouldRenameAuthorInFeedOnlyWhenNameChanges() {
+        user.setVersion(6L);
+        when(versionedUpdateRepository.update(eq("app_user"), eq(1L), eq(5L), anyMap(), eq(UserMapper.COLUMNS), any()))
+                .thenReturn(Optional.of(UserMapper.toDto(user)));
+
+        UserDto result = userService.patch(1L, 5L, UserDto.builder().password("changed").build());
+
+        assertEquals(6L, result.getVersion());
+        verifyNoInteractions(newsFeedService);
+        verify(userRepository, never()).findById(any());
+        verify(userEntityCache).invalidate(1L);
+        verify(eventPublisher).publishEvent(UserChangedEvent.updated(1L));
+
+        userService.patch(1L, 5L, UserDto.builder().surname("Oakenshield").build());
+
+        verify(newsFeedService).userRenamed(1L, "Thorin Oakenshield");
+    }
+
+    @Test
+    void patch_shouldRejectOutdatedVersion() {
+        when(versionedUpdateRepository.update(eq("app_user"), eq(1L), eq(5L), anyMap(), anyList(), any()))
+                .thenReturn(Optional.empty());
+        when(userRepository.existsById(1L)).thenReturn(true);
+
+        assertThrows(PreconditionFailedException.class,
+                () -> userService.patch(1L, 5L, UserDto.builder().name("Thror").build()));
+
+        verify(userRepository, never()).findById(any());
+        verifyNoInteractions(newsFeedService, userEntityCache, eventPublisher);
+    }
+
+    @Test
+    void patch_shouldRejectEmptyChanges() {
+        assertThrows(InvalidRequestException.class, () -> userService.patch(1L, 5L, new UserDto()));
+
+        verifyNoInteractions(versionedUpdateRepository);
+    }
+
     @Test
     void delete_shouldRemoveIfExists() {
         when(userRepository.existsById(1L)).thenReturn(true);
+        when(newsRepository.findIdsByUser(1L)).thenReturn(List.of(10L, 11L));
+        when(commentRepository.findRefsByAuthor(1L)).thenReturn(List.of(commentRef(100L, 20L)));
+        when(commentRepository.findRefsByNewsIds(List.of(10L, 11L))).thenReturn(List.of(commentRef(101L, 10L)));
+
+        userService.delete(1L);
+
+        InOrder order = inOrder(newsFeedService, userRepository, userEntityCache, changeFeedService, eventPublisher);
+        order.verify(newsFeedService).userDeleting(1L);
+        order.verify(userRepository).deleteById(1L);
+        order.verify(userEntityCache).invalidate(1L);
+        order.verify(changeFeedService).recordDeleted(ChangeEntityType.NEWS, Map.of(10L, 10L, 11L, 11L));
+        order.verify(changeFeedService).recordDeleted(ChangeEntityType.COMMENT, Map.of(100L, 20L, 101L, 10L));
+        order.verify(eventPublisher).publishEvent(CommentChangedEvent.deleted(100L, 20L));
+        order.verify(eventPublisher).publishEvent(CommentChangedEvent.deleted(101L, 10L));
+        order.verify(eventPublisher).publishEvent(NewsChangedEvent.deleted(10L));
+        order.verify(eventPublisher).publishEvent(NewsChangedEvent.deleted(11L));
+        order.verify(eventPublisher).publishEvent(UserChangedEvent.deleted(1L));
+    }
+
+    @Test
+    void delete_shouldSkipNewsCommentsLookupWithoutNews() {
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(newsRepository.findIdsByUser(1L)).thenReturn(List.of());
+        when(commentRepository.findRefsByAuthor(1L)).thenReturn(List.of());
 
         userService.delete(1L);
 
-        verify(userRepository).deleteById(1L);
+        verify(commentRepository, never()).findRefsByNewsIds(any());
+        verify(changeFeedService).recordDeleted(ChangeEntityType.COMMENT, Map.of());
     }
 
     @Test
@@ -145,4 +246,18 @@ class UserServiceManagerTest {
 
         assertThrows(UserNotFoundException.class, () -> userService.delete(999L));
     }
+
+    private static CommentRepository.CommentRef commentRef(Long id, Long newsId) {
+        return new CommentRepository.CommentRef() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getNewsId() {
+                return newsId;
+            }
+        };
+    }
 }
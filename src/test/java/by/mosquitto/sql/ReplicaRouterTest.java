@@ -0,0 +1,85 @@
+package by.mosquitto.sql;
+
+import by.mosquitto.sql.ReplicaRouter.Replica;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReplicaRouterTest {
+
+    private final DataSource primary = mock(DataSource.class);
+    private final DataSource first = mock(DataSource.class);
+    private final DataSource second = mock(DataSource.class);
+    private final Connection primaryConnection = mock(Connection.class);
+    private final Connection firstConnection = mock(Connection.class);
+    private final Connection secondConnection = mock(Connection.class);
+
+    @AfterEach
+    void cleanup() {
+        ReadYourWrites.clear();
+    }
+
+    @Test
+    void readOnlyConnection_shouldRoundRobinReplicas() throws Exception {
+        when(first.getConnection()).thenReturn(firstConnection);
+        when(second.getConnection()).thenReturn(secondConnection);
+        ReplicaRouter router = router();
+
+        assertSame(firstConnection, router.readOnlyConnection());
+        assertSame(secondConnection, router.readOnlyConnection());
+        assertSame(firstConnection, router.readOnlyConnection());
+        assertEquals(3, router.getReplicaConnections());
+    }
+
+    @Test
+    void readOnlyConnection_failedReplica_shouldBeSkippedUntilHealthy() throws Exception {
+        when(first.getConnection()).thenThrow(new SQLException("down")).thenReturn(firstConnection);
+        when(second.getConnection()).thenReturn(secondConnection);
+        when(firstConnection.isValid(1)).thenReturn(true);
+        ReplicaRouter router = router();
+
+        assertSame(secondConnection, router.readOnlyConnection());
+        assertFalse(router.getReplicas().get(0).isHealthy());
+        assertSame(secondConnection, router.readOnlyConnection());
+        assertSame(secondConnection, router.readOnlyConnection());
+
+        router.checkHealth();
+
+        assertTrue(router.getReplicas().get(0).isHealthy());
+    }
+
+    @Test
+    void readOnlyConnection_allReplicasDown_shouldFallBackToPrimary() throws Exception {
+        when(first.getConnection()).thenThrow(new SQLException("down"));
+        when(second.getConnection()).thenThrow(new SQLException("down"));
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        ReplicaRouter router = router();
+
+        assertSame(primaryConnection, router.readOnlyConnection());
+        assertSame(primaryConnection, router.readOnlyConnection());
+        assertEquals(2, router.getPrimaryFallbacks());
+    }
+
+    @Test
+    void readOnlyConnection_afterWrite_shouldUsePrimary() throws Exception {
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        ReplicaRouter router = router();
+        ReadYourWrites.requirePrimary();
+
+        assertSame(primaryConnection, router.readOnlyConnection());
+        assertEquals(1, router.getPrimaryForced());
+        assertEquals(0, router.getReplicaConnections());
+    }
+
+    private ReplicaRouter router() {
+        return new ReplicaRouter(primary, List.of(new Replica("replica-1", first), new Replica("replica-2", second)), 1);
+    }
+}
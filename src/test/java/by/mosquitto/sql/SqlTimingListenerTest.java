@@ -0,0 +1,56 @@
+package by.mosquitto.sql;
+
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SqlTimingListenerTest {
+
+    @Test
+    void parameterShapes_shouldDescribeTypesWithoutValues() throws Exception {
+        QueryInfo query = mock(QueryInfo.class);
+        when(query.getParametersList()).thenReturn(List.of(List.of(
+                set("setLong", 1, 42L),
+                set("setString", 2, "секрет"),
+                set("setTimestamp", 3, new Timestamp(0)),
+                new ParameterSetOperation(PreparedStatement.class.getMethod("setNull", int.class, int.class),
+                        new Object[]{4, Types.BIGINT}))));
+
+        assertEquals("[Long, String(6), Timestamp, null]", SqlTimingListener.parameterShapes(query));
+    }
+
+    @Test
+    void parameterShapes_batch_shouldAppendSetCount() throws Exception {
+        QueryInfo query = mock(QueryInfo.class);
+        when(query.getParametersList()).thenReturn(List.of(
+                List.of(set("setLong", 1, 1L)),
+                List.of(set("setLong", 1, 2L)),
+                List.of(set("setLong", 1, 3L))));
+
+        assertEquals("[Long] x3", SqlTimingListener.parameterShapes(query));
+    }
+
+    @Test
+    void parameterShapes_withoutParameters_shouldBeEmpty() {
+        QueryInfo query = mock(QueryInfo.class);
+        when(query.getParametersList()).thenReturn(List.of());
+
+        assertEquals("[]", SqlTimingListener.parameterShapes(query));
+    }
+
+    private static ParameterSetOperation set(String name, int index, Object value) throws Exception {
+        Class<?> type = value instanceof Long ? long.class : value.getClass();
+        Method method = PreparedStatement.class.getMethod(name, int.class, type);
+        return new ParameterSetOperation(method, new Object[]{index, value});
+    }
+}
@@ -0,0 +1,113 @@
+package by.mosquitto.stream;
+
+import by.mosquitto.dto.ChangeDto;
+import by.mosquitto.dto.CommentDto;
+import by.mosquitto.event.ChangeEntityType;
+import by.mosquitto.event.ChangeType;
+import by.mosquitto.exception.ChangeTokenExpiredException;
+import by.mosquitto.service.contract.ChangeFeedService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CommentStreamHubTest {
+
+    @Mock
+    private ChangeFeedService changeFeedService;
+
+    @InjectMocks
+    private CommentStreamHub hub;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(hub, "timeoutMillis", 60_000L);
+        ReflectionTestUtils.setField(hub, "bufferSize", 64);
+        ReflectionTestUtils.setField(hub, "replaySize", 100);
+        ReflectionTestUtils.setField(hub, "pollBatchSize", 500);
+    }
+
+    @AfterEach
+    void tearDown() {
+        hub.shutdown();
+    }
+
+    @Test
+    void poll_shouldOnlyMoveWatermarkWithoutSubscribers() {
+        when(changeFeedService.getLastToken()).thenReturn(10L, 20L);
+
+        hub.poll();
+        hub.poll();
+
+        verify(changeFeedService, never()).getCommentChanges(anyLong(), any(), anyInt());
+    }
+
+    @Test
+    void poll_shouldReadCommentChangesAfterWatermark() {
+        when(changeFeedService.getLastToken()).thenReturn(10L, 12L, 12L);
+        when(changeFeedService.getCommentChanges(10L, null, 500))
+                .thenReturn(List.of(change(11L, 1L), change(12L, 2L)));
+        hub.poll();
+        hub.subscribe(1L, null);
+
+        hub.poll();
+        hub.poll();
+
+        verify(changeFeedService, times(1)).getCommentChanges(anyLong(), isNull(), anyInt());
+        assertEquals(1, hub.subscriberCount());
+    }
+
+    @Test
+    void subscribe_shouldReplayFromRingWhenItCoversLastEventId() {
+        when(changeFeedService.getLastToken()).thenReturn(10L, 12L, 13L);
+        when(changeFeedService.getCommentChanges(10L, null, 500)).thenReturn(List.of(change(11L, 1L), change(12L, 2L)));
+        when(changeFeedService.getCommentChanges(12L, null, 500)).thenReturn(List.of(change(13L, 1L)));
+        hub.poll();
+        hub.subscribe(1L, null);
+        hub.poll();
+        hub.poll();
+
+        hub.subscribe(1L, 12L);
+
+        verify(changeFeedService, never()).getCommentChanges(anyLong(), eq(1L), anyInt());
+    }
+
+    @Test
+    void subscribe_shouldReplayFromChangeLogWhenRingDoesNotCoverLastEventId() {
+        when(changeFeedService.getCommentChanges(5L, 1L, 64)).thenReturn(List.of(change(7L, 1L)));
+
+        hub.subscribe(1L, 5L);
+
+        verify(changeFeedService).getCommentChanges(5L, 1L, 64);
+    }
+
+    @Test
+    void subscribe_shouldResetWhenLastEventIdWasPurged() {
+        when(changeFeedService.getCommentChanges(1L, 1L, 64)).thenThrow(new ChangeTokenExpiredException(1L));
+
+        assertDoesNotThrow(() -> hub.subscribe(1L, 1L));
+        assertEquals(1, hub.subscriberCount());
+    }
+
+    private static ChangeDto change(Long token, Long newsId) {
+        return ChangeDto.builder()
+                .token(token)
+                .entityType(ChangeEntityType.COMMENT)
+                .entityId(token * 10)
+                .newsId(newsId)
+                .operation(ChangeType.CREATED)
+                .comment(CommentDto.builder().id(token * 10).newsId(newsId).text("Comment").build())
+                .build();
+    }
+}
@@ -0,0 +1,96 @@
+package by.mosquitto.suggest;
+
+import by.mosquitto.dto.NewsDto;
+import by.mosquitto.event.CommentChangedEvent;
+import by.mosquitto.event.NewsChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.ResultSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class NewsTitleSuggesterTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final NewsTitleSuggester suggester = new NewsTitleSuggester(jdbcTemplate);
+
+    @BeforeEach
+    void setup() throws Exception {
+        ReflectionTestUtils.setField(suggester, "topK", 3);
+        ReflectionTestUtils.setField(suggester, "maxEntries", 3);
+        ReflectionTestUtils.setField(suggester, "leafSize", 1);
+        ReflectionTestUtils.setField(suggester, "maxDepth", 32);
+
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getLong(1)).thenReturn(1L, 2L, 3L, 4L);
+        when(rs.getString(2)).thenReturn("Погода в Минске", "Погоня за рекордом", "Полёт на Марс", "Пожар");
+        when(rs.getLong(3)).thenReturn(10L, 20L, 5L, 1L);
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (int i = 0; i < 4; i++) {
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+        suggester.load();
+    }
+
+    @Test
+    void load_shouldKeepMostPopularTitlesWithinMaxEntries() {
+        assertEquals(List.of(2L, 1L, 3L), ids(suggester.suggest("по", 10)));
+        assertEquals(3, suggester.getSize());
+    }
+
+    @Test
+    void newsChanges_shouldApplyBeforeAndAfterCompaction() {
+        suggester.onNewsChanged(NewsChangedEvent.created(news(5L, "Погодные аномалии")));
+        suggester.onNewsChanged(NewsChangedEvent.updated(news(2L, "Рекордная погоня")));
+        suggester.onNewsChanged(NewsChangedEvent.deleted(3L));
+
+        assertEquals(List.of(1L, 5L), ids(suggester.suggest("пог", 10)));
+        assertEquals(List.of(2L), ids(suggester.suggest("рек", 10)));
+        assertEquals(List.of(), ids(suggester.suggest("пол", 10)));
+
+        suggester.compact();
+
+        assertEquals(0, suggester.getPendingChanges());
+        assertEquals(List.of(1L, 5L), ids(suggester.suggest("пог", 10)));
+        assertEquals(List.of(2L), ids(suggester.suggest("рек", 10)));
+        assertEquals(List.of(), ids(suggester.suggest("пол", 10)));
+    }
+
+    @Test
+    void commentChanges_shouldReorderAfterCompaction() {
+        for (int i = 0; i < 11; i++) {
+            suggester.onCommentChanged(CommentChangedEvent.deleted((long) i, 2L));
+        }
+        assertEquals(List.of(2L, 1L), ids(suggester.suggest("пого", 10)));
+
+        suggester.compact();
+
+        assertEquals(List.of(1L, 2L), ids(suggester.suggest("пого", 10)));
+    }
+
+    @Test
+    void suggest_shouldCapLimitAndIgnoreBlankPrefix() {
+        assertEquals(1, suggester.suggest("п", 1).size());
+        assertEquals(3, suggester.suggest("п", 50).size());
+        assertEquals(List.of(), suggester.suggest("  ", 10));
+    }
+
+    private static NewsDto news(Long id, String title) {
+        return NewsDto.builder().id(id).title(title).build();
+    }
+
+    private static List<Long> ids(List<TitleTrie.Entry> entries) {
+        return entries.stream().map(TitleTrie.Entry::id).toList();
+    }
+}
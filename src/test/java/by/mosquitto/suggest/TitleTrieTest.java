@@ -0,0 +1,84 @@
+package by.mosquitto.suggest;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TitleTrieTest {
+
+    private static final String[] WORDS = {"рынок", "Рост", "погода", "Погоня", "минск", "мир", "матч", "ёлка", "елки", "open", "source"};
+
+    @Test
+    void suggest_shouldIgnoreCaseYoAndRepeatedSpaces() {
+        TitleTrie trie = TitleTrie.build(List.of(
+                new TitleTrie.Entry(1, "Ёлка  в Минске", 5),
+                new TitleTrie.Entry(2, "Погода в Минске", 7),
+                new TitleTrie.Entry(3, "погоня за рекордом", 9)), 10, 1, 32);
+
+        assertEquals(List.of(1L), ids(trie.suggest(TitleTrie.fold("елка В"), 10, id -> false)));
+        assertEquals(List.of(3L, 2L), ids(trie.suggest(TitleTrie.fold(" ПОГО"), 10, id -> false)));
+        assertEquals(List.of(), ids(trie.suggest(TitleTrie.fold("погодка"), 10, id -> false)));
+    }
+
+    @Test
+    void suggest_shouldCollapseDuplicateTitlesToMostPopular() {
+        TitleTrie trie = TitleTrie.build(List.of(
+                new TitleTrie.Entry(1, "Погода", 1),
+                new TitleTrie.Entry(2, "погода", 4)), 10, 1, 32);
+
+        assertEquals(List.of(2L), ids(trie.suggest("по", 10, id -> false)));
+        assertEquals(1, trie.size());
+    }
+
+    @Test
+    void suggest_shouldSkipExcludedIds() {
+        TitleTrie trie = TitleTrie.build(List.of(
+                new TitleTrie.Entry(1, "матч года", 3),
+                new TitleTrie.Entry(2, "матч века", 2),
+                new TitleTrie.Entry(3, "мир", 1)), 10, 1, 32);
+
+        assertEquals(List.of(2L, 3L), ids(trie.suggest("м", 10, id -> id == 1)));
+        assertEquals(2, trie.weightOf(2));
+        assertEquals(-1, trie.weightOf(4));
+    }
+
+    @Test
+    void suggest_shouldMatchBruteForceTopK() {
+        Random random = new Random(42);
+        List<TitleTrie.Entry> entries = new ArrayList<>();
+        for (long id = 1; id <= 2_000; id++) {
+            String title = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " " + id % 50;
+            entries.add(new TitleTrie.Entry(id, title, random.nextInt(100)));
+        }
+        TitleTrie trie = TitleTrie.build(entries, 5, 8, 12);
+
+        Map<String, TitleTrie.Entry> unique = new HashMap<>();
+        Comparator<TitleTrie.Entry> popular = Comparator.comparingLong(TitleTrie.Entry::weight).reversed()
+                .thenComparing(Comparator.comparingLong(TitleTrie.Entry::id).reversed());
+        for (TitleTrie.Entry entry : entries) {
+            unique.merge(TitleTrie.fold(entry.title()), entry, (a, b) -> popular.compare(a, b) <= 0 ? a : b);
+        }
+        for (String prefix : List.of("р", "ро", "рынок м", "погон", "елки source 1", "open open 4", "мир матч 17", "x")) {
+            List<Long> expected = unique.entrySet().stream()
+                    .filter(e -> e.getKey().startsWith(prefix))
+                    .map(Map.Entry::getValue)
+                    .sorted(popular)
+                    .limit(5)
+                    .map(TitleTrie.Entry::id)
+                    .toList();
+            assertEquals(expected, ids(trie.suggest(prefix, 5, id -> false)), "prefix '" + prefix + "'");
+        }
+        assertTrue(trie.nodeCount() < trie.size(), "nodes " + trie.nodeCount() + " for " + trie.size() + " titles");
+    }
+
+    private static List<Long> ids(List<TitleTrie.Entry> entries) {
+        return entries.stream().map(TitleTrie.Entry::id).toList();
+    }
+}
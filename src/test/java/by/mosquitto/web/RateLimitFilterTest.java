@@ -0,0 +1,90 @@
+package by.mosquitto.web;
+
+import by.mosquitto.limit.RateLimiter;
+import by.mosquitto.limit.RateLimiters;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitFilterTest {
+
+    private final AtomicInteger controllerCalls = new AtomicInteger();
+    private final FilterChain chain = (request, response) -> controllerCalls.incrementAndGet();
+    private final RateLimitFilter filter = new RateLimitFilter(new RateLimiters(List.of(
+            new RateLimiter("search", new RateLimiter.Settings(List.of("/api/news/search"), null, 2, 1), 100))),
+            new ObjectMapper().registerModule(new JavaTimeModule()));
+
+    @AfterEach
+    void cleanup() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void limitedGroup_shouldReturn429WithRateLimitHeaders() throws Exception {
+        MockHttpServletResponse first = perform(search("10.0.0.1"));
+        perform(search("10.0.0.1"));
+        MockHttpServletResponse rejected = perform(search("10.0.0.1"));
+
+        assertEquals(200, first.getStatus());
+        assertEquals("2", first.getHeader(RateLimitFilter.LIMIT_HEADER));
+        assertEquals("1", first.getHeader(RateLimitFilter.REMAINING_HEADER));
+        assertEquals("2;w=2", first.getHeader(RateLimitFilter.POLICY_HEADER));
+        assertEquals(429, rejected.getStatus());
+        assertEquals("0", rejected.getHeader(RateLimitFilter.REMAINING_HEADER));
+        assertEquals("1", rejected.getHeader(HttpHeaders.RETRY_AFTER));
+        assertTrue(rejected.getContentAsString().contains("\"status\":429"));
+        assertEquals(2, controllerCalls.get());
+    }
+
+    @Test
+    void otherClient_shouldHaveOwnBucket() throws Exception {
+        perform(search("10.0.0.1"));
+        perform(search("10.0.0.1"));
+
+        assertEquals(200, perform(search("10.0.0.2")).getStatus());
+    }
+
+    @Test
+    void authenticatedUser_shouldBeLimitedByNameRegardlessOfAddress() throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(
+                UsernamePasswordAuthenticationToken.authenticated("admin", null, List.of()));
+        perform(search("10.0.0.1"));
+        perform(search("10.0.0.2"));
+
+        assertEquals(429, perform(search("10.0.0.3")).getStatus());
+    }
+
+    @Test
+    void unlimitedGroup_shouldPassWithoutHeaders() throws Exception {
+        MockHttpServletResponse response = perform(new MockHttpServletRequest("GET", "/api/news/1"));
+
+        assertEquals(200, response.getStatus());
+        assertNull(response.getHeader(RateLimitFilter.LIMIT_HEADER));
+        assertEquals(1, controllerCalls.get());
+    }
+
+    private static MockHttpServletRequest search(String address) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/news/search");
+        request.setParameter("query", "рынок");
+        request.setRemoteAddr(address);
+        return request;
+    }
+
+    private MockHttpServletResponse perform(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+}
@@ -0,0 +1,185 @@
+package by.mosquitto.web;
+
+import by.mosquitto.cache.ResponseByteCache;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseCacheFilterTest {
+
+    private static final String BODY = "{\"id\":1,\"title\":\"" + "x".repeat(500) + "\"}";
+
+    private ResponseByteCache cache;
+    private ResponseCacheFilter filter;
+    private AtomicInteger controllerCalls;
+    private FilterChain chain;
+
+    @BeforeEach
+    void setup() {
+        cache = new ResponseByteCache();
+        ReflectionTestUtils.setField(cache, "maxBytes", 1_000_000L);
+        ReflectionTestUtils.setField(cache, "ttlMillis", 60_000L);
+        cache.init();
+        filter = new ResponseCacheFilter(cache);
+        ReflectionTestUtils.setField(filter, "enabled", true);
+        ReflectionTestUtils.setField(filter, "maxPage", 2);
+        ReflectionTestUtils.setField(filter, "maxPageSize", 50);
+
+        controllerCalls = new AtomicInteger();
+        chain = (request, response) -> {
+            controllerCalls.incrementAndGet();
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getOutputStream().write(BODY.getBytes(StandardCharsets.UTF_8));
+        };
+    }
+
+    @Test
+    void secondRequest_shouldBeServedFromCacheWithGzipAndEtag() throws Exception {
+        MockHttpServletResponse miss = perform(get("/api/news/1"));
+        MockHttpServletRequest gzipRequest = get("/api/news/1");
+        gzipRequest.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate");
+        MockHttpServletResponse hit = perform(gzipRequest);
+
+        assertEquals(1, controllerCalls.get());
+        assertEquals(BODY, miss.getContentAsString());
+        assertNotNull(miss.getHeader(HttpHeaders.ETAG));
+        assertEquals(miss.getHeader(HttpHeaders.ETAG), hit.getHeader(HttpHeaders.ETAG));
+        assertEquals("gzip", hit.getHeader(HttpHeaders.CONTENT_ENCODING));
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(hit.getContentAsByteArray()))) {
+            assertEquals(BODY, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void matchingIfNoneMatch_shouldReturnNotModified() throws Exception {
+        String etag = perform(get("/api/news/1")).getHeader(HttpHeaders.ETAG);
+        MockHttpServletRequest conditional = get("/api/news/1");
+        conditional.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+
+        MockHttpServletResponse response = perform(conditional);
+
+        assertEquals(HttpServletResponse.SC_NOT_MODIFIED, response.getStatus());
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    void ifNoneMatchListAndWildcard_shouldReturnNotModified() throws Exception {
+        String etag = perform(get("/api/news/1")).getHeader(HttpHeaders.ETAG);
+        MockHttpServletRequest list = get("/api/news/1");
+        list.addHeader(HttpHeaders.IF_NONE_MATCH, "\"other\", W/" + etag);
+        MockHttpServletRequest any = get("/api/news/1");
+        any.addHeader(HttpHeaders.IF_NONE_MATCH, "*");
+        MockHttpServletRequest stale = get("/api/news/1");
+        stale.addHeader(HttpHeaders.IF_NONE_MATCH, "\"other\"");
+
+        assertEquals(HttpServletResponse.SC_NOT_MODIFIED, perform(list).getStatus());
+        assertEquals(HttpServletResponse.SC_NOT_MODIFIED, perform(any).getStatus());
+        assertEquals(HttpServletResponse.SC_OK, perform(stale).getStatus());
+    }
+
+    @Test
+    void acceptsGzip_shouldHonourQValuesAndWildcard() {
+        assertTrue(ResponseCacheFilter.acceptsGzip("gzip, deflate"));
+        assertTrue(ResponseCacheFilter.acceptsGzip("br;q=1.0, GZIP;q=0.5"));
+        assertTrue(ResponseCacheFilter.acceptsGzip("*"));
+        assertFalse(ResponseCacheFilter.acceptsGzip(null));
+        assertFalse(ResponseCacheFilter.acceptsGzip("gzip; q=0"));
+        assertFalse(ResponseCacheFilter.acceptsGzip("gzip;q=0.0"));
+        assertFalse(ResponseCacheFilter.acceptsGzip("*, gzip;q=0"));
+        assertFalse(ResponseCacheFilter.acceptsGzip("x-gzip, deflate"));
+        assertFalse(ResponseCacheFilter.acceptsGzip("identity"));
+    }
+
+    @Test
+    void rejectedGzip_shouldBeServedUncompressed() throws Exception {
+        perform(get("/api/news/1"));
+        MockHttpServletRequest request = get("/api/news/1");
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip; q=0, identity");
+
+        MockHttpServletResponse hit = perform(request);
+
+        assertEquals(1, controllerCalls.get());
+        assertNull(hit.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(BODY, hit.getContentAsString());
+    }
+
+    @Test
+    void invalidate_shouldDropNewsAndFeedPagesOnly() throws Exception {
+        perform(get("/api/news/1"));
+        perform(get("/api/news/2"));
+        perform(get("/api/news/paged"));
+
+        cache.invalidate(1L);
+        perform(get("/api/news/1"));
+        perform(get("/api/news/2"));
+        perform(get("/api/news/paged"));
+
+        assertEquals(5, controllerCalls.get());
+    }
+
+    @Test
+    void deepPagesCommentPreviewsAndOtherPaths_shouldNotBeCached() throws Exception {
+        MockHttpServletRequest deepPage = get("/api/news/paged");
+        deepPage.setParameter("page", "3");
+        deepPage.setQueryString("page=3");
+        MockHttpServletRequest withComments = get("/api/news/paged");
+        withComments.setParameter("previewComments", "3");
+        withComments.setQueryString("previewComments=3");
+
+        perform(deepPage);
+        perform(deepPage);
+        perform(withComments);
+        perform(withComments);
+        perform(get("/api/news/search"));
+        perform(get("/api/news/search"));
+
+        assertEquals(6, controllerCalls.get());
+    }
+
+    @Test
+    void largePagesAndForeignParameters_shouldNotBeCached() throws Exception {
+        MockHttpServletRequest largePage = get("/api/news/paged");
+        largePage.setParameter("size", "1000000");
+        largePage.setQueryString("size=1000000");
+        MockHttpServletRequest foreign = get("/api/news/paged");
+        foreign.setParameter("size", "10");
+        foreign.setParameter("x", "1");
+        foreign.setQueryString("size=10&x=1");
+        MockHttpServletRequest byIdWithQuery = get("/api/news/1");
+        byIdWithQuery.setParameter("x", "1");
+        byIdWithQuery.setQueryString("x=1");
+
+        perform(largePage);
+        perform(largePage);
+        perform(foreign);
+        perform(foreign);
+        perform(byIdWithQuery);
+        perform(byIdWithQuery);
+
+        assertEquals(6, controllerCalls.get());
+        assertEquals(0, cache.getBytes());
+    }
+
+    private MockHttpServletResponse perform(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private static MockHttpServletRequest get(String uri) {
+        return new MockHttpServletRequest("GET", uri);
+    }
+}
@@ -0,0 +1,89 @@
+package by.mosquitto.web;
+
+import by.mosquitto.timing.RequestTimings;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimingJsonConverterTest {
+
+    private final TimingJsonConverter converter = new TimingJsonConverter(new ObjectMapper());
+
+    @AfterEach
+    void cleanup() {
+        RequestTimings.stop();
+    }
+
+    @Test
+    void write_shouldSendServerTimingWithSerializationBeforeBody() throws Exception {
+        ReflectionTestUtils.setField(converter, "bufferLimit", 1024);
+        RequestTimings.start("GET /api/news/1");
+        RecordingMessage message = new RecordingMessage();
+
+        converter.write(Map.of("title", "Новость"), MediaType.APPLICATION_JSON, message);
+
+        assertNotNull(message.headerAtFirstWrite);
+        assertTrue(message.headerAtFirstWrite.contains("ser;dur="), message.headerAtFirstWrite);
+        assertTrue(message.headerAtFirstWrite.contains("total;dur="), message.headerAtFirstWrite);
+        assertEquals("{\"title\":\"Новость\"}", message.body.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void write_largeBody_shouldSpillWithoutSerializationPhase() throws Exception {
+        ReflectionTestUtils.setField(converter, "bufferLimit", 16);
+        RequestTimings.start("GET /api/news");
+        RecordingMessage message = new RecordingMessage();
+        String text = "x".repeat(100);
+
+        converter.write(Map.of("text", text), MediaType.APPLICATION_JSON, message);
+
+        assertNotNull(message.headerAtFirstWrite);
+        assertFalse(message.headerAtFirstWrite.contains("ser;dur="), message.headerAtFirstWrite);
+        assertEquals("{\"text\":\"" + text + "\"}", message.body.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void write_withoutTimings_shouldNotAddHeader() throws Exception {
+        RecordingMessage message = new RecordingMessage();
+
+        converter.write(Map.of("id", 1), MediaType.APPLICATION_JSON, message);
+
+        assertNull(message.getHeaders().getFirst(ServerTimingFilter.HEADER));
+        assertEquals("{\"id\":1}", message.body.toString(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Сообщение, запоминающее значение {@code Server-Timing} на момент первой записи тела —
+     * в сервлетном ответе заголовки после этого уже не отправить.
+     */
+    private static class RecordingMessage implements HttpOutputMessage {
+
+        private final HttpHeaders headers = new HttpHeaders();
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        private String headerAtFirstWrite;
+
+        @Override
+        public OutputStream getBody() {
+            if (headerAtFirstWrite == null) {
+                headerAtFirstWrite = headers.getFirst(ServerTimingFilter.HEADER);
+            }
+            return body;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+}